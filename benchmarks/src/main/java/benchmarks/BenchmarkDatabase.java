@@ -0,0 +1,209 @@
+package benchmarks;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import persistence.DBDataManager;
+import quizLogic.Answer;
+import quizLogic.Question;
+import quizLogic.QuizStatistic;
+import quizLogic.Theme;
+
+/**
+ * {@code BenchmarkDatabase} creates an in-memory H2 database in MySQL mode and
+ * seeds it with synthetic themes, questions, answers and quiz attempts.
+ *
+ * <p>
+ * The schema is created by the regular migrations of {@link DBDataManager}, and
+ * the data is written through the regular DAOs, so the benchmarks exercise the
+ * same SQL as the application. Every database gets a unique name, so trials
+ * running in the same JVM do not share data.
+ * </p>
+ *
+ * <p>
+ * The data is generated from a fixed seed, so every run sees the same
+ * distribution:
+ * </p>
+ * <ul>
+ * <li>every question has {@value #ANSWERS_PER_QUESTION} answers, the first one
+ * correct;</li>
+ * <li>attempts are spread uniformly over the last {@value #ATTEMPT_DAYS} days
+ * and over all questions, about 60% of them correct.</li>
+ * </ul>
+ *
+ * @author Oleg Kapirulya
+ */
+public final class BenchmarkDatabase {
+
+	/** Number of answers per generated question. */
+	public static final int ANSWERS_PER_QUESTION = 4;
+
+	/** Number of days the generated attempts are spread over. */
+	public static final int ATTEMPT_DAYS = 365;
+
+	/** Number of attempts written per batch while seeding. */
+	private static final int SEED_BATCH_SIZE = 5_000;
+
+	/** Seed of the data generator. */
+	private static final long SEED = 42;
+
+	/** Milliseconds per day. */
+	private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+	/** The data manager of the database. */
+	private final DBDataManager dataManager;
+
+	/** The generated themes, with IDs. */
+	private final List<Theme> themes = new ArrayList<>();
+
+	/** IDs of the generated questions. */
+	private int[] questionIds = new int[0];
+
+	/** Generator of the synthetic data. */
+	private final SplittableRandom random = new SplittableRandom(SEED);
+
+	/** Time the generated attempts end at. */
+	private final long now = System.currentTimeMillis();
+
+	/**
+	 * Creates an empty database with the current schema.
+	 *
+	 * @throws SQLException if the database cannot be created
+	 */
+	public BenchmarkDatabase() throws SQLException {
+		String url = "jdbc:h2:mem:quiz-" + UUID.randomUUID()
+				+ ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+		dataManager = new DBDataManager(url, "sa", "");
+	}
+
+	/**
+	 * Generates themes with questions and answers, saved through
+	 * {@link DBDataManager#saveTheme(Theme)} and
+	 * {@link DBDataManager#saveQuestion(Question)}.
+	 *
+	 * @param themeCount        number of themes
+	 * @param questionsPerTheme number of questions per theme
+	 * @return this database
+	 */
+	public BenchmarkDatabase seedQuestions(int themeCount, int questionsPerTheme) {
+		int[] ids = new int[themeCount * questionsPerTheme];
+		int count = 0;
+		for (int t = 0; t < themeCount; t++) {
+			Theme theme = new Theme();
+			theme.setTitle("Thema " + (themes.size() + 1));
+			theme.setText("Beschreibung von Thema " + (themes.size() + 1));
+			check(dataManager.saveTheme(theme));
+			themes.add(theme);
+
+			for (int q = 0; q < questionsPerTheme; q++) {
+				Question question = newQuestion(theme, "Frage " + (q + 1));
+				check(dataManager.saveQuestion(question));
+				ids[count++] = question.getId();
+			}
+		}
+		int[] all = new int[questionIds.length + count];
+		System.arraycopy(questionIds, 0, all, 0, questionIds.length);
+		System.arraycopy(ids, 0, all, questionIds.length, count);
+		questionIds = all;
+		return this;
+	}
+
+	/**
+	 * Generates attempts of the seeded questions, written in batches with
+	 * {@link persistence.DAO.StatisticDAO#insertBatch(List)}.
+	 *
+	 * @param attemptCount number of attempts
+	 * @return this database
+	 */
+	public BenchmarkDatabase seedAttempts(int attemptCount) {
+		List<QuizStatistic> batch = new ArrayList<>(SEED_BATCH_SIZE);
+		for (int i = 0; i < attemptCount; i++) {
+			batch.add(newAttempt());
+			if (batch.size() == SEED_BATCH_SIZE || i == attemptCount - 1) {
+				if (!dataManager.getStatisticDAO().insertBatch(batch))
+					throw new IllegalStateException("Seeding attempts failed.");
+				batch.clear();
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Creates a new, unsaved question with generated text and answers. New answers
+	 * get negative IDs, like the ones created by the question editor.
+	 *
+	 * @param theme the theme of the question
+	 * @param title the title, unique within the theme
+	 * @return the question
+	 */
+	public Question newQuestion(Theme theme, String title) {
+		Question question = new Question(theme);
+		question.setTitle(title);
+		question.setText(title + ": Welche Aussage über " + theme.getTitle() + " trifft zu? (Variante "
+				+ random.nextInt(1_000_000) + ")");
+		for (int a = 0; a < ANSWERS_PER_QUESTION; a++) {
+			Answer answer = new Answer(question);
+			answer.setId(-(a + 1));
+			answer.setText("Antwort " + (a + 1) + " zu " + title);
+			answer.setCorrect(a == 0);
+			question.addAnswer(answer);
+		}
+		return question;
+	}
+
+	/**
+	 * Creates a new, unsaved attempt of a random seeded question at a random time
+	 * within the last {@value #ATTEMPT_DAYS} days.
+	 *
+	 * @return the attempt
+	 */
+	public QuizStatistic newAttempt() {
+		int questionId = questionIds[random.nextInt(questionIds.length)];
+		long date = now - random.nextLong(ATTEMPT_DAYS * DAY_MILLIS);
+		return new QuizStatistic(questionId, random.nextInt(10) < 6, new Date(date));
+	}
+
+	/** @return the data manager of the database */
+	public DBDataManager getDataManager() {
+		return dataManager;
+	}
+
+	/** @return the seeded themes */
+	public List<Theme> getThemes() {
+		return themes;
+	}
+
+	/** @return the IDs of the seeded questions */
+	public int[] getQuestionIds() {
+		return questionIds;
+	}
+
+	/**
+	 * Drops the database and closes the data manager.
+	 */
+	public void close() {
+		try (Connection conn = dataManager.getConnectionPool().getConnection();
+				Statement st = conn.createStatement()) {
+			st.execute("DROP ALL OBJECTS");
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+		dataManager.close();
+	}
+
+	/**
+	 * Fails seeding on an error message of the data manager.
+	 *
+	 * @param error the error message, or {@code null} on success
+	 */
+	private static void check(String error) {
+		if (error != null)
+			throw new IllegalStateException("Seeding failed: " + error);
+	}
+}
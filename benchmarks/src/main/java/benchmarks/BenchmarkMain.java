@@ -0,0 +1,38 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * {@code BenchmarkMain} is the entry point of the benchmark jar. It accepts the
+ * usual JMH command line (e.g. a benchmark name pattern, {@code -p} or
+ * {@code -rf json}; see {@code org.openjdk.jmh.Main -h}) and always adds the GC
+ * profiler, so every result contains the allocation per operation
+ * ({@code gc.alloc.rate.norm}) next to the throughput and the latency
+ * percentiles.
+ *
+ * @author Oleg Kapirulya
+ */
+public final class BenchmarkMain {
+
+	private BenchmarkMain() {
+	}
+
+	/**
+	 * Runs the benchmarks.
+	 *
+	 * @param args JMH command line options
+	 * @throws CommandLineOptionException if the options are invalid
+	 * @throws RunnerException            if a benchmark fails
+	 */
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+		Options options = new OptionsBuilder().parent(new CommandLineOptions(args)).addProfiler(GCProfiler.class)
+				.build();
+		new Runner(options).run();
+	}
+}
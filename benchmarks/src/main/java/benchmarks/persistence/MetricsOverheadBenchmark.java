@@ -0,0 +1,115 @@
+package benchmarks.persistence;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import persistence.DAO.ThemeDAO;
+import persistence.metrics.MetricsRegistry;
+import quizLogic.Theme;
+import quizLogic.ThemeSummary;
+
+/**
+ * {@code MetricsOverheadBenchmark} measures what {@link MetricsRegistry}
+ * instrumentation adds to a DAO call: the same trivial in-memory
+ * {@link ThemeDAO} is called directly and through
+ * {@link MetricsRegistry#instrument(Class, Object, String)}. The difference is
+ * the overhead per call, which must stay well below a microsecond.
+ *
+ * <p>
+ * The contended variant runs on four threads that all record into the same
+ * histogram.
+ * </p>
+ *
+ * @author Oleg Kapirulya
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+	/** The DAO without metrics. */
+	private ThemeDAO plain;
+
+	/** The same DAO with metrics. */
+	private ThemeDAO instrumented;
+
+	/**
+	 * Creates the DAOs.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		plain = new InMemoryThemeDAO();
+		instrumented = new MetricsRegistry().instrument(ThemeDAO.class, plain, "ThemeDAO");
+	}
+
+	/** @return the result of the plain call */
+	@Benchmark
+	public boolean plainCall() {
+		return plain.delete(1);
+	}
+
+	/** @return the result of the instrumented call */
+	@Benchmark
+	public boolean instrumentedCall() {
+		return instrumented.delete(1);
+	}
+
+	/** @return the result of the instrumented call, on four threads */
+	@Benchmark
+	@Threads(4)
+	public boolean instrumentedCallContended() {
+		return instrumented.delete(1);
+	}
+
+	/**
+	 * A {@link ThemeDAO} doing no work, so that only the call itself is measured.
+	 */
+	private static final class InMemoryThemeDAO implements ThemeDAO {
+
+		@Override
+		public Theme findById(int id) {
+			return null;
+		}
+
+		@Override
+		public boolean insert(Theme theme) {
+			return true;
+		}
+
+		@Override
+		public boolean update(Theme theme) {
+			return true;
+		}
+
+		@Override
+		public boolean delete(int id) {
+			return true;
+		}
+
+		@Override
+		public List<Theme> findAll() {
+			return List.of();
+		}
+
+		@Override
+		public List<ThemeSummary> findAllSummaries() {
+			return List.of();
+		}
+	}
+}
@@ -0,0 +1,192 @@
+package benchmarks.persistence;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import benchmarks.BenchmarkDatabase;
+import persistence.DBDataManager;
+import quizLogic.Answer;
+import quizLogic.Question;
+import quizLogic.Theme;
+
+/**
+ * {@code QuestionBenchmark} measures loading and saving questions through
+ * {@link DBDataManager}.
+ *
+ * <p>
+ * The read paths are measured twice: served from the entity caches, and with
+ * the cache entry dropped first, so that every call goes to the database.
+ * Dropping a single entry is cheap compared to the queries it causes.
+ * </p>
+ *
+ * <p>
+ * Every benchmark reports throughput and sampled latency, including the
+ * percentiles; run with {@code -prof gc} (the default of
+ * {@link benchmarks.BenchmarkMain}) for the allocation per operation.
+ * </p>
+ *
+ * @author Oleg Kapirulya
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuestionBenchmark {
+
+	/** Number of seeded themes. */
+	@Param("20")
+	public int themes;
+
+	/** Number of seeded questions per theme. */
+	@Param("500")
+	public int questionsPerTheme;
+
+	/** Number of questions edited round robin by {@link #saveQuestionUpdate()}. */
+	private static final int EDITED_QUESTIONS = 1_000;
+
+	/** Index of the answer changed by {@link #saveQuestionUpdate()}. */
+	private static final int ANSWER_EDITED = BenchmarkDatabase.ANSWERS_PER_QUESTION - 1;
+
+	/** The seeded database. */
+	private BenchmarkDatabase database;
+
+	/** The data manager of the database. */
+	private DBDataManager dm;
+
+	/** Loaded copies of seeded questions, edited by {@link #saveQuestionUpdate()}. */
+	private Question[] edited;
+
+	/** Number of saves so far, to generate distinct texts and titles. */
+	private int saves;
+
+	/**
+	 * Creates and seeds the database and warms up the caches.
+	 *
+	 * @throws SQLException if the database cannot be created
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws SQLException {
+		database = new BenchmarkDatabase().seedQuestions(themes, questionsPerTheme);
+		dm = database.getDataManager();
+
+		int[] ids = database.getQuestionIds();
+		List<Question> questions = new ArrayList<>();
+		int step = Math.max(1, ids.length / EDITED_QUESTIONS);
+		for (int i = 0; i < ids.length && questions.size() < EDITED_QUESTIONS; i += step) {
+			questions.add(dm.getFullQuestionById(ids[i]));
+		}
+		edited = questions.toArray(new Question[0]);
+		for (Theme theme : database.getThemes()) {
+			dm.getQuestionsFor(theme);
+		}
+	}
+
+	/**
+	 * Drops the database.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		database.close();
+	}
+
+	/**
+	 * Questions of a theme with answers, from the cache.
+	 *
+	 * @return the questions
+	 */
+	@Benchmark
+	public List<Question> getQuestionsForCached() {
+		return dm.getQuestionsFor(randomTheme());
+	}
+
+	/**
+	 * Questions of a theme with answers, loaded from the database.
+	 *
+	 * @return the questions
+	 */
+	@Benchmark
+	public List<Question> getQuestionsForUncached() {
+		Theme theme = randomTheme();
+		dm.getThemeQuestionsCache().invalidate(theme.getId());
+		return dm.getQuestionsFor(theme);
+	}
+
+	/**
+	 * One question with theme and answers, from the cache.
+	 *
+	 * @return the question
+	 */
+	@Benchmark
+	public Question getFullQuestionByIdCached() {
+		return dm.getFullQuestionById(randomQuestionId());
+	}
+
+	/**
+	 * One question with theme and answers, loaded from the database.
+	 *
+	 * @return the question
+	 */
+	@Benchmark
+	public Question getFullQuestionByIdUncached() {
+		int id = randomQuestionId();
+		dm.getQuestionCache().invalidate(id);
+		return dm.getFullQuestionById(id);
+	}
+
+	/**
+	 * Updates an existing question: its text and one answer change, the other
+	 * answers are kept.
+	 *
+	 * @return the error message, {@code null} on success
+	 */
+	@Benchmark
+	public String saveQuestionUpdate() {
+		Question question = edited[saves % edited.length];
+		int save = ++saves;
+		question.setText("Geänderter Fragetext " + save);
+		Answer answer = question.getAnswers().get(ANSWER_EDITED);
+		answer.setText("Geänderte Antwort " + save);
+		return dm.saveQuestion(question);
+	}
+
+	/**
+	 * Inserts a new question with its answers.
+	 *
+	 * @return the error message, {@code null} on success
+	 */
+	@Benchmark
+	public String saveQuestionInsert() {
+		return dm.saveQuestion(database.newQuestion(randomTheme(), "Neue Frage " + ++saves));
+	}
+
+	/** @return a random seeded theme */
+	private Theme randomTheme() {
+		List<Theme> all = database.getThemes();
+		return all.get(ThreadLocalRandom.current().nextInt(all.size()));
+	}
+
+	/** @return the ID of a random seeded question */
+	private int randomQuestionId() {
+		int[] ids = database.getQuestionIds();
+		return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+	}
+}
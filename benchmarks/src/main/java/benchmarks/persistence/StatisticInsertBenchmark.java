@@ -0,0 +1,104 @@
+package benchmarks.persistence;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import benchmarks.BenchmarkDatabase;
+import persistence.DAO.StatisticDAO;
+import quizLogic.QuizStatistic;
+
+/**
+ * {@code StatisticInsertBenchmark} measures how fast quiz attempts are written
+ * by {@link StatisticDAO}, one per transaction and in batches as written by
+ * {@link persistence.StatisticRecorder}. Both include the update of the daily
+ * rollup.
+ *
+ * <p>
+ * The batch benchmark counts every attempt as one operation, so both report
+ * attempts per time unit and latency per attempt.
+ * </p>
+ *
+ * @author Oleg Kapirulya
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatisticInsertBenchmark {
+
+	/** Number of attempts per batch, as written by the recorder. */
+	private static final int BATCH_SIZE = 500;
+
+	/** Number of attempts seeded before measuring. */
+	@Param("100000")
+	public int attempts;
+
+	/** The seeded database. */
+	private BenchmarkDatabase database;
+
+	/** The DAO under test. */
+	private StatisticDAO statisticDAO;
+
+	/**
+	 * Creates and seeds the database.
+	 *
+	 * @throws SQLException if the database cannot be created
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws SQLException {
+		database = new BenchmarkDatabase().seedQuestions(20, 250).seedAttempts(attempts);
+		statisticDAO = database.getDataManager().getStatisticDAO();
+	}
+
+	/**
+	 * Drops the database.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		database.close();
+	}
+
+	/**
+	 * One attempt in its own transaction.
+	 *
+	 * @return whether the attempt was written
+	 */
+	@Benchmark
+	public boolean insert() {
+		return statisticDAO.insert(database.newAttempt());
+	}
+
+	/**
+	 * {@value #BATCH_SIZE} attempts in one transaction.
+	 *
+	 * @return whether the attempts were written
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public boolean insertBatch() {
+		List<QuizStatistic> batch = new ArrayList<>(BATCH_SIZE);
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			batch.add(database.newAttempt());
+		}
+		return statisticDAO.insertBatch(batch);
+	}
+}
@@ -0,0 +1,219 @@
+package benchmarks.persistence;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.WeekFields;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import benchmarks.BenchmarkDatabase;
+import persistence.DBDataManager;
+import persistence.StatisticsColumnStore;
+import persistence.DAO.StatisticDAO;
+import persistence.DAO.StatisticFilter;
+import quizLogic.QuizStatistic;
+import quizLogic.StatisticAggregate;
+
+/**
+ * {@code StatisticQueryBenchmark} measures the read paths behind the statistic
+ * views: row queries and streaming through {@link StatisticDAO}, the grouped
+ * SQL aggregations, and the same aggregations answered by the in-memory
+ * {@link StatisticsColumnStore}, which is loaded from the daily rollup.
+ *
+ * <p>
+ * The SQL aggregations are measured on both of their paths:
+ * </p>
+ * <ul>
+ * <li><i>Rollup</i>: whole days, read from the {@code statistic_daily}
+ * rollup.</li>
+ * <li><i>Raw</i>: a range that does not start at midnight, which has to group
+ * the raw attempts.</li>
+ * </ul>
+ *
+ * @author Oleg Kapirulya
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class StatisticQueryBenchmark {
+
+	/** Fetch size when streaming attempts, as used by the statistic views. */
+	private static final int FETCH_SIZE = 1_000;
+
+	/** Number of seeded attempts. */
+	@Param("200000")
+	public int attempts;
+
+	/** The seeded database. */
+	private BenchmarkDatabase database;
+
+	/** The data manager of the database. */
+	private DBDataManager dm;
+
+	/** The DAO under test. */
+	private StatisticDAO statisticDAO;
+
+	/** All attempts. */
+	private StatisticFilter all;
+
+	/** The last 30 whole days; answered from the rollup. */
+	private StatisticFilter lastMonthDays;
+
+	/** The last 30 days up to now, starting at the current time of day. */
+	private StatisticFilter lastMonthRaw;
+
+	/** The last 7 days up to now, starting at the current time of day. */
+	private StatisticFilter lastWeekRaw;
+
+	/** Weeks starting on Monday, as shown by the statistic views. */
+	private final WeekFields weekFields = WeekFields.of(Locale.GERMANY);
+
+	/**
+	 * Creates and seeds the database and loads the column store.
+	 *
+	 * @throws SQLException if the database cannot be created
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws SQLException {
+		database = new BenchmarkDatabase().seedQuestions(20, 250).seedAttempts(attempts);
+		dm = database.getDataManager();
+		statisticDAO = dm.getStatisticDAO();
+
+		long now = System.currentTimeMillis();
+		LocalDate today = LocalDate.now();
+		ZoneId zone = ZoneId.systemDefault();
+
+		all = new StatisticFilter();
+		lastMonthDays = new StatisticFilter();
+		lastMonthDays.setFrom(Date.from(today.minusDays(30).atStartOfDay(zone).toInstant()));
+		lastMonthDays.setTo(Date.from(today.plusDays(1).atStartOfDay(zone).toInstant()));
+		lastMonthRaw = new StatisticFilter();
+		lastMonthRaw.setFrom(new Date(now - TimeUnit.DAYS.toMillis(30)));
+		lastWeekRaw = new StatisticFilter();
+		lastWeekRaw.setFrom(new Date(now - TimeUnit.DAYS.toMillis(7)));
+
+		dm.getStatisticsStore().size(); // loads the store
+	}
+
+	/**
+	 * Drops the database.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		database.close();
+	}
+
+	/**
+	 * Attempts of the last week as a list.
+	 *
+	 * @return the attempts
+	 */
+	@Benchmark
+	public List<QuizStatistic> findLastWeek() {
+		return statisticDAO.find(lastWeekRaw);
+	}
+
+	/**
+	 * Attempts of one question as a list.
+	 *
+	 * @return the attempts
+	 */
+	@Benchmark
+	public List<QuizStatistic> findByQuestionId() {
+		int[] ids = database.getQuestionIds();
+		return statisticDAO.findByQuestionId(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+	}
+
+	/**
+	 * Streams all attempts without materializing them.
+	 *
+	 * @param blackhole consumes the rows
+	 * @return the number of rows
+	 */
+	@Benchmark
+	public long forEachAll(Blackhole blackhole) {
+		return statisticDAO.forEach(all, FETCH_SIZE, (id, questionId, correct, millis) -> {
+			blackhole.consume(questionId);
+			blackhole.consume(millis);
+		});
+	}
+
+	/** @return accuracy per theme of all attempts, from the rollup */
+	@Benchmark
+	public Map<Integer, StatisticAggregate> aggregateByThemeRollup() {
+		return statisticDAO.aggregateByTheme(all);
+	}
+
+	/** @return accuracy per theme of the last 30 days, from the raw attempts */
+	@Benchmark
+	public Map<Integer, StatisticAggregate> aggregateByThemeRaw() {
+		return statisticDAO.aggregateByTheme(lastMonthRaw);
+	}
+
+	/** @return accuracy per day of the last 30 days, from the rollup */
+	@Benchmark
+	public Map<LocalDate, StatisticAggregate> aggregateByDayRollup() {
+		return statisticDAO.aggregateByDay(lastMonthDays);
+	}
+
+	/** @return accuracy per day of the last 30 days, from the raw attempts */
+	@Benchmark
+	public Map<LocalDate, StatisticAggregate> aggregateByDayRaw() {
+		return statisticDAO.aggregateByDay(lastMonthRaw);
+	}
+
+	/** @return accuracy per week of all attempts */
+	@Benchmark
+	public Map<LocalDate, StatisticAggregate> aggregateByWeek() {
+		return statisticDAO.aggregateByWeek(all, weekFields);
+	}
+
+	/** @return accuracy per theme of all attempts, from the column store */
+	@Benchmark
+	public Map<Integer, StatisticAggregate> columnStoreAggregateByTheme() {
+		return dm.getStatisticsStore().aggregateByTheme(all);
+	}
+
+	/** @return accuracy per day of the last 30 days, from the column store */
+	@Benchmark
+	public Map<LocalDate, StatisticAggregate> columnStoreAggregateByDay() {
+		return dm.getStatisticsStore().aggregateByDay(lastMonthDays);
+	}
+
+	/** @return accuracy per week of all attempts, from the column store */
+	@Benchmark
+	public Map<LocalDate, StatisticAggregate> columnStoreAggregateByWeek() {
+		return dm.getStatisticsStore().aggregateByWeek(all, weekFields);
+	}
+
+	/** @return number of attempts after reloading the column store from the rollup */
+	@Benchmark
+	public long columnStoreLoad() {
+		StatisticsColumnStore store = dm.getStatisticsStore();
+		store.invalidate();
+		return store.size();
+	}
+}
@@ -0,0 +1,327 @@
+package benchmarks.statistics;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.WeekFields;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import persistence.StatisticsColumnStore;
+import persistence.DAO.StatisticFilter;
+import quizLogic.QuizStatistic;
+import quizLogic.StatisticAggregate;
+
+/**
+ * {@code StatisticAggregationBenchmark} measures the in-memory bucketing of
+ * quiz attempts by day and calendar week behind the statistic views, without
+ * a database.
+ *
+ * <p>
+ * Measured are:
+ * </p>
+ * <ul>
+ * <li>the per-row algorithms on a {@code List<QuizStatistic>}, which convert
+ * every {@link Date} with {@code toInstant().atZone(...).toLocalDate()} and
+ * group by string keys such as {@code "2025-KW12"}: the former
+ * {@code calculateWeeklyAccuracy}, {@code calculateDailyAccuracy},
+ * {@code groupStatsByWeek} and per-day tally of {@code drawChart} of the
+ * statistic panel, kept here as {@link #legacyCalculateWeeklyAccuracy(List)},
+ * {@link #legacyCalculateDailyAccuracy(List)},
+ * {@link #legacyGroupStatsByWeek(List)} and {@link #legacyDrawChartTally} for
+ * comparison;</li>
+ * <li>the same results answered by the {@link StatisticsColumnStore}, which
+ * the statistic views use today.</li>
+ * </ul>
+ *
+ * <p>
+ * The attempts are spread uniformly over one year and ordered by time, as
+ * returned by the database. Run with {@code -prof gc} (the default of
+ * {@link benchmarks.BenchmarkMain}) for the allocation rate; the 10M case needs
+ * a large heap, see {@link Fork}.
+ * </p>
+ *
+ * @author Oleg Kapirulya
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms6g", "-Xmx6g" })
+public class StatisticAggregationBenchmark {
+
+	/** Number of questions the attempts are spread over. */
+	private static final int QUESTIONS = 5_000;
+
+	/** Number of themes the questions are spread over. */
+	private static final int THEMES = 20;
+
+	/** Number of days the attempts are spread over. */
+	private static final int DAYS = 365;
+
+	/** Seed of the data generator. */
+	private static final long SEED = 42;
+
+	/** Number of generated attempts. */
+	@Param({ "10000", "1000000", "10000000" })
+	public int attempts;
+
+	/** Question IDs of the attempts, in time order. */
+	private int[] questionIds;
+
+	/** Outcomes of the attempts, in time order. */
+	private boolean[] correct;
+
+	/** Times of the attempts in milliseconds, ascending. */
+	private long[] epochMillis;
+
+	/** The attempts as loaded for the per-row algorithms. */
+	private List<QuizStatistic> stats;
+
+	/** The attempts loaded into a column store. */
+	private StatisticsColumnStore store;
+
+	/** Week definition of the views. */
+	private WeekFields weekFields;
+
+	/** Label of the week shown by the chart: the latest one. */
+	private String chartWeek;
+
+	/** The attempts grouped by week label, as held by the former chart. */
+	private Map<String, List<QuizStatistic>> weekStatsMap;
+
+	/** Filter for the days of the chart week. */
+	private StatisticFilter chartWeekFilter;
+
+	/**
+	 * Generates the attempts and loads them into the list and the column store.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		SplittableRandom random = new SplittableRandom(SEED);
+		long end = System.currentTimeMillis();
+		long span = TimeUnit.DAYS.toMillis(DAYS);
+
+		epochMillis = new long[attempts];
+		for (int i = 0; i < attempts; i++) {
+			epochMillis[i] = end - random.nextLong(span);
+		}
+		Arrays.sort(epochMillis);
+		questionIds = new int[attempts];
+		correct = new boolean[attempts];
+		stats = new ArrayList<>(attempts);
+		for (int i = 0; i < attempts; i++) {
+			questionIds[i] = 1 + random.nextInt(QUESTIONS);
+			correct[i] = random.nextInt(10) < 6;
+			stats.add(new QuizStatistic(questionIds[i], correct[i], new Date(epochMillis[i])));
+		}
+
+		store = new StatisticsColumnStore(StatisticAggregationBenchmark::questionsByTheme, handler -> {
+			for (int i = 0; i < attempts; i++) {
+				handler.accept(i + 1, questionIds[i], correct[i], epochMillis[i]);
+			}
+			return attempts;
+		});
+		store.size(); // loads the store
+
+		weekFields = WeekFields.of(Locale.getDefault());
+		weekStatsMap = legacyGroupStatsByWeek(stats);
+		LocalDate last = new Date(epochMillis[attempts - 1]).toInstant().atZone(ZoneId.systemDefault())
+				.toLocalDate();
+		chartWeek = last.getYear() + "-KW" + last.get(weekFields.weekOfYear());
+
+		LocalDate weekStart = last.with(weekFields.dayOfWeek(), 1);
+		ZoneId zone = ZoneId.systemDefault();
+		chartWeekFilter = new StatisticFilter();
+		chartWeekFilter.setFrom(Date.from(weekStart.atStartOfDay(zone).toInstant()));
+		chartWeekFilter.setTo(Date.from(weekStart.plusDays(7).atStartOfDay(zone).toInstant()));
+	}
+
+	/** @return accuracy per week label, computed per row */
+	@Benchmark
+	public Map<String, Double> calculateWeeklyAccuracy() {
+		return legacyCalculateWeeklyAccuracy(stats);
+	}
+
+	/** @return accuracy per day label, computed per row */
+	@Benchmark
+	public Map<String, Double> calculateDailyAccuracy() {
+		return legacyCalculateDailyAccuracy(stats);
+	}
+
+	/** @return the attempts grouped by week label, computed per row */
+	@Benchmark
+	public Map<String, List<QuizStatistic>> groupStatsByWeek() {
+		return legacyGroupStatsByWeek(stats);
+	}
+
+	/** @return correct and wrong attempts per day of the chart week, per row */
+	@Benchmark
+	public Map<LocalDate, int[]> drawChartTally() {
+		return legacyDrawChartTally(chartWeek);
+	}
+
+	/** @return attempts per week, from the column store */
+	@Benchmark
+	public Map<LocalDate, StatisticAggregate> columnStoreByWeek() {
+		return store.aggregateByWeek(null, weekFields);
+	}
+
+	/** @return attempts per day, from the column store */
+	@Benchmark
+	public Map<LocalDate, StatisticAggregate> columnStoreByDay() {
+		return store.aggregateByDay(null);
+	}
+
+	/** @return attempts per day of the chart week, from the column store */
+	@Benchmark
+	public Map<LocalDate, StatisticAggregate> columnStoreChartWeek() {
+		return store.aggregateByDay(chartWeekFilter);
+	}
+
+	/**
+	 * Calculates the accuracy per week label, as the statistic panel did before
+	 * the weeks were aggregated by the column store.
+	 *
+	 * @param stats the attempts
+	 * @return a map from week label (e.g. "2025-KW34") to accuracy percentage
+	 *         (0-100)
+	 */
+	private static Map<String, Double> legacyCalculateWeeklyAccuracy(List<QuizStatistic> stats) {
+		Map<String, List<QuizStatistic>> grouped = new LinkedHashMap<>();
+		WeekFields wf = WeekFields.of(Locale.getDefault());
+		for (QuizStatistic stat : stats) {
+			LocalDate date = stat.getDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+			int year = date.getYear();
+			int week = date.get(wf.weekOfYear());
+			String label = year + "-KW" + week;
+			grouped.computeIfAbsent(label, k -> new ArrayList<>()).add(stat);
+		}
+		Map<String, Double> accuracy = new LinkedHashMap<>();
+		for (var entry : grouped.entrySet()) {
+			List<QuizStatistic> list = entry.getValue();
+			long correctCount = list.stream().filter(QuizStatistic::isCorrect).count();
+			accuracy.put(entry.getKey(), list.isEmpty() ? 0.0 : (100.0 * correctCount / list.size()));
+		}
+		return accuracy;
+	}
+
+	/**
+	 * Calculates the accuracy per day label, as the statistic panel did before the
+	 * days were aggregated by the column store.
+	 *
+	 * @param stats the attempts
+	 * @return a map from date string (yyyy-MM-dd) to accuracy percentage (0-100)
+	 */
+	private static Map<String, Double> legacyCalculateDailyAccuracy(List<QuizStatistic> stats) {
+		Map<String, List<QuizStatistic>> grouped = new LinkedHashMap<>();
+		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+		for (QuizStatistic stat : stats) {
+			LocalDate date = stat.getDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+			String label = date.format(formatter);
+			grouped.computeIfAbsent(label, k -> new ArrayList<>()).add(stat);
+		}
+		Map<String, Double> accuracy = new LinkedHashMap<>();
+		for (var entry : grouped.entrySet()) {
+			List<QuizStatistic> list = entry.getValue();
+			long correctCount = list.stream().filter(QuizStatistic::isCorrect).count();
+			accuracy.put(entry.getKey(), list.isEmpty() ? 0.0 : (100.0 * correctCount / list.size()));
+		}
+		return accuracy;
+	}
+
+	/**
+	 * Groups the attempts by week label, as the statistic panel did before the
+	 * weeks were aggregated by the column store.
+	 *
+	 * @param stats the attempts
+	 * @return the attempts per week label
+	 */
+	private Map<String, List<QuizStatistic>> legacyGroupStatsByWeek(List<QuizStatistic> stats) {
+		Map<String, List<QuizStatistic>> grouped = new LinkedHashMap<>();
+		WeekFields weekFields = WeekFields.of(Locale.getDefault());
+
+		for (QuizStatistic stat : stats) {
+			LocalDate date = stat.getDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+			int year = date.getYear();
+			int week = date.get(weekFields.weekOfYear());
+			String key = year + "-KW" + week;
+			grouped.computeIfAbsent(key, k -> new ArrayList<>()).add(stat);
+		}
+		return grouped;
+	}
+
+	/**
+	 * Counts the correct and wrong attempts per day of a week, as the chart did on
+	 * every repaint before the days were aggregated by the column store.
+	 *
+	 * @param selectedWeek the week label
+	 * @return the counts {correct, wrong} per day
+	 */
+	private Map<LocalDate, int[]> legacyDrawChartTally(String selectedWeek) {
+		String[] parts = selectedWeek.split("-KW");
+		int year = Integer.parseInt(parts[0]);
+		int weekNumber = Integer.parseInt(parts[1]);
+
+		WeekFields weekFields = WeekFields.of(Locale.getDefault());
+		LocalDate firstDayOfWeek = LocalDate.of(year, 1, 4).with(weekFields.weekOfYear(), weekNumber)
+				.with(weekFields.dayOfWeek(), 1);
+
+		Map<LocalDate, int[]> dayCounts = new LinkedHashMap<>();
+		for (int i = 0; i < 7; i++) {
+			dayCounts.put(firstDayOfWeek.plusDays(i), new int[2]);
+		}
+
+		List<QuizStatistic> stats = weekStatsMap.getOrDefault(selectedWeek, Collections.emptyList());
+		for (QuizStatistic stat : stats) {
+			LocalDate date = stat.getDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+			int[] counts = dayCounts.getOrDefault(date, new int[2]);
+			if (stat.isCorrect())
+				counts[0]++;
+			else
+				counts[1]++;
+			dayCounts.put(date, counts);
+		}
+		return dayCounts;
+	}
+
+	/**
+	 * Spreads the question IDs over the themes round robin.
+	 *
+	 * @return the question IDs per theme ID
+	 */
+	private static Map<Integer, int[]> questionsByTheme() {
+		Map<Integer, int[]> byTheme = new HashMap<>();
+		for (int theme = 1; theme <= THEMES; theme++) {
+			int[] ids = new int[(QUESTIONS - theme) / THEMES + 1];
+			for (int i = 0; i < ids.length; i++) {
+				ids[i] = theme + i * THEMES;
+			}
+			byTheme.put(theme, ids);
+		}
+		return byTheme;
+	}
+}
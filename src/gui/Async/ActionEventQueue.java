@@ -0,0 +1,106 @@
+package gui.Async;
+
+import java.awt.AWTEvent;
+import java.awt.Component;
+import java.awt.EventQueue;
+import java.awt.KeyboardFocusManager;
+import java.awt.Toolkit;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+
+import javax.swing.AbstractButton;
+import javax.swing.SwingUtilities;
+
+import persistence.tracing.ActionContext;
+
+/**
+ * {@code ActionEventQueue} names the user action behind every mouse click, key
+ * press and action event and dispatches the event within that
+ * {@link ActionContext}. Database statements issued while the event is handled,
+ * or by an {@link AsyncLoader} started from it, are thereby traced back to the
+ * click that caused them.
+ *
+ * <p>
+ * The action is named after the nearest enclosing component of the
+ * application's own {@code gui} packages and the target component, e.g.
+ * {@code QuizQuestionBottom/Save} for a button, or
+ * {@code QuizQuestionLeft/JList} for a click into a list. Mouse movement and
+ * other events are dispatched unchanged.
+ * </p>
+ *
+ * @author Oleg Kapirulya
+ */
+public class ActionEventQueue extends EventQueue {
+
+	/** Prefix of the classes an action is named after. */
+	private static final String GUI_PACKAGE = "gui.";
+
+	/**
+	 * Replaces the system event queue with an {@code ActionEventQueue}.
+	 */
+	public static void install() {
+		Toolkit.getDefaultToolkit().getSystemEventQueue().push(new ActionEventQueue());
+	}
+
+	@Override
+	protected void dispatchEvent(AWTEvent event) {
+		String action = actionOf(event);
+		if (action == null) {
+			super.dispatchEvent(event);
+			return;
+		}
+		ActionContext.run(action, () -> super.dispatchEvent(event));
+	}
+
+	/**
+	 * Names the user action of an event.
+	 *
+	 * @param event the event
+	 * @return the action, or {@code null} if the event is no user action
+	 */
+	private static String actionOf(AWTEvent event) {
+		Component target;
+		String command = null;
+		switch (event.getID()) {
+		case MouseEvent.MOUSE_PRESSED:
+		case MouseEvent.MOUSE_RELEASED:
+		case MouseEvent.MOUSE_CLICKED:
+			// Mouse events are queued for the window and retargeted later
+			MouseEvent mouse = (MouseEvent) event;
+			target = SwingUtilities.getDeepestComponentAt(mouse.getComponent(), mouse.getX(), mouse.getY());
+			if (target == null)
+				target = mouse.getComponent();
+			break;
+		case KeyEvent.KEY_PRESSED:
+		case KeyEvent.KEY_RELEASED:
+		case KeyEvent.KEY_TYPED:
+			target = KeyboardFocusManager.getCurrentKeyboardFocusManager().getFocusOwner();
+			break;
+		case ActionEvent.ACTION_PERFORMED:
+			if (!(event.getSource() instanceof Component))
+				return null;
+			target = (Component) event.getSource();
+			command = ((ActionEvent) event).getActionCommand();
+			break;
+		default:
+			return null;
+		}
+		if (target == null)
+			return null;
+
+		String label = null;
+		if (target instanceof AbstractButton)
+			label = ((AbstractButton) target).getText();
+		if (label == null || label.isEmpty())
+			label = command;
+		if (label == null || label.isEmpty())
+			label = target.getClass().getSimpleName();
+
+		for (Component c = target; c != null; c = c.getParent()) {
+			if (c.getClass().getName().startsWith(GUI_PACKAGE) && !c.getClass().getSimpleName().isEmpty())
+				return c.getClass().getSimpleName() + "/" + label;
+		}
+		return label;
+	}
+}
@@ -0,0 +1,225 @@
+package gui.Async;
+
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+
+import persistence.tracing.ActionContext;
+
+/**
+ * {@code AsyncLoader} runs data loading tasks (typically {@code DBDataManager}
+ * calls) off the Swing event dispatch thread and publishes their results back
+ * on it.
+ *
+ * <p>
+ * Each UI element that shows loaded data owns one loader. Starting a new load
+ * supersedes the previous one: the outdated {@link SwingWorker} is cancelled
+ * and, should it still finish, its result is discarded. This way only the data
+ * for the latest selection ever reaches the UI, no matter in which order the
+ * background tasks complete.
+ * </p>
+ *
+ * <p>
+ * <b>Threading:</b>
+ * </p>
+ * <ul>
+ * <li>The loader state is confined to the event dispatch thread; calls of
+ * {@link #load(Supplier, Consumer)} and {@link #cancel()} from other threads
+ * (e.g. while panels are built in {@code main}) are re-dispatched to it.</li>
+ * <li>The task runs on a {@link SwingWorker} background thread and must not
+ * touch Swing components; read everything it needs from the UI before calling
+ * {@code load}.</li>
+ * <li>The result consumer and the loading-state handler are always invoked on
+ * the event dispatch thread.</li>
+ * <li>The task and the result consumer run within the
+ * {@link ActionContext user action} of the thread that called {@code load}, so
+ * their statements are traced to that action.</li>
+ * </ul>
+ *
+ * Usage example:
+ *
+ * <pre>
+ * AsyncLoader&lt;List&lt;Question&gt;&gt; loader = new AsyncLoader&lt;&gt;(loading -&gt; list.setEnabled(!loading));
+ * Theme theme = (Theme) comboBox.getSelectedItem();
+ * loader.load(() -&gt; dm.getQuestionsFor(theme), questions -&gt; panel.setQuestion(questions));
+ * </pre>
+ *
+ * @param <T> type of the loaded data
+ * @author Oleg Kapirulya
+ */
+public class AsyncLoader<T> {
+
+	/** Called with {@code true} when loading starts and {@code false} when done. */
+	private final Consumer<Boolean> loadingHandler;
+
+	/** Worker of the latest load, or {@code null} if none is running. */
+	private SwingWorker<T, Void> current;
+
+	/** Called if the latest load is discarded, or {@code null}. */
+	private Runnable currentDiscarded;
+
+	/** Incremented per load; results of older generations are discarded. */
+	private long generation;
+
+	/**
+	 * Creates a loader without loading-state feedback.
+	 */
+	public AsyncLoader() {
+		this(null);
+	}
+
+	/**
+	 * Creates a loader that reports its loading state, e.g. to show a placeholder
+	 * or disable controls while data is loaded.
+	 *
+	 * @param loadingHandler invoked on the EDT with {@code true} when a load
+	 *                       starts and {@code false} when the latest load
+	 *                       finished or was cancelled; may be {@code null}
+	 */
+	public AsyncLoader(Consumer<Boolean> loadingHandler) {
+		this.loadingHandler = loadingHandler;
+	}
+
+	/**
+	 * Starts loading in the background, superseding any load still running.
+	 *
+	 * @param task     the loading task, executed off the EDT
+	 * @param onLoaded receives the result on the EDT, unless the load was
+	 *                 superseded, cancelled or failed
+	 */
+	public void load(Supplier<T> task, Consumer<T> onLoaded) {
+		load(task, onLoaded, null, ActionContext.current());
+	}
+
+	/**
+	 * Starts loading in the background, superseding any load still running, and
+	 * reports if the result is never published.
+	 *
+	 * @param task        the loading task, executed off the EDT
+	 * @param onLoaded    receives the result on the EDT, unless the load was
+	 *                    superseded, cancelled or failed
+	 * @param onDiscarded invoked on the EDT instead of {@code onLoaded} if the
+	 *                    load was superseded, cancelled or failed
+	 */
+	public void load(Supplier<T> task, Consumer<T> onLoaded, Runnable onDiscarded) {
+		load(task, onLoaded, onDiscarded, ActionContext.current());
+	}
+
+	/**
+	 * Starts loading in the background within the given user action.
+	 *
+	 * @param task        the loading task, executed off the EDT
+	 * @param onLoaded    receives the result on the EDT
+	 * @param onDiscarded invoked on the EDT if the result is not published, or
+	 *                    {@code null}
+	 * @param action      the user action that requested the load, or
+	 *                    {@code null}
+	 */
+	private void load(Supplier<T> task, Consumer<T> onLoaded, Runnable onDiscarded, String action) {
+		if (!SwingUtilities.isEventDispatchThread()) {
+			SwingUtilities.invokeLater(() -> load(task, onLoaded, onDiscarded, action));
+			return;
+		}
+		boolean wasLoading = discardCurrent();
+		long myGeneration = ++generation;
+
+		current = new SwingWorker<>() {
+			@Override
+			protected T doInBackground() {
+				return ActionContext.call(action, task);
+			}
+
+			@Override
+			protected void done() {
+				if (myGeneration != generation)
+					return; // superseded by a newer load
+
+				current = null;
+				currentDiscarded = null;
+				setLoading(false);
+				if (isCancelled()) {
+					discarded(onDiscarded);
+					return;
+				}
+				T result;
+				try {
+					result = get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					discarded(onDiscarded);
+					return;
+				} catch (ExecutionException e) {
+					e.getCause().printStackTrace();
+					discarded(onDiscarded);
+					return;
+				}
+				ActionContext.run(action, () -> onLoaded.accept(result));
+			}
+		};
+		currentDiscarded = onDiscarded;
+
+		if (!wasLoading)
+			setLoading(true);
+		current.execute();
+	}
+
+	/**
+	 * Cancels the running load, if any. Its result will not be published.
+	 */
+	public void cancel() {
+		if (!SwingUtilities.isEventDispatchThread()) {
+			SwingUtilities.invokeLater(this::cancel);
+			return;
+		}
+		if (discardCurrent())
+			setLoading(false);
+	}
+
+	/**
+	 * @return {@code true} while a load is running
+	 */
+	public boolean isLoading() {
+		return current != null;
+	}
+
+	/**
+	 * Cancels and forgets the current worker.
+	 *
+	 * @return {@code true} if a load was running
+	 */
+	private boolean discardCurrent() {
+		if (current == null)
+			return false;
+		generation++;
+		// Don't interrupt: the task may hold a pooled database connection.
+		current.cancel(false);
+		current = null;
+		Runnable onDiscarded = currentDiscarded;
+		currentDiscarded = null;
+		discarded(onDiscarded);
+		return true;
+	}
+
+	/**
+	 * Reports a load whose result is not published.
+	 *
+	 * @param onDiscarded the handler of the load, may be {@code null}
+	 */
+	private static void discarded(Runnable onDiscarded) {
+		if (onDiscarded != null)
+			onDiscarded.run();
+	}
+
+	/**
+	 * Forwards the loading state to the handler, if any.
+	 *
+	 * @param loading the new loading state
+	 */
+	private void setLoading(boolean loading) {
+		if (loadingHandler != null)
+			loadingHandler.accept(loading);
+	}
+}
@@ -0,0 +1,322 @@
+package gui.Panels;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import javax.swing.AbstractListModel;
+import javax.swing.SwingWorker;
+
+import quizLogic.QuestionSummary;
+
+/**
+ * {@code PagedQuestionListModel} is a virtualized {@link javax.swing.ListModel}
+ * for question lists of arbitrary length. Its rows are
+ * {@link QuestionSummary} projections (ID and title only).
+ *
+ * <p>
+ * Instead of holding every question, the model only knows the number of
+ * questions and the keyset anchor of each page (see
+ * {@link persistence.DAO.QuestionDAO#findPageAnchors(int, int)}). Pages of
+ * {@link #PAGE_SIZE} questions are fetched in the background when the
+ * {@link javax.swing.JList} asks for one of their rows, i.e. when they are
+ * scrolled into view. Until a page arrives its rows show {@link #PLACEHOLDER}.
+ * At most {@link #MAX_CACHED_PAGES} pages are kept; the least recently used page
+ * is dropped when another one is loaded.
+ * </p>
+ *
+ * <p>
+ * For small, already loaded lists the model can also show a plain list, see
+ * {@link #setQuestions(List)}.
+ * </p>
+ *
+ * <p>
+ * <b>Notes:</b>
+ * </p>
+ * <ul>
+ * <li>The list using this model must have a fixed cell height (e.g. via
+ * {@link javax.swing.JList#setPrototypeCellValue(Object)}); otherwise Swing
+ * measures every row and thereby loads every page.</li>
+ * <li>The row count is a snapshot taken by {@link #setPageIndex(PageIndex)}.
+ * Questions inserted or deleted later appear after the next reload.</li>
+ * <li>All methods must be called on the event dispatch thread; only the page
+ * queries run in the background.</li>
+ * </ul>
+ *
+ * @author Oleg Kapirulya
+ */
+public class PagedQuestionListModel extends AbstractListModel<QuestionSummary> {
+	/** Serial version UID for serialization compatibility. */
+	private static final long serialVersionUID = 1L;
+
+	/** Number of questions per page. */
+	public static final int PAGE_SIZE = 100;
+
+	/** Maximum number of pages kept in memory. */
+	public static final int MAX_CACHED_PAGES = 10;
+
+	/** Shown in rows whose page is not loaded yet. */
+	public static final QuestionSummary PLACEHOLDER = new QuestionSummary(0, "wird geladen …", 0);
+
+	/**
+	 * Loads one page of questions, see
+	 * {@link persistence.DBDataManager#getQuestionPage}. Called off the event
+	 * dispatch thread.
+	 */
+	@FunctionalInterface
+	public interface PageLoader {
+
+		/**
+		 * Loads the questions following an ID.
+		 *
+		 * @param afterId the keyset anchor of the page
+		 * @param limit   maximum number of questions
+		 * @return the questions in ascending ID order
+		 */
+		List<QuestionSummary> loadPage(int afterId, int limit);
+	}
+
+	/**
+	 * Immutable snapshot of a paged query: how to load a page, the number of
+	 * questions and the keyset anchor of every page. Built off the event dispatch
+	 * thread and then passed to {@link #setPageIndex(PageIndex)}.
+	 */
+	public static final class PageIndex {
+
+		/** Loads the pages. */
+		private final PageLoader loader;
+
+		/** Number of questions. */
+		private final int size;
+
+		/** Keyset anchor per page. */
+		private final int[] anchors;
+
+		/**
+		 * Creates a page index.
+		 *
+		 * @param loader  loads the pages
+		 * @param size    number of questions
+		 * @param anchors keyset anchor per page of {@link #PAGE_SIZE} questions
+		 */
+		public PageIndex(PageLoader loader, int size, int[] anchors) {
+			this.loader = loader;
+			this.size = size;
+			this.anchors = anchors;
+		}
+	}
+
+	/** The current page index, or {@code null} while a plain list is shown. */
+	private PageIndex index;
+
+	/** The plain list shown instead of pages, or {@code null}. */
+	private List<QuestionSummary> questions = new ArrayList<>();
+
+	/** Loaded pages in access order; the eldest is the least recently used. */
+	private final Map<Integer, List<QuestionSummary>> pages = new LinkedHashMap<>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, List<QuestionSummary>> eldest) {
+			return size() > MAX_CACHED_PAGES;
+		}
+	};
+
+	/** Callbacks waiting for a page being loaded, per page. */
+	private final Map<Integer, List<Runnable>> pending = new HashMap<>();
+
+	/** Incremented on every content change; older page loads are discarded. */
+	private long generation;
+
+	/**
+	 * Switches to paged mode with the given snapshot. Pages are loaded on demand.
+	 *
+	 * @param index the page index
+	 */
+	public void setPageIndex(PageIndex index) {
+		int oldSize = getSize();
+		reset();
+		this.index = index;
+		this.questions = null;
+		fireReplaced(oldSize);
+	}
+
+	/**
+	 * Shows a plain, already loaded list of questions.
+	 *
+	 * @param questions the questions; {@code null} for none
+	 */
+	public void setQuestions(List<QuestionSummary> questions) {
+		int oldSize = getSize();
+		reset();
+		this.index = null;
+		this.questions = questions == null ? new ArrayList<>() : new ArrayList<>(questions);
+		fireReplaced(oldSize);
+	}
+
+	@Override
+	public int getSize() {
+		return index != null ? index.size : questions.size();
+	}
+
+	/**
+	 * Returns the question at a row. In paged mode a missing page is requested
+	 * and {@link #PLACEHOLDER} is returned until it arrives.
+	 *
+	 * @param row the row
+	 * @return the question, or {@link #PLACEHOLDER}
+	 */
+	@Override
+	public QuestionSummary getElementAt(int row) {
+		if (index == null)
+			return questions.get(row);
+		int page = row / PAGE_SIZE;
+		List<QuestionSummary> loaded = pages.get(page);
+		if (loaded == null) {
+			loadPage(page, null);
+			return PLACEHOLDER;
+		}
+		int offset = row % PAGE_SIZE;
+		return offset < loaded.size() ? loaded.get(offset) : PLACEHOLDER;
+	}
+
+	/**
+	 * Finds the row of a question among the loaded rows.
+	 *
+	 * @param questionId the question ID
+	 * @return the row, or {@code -1} if the question is not loaded
+	 */
+	public int indexOf(int questionId) {
+		if (index == null) {
+			for (int row = 0; row < questions.size(); row++) {
+				if (questions.get(row).getId() == questionId)
+					return row;
+			}
+			return -1;
+		}
+		int page = pageOf(questionId);
+		List<QuestionSummary> loaded = pages.get(page);
+		if (loaded != null) {
+			for (int offset = 0; offset < loaded.size(); offset++) {
+				if (loaded.get(offset).getId() == questionId)
+					return page * PAGE_SIZE + offset;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Loads the page that would contain a question, if it is not loaded yet, and
+	 * runs a callback once it is available.
+	 *
+	 * @param questionId the question ID
+	 * @param onLoaded   runs on the event dispatch thread when the page is
+	 *                   available; not run if the content is replaced meanwhile
+	 */
+	public void loadPageOf(int questionId, Runnable onLoaded) {
+		if (index == null || pages.containsKey(pageOf(questionId))) {
+			onLoaded.run();
+			return;
+		}
+		loadPage(pageOf(questionId), onLoaded);
+	}
+
+	/**
+	 * Checks whether a value of this model is a real question.
+	 *
+	 * @param question a value returned by {@link #getElementAt(int)}
+	 * @return {@code false} for {@code null} and {@link #PLACEHOLDER}
+	 */
+	public static boolean isQuestion(QuestionSummary question) {
+		return question != null && question != PLACEHOLDER;
+	}
+
+	/**
+	 * Determines the page whose ID range contains a question ID, by binary search
+	 * over the keyset anchors.
+	 *
+	 * @param questionId the question ID
+	 * @return the page
+	 */
+	private int pageOf(int questionId) {
+		int pos = Arrays.binarySearch(index.anchors, questionId);
+		// anchors[p] < id <= anchors[p + 1]; an exact hit is the last ID of page pos - 1
+		int page = pos >= 0 ? pos - 1 : -pos - 2;
+		return Math.max(page, 0);
+	}
+
+	/**
+	 * Starts loading a page in the background unless it is already loading.
+	 *
+	 * @param page     the page
+	 * @param onLoaded callback to run when the page arrived, or {@code null}
+	 */
+	private void loadPage(int page, Runnable onLoaded) {
+		List<Runnable> callbacks = pending.get(page);
+		if (callbacks != null) {
+			if (onLoaded != null)
+				callbacks.add(onLoaded);
+			return;
+		}
+		callbacks = new ArrayList<>();
+		if (onLoaded != null)
+			callbacks.add(onLoaded);
+		pending.put(page, callbacks);
+
+		PageIndex pageIndex = index;
+		long myGeneration = generation;
+		new SwingWorker<List<QuestionSummary>, Void>() {
+			@Override
+			protected List<QuestionSummary> doInBackground() {
+				return pageIndex.loader.loadPage(pageIndex.anchors[page], PAGE_SIZE);
+			}
+
+			@Override
+			protected void done() {
+				if (myGeneration != generation)
+					return; // content replaced meanwhile
+				List<Runnable> waiting = pending.remove(page);
+				try {
+					pages.put(page, get());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				} catch (ExecutionException e) {
+					e.getCause().printStackTrace();
+					return;
+				}
+				int first = page * PAGE_SIZE;
+				fireContentsChanged(PagedQuestionListModel.this, first,
+						Math.min(first + PAGE_SIZE, getSize()) - 1);
+				for (Runnable callback : waiting) {
+					callback.run();
+				}
+			}
+		}.execute();
+	}
+
+	/**
+	 * Drops all pages and discards the loads still running.
+	 */
+	private void reset() {
+		generation++;
+		pages.clear();
+		pending.clear();
+	}
+
+	/**
+	 * Notifies the listeners that the whole content was replaced.
+	 *
+	 * @param oldSize the size before the replacement
+	 */
+	private void fireReplaced(int oldSize) {
+		if (oldSize > 0)
+			fireIntervalRemoved(this, 0, oldSize - 1);
+		if (getSize() > 0)
+			fireIntervalAdded(this, 0, getSize() - 1);
+	}
+}
@@ -2,14 +2,16 @@ package gui.Panels;
 
 import java.awt.CardLayout;
 import java.awt.Component;
+import java.awt.Cursor;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
-import javax.swing.DefaultListModel;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
 import javax.swing.JLabel;
@@ -19,8 +21,11 @@ import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
 import javax.swing.SwingConstants;
 
+import gui.Async.AsyncLoader;
+import gui.Panels.PagedQuestionListModel.PageIndex;
 import persistence.DBDataManager;
 import quizLogic.Question;
+import quizLogic.QuestionSummary;
 import quizLogic.Theme;
 
 /**
@@ -40,10 +45,24 @@ import quizLogic.Theme;
  * <li>"FRAGEN" – question list view</li>
  * <li>"INFO" – theme info view</li>
  * <li>"FEEDBACK" – feedback message view</li>
+ * <li>"LADEN" – placeholder while questions are loaded</li>
  * </ul>
  * </p>
  * 
  * <p>
+ * Questions are loaded in the background via an {@link AsyncLoader}; a newer
+ * selection supersedes a load still in progress, so the list always shows the
+ * questions of the latest selected theme. The list is backed by a
+ * {@link PagedQuestionListModel}: only the number of questions and the page
+ * anchors are loaded up front, the questions themselves are fetched page by page
+ * while scrolling. The rows are {@link QuestionSummary} projections (ID and
+ * title); the full {@link Question} is loaded by the owning panel when a row is
+ * selected. Rows of pages not loaded yet show
+ * {@link PagedQuestionListModel#PLACEHOLDER}; use {@link #getSelectedQuestion()}
+ * instead of {@code getQuestionList().getSelectedValue()} to skip them.
+ * </p>
+ * 
+ * <p>
  * The first combo box item is the special constant {@link #ALL_THEMES},
  * representing "All themes". Selecting it displays questions from all available
  * themes.
@@ -63,11 +82,11 @@ public class QuizQuestionRightLayout extends JPanel {
 	/** Combo box for selecting a theme. */
 	private JComboBox<Theme> themaComboBox;
 
-	/** JList displaying the questions for the selected theme. */
-	private JList<Question> questionList;
+	/** JList displaying the summaries of the questions for the selected theme. */
+	private JList<QuestionSummary> questionList;
 
-	/** List model backing the question list. */
-	private DefaultListModel<Question> questionModel;
+	/** Paged list model backing the question list. */
+	private PagedQuestionListModel questionModel;
 
 	/** Collection of all available themes. */
 	private Collection<Theme> AllThemes;
@@ -108,6 +127,15 @@ public class QuizQuestionRightLayout extends JPanel {
 	/** Reference to the database data manager. */
 	private DBDataManager dm;
 
+	/** Loads the page index of the selected theme off the event dispatch thread. */
+	private final AsyncLoader<PageIndex> questionLoader = new AsyncLoader<>(this::setLoading);
+
+	/** Internal flag to track if the loading placeholder is being shown. */
+	private boolean showingLoading = false;
+
+	/** Set while the combo box is repopulated, to suppress reloads per item. */
+	private boolean updatingThemes = false;
+
 	/**
 	 * Special constant theme representing "All themes" in the combo box. Selecting
 	 * this special item means showing questions from all themes.
@@ -194,9 +222,11 @@ public class QuizQuestionRightLayout extends JPanel {
 		infoPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
 
 		// ---------- Question list panel ----------
-		questionModel = new DefaultListModel<>();
+		questionModel = new PagedQuestionListModel();
 		questionList = new JList<>(questionModel);
 		questionList.setVisibleRowCount(10);
+		// Fixed cell size: otherwise the list measures (and thus loads) every row
+		questionList.setPrototypeCellValue(new QuestionSummary(0, "Eine typische Frage mit längerem Titel", 0));
 
 		JScrollPane scrollPane = new JScrollPane(questionList);
 		scrollPane.setPreferredSize(new Dimension(260, 310));
@@ -218,6 +248,15 @@ public class QuizQuestionRightLayout extends JPanel {
 		feedbackPanel.add(feedbackLabel);
 		feedbackPanel.add(Box.createVerticalGlue());
 
+		// ---------- Loading panel (placeholder while questions are loaded) ----------
+		JPanel loadingPanel = new JPanel();
+		loadingPanel.setLayout(new BoxLayout(loadingPanel, BoxLayout.Y_AXIS));
+		loadingPanel.add(Box.createVerticalGlue());
+		JLabel loadingLabel = new JLabel("Fragen werden geladen …", SwingConstants.CENTER);
+		loadingLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+		loadingPanel.add(loadingLabel);
+		loadingPanel.add(Box.createVerticalGlue());
+
 		// ---------- Center panel with CardLayout to switch views ----------
 		cardLayout = new CardLayout();
 		centerPanel = new JPanel(cardLayout);
@@ -226,6 +265,7 @@ public class QuizQuestionRightLayout extends JPanel {
 		centerPanel.add(listPanel, "FRAGEN"); // question list view
 		centerPanel.add(infoPanel, "INFO"); // theme info view
 		centerPanel.add(feedbackPanel, "FEEDBACK"); // feedback message view
+		centerPanel.add(loadingPanel, "LADEN"); // loading placeholder
 		centerPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
 
 		add(centerPanel);
@@ -235,12 +275,13 @@ public class QuizQuestionRightLayout extends JPanel {
 
 		// ---------- Event handlers ----------
 
-		// When theme in combo box changes, update questions list or info view
-		// accordingly
+		// When theme in combo box changes, reload the questions list and update the
+		// info view if it is shown
 		themaComboBox.addActionListener(e -> {
-			if (!showingInfo) {
-				fillQuestionList(); // Update questions list for selected theme
-			} else {
+			if (updatingThemes)
+				return; // setThemes() reloads once when done
+			fillQuestionList(); // Update questions list for selected theme
+			if (showingInfo) {
 				Theme selected = (Theme) themaComboBox.getSelectedItem();
 				updateThemeInfo(selected); // Update info text for selected theme
 			}
@@ -251,32 +292,41 @@ public class QuizQuestionRightLayout extends JPanel {
 	}
 
 	/**
-	 * Clears and fills the question list model with questions from the currently
-	 * selected theme. If "Alle Themen" is selected, questions from all themes
-	 * except the special "All themes" item are shown.
+	 * Reloads the question list with questions from the currently selected theme
+	 * in the background. If "Alle Themen" is selected, questions from all themes
+	 * are shown.
 	 */
 	public void fillQuestionList() {
-		questionModel.clear();
-
-		Theme selected = (Theme) themaComboBox.getSelectedItem();
+		loadQuestionsOf((Theme) themaComboBox.getSelectedItem());
+	}
 
-		if (selected == ALL_THEMES) {
-			// Add questions from all themes except the special "Alle Themen" entry
-			for (Theme t : AllThemes) {
-				if (t == ALL_THEMES)
-					continue;
+	/**
+	 * Counts the questions of a theme and computes their page anchors in the
+	 * background, then shows them as a paged list. A load still in progress is
+	 * superseded.
+	 *
+	 * @param theme the theme, or {@code null} / {@link #ALL_THEMES} for all themes
+	 */
+	public void loadQuestionsOf(Theme theme) {
+		questionLoader.load(() -> new PageIndex((afterId, limit) -> dm.getQuestionPage(theme, afterId, limit),
+				dm.countQuestions(theme), dm.getQuestionPageAnchors(theme, PagedQuestionListModel.PAGE_SIZE)),
+				questionModel::setPageIndex);
+	}
 
-				List<Question> questions = dm.getQuestionsFor(t);
-				for (Question q : questions) {
-					questionModel.addElement(q);
-				}
-			}
-		} else if (selected != null) {
-			// Add questions for the selected single theme
-			List<Question> questions = dm.getQuestionsFor(selected);
-			for (Question q : questions) {
-				questionModel.addElement(q);
-			}
+	/**
+	 * Shows or hides the loading placeholder instead of the question list. The
+	 * info and feedback views are left alone.
+	 *
+	 * @param loading whether questions are currently being loaded
+	 */
+	private void setLoading(boolean loading) {
+		setCursor(loading ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : null);
+		if (loading && !showingInfo) {
+			showingLoading = true;
+			cardLayout.show(centerPanel, "LADEN");
+		} else if (!loading && showingLoading) {
+			showingLoading = false;
+			cardLayout.show(centerPanel, showingInfo ? "INFO" : "FRAGEN");
 		}
 	}
 
@@ -305,7 +355,8 @@ public class QuizQuestionRightLayout extends JPanel {
 			cardLayout.show(centerPanel, "INFO");
 			themeInfoButton.setText("Liste anzeigen");
 		} else {
-			cardLayout.show(centerPanel, "FRAGEN");
+			cardLayout.show(centerPanel, questionLoader.isLoading() ? "LADEN" : "FRAGEN");
+			showingLoading = questionLoader.isLoading();
 			themeInfoButton.setText("Thema anzeigen");
 		}
 
@@ -314,24 +365,32 @@ public class QuizQuestionRightLayout extends JPanel {
 	}
 
 	/**
-	 * Replaces the themes currently displayed in the combo box and refreshes the
-	 * question list.
+	 * Replaces the themes currently displayed in the combo box, selects "All
+	 * themes" and reloads the question list once in the background.
 	 *
 	 * @param neueThemen the collection of new {@link Theme}s to display
 	 */
 	public void setThemes(Collection<Theme> neueThemen) {
-		themaComboBox.removeAllItems();
-		themaComboBox.addItem(ALL_THEMES);
+		this.AllThemes = neueThemen;
 
-		if (neueThemen != null) {
-			for (Theme t : neueThemen) {
-				// Exclude the special "All themes" item if present
-				if (t != ALL_THEMES)
-					themaComboBox.addItem(t);
+		updatingThemes = true;
+		try {
+			themaComboBox.removeAllItems();
+			themaComboBox.addItem(ALL_THEMES);
+
+			if (neueThemen != null) {
+				for (Theme t : neueThemen) {
+					// Exclude the special "All themes" item if present
+					if (t != ALL_THEMES)
+						themaComboBox.addItem(t);
+				}
 			}
+			themaComboBox.setSelectedIndex(0);
+		} finally {
+			updatingThemes = false;
 		}
 
-		this.AllThemes = neueThemen;
+		fillQuestionList();
 	}
 
 	/**
@@ -351,49 +410,75 @@ public class QuizQuestionRightLayout extends JPanel {
 	 * Resets the center panel to show the question list view.
 	 */
 	public void showQuestionList() {
-		cardLayout.show(centerPanel, "FRAGEN");
+		cardLayout.show(centerPanel, questionLoader.isLoading() ? "LADEN" : "FRAGEN");
+		showingLoading = questionLoader.isLoading();
 		revalidate();
 		repaint();
 	}
 
 	/**
-	 * Replaces the question list content with a new list of questions.
+	 * Replaces the question list content with a new list of questions, superseding
+	 * a load still in progress.
 	 * 
 	 * @param fragen list of {@link Question}s to display; can be null or empty
 	 */
 	public void setQuestion(List<Question> fragen) {
-		questionModel.clear();
+		List<QuestionSummary> summaries = new ArrayList<>();
 		if (fragen != null) {
 			for (Question q : fragen) {
-				questionModel.addElement(q);
+				summaries.add(QuestionSummary.of(q));
 			}
 		}
+		questionLoader.cancel();
+		questionModel.setQuestions(summaries);
 	}
 
 	/**
-	 * Removes a question from the list at the given index.
+	 * Replaces the question list content with already loaded question summaries,
+	 * e.g. search results, superseding a load still in progress.
+	 * 
+	 * @param summaries the summaries to display; can be null or empty
+	 */
+	public void showQuestions(List<QuestionSummary> summaries) {
+		questionLoader.cancel();
+		questionModel.setQuestions(summaries);
+	}
+
+	/**
+	 * Selects a question in the list and scrolls to it. If its page is not loaded
+	 * yet, it is loaded first and the question is selected when it arrives.
 	 *
-	 * @param index index of the question to remove; must be within list bounds
+	 * @param question the question to select; ignored if {@code null} or not
+	 *                 contained in the list
 	 */
-	public void removeQuestionAt(int index) {
-		if (index >= 0 && index < questionModel.getSize()) {
-			questionModel.remove(index);
-		}
+	public void selectQuestion(Question question) {
+		if (question == null)
+			return;
+		int id = question.getId();
+		questionModel.loadPageOf(id, () -> {
+			int row = questionModel.indexOf(id);
+			if (row >= 0) {
+				questionList.setSelectedIndex(row);
+				questionList.ensureIndexIsVisible(row);
+			}
+		});
 	}
 
 	/**
-	 * Adds a new question to the question list.
+	 * Returns the selected question. Rows whose page is still loading count as not
+	 * selected.
 	 *
-	 * @param question the {@link Question} to add
+	 * @return the summary of the selected question, or {@code null}
 	 */
-	public void addQuestion(Question question) {
-		questionModel.addElement(question);
+	public QuestionSummary getSelectedQuestion() {
+		QuestionSummary selected = questionList.getSelectedValue();
+		return PagedQuestionListModel.isQuestion(selected) ? selected : null;
 	}
 
 	/**
 	 * @return the internal {@link JList} component displaying questions
 	 */
-	public JList<Question> getQuestionList() {
+	public JList<QuestionSummary> getQuestionList() {
 		return questionList;
 	}
 
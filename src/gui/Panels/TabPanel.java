@@ -41,6 +41,12 @@ import gui.Statistic.StatisticsContainerPanel;
  * </ul>
  *
  * <p>
+ * The panels load their data in the background (see
+ * {@link gui.Async.AsyncLoader}), so switching tabs never blocks the event
+ * dispatch thread; switching quickly back and forth discards outdated loads.
+ * </p>
+ *
+ * <p>
  * By centralizing refresh logic within this container, the application
  * maintains UI consistency and data up-to-dateness seamlessly during user
  * navigation.
@@ -12,14 +12,15 @@ import javax.swing.JList;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 
-import quizLogic.Theme;
+import quizLogic.ThemeSummary;
 
 /**
  * {@code ThemaPanel} is a reusable UI panel that displays a list of quiz
  * themes.
  * <p>
  * It provides a scrollable {@link JList} for viewing and selecting available
- * {@link Theme} objects. The panel is intended to be embedded in larger views
+ * themes. The list holds {@link ThemeSummary} projections (ID and title); the
+ * owner loads the full theme when one is selected. The panel is intended to be embedded in larger views
  * such as theme management or quiz gameplay panels.
  * </p>
  *
@@ -46,10 +47,10 @@ public class ThemaPanel extends JPanel {
 	private static final long serialVersionUID = 1L;
 
 	/** The JList displaying the current list of themes. */
-	private JList<Theme> themenList;
+	private JList<ThemeSummary> themenList;
 
 	/** The list model holding the theme data. */
-	private DefaultListModel<Theme> themenModel;
+	private DefaultListModel<ThemeSummary> themenModel;
 
 	/**
 	 * Creates a new {@code ThemaPanel} with an initially populated list of themes.
@@ -60,7 +61,7 @@ public class ThemaPanel extends JPanel {
 	 * @param themen the initial collection of themes to display; may be
 	 *               {@code null} or empty
 	 */
-	public ThemaPanel(Collection<Theme> themen) {
+	public ThemaPanel(Collection<ThemeSummary> themen) {
 		super();
 		setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
 		setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
@@ -93,13 +94,13 @@ public class ThemaPanel extends JPanel {
 	 * Clears any previously shown themes before adding the new collection.
 	 * </p>
 	 *
-	 * @param themen a collection of {@link Theme} objects to display; if
+	 * @param themen a collection of {@link ThemeSummary} objects to display; if
 	 *               {@code null}, the list is cleared
 	 */
-	public void setThemen(Collection<Theme> themen) {
+	public void setThemen(Collection<ThemeSummary> themen) {
 		themenModel.clear();
 		if (themen != null) {
-			for (Theme t : themen) {
+			for (ThemeSummary t : themen) {
 				themenModel.addElement(t);
 			}
 		}
@@ -112,9 +113,9 @@ public class ThemaPanel extends JPanel {
 	 * behavior.
 	 * </p>
 	 *
-	 * @return the {@link JList} of {@link Theme} objects
+	 * @return the {@link JList} of {@link ThemeSummary} objects
 	 */
-	public JList<Theme> getThemenList() {
+	public JList<ThemeSummary> getThemenList() {
 		return themenList;
 	}
 }
@@ -4,17 +4,19 @@ import java.awt.BorderLayout;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-import java.util.Random;
 
-import javax.swing.DefaultListModel;
-import javax.swing.JList;
 import javax.swing.JPanel;
 
+import gui.Async.AsyncLoader;
 import persistence.DBDataManager;
+import persistence.QuizSession;
+import persistence.RandomQuestionIndex;
+import persistence.tracing.UserActionEvent;
 import quizLogic.Answer;
 import quizLogic.Question;
 import quizLogic.QuizStatistic;
 import quizLogic.QuizValidator;
+import quizLogic.Theme;
 
 /**
  * {@code QuizPanel} is the main container panel combining all quiz-related
@@ -47,6 +49,11 @@ import quizLogic.QuizValidator;
  * {@link DBDataManager}, which serves as the abstraction for persistent
  * storage.
  * </p>
+ *
+ * <p>
+ * Each quiz flow event is recorded as a {@link UserActionEvent} for Java Flight
+ * Recorder.
+ * </p>
  * 
  * @author Oleg Kapirulya
  */
@@ -73,8 +80,14 @@ public class QuizPanel extends JPanel implements QuizDelegate {
 	/** Data manager for accessing quiz data from the database. */
 	private final DBDataManager dm;
 
-	/** Random generator to ensure non-predictable selection of questions. */
-	private final Random random = new Random();
+	/**
+	 * Session drawing random questions of the selected theme without repetition;
+	 * replaced when another theme is selected. Written by the loader thread.
+	 */
+	private volatile QuizSession session;
+
+	/** Draws and loads the next random question off the event dispatch thread. */
+	private final AsyncLoader<Question> newQuestionLoader = new AsyncLoader<>();
 
 	// State flag: true if Show Answer was clicked before Save Answer.
 	private boolean hasShownAnswer = false;
@@ -124,29 +137,37 @@ public class QuizPanel extends JPanel implements QuizDelegate {
 	 */
 	@Override
 	public void onShowAnswer() {
-		// Get the currently selected question from the right-side question list
-		Question q = quizPanelRight.getQuizQuestionRightLayout().getQuestionList().getSelectedValue();
-		// If nothing is selected, inform the user and stop here
-		if (q == null) {
-			quizButtonPanel.getMessagePanel().setText(QuizValidator.MSG_NO_QUESTION_SELECTED);
-			return;
-		}
-		// Collect all correct answers
-		List<String> correctAnswers = new ArrayList<>();
-		for (Answer a : q.getAnswers()) {
-			if (a.isCorrect()) {
-				correctAnswers.add(a.getText());
+		UserActionEvent event = new UserActionEvent("QuizPanel.onShowAnswer");
+		event.begin();
+		try {
+			// Get the question currently shown (with answers) from the right panel
+			Question q = quizPanelRight.getCurrentQuestion();
+			// If nothing is selected, inform the user and stop here
+			if (q == null) {
+				quizButtonPanel.getMessagePanel().setText(QuizValidator.MSG_NO_QUESTION_SELECTED);
+				return;
 			}
-			hasShownAnswer = true;
+			event.setQuestionId(q.getId());
+			// Collect all correct answers
+			List<String> correctAnswers = new ArrayList<>();
+			for (Answer a : q.getAnswers()) {
+				if (a.isCorrect()) {
+					correctAnswers.add(a.getText());
+				}
+				hasShownAnswer = true;
+			}
+			String correctAnswerText = String.join(", ", correctAnswers);
+			// Show correct answer on the right panel as feedback
+			quizPanelRight.getQuizQuestionRightLayout()
+					.showFeedbackAnswer(QuizValidator.MSG_CORRECT_ANSWER_IS + correctAnswerText);
+			// Clear any message on the left panel
+			quizButtonPanel.getMessagePanel().setText("");
+			// Mark the question as answered in the right panel (e.g., highlight state)
+			quizPanelRight.markAnswered(q.getId());
+			event.setCompleted(true);
+		} finally {
+			event.commit();
 		}
-		String correctAnswerText = String.join(", ", correctAnswers);
-		// Show correct answer on the right panel as feedback
-		quizPanelRight.getQuizQuestionRightLayout()
-				.showFeedbackAnswer(QuizValidator.MSG_CORRECT_ANSWER_IS + correctAnswerText);
-		// Clear any message on the left panel
-		quizButtonPanel.getMessagePanel().setText("");
-		// Mark the question as answered in the right panel (e.g., highlight state)
-		quizPanelRight.markAnswered(q.getId());
 	}
 
 	/**
@@ -161,79 +182,112 @@ public class QuizPanel extends JPanel implements QuizDelegate {
 	 */
 	@Override
 	public void onSaveAnswer() {
-		// If the user has already shown the answer, they cannot save again
-		if (hasShownAnswer) {
-			quizButtonPanel.getMessagePanel().setText(QuizValidator.MSG_CANNOT_SAVE_AFTER_SHOW);
-			return;
-		}
-		// Get currently selected question and user selection
-		Question q = quizPanelRight.getQuizQuestionRightLayout().getQuestionList().getSelectedValue();
-		if (q == null) {
-			quizButtonPanel.getMessagePanel().setText(QuizValidator.MSG_NO_QUESTION_SELECTED);
-			return;
-		}
-		// Check if the user has selected any answers
-		boolean correct = true; // assume correct unless found otherwise
-		List<Answer> answers = q.getAnswers();
-		boolean answerSelected = false;
-		for (int i = 0; i < answers.size(); i++) {
-			boolean chosen = quizPanelLeft.getCheckboxes()[i].isSelected();
-			if (chosen)
-				answerSelected = true;
-			if (answers.get(i).isCorrect() != chosen)
-				correct = false;
-		}
-		// If no answer selected, show a hint
-		if (!answerSelected) {
-			quizButtonPanel.getMessagePanel().setText(QuizValidator.MSG_NO_SELECTION_MADE);
-			return;
-		}
-		// Save statistics about the answer
-		QuizStatistic stat = new QuizStatistic(q.getId(), correct, new Date());
-		dm.getStatisticDAO().insert(stat);
-		// Give feedback to user
-		if (correct) {
-			quizButtonPanel.getMessagePanel().setText(QuizValidator.MSG_CORRECT);
-		} else {
-			quizButtonPanel.getMessagePanel().setText(QuizValidator.MSG_WRONG_WITH_HINT);
+		UserActionEvent event = new UserActionEvent("QuizPanel.onSaveAnswer");
+		event.begin();
+		try {
+			// If the user has already shown the answer, they cannot save again
+			if (hasShownAnswer) {
+				quizButtonPanel.getMessagePanel().setText(QuizValidator.MSG_CANNOT_SAVE_AFTER_SHOW);
+				return;
+			}
+			// Get currently shown question (with answers) and user selection
+			Question q = quizPanelRight.getCurrentQuestion();
+			if (q == null) {
+				quizButtonPanel.getMessagePanel().setText(QuizValidator.MSG_NO_QUESTION_SELECTED);
+				return;
+			}
+			event.setQuestionId(q.getId());
+			// Check if the user has selected any answers
+			boolean correct = true; // assume correct unless found otherwise
+			List<Answer> answers = q.getAnswers();
+			boolean answerSelected = false;
+			for (int i = 0; i < answers.size(); i++) {
+				boolean chosen = quizPanelLeft.getCheckboxes()[i].isSelected();
+				if (chosen)
+					answerSelected = true;
+				if (answers.get(i).isCorrect() != chosen)
+					correct = false;
+			}
+			// If no answer selected, show a hint
+			if (!answerSelected) {
+				quizButtonPanel.getMessagePanel().setText(QuizValidator.MSG_NO_SELECTION_MADE);
+				return;
+			}
+			// Save statistics about the answer (written asynchronously in batches)
+			QuizStatistic stat = new QuizStatistic(q.getId(), correct, new Date());
+			if (!dm.recordAttempt(stat)) {
+				// Queue full or closed: the attempt was not recorded
+				quizButtonPanel.getMessagePanel().setText(QuizValidator.MSG_SAVE_FAILED);
+				return;
+			}
+			event.setCompleted(true);
+			// Give feedback to user
+			if (correct) {
+				quizButtonPanel.getMessagePanel().setText(QuizValidator.MSG_CORRECT);
+			} else {
+				quizButtonPanel.getMessagePanel().setText(QuizValidator.MSG_WRONG_WITH_HINT);
+			}
+		} finally {
+			event.commit();
 		}
 	}
 
 	/**
-	 * Selects a new random question from the list of available ones.
+	 * Draws a new random question of the selected theme.
 	 *
 	 * <p>
-	 * Logic: - Ensure that there are questions available. - Pick a random index
-	 * from the list. - Retrieve the full question (including its answers) from the
-	 * database. - Update the UI to show this question in the left panel and select
-	 * it in the right panel. - Reset the answer feedback panel to a "fresh" state.
+	 * Logic: - Draw the next question of the current {@link QuizSession}, which
+	 * avoids repetitions until all questions of the theme were asked; selecting
+	 * another theme starts a new session. - The draw is an in-memory lookup and
+	 * the question is usually prefetched, but it still runs in the background. -
+	 * Update the UI to show this question in the left panel and select it in the
+	 * right panel. - Reset the answer feedback panel to a "fresh" state.
 	 * </p>
 	 */
 	@Override
 	public void onNewQuestion() {
+		// The event lasts until the drawn question is shown or the draw is discarded
+		UserActionEvent event = new UserActionEvent("QuizPanel.onNewQuestion");
+		event.begin();
 		// Reset state: no answer shown yet
 		hasShownAnswer = false;
 		// Make sure the latest list of questions is displayed
 		quizPanelRight.getQuizQuestionRightLayout().showQuestionList();
 		quizButtonPanel.getMessagePanel().setText("");
-		// Retrieve the JList containing all questions
-		JList<Question> fragenList = quizPanelRight.getQuizQuestionRightLayout().getQuestionList();
-		DefaultListModel<Question> model = (DefaultListModel<Question>) fragenList.getModel();
-		// Case 1: No questions available -> display message and clear panel
-		if (model.getSize() == 0) {
+		// Draw from the theme selected in the right panel ("All themes" -> all)
+		Theme selected = (Theme) quizPanelRight.getQuizQuestionRightLayout().getThemaComboBox().getSelectedItem();
+		int themeId = selected == null || selected.getId() <= 0 ? RandomQuestionIndex.ALL_THEMES : selected.getId();
+		event.setThemeId(themeId);
+		newQuestionLoader.load(() -> {
+			QuizSession current = session;
+			if (current == null || current.getThemeId() != themeId) {
+				current = dm.startQuizSession(selected);
+				session = current;
+			}
+			return current.next();
+		}, question -> {
+			showNewQuestion(question);
+			if (question != null)
+				event.setQuestionId(question.getId());
+			event.setCompleted(question != null);
+			event.commit();
+		}, event::commit); // superseded, cancelled or failed: not completed
+	}
+
+	/**
+	 * Displays a newly drawn question.
+	 *
+	 * @param question the drawn question, or {@code null} if there are none
+	 */
+	private void showNewQuestion(Question question) {
+		// No questions available -> display message and clear panel
+		if (question == null) {
 			quizButtonPanel.getMessagePanel().setText(QuizValidator.MSG_NO_QUESTIONS_AVAILABLE);
 			quizPanelLeft.setQuestion(null);
 			return;
 		}
-		// Case 2: Randomly choose an index from question list
-		int randomIndex = random.nextInt(model.getSize());
-		Question randomQuestionModelRef = model.getElementAt(randomIndex);
-		// Load the complete question including answers from DB
-		Question fullQ = dm.getFullQuestionById(randomQuestionModelRef.getId());
-		// Set the selection in the question list (so UI highlights it)
-		fragenList.setSelectedIndex(randomIndex);
-		// Display the full question (with answers) on the left panel
-		quizPanelLeft.setQuestion(fullQ);
+		// Select it in the question list and display it on the left panel
+		quizPanelRight.selectQuestion(question);
 		// Clear any old messages
 		quizPanelLeft.getMessageField().setText("");
 		// Re-enable checkboxes so user can answer
@@ -4,13 +4,14 @@ import java.util.ArrayList;
 import java.util.List;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
-import javax.swing.DefaultListModel;
 import javax.swing.JPanel;
 import javax.swing.border.EmptyBorder;
 
+import gui.Async.AsyncLoader;
 import gui.Panels.QuizQuestionRightLayout;
 import persistence.DBDataManager;
 import quizLogic.Question;
+import quizLogic.QuestionSummary;
 import quizLogic.Theme;
 
 /**
@@ -41,6 +42,8 @@ import quizLogic.Theme;
  * <p>
  * By default, the panel initializes with all available themes (including an
  * "All themes" pseudo-entry) and automatically populates its question list.
+ * Themes, question lists and question details are loaded in the background by
+ * {@link AsyncLoader}s, so the UI stays responsive with a large question bank.
  * </p>
  *
  * @author Oleg Kapirulya
@@ -60,6 +63,18 @@ public class QuizPanelRight extends JPanel {
 	 */
 	private QuizPanelLeft quizPanelLeft;
 
+	/** Loads the themes off the event dispatch thread. */
+	private final AsyncLoader<List<Theme>> themeLoader = new AsyncLoader<>();
+
+	/** Loads the selected question with its answers off the event dispatch thread. */
+	private final AsyncLoader<Question> questionLoader = new AsyncLoader<>();
+
+	/**
+	 * The fully loaded question (incl. answers) shown on the left panel, or
+	 * {@code null} while none is shown or it is still loading.
+	 */
+	private Question currentQuestion;
+
 	/**
 	 * ID of the currently shown (answered) question, or {@code null} if none is
 	 * marked.
@@ -74,11 +89,10 @@ public class QuizPanelRight extends JPanel {
 	 * </p>
 	 * <ol>
 	 * <li>Initialize the layout and padding</li>
-	 * <li>Load all available themes from {@link DBDataManager}</li>
-	 * <li>Create a {@link QuizQuestionRightLayout} with those themes</li>
-	 * <li>Register event listeners for theme and question selection</li>
-	 * <li>Select the first theme (default "All themes") and populate the question
-	 * list</li>
+	 * <li>Create an empty {@link QuizQuestionRightLayout}</li>
+	 * <li>Register event listeners for question selection</li>
+	 * <li>Load all available themes in the background, then select the first
+	 * theme (default "All themes") and populate the question list</li>
 	 * </ol>
 	 *
 	 * @param dm the {@link DBDataManager} used for accessing themes and questions
@@ -90,11 +104,8 @@ public class QuizPanelRight extends JPanel {
 		setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
 		setBorder(new EmptyBorder(10, 10, 10, 10));
 
-		// Load initial themes from database
-		List<Theme> themenListe = new ArrayList<>(dm.getAllThemes());
-
-		// Build internal UI component
-		quizQuestionRightLayout = new QuizQuestionRightLayout(dm, themenListe);
+		// Build internal UI component; the themes are loaded in the background
+		quizQuestionRightLayout = new QuizQuestionRightLayout(dm, new ArrayList<>());
 		add(quizQuestionRightLayout);
 
 		// Hide UI elements not needed in this gameplay context
@@ -104,133 +115,85 @@ public class QuizPanelRight extends JPanel {
 
 		add(Box.createVerticalStrut(15)); // spacing between UI elements
 
-		// Link event listeners (theme change, question select)
+		// Link event listeners (question select)
 		setupEvents();
 
-		// Start with first theme selected -> trigger population
-		quizQuestionRightLayout.getThemaComboBox().setSelectedIndex(0);
-		updateQuestionList(QuizQuestionRightLayout.ALL_THEMES);
+		// Load themes, select "All themes" and populate the question list
+		reloadAllThemesAndQuestions();
 	}
 
 	/**
-	 * Configures the event listeners for the internal components:
+	 * Configures the event listeners for the internal components. Theme selection
+	 * is handled by the {@link QuizQuestionRightLayout} itself, which reloads its
+	 * question list in the background.
 	 * <ul>
-	 * <li><b>Theme selection:</b> updates the question list accordingly.</li>
 	 * <li><b>Question selection:</b> loads the full question details (incl.
-	 * answers) from DB and updates the linked {@link QuizPanelLeft}.</li>
+	 * answers) in the background and updates the linked {@link QuizPanelLeft};
+	 * nothing is loaded if the selected question is already shown.</li>
 	 * </ul>
 	 */
 	private void setupEvents() {
-		// Theme combo box selection -> update list of questions
-		quizQuestionRightLayout.getThemaComboBox().addActionListener(e -> {
-			Theme selected = (Theme) quizQuestionRightLayout.getThemaComboBox().getSelectedItem();
-			List<Question> fragen;
-			if (selected == null) {
-				fragen = new ArrayList<>();
-			} else if (selected == QuizQuestionRightLayout.ALL_THEMES) {
-				// Collect questions from all themes
-				fragen = new ArrayList<>();
-				for (Theme t : dm.getAllThemes()) {
-					fragen.addAll(dm.getQuestionsFor(t));
-				}
-			} else {
-				// Load questions for the selected theme only
-				fragen = dm.getQuestionsFor(selected);
-			}
-			quizQuestionRightLayout.setQuestion(fragen);
-		});
-
 		// Question list selection -> update details on left panel
 		quizQuestionRightLayout.getQuestionList().addListSelectionListener(e -> {
 			if (!e.getValueIsAdjusting()) {
-				Question selected = quizQuestionRightLayout.getQuestionList().getSelectedValue();
+				QuestionSummary selected = quizQuestionRightLayout.getSelectedQuestion();
+				if (selected != null && currentQuestion != null && selected.getId() == currentQuestion.getId())
+					return; // already shown, e.g. selected by selectQuestion()
 				if (selected != null) {
 					// Retrieve full version of question from DB (with answers loaded)
-					Question fullQ = dm.getFullQuestionById(selected.getId());
-					if (quizPanelLeft != null) {
-						quizPanelLeft.fillWithData(fullQ);
-					}
+					int id = selected.getId();
+					currentQuestion = null;
+					questionLoader.load(() -> dm.getFullQuestionById(id), this::showQuestion);
 				} else {
 					// No question selected -> clear detail fields on left panel
-					if (quizPanelLeft != null) {
-						quizPanelLeft.fillWithData(null);
-					}
+					questionLoader.cancel();
+					showQuestion(null);
 				}
 			}
 		});
 	}
 
 	/**
-	 * Updates the list of questions shown based on the selected theme.
-	 *
-	 * <ul>
-	 * <li>If "All themes" is selected, questions from all themes are shown.</li>
-	 * <li>If a single theme is selected, only that theme's questions are
-	 * displayed.</li>
-	 * </ul>
-	 *
-	 * @param selectedThema the {@link Theme} selected in the combo box
+	 * Reloads all themes and questions from the database in the background, and
+	 * resets the theme selection to "All themes".
 	 */
-	private void updateQuestionList(Theme selectedThema) {
-
-		DefaultListModel<Question> model = (DefaultListModel<Question>) quizQuestionRightLayout.getQuestionList()
-				.getModel();
-		model.clear();
-
-		if (selectedThema != null && "Alle Themen".equals(selectedThema.toString())) {
-			// Load all questions across all themes
-			for (Theme thema : dm.getAllThemes()) {
-				if (thema.getAllQuestions() != null) {
-					for (Question q : thema.getAllQuestions()) {
-						model.addElement(q);
-					}
-				}
-			}
-		} else if (selectedThema != null && selectedThema.getAllQuestions() != null) {
-			// Load only the selected theme's questions
-			for (Question q : selectedThema.getAllQuestions()) {
-				model.addElement(q);
-			}
-		}
+	public void reloadAllThemesAndQuestions() {
+		themeLoader.load(dm::getAllThemes, quizQuestionRightLayout::setThemes);
 	}
 
 	/**
-	 * Reloads all themes and questions from the database, and resets the theme
-	 * selection to "All themes".
+	 * Selects an already fully loaded question in the list (if it is shown there)
+	 * and displays it on the linked {@link QuizPanelLeft} without reloading it.
+	 *
+	 * @param question the question to show, including its answers
 	 */
-	public void reloadAllThemesAndQuestions() {
-		List<Theme> themes = dm.getAllThemes();
-		quizQuestionRightLayout.setThemes(themes);
-
-		if (themes != null && !themes.isEmpty()) {
-			quizQuestionRightLayout.getThemaComboBox().setSelectedIndex(0);
-			Theme first = (Theme) quizQuestionRightLayout.getThemaComboBox().getSelectedItem();
-
-			List<Question> fragen = (first == QuizQuestionRightLayout.ALL_THEMES) ? collectAllQuestions(themes)
-					: dm.getQuestionsFor(first);
+	public void selectQuestion(Question question) {
+		questionLoader.cancel();
+		showQuestion(question);
+		quizQuestionRightLayout.selectQuestion(question);
+	}
 
-			quizQuestionRightLayout.setQuestion(fragen);
-		} else {
-			quizQuestionRightLayout.setQuestion(null);
+	/**
+	 * Shows a fully loaded question on the linked {@link QuizPanelLeft}.
+	 *
+	 * @param question the question including its answers, or {@code null} to
+	 *                 clear the panel
+	 */
+	private void showQuestion(Question question) {
+		currentQuestion = question;
+		if (quizPanelLeft != null) {
+			quizPanelLeft.fillWithData(question);
 		}
 	}
 
 	/**
-	 * Helper method: collects all questions from all (real) themes.
+	 * Returns the question currently shown on the left panel, including its
+	 * answers.
 	 *
-	 * @param themes list of available themes
-	 * @return list of all questions across themes
+	 * @return the shown question, or {@code null} if none is shown yet
 	 */
-	private List<Question> collectAllQuestions(List<Theme> themes) {
-		List<Question> all = new ArrayList<>();
-		if (themes != null) {
-			for (Theme t : themes) {
-				if (t != QuizQuestionRightLayout.ALL_THEMES) {
-					all.addAll(dm.getQuestionsFor(t));
-				}
-			}
-		}
-		return all;
+	public Question getCurrentQuestion() {
+		return currentQuestion;
 	}
 
 	/**
@@ -2,16 +2,24 @@ package gui;
 
 import java.awt.Dimension;
 import java.awt.HeadlessException;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.sql.SQLException;
+import java.util.logging.Logger;
 
 import javax.swing.JFrame;
 
+import gui.Async.ActionEventQueue;
 import gui.Panels.TabPanel;
 import gui.Quiz.QuizPanel;
 import gui.QuizQuestion.QuizQuestionPanel;
 import gui.QuizThemes.QuizThemePanel;
 import gui.Statistic.StatisticsContainerPanel;
+import persistence.ConnectionPool;
 import persistence.DBDataManager;
+import persistence.metrics.InstrumentedDataManager;
+import persistence.metrics.MetricsRegistry;
+import persistence.tracing.StatementTracer;
 
 /**
  * {@code QuizApp} is the main entry point of the Quiz application.
@@ -34,7 +42,16 @@ import persistence.DBDataManager;
  *
  * <p>
  * The {@link DBDataManager} is instantiated here and shared among all panels to
- * provide centralized data access and persistence.
+ * provide centralized data access and persistence. Its calls are timed by a
+ * {@link MetricsRegistry}, readable over JMX ({@code quiz:type=Metrics}) and
+ * logged every minute.
+ * </p>
+ *
+ * <p>
+ * Every SQL statement is traced by a {@link StatementTracer}: statements slower
+ * than {@code -Dquiz.slowQueryMillis} (default 100 ms) are written to the
+ * {@code quiz.sql.slow} log together with the user action that issued them,
+ * and the most frequent statements per action are logged on exit.
  * </p>
  *
  * <p>
@@ -66,6 +83,10 @@ public class QuizApp extends JFrame {
 	private static final int FRAME_WIDTH = 800;
 	/** Height of the application window */
 	private static final int FRAME_HEIGHT = 600;
+	/** Period of the metrics snapshots written to the log */
+	private static final long METRICS_LOG_PERIOD_MILLIS = 60_000;
+	/** Number of statements listed by the tracing summary logged on exit */
+	private static final int TRACE_SUMMARY_LIMIT = 20;
 
 	/**
 	 * Constructs and initializes the main application window and its primary
@@ -77,11 +98,45 @@ public class QuizApp extends JFrame {
 	 */
 	public QuizApp() throws HeadlessException, SQLException {
 
-		// Create the central data access manager
-		DBDataManager dm = new DBDataManager();
+		// Create the central data access manager, timing every data access call;
+		// the metrics are exposed over JMX and logged periodically
+		MetricsRegistry metrics = new MetricsRegistry();
+		metrics.registerMBean(MetricsRegistry.DEFAULT_OBJECT_NAME);
+		metrics.startLogging(METRICS_LOG_PERIOD_MILLIS);
+
+		// Trace every SQL statement to the UI action that issued it and log
+		// the slow ones
+		StatementTracer tracer = new StatementTracer(
+				Long.getLong("quiz.slowQueryMillis", StatementTracer.DEFAULT_THRESHOLD_MILLIS));
+		metrics.gauge("StatementTracer.statements", tracer::getStatementCount);
+		metrics.gauge("StatementTracer.slow", tracer::getSlowCount);
+		metrics.gauge("StatementTracer.failed", tracer::getFailedCount);
+		ConnectionPool pool = new ConnectionPool(DBDataManager.DEFAULT_URL, DBDataManager.DEFAULT_USER,
+				DBDataManager.DEFAULT_PASSWORD);
+		pool.setStatementTracer(tracer);
+		ActionEventQueue.install();
+
+		DBDataManager dm;
+		try {
+			dm = new InstrumentedDataManager(pool, metrics);
+		} catch (SQLException | RuntimeException e) {
+			// The data manager has closed the pool; stop the metrics logging too
+			metrics.close();
+			throw e;
+		}
 
 		// Configure JFrame properties
 		setDefaultCloseOperation(EXIT_ON_CLOSE);
+		// Release pooled database connections before the JVM exits
+		addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosing(WindowEvent e) {
+				dm.close();
+				metrics.close();
+				Logger.getLogger("quiz.sql.slow")
+						.info("Most frequent statements:" + System.lineSeparator() + tracer.summary(TRACE_SUMMARY_LIMIT));
+			}
+		});
 		setBounds(FRAME_X, FRAME_Y, FRAME_WIDTH, FRAME_HEIGHT);
 		setTitle("Quiz App");
 		setResizable(true);
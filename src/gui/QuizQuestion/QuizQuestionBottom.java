@@ -2,6 +2,7 @@ package gui.QuizQuestion;
 
 import java.awt.BorderLayout;
 
+import javax.swing.BorderFactory;
 import javax.swing.JButton;
 import javax.swing.JPanel;
 
@@ -14,7 +15,8 @@ import gui.Panels.MessagePanel;
  * <p>
  * It contains:
  * <ul>
- * <li>Action buttons for deleting, saving, and creating new questions</li>
+ * <li>Action buttons for deleting, saving, and creating new questions, and for
+ * finding near-duplicate questions</li>
  * <li>A {@link MessagePanel} for displaying feedback or error messages</li>
  * </ul>
  * <p>
@@ -39,6 +41,9 @@ public class QuizQuestionBottom extends JPanel {
 	/** Button for creating a new question. */
 	private JButton newQuestionButton;
 
+	/** Button for finding near-duplicate questions. */
+	private JButton findDuplicatesButton;
+
 	/** Delegate that will handle user actions triggered from this panel. */
 	private QuizQuestionDelegate delegate;
 
@@ -51,7 +56,7 @@ public class QuizQuestionBottom extends JPanel {
 	 * The panel consists of:
 	 * <ul>
 	 * <li>A {@link ButtonPanel} containing the "Delete", "Save", and "New Question"
-	 * buttons</li>
+	 * buttons, followed by the "Find Duplicates" button</li>
 	 * <li>A {@link MessagePanel} above the buttons for displaying status
 	 * messages</li>
 	 * </ul>
@@ -62,6 +67,8 @@ public class QuizQuestionBottom extends JPanel {
 	 * <li><b>Delete</b> → {@link QuizQuestionDelegate#onDeleteQuestion()}</li>
 	 * <li><b>Save</b> → {@link QuizQuestionDelegate#onSaveQuestion()}</li>
 	 * <li><b>New Question</b> → {@link QuizQuestionDelegate#onNewQuestion()}</li>
+	 * <li><b>Find Duplicates</b> →
+	 * {@link QuizQuestionDelegate#onFindDuplicates()}</li>
 	 * </ul>
 	 * </p>
 	 */
@@ -72,10 +79,17 @@ public class QuizQuestionBottom extends JPanel {
 		deleteButton = new JButton("Delete");
 		saveButton = new JButton("Save");
 		newQuestionButton = new JButton("New Question");
+		findDuplicatesButton = new JButton("Find Duplicates");
 
 		// Group the buttons in a common panel
 		ButtonPanel bp = new ButtonPanel(deleteButton, saveButton, newQuestionButton);
-		add(bp, BorderLayout.CENTER);
+		JPanel buttons = new JPanel(new BorderLayout());
+		buttons.add(bp, BorderLayout.CENTER);
+		JPanel findDuplicatesPanel = new JPanel(new BorderLayout());
+		findDuplicatesPanel.setBorder(BorderFactory.createEmptyBorder(10, 0, 10, 15));
+		findDuplicatesPanel.add(findDuplicatesButton, BorderLayout.CENTER);
+		buttons.add(findDuplicatesPanel, BorderLayout.EAST);
+		add(buttons, BorderLayout.CENTER);
 
 		// Create and add the message panel above the buttons
 		messagePanel = new MessagePanel();
@@ -99,6 +113,12 @@ public class QuizQuestionBottom extends JPanel {
 				delegate.onNewQuestion();
 			}
 		});
+
+		findDuplicatesButton.addActionListener(e -> {
+			if (delegate != null) {
+				delegate.onFindDuplicates();
+			}
+		});
 	}
 
 	// ---------- Public API (Getters & Setters) ----------
@@ -130,6 +150,15 @@ public class QuizQuestionBottom extends JPanel {
 		return newQuestionButton;
 	}
 
+	/**
+	 * Returns the "Find Duplicates" button instance.
+	 *
+	 * @return the find duplicates button
+	 */
+	public JButton getFindDuplicatesButton() {
+		return findDuplicatesButton;
+	}
+
 	/**
 	 * Returns the current delegate handling the button actions.
 	 *
@@ -10,6 +10,7 @@ package gui.QuizQuestion;
  * <li>Deleting the currently selected question</li>
  * <li>Saving a new or edited question</li>
  * <li>Preparing the creation of a new question</li>
+ * <li>Finding near-duplicate questions in the whole question bank</li>
  * </ul>
  * </p>
  * <p>
@@ -47,4 +48,13 @@ public interface QuizQuestionDelegate {
 	 * </p>
 	 */
 	void onNewQuestion();
+
+	/**
+	 * Triggered when the user requests a search for near-duplicate questions.
+	 * <p>
+	 * The implementing class should group the whole question bank into clusters
+	 * of reworded copies, off the event dispatch thread, and show them.
+	 * </p>
+	 */
+	void onFindDuplicates();
 }
@@ -66,6 +66,13 @@ public class QuizQuestionLeft extends JPanel {
 	/** Data manager for persistence and DB access. */
 	private final DBDataManager dm;
 
+	/**
+	 * The question currently loaded for editing, or {@code null} when a new
+	 * question is being created. Its ID and answer IDs are reused on save so that
+	 * the stored question is updated in place.
+	 */
+	private Question editedQuestion;
+
 	/** Text field showing the selected theme (read-only). */
 	private JTextField themeField;
 
@@ -175,6 +182,7 @@ public class QuizQuestionLeft extends JPanel {
 	 *          reset
 	 */
 	public void setQuestion(Question q) {
+		editedQuestion = q;
 		if (q == null) {
 			clearFields();
 			return;
@@ -197,7 +205,9 @@ public class QuizQuestionLeft extends JPanel {
 	/**
 	 * Builds a new {@link Question} object based on the current form inputs. - Only
 	 * includes answers with non-empty text - Associates each created {@link Answer}
-	 * with its "correct" flag
+	 * with its "correct" flag - Reuses the IDs of the question loaded for editing,
+	 * so saving updates it instead of inserting a copy; answer rows without a
+	 * stored answer get a negative placeholder ID
 	 *
 	 * @param selectedThema the currently selected {@link Theme} (context of the
 	 *                      question)
@@ -207,13 +217,20 @@ public class QuizQuestionLeft extends JPanel {
 		Question q = new Question(selectedThema);
 		q.setTitle(titelField.getText());
 		q.setText(questionArea.getText());
+
+		List<Answer> storedAnswers = List.of();
+		if (editedQuestion != null) {
+			q.setId(editedQuestion.getId());
+			storedAnswers = editedQuestion.getAnswers();
+		}
+
 		for (int i = 0; i < answerFields.length; i++) {
 			String text = answerFields[i].getText().trim();
 			if (!text.isEmpty()) {
 				Answer a = new Answer(q);
 				a.setText(text);
 				a.setCorrect(checkboxes[i].isSelected());
-				a.setId(i);
+				a.setId(i < storedAnswers.size() ? storedAnswers.get(i).getId() : -(i + 1));
 				q.addAnswer(a);
 			}
 		}
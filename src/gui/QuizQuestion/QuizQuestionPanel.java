@@ -3,10 +3,17 @@ package gui.QuizQuestion;
 import java.awt.BorderLayout;
 import java.util.List;
 
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
 
+import gui.Async.AsyncLoader;
 import persistence.DBDataManager;
+import persistence.NearDuplicateIndex;
+import persistence.tracing.UserActionEvent;
 import quizLogic.Question;
+import quizLogic.QuestionSummary;
 import quizLogic.QuestionValidator;
 import quizLogic.Theme;
 
@@ -30,6 +37,8 @@ import quizLogic.Theme;
  * <li>Coordinating interaction between left form and right list</li>
  * <li>Handling persistence via {@link DBDataManager}</li>
  * <li>Acting as a {@link QuizQuestionDelegate} for button actions</li>
+ * <li>Recording saves and deletions as {@link UserActionEvent}s for Java
+ * Flight Recorder</li>
  * </ul>
  * 
  * @author Oleg Kapirulya
@@ -49,6 +58,20 @@ public class QuizQuestionPanel extends JPanel implements QuizQuestionDelegate {
 	/** Database manager for loading/saving/deleting questions and themes. */
 	private final DBDataManager dm;
 
+	/** Loads the themes off the event dispatch thread. */
+	private final AsyncLoader<List<Theme>> themeLoader = new AsyncLoader<>();
+
+	/**
+	 * Looks up the near-duplicates of a question being saved off the event
+	 * dispatch thread; the first lookup builds the index.
+	 */
+	private final AsyncLoader<List<NearDuplicateIndex.Match>> duplicateLoader = new AsyncLoader<>(
+			loading -> quizQuestionBottom.getSaveButton().setEnabled(!loading));
+
+	/** Groups the question bank into near-duplicate clusters off the EDT. */
+	private final AsyncLoader<List<List<QuestionSummary>>> clusterLoader = new AsyncLoader<>(
+			loading -> quizQuestionBottom.getFindDuplicatesButton().setEnabled(!loading));
+
 	/**
 	 * Constructs a new {@code QuizQuestionPanel}.
 	 *
@@ -87,6 +110,50 @@ public class QuizQuestionPanel extends JPanel implements QuizQuestionDelegate {
 		add(quizQuestionBottom, BorderLayout.SOUTH);
 	}
 
+	/**
+	 * Asks the user whether to save a question although near-duplicates exist.
+	 *
+	 * @param duplicates the similar questions, most similar first
+	 * @return {@code true} to save anyway
+	 */
+	private boolean confirmNearDuplicates(List<NearDuplicateIndex.Match> duplicates) {
+		StringBuilder lines = new StringBuilder();
+		for (int i = 0; i < Math.min(duplicates.size(), 5); i++) {
+			lines.append("• ").append(duplicates.get(i)).append('\n');
+		}
+		int result = JOptionPane.showConfirmDialog(this,
+				String.format(QuestionValidator.MSG_NEAR_DUPLICATE_CONFIRM, lines),
+				QuestionValidator.MSG_NEAR_DUPLICATE_TITLE, JOptionPane.YES_NO_OPTION);
+		return result == JOptionPane.YES_OPTION;
+	}
+
+	/**
+	 * Shows the near-duplicate clusters of the question bank.
+	 *
+	 * @param clusters the clusters, largest first
+	 */
+	private void showDuplicateClusters(List<List<QuestionSummary>> clusters) {
+		if (clusters.isEmpty()) {
+			JOptionPane.showMessageDialog(this, QuestionValidator.MSG_NO_DUPLICATE_CLUSTERS,
+					QuestionValidator.MSG_NEAR_DUPLICATE_TITLE, JOptionPane.INFORMATION_MESSAGE);
+			return;
+		}
+		StringBuilder lines = new StringBuilder();
+		for (List<QuestionSummary> cluster : clusters) {
+			lines.append("• ");
+			for (int i = 0; i < cluster.size(); i++) {
+				if (i > 0)
+					lines.append(" | ");
+				lines.append(cluster.get(i).getTitle());
+			}
+			lines.append('\n');
+		}
+		JTextArea text = new JTextArea(String.format(QuestionValidator.MSG_DUPLICATE_CLUSTERS, lines), 15, 60);
+		text.setEditable(false);
+		JOptionPane.showMessageDialog(this, new JScrollPane(text), QuestionValidator.MSG_NEAR_DUPLICATE_TITLE,
+				JOptionPane.INFORMATION_MESSAGE);
+	}
+
 	/** Register this panel as delegate for bottom control bar. */
 	private void setDelegate() {
 		quizQuestionBottom.setDelegate(this);
@@ -100,34 +167,80 @@ public class QuizQuestionPanel extends JPanel implements QuizQuestionDelegate {
 	 * <ol>
 	 * <li>Get selected theme + form data</li>
 	 * <li>Validate with {@link QuestionValidator}</li>
+	 * <li>Look up near-duplicates in the background, see
+	 * {@link DBDataManager#findNearDuplicates(Question)}; the save button is
+	 * disabled meanwhile</li>
+	 * <li>Ask for confirmation if near-duplicates exist</li>
 	 * <li>If valid → save in DB via {@link DBDataManager}</li>
 	 * <li>Refresh question list and clear form</li>
 	 * </ol>
 	 */
 	@Override
 	public void onSaveQuestion() {
-		Theme selectedThema = (Theme) quizQuestionRight.getQuizQuestionRightLayout().getThemaComboBox().getSelectedItem();
+		// The event lasts until the near-duplicates are known; it is completed
+		// only if the question is then saved
+		UserActionEvent event = new UserActionEvent("QuizQuestionPanel.onSaveQuestion");
+		event.begin();
+		Theme selectedThema = (Theme) quizQuestionRight.getQuizQuestionRightLayout().getThemaComboBox()
+				.getSelectedItem();
 
 		Question q = quizQuestionLeft.getSelectedQuestion(selectedThema);
+		if (selectedThema != null)
+			event.setThemeId(selectedThema.getId());
 
 		// Validate input data
-		String validationError = QuestionValidator.validate(q, selectedThema, q);
+		String validationError = QuestionValidator.validate(q, selectedThema,
+				title -> dm.findQuestionIdByTitle(selectedThema, title));
 		if (validationError != null) {
 			quizQuestionBottom.getMessagePanel().setText(validationError);
+			event.commit();
 			return;
 		}
 
-		// Save in DB
-		String result = dm.saveQuestion(q);
-		if (result != null) {
-			quizQuestionBottom.getMessagePanel().setText(QuestionValidator.MSG_SAVE_ERROR_PREFIX + result);
-			return;
-		}
+		// Warn about reworded copies of existing questions, then save
+		duplicateLoader.load(() -> dm.findNearDuplicates(q), duplicates -> {
+			event.end(); // the duration excludes the confirmation and the save
+			event.setCompleted(saveQuestion(q, duplicates));
+			event.setQuestionId(q.getId());
+			event.commit();
+		}, event::commit); // superseded, cancelled or failed: not completed
+	}
 
-		// On success: refresh and clear
-		reloadQuestionsForTheme(q.getThema());
-		quizQuestionLeft.setQuestion(null);
-		quizQuestionBottom.getMessagePanel().setText(QuestionValidator.MSG_SAVE_SUCCESS);
+	/**
+	 * Saves a validated question once its near-duplicates are known, after
+	 * confirmation if there are any.
+	 *
+	 * @param q          the question
+	 * @param duplicates the near-duplicates of the question, most similar first
+	 * @return {@code true} if the question was saved
+	 */
+	private boolean saveQuestion(Question q, List<NearDuplicateIndex.Match> duplicates) {
+		// Ask before the event begins, so that it does not last as long as the dialog
+		if (!duplicates.isEmpty() && !confirmNearDuplicates(duplicates))
+			return false;
+
+		UserActionEvent event = new UserActionEvent("QuizQuestionPanel.saveQuestion");
+		event.begin();
+		try {
+			event.setThemeId(q.getThema().getId());
+
+			// Save in DB
+			String result = dm.saveQuestion(q);
+			event.setQuestionId(q.getId());
+			if (result != null) {
+				quizQuestionBottom.getMessagePanel().setText(QuestionValidator.MSG_SAVE_ERROR_PREFIX + result);
+				return false;
+			}
+
+			// On success: refresh and clear
+			reloadQuestionsForTheme(q.getThema());
+			quizQuestionLeft.setQuestion(null);
+			quizQuestionBottom.getMessagePanel().setText(QuestionValidator.MSG_SAVE_SUCCESS);
+			event.setCompleted(true);
+			return true;
+		} finally {
+			event.commit();
+		}
 	}
 
 	/**
@@ -136,19 +249,29 @@ public class QuizQuestionPanel extends JPanel implements QuizQuestionDelegate {
 	 */
 	@Override
 	public void onDeleteQuestion() {
-		Question q = quizQuestionRight.getSelectedQuestion();
+		UserActionEvent event = new UserActionEvent("QuizQuestionPanel.onDeleteQuestion");
+		event.begin();
+		try {
+			QuestionSummary selected = quizQuestionRight.getSelectedQuestion();
 
-		if (q == null || q.getThema() == null) {
-			quizQuestionBottom.getMessagePanel().setText(QuestionValidator.MSG_DELETE_INVALID_SELECTION);
-			return;
-		}
+			if (selected == null || selected.getThemeId() <= 0) {
+				quizQuestionBottom.getMessagePanel().setText(QuestionValidator.MSG_DELETE_INVALID_SELECTION);
+				return;
+			}
+			Question q = selected.toQuestion(); // deleting only needs the IDs
+			event.setThemeId(selected.getThemeId());
+			event.setQuestionId(q.getId());
 
-		String result = dm.deleteQuestion(q);
-		if (result != null) {
-			quizQuestionBottom.getMessagePanel().setText(QuestionValidator.MSG_DELETE_ERROR_PREFIX + result);
-		} else {
-			reloadQuestionsForTheme(q.getThema());
-			quizQuestionLeft.setQuestion(null);
+			String result = dm.deleteQuestion(q);
+			if (result != null) {
+				quizQuestionBottom.getMessagePanel().setText(QuestionValidator.MSG_DELETE_ERROR_PREFIX + result);
+			} else {
+				reloadQuestionsForTheme(q.getThema());
+				quizQuestionLeft.setQuestion(null);
+				event.setCompleted(true);
+			}
+		} finally {
+			event.commit();
 		}
 	}
 
@@ -163,15 +286,26 @@ public class QuizQuestionPanel extends JPanel implements QuizQuestionDelegate {
 	}
 
 	/**
-	 * Reloads all themes from DB and refreshes the right panel.
+	 * Groups the whole question bank into clusters of near-duplicates in the
+	 * background and shows them, see
+	 * {@link DBDataManager#findDuplicateClusters(double)}.
+	 */
+	@Override
+	public void onFindDuplicates() {
+		clusterLoader.load(() -> dm.findDuplicateClusters(NearDuplicateIndex.DEFAULT_THRESHOLD),
+				this::showDuplicateClusters);
+	}
+
+	/**
+	 * Reloads all themes from DB in the background and refreshes the right panel.
 	 */
 	public void reloadThemes() {
-		List<Theme> themes = dm.getAllThemes();
-		quizQuestionRight.setThemen(themes);
+		themeLoader.load(dm::getAllThemes, quizQuestionRight::setThemen);
 	}
 
 	/**
-	 * Reload all questions for a given theme from DB and update right panel.
+	 * Reload all questions for a given theme from DB in the background and update
+	 * right panel.
 	 * 
 	 * @param theme the theme whose questions to reload
 	 */
@@ -180,8 +314,7 @@ public class QuizQuestionPanel extends JPanel implements QuizQuestionDelegate {
 			quizQuestionRight.setQuestion(List.of());
 			return;
 		}
-		List<Question> question = dm.getQuestionsFor(theme);
-		quizQuestionRight.setQuestion(question);
+		quizQuestionRight.getQuizQuestionRightLayout().loadQuestionsOf(theme);
 	}
 
 	/**
@@ -1,5 +1,7 @@
 package gui.QuizQuestion;
 
+import java.awt.Component;
+import java.awt.Dimension;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -8,10 +10,17 @@ import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
 import javax.swing.JPanel;
+import javax.swing.JTextField;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 
+import gui.Async.AsyncLoader;
+import gui.Panels.LabelFieldPanel;
 import gui.Panels.QuizQuestionRightLayout;
 import persistence.DBDataManager;
 import quizLogic.Question;
+import quizLogic.QuestionSummary;
 import quizLogic.Theme;
 
 /**
@@ -24,13 +33,17 @@ import quizLogic.Theme;
  * <ul>
  * <li>A combo box containing available quiz themes</li>
  * <li>A list of questions belonging to the selected theme</li>
+ * <li>A search field; while it contains text, the list shows the questions of
+ * the selected theme whose title, text or answers match it, best first (see
+ * {@link DBDataManager#search(String, Theme, int)})</li>
  * </ul>
  *
  * <p>
  * <b>Main responsibilities:</b>
  * </p>
  * <ul>
- * <li>Loading themes/questions from {@link DBDataManager}</li>
+ * <li>Loading themes/questions from {@link DBDataManager} (in the background,
+ * see {@link QuizQuestionRightLayout#fillQuestionList()})</li>
  * <li>Reacting to theme selection changes</li>
  * <li>Updating the left form panel ({@link QuizQuestionLeft}) when the user
  * picks a question</li>
@@ -57,6 +70,24 @@ public class QuizQuestionRight extends JPanel {
 	/** Data manager for retrieving themes and questions from the DB. */
 	private final DBDataManager dm;
 
+	/** Loads the selected question with its answers off the event dispatch thread. */
+	private final AsyncLoader<Question> questionLoader = new AsyncLoader<>();
+
+	/** Maximum number of search results shown. */
+	private static final int SEARCH_LIMIT = 200;
+
+	/** Delay after the last keystroke before searching, in milliseconds. */
+	private static final int SEARCH_DELAY_MILLIS = 250;
+
+	/** Search field above the question list. */
+	private final JTextField searchField = new JTextField();
+
+	/** Starts the search once the user paused typing. */
+	private final Timer searchTimer = new Timer(SEARCH_DELAY_MILLIS, e -> search());
+
+	/** Runs the searches off the event dispatch thread. */
+	private final AsyncLoader<List<QuestionSummary>> searchLoader = new AsyncLoader<>();
+
 	/**
 	 * Constructs a new right-hand management panel.
 	 *
@@ -79,32 +110,19 @@ public class QuizQuestionRight extends JPanel {
 	}
 
 	/**
-	 * Create and configure a {@link QuizQuestionRightLayout}, initially filled with
-	 * themes from the database.
+	 * Create and configure a {@link QuizQuestionRightLayout}, initially empty. The
+	 * themes are loaded in the background and set via {@link #setThemen}.
 	 */
 	private void initThemaQuestionPanel() {
-		List<Theme> filteredThemes = getFilteredThemen();
-		quizQuestionRightLayout = new QuizQuestionRightLayout(dm, filteredThemes);
+		LabelFieldPanel searchPanel = new LabelFieldPanel("Suche", searchField);
+		searchPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+		searchPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, searchField.getPreferredSize().height));
+		add(searchPanel);
+		add(Box.createVerticalStrut(5));
+
+		quizQuestionRightLayout = new QuizQuestionRightLayout(dm, new ArrayList<>());
 		add(quizQuestionRightLayout);
 		add(Box.createVerticalStrut(15));
-		// Add special "All themes" entry
-		filteredThemes.add(QuizQuestionRightLayout.ALL_THEMES);
-	}
-
-	/**
-	 * Fetches all real themes from DB and excludes the special "All themes"
-	 * placeholder (added separately).
-	 *
-	 * @return list of valid {@link Theme} objects
-	 */
-	private List<Theme> getFilteredThemen() {
-		List<Theme> list = new ArrayList<>();
-		for (Theme t : dm.getAllThemes()) {
-			if (!"Alle Themen".equals(t.toString())) {
-				list.add(t);
-			}
-		}
-		return list;
 	}
 
 	/**
@@ -119,11 +137,32 @@ public class QuizQuestionRight extends JPanel {
 	/**
 	 * Setup event listeners for:
 	 * <ul>
-	 * <li><b>Theme selection:</b> reload questions for chosen theme</li>
-	 * <li><b>Question selection:</b> show details in left editor panel</li>
+	 * <li><b>Theme selection:</b> reset the left editor; the layout reloads the
+	 * questions for the chosen theme itself</li>
+	 * <li><b>Question selection:</b> load the question with its answers in the
+	 * background and show it in the left editor panel</li>
+	 * <li><b>Search input:</b> search after a short pause in typing</li>
 	 * </ul>
 	 */
 	private void setupEvents() {
+		searchTimer.setRepeats(false);
+		searchField.getDocument().addDocumentListener(new DocumentListener() {
+			@Override
+			public void insertUpdate(DocumentEvent e) {
+				searchTimer.restart();
+			}
+
+			@Override
+			public void removeUpdate(DocumentEvent e) {
+				searchTimer.restart();
+			}
+
+			@Override
+			public void changedUpdate(DocumentEvent e) {
+				searchTimer.restart();
+			}
+		});
+
 		// Theme selector updates questions in the list
 		quizQuestionRightLayout.getThemaComboBox().addActionListener(e -> {
 			Theme selected = (Theme) quizQuestionRightLayout.getThemaComboBox().getSelectedItem();
@@ -135,8 +174,15 @@ public class QuizQuestionRight extends JPanel {
 		// Question selection updates the left form
 		quizQuestionRightLayout.getQuestionList().addListSelectionListener(e -> {
 			if (!e.getValueIsAdjusting() && quizQuestionLeft != null) {
-				Question selectedQ = quizQuestionRightLayout.getQuestionList().getSelectedValue();
-				quizQuestionLeft.setQuestion(selectedQ);
+				QuestionSummary selectedQ = quizQuestionRightLayout.getSelectedQuestion();
+				if (selectedQ != null) {
+					// List rows are summaries; the editor needs the full question
+					int id = selectedQ.getId();
+					questionLoader.load(() -> dm.getFullQuestionById(id), quizQuestionLeft::setQuestion);
+				} else {
+					questionLoader.cancel();
+					quizQuestionLeft.setQuestion(null);
+				}
 			}
 		});
 	}
@@ -148,15 +194,11 @@ public class QuizQuestionRight extends JPanel {
 	 * @param themen collection of themes to display.
 	 */
 	public void setThemen(Collection<Theme> themen) {
+		// Selects the first entry and reloads its questions in the background
 		quizQuestionRightLayout.setThemes(themen);
-		if (themen != null && !themen.isEmpty()) {
-			quizQuestionRightLayout.getThemaComboBox().setSelectedIndex(0);
-			Theme first = (Theme) quizQuestionRightLayout.getThemaComboBox().getSelectedItem();
-			if (first != null) {
-				handleThemeSelection(first);
-			}
-		} else {
-			quizQuestionRightLayout.setQuestion(null);
+		Theme first = (Theme) quizQuestionRightLayout.getThemaComboBox().getSelectedItem();
+		if (first != null) {
+			handleThemeSelection(first);
 		}
 	}
 
@@ -172,11 +214,12 @@ public class QuizQuestionRight extends JPanel {
 	/**
 	 * Returns the question currently selected in the UI list.
 	 *
-	 * @return the selected {@link Question}, or {@code null} if nothing chosen
+	 * @return the summary of the selected question, or {@code null} if nothing
+	 *         chosen
 	 */
-	public Question getSelectedQuestion() {
-		if (quizQuestionRightLayout != null && quizQuestionRightLayout.getQuestionList() != null) {
-			return quizQuestionRightLayout.getQuestionList().getSelectedValue();
+	public QuestionSummary getSelectedQuestion() {
+		if (quizQuestionRightLayout != null) {
+			return quizQuestionRightLayout.getSelectedQuestion();
 		}
 		return null;
 	}
@@ -202,41 +245,38 @@ public class QuizQuestionRight extends JPanel {
 	}
 
 	/**
-	 * Utility helper: loads questions for a given theme, including the special "All
-	 * themes" case. Additionally, resets the left panel to show the chosen theme
-	 * and clears the selected question.
-	 *
-	 * @param selected the chosen {@link Theme}, may be {@code ALLE_THEMEN} or null
+	 * Shows the search results for the text of the search field within the
+	 * selected theme, or the plain question list of the theme if the field is
+	 * empty.
 	 */
-	private void handleThemeSelection(Theme selected) {
-		loadQuestionsForSelection(selected);
-
-		// Reset left form if linked
-		if (quizQuestionLeft != null) {
-			quizQuestionLeft.setThema(selected == quizQuestionRightLayout.ALL_THEMES ? null : selected);
-			quizQuestionLeft.setQuestion(null);
+	private void search() {
+		searchTimer.stop();
+		String query = searchField.getText().trim();
+		if (query.isEmpty()) {
+			searchLoader.cancel();
+			quizQuestionRightLayout.fillQuestionList();
+			return;
 		}
+		Theme theme = (Theme) quizQuestionRightLayout.getThemaComboBox().getSelectedItem();
+		searchLoader.load(() -> dm.search(query, theme, SEARCH_LIMIT), quizQuestionRightLayout::showQuestions);
 	}
 
 	/**
-	 * Loads questions from DB for the chosen theme.
+	 * Utility helper: resets the left panel to show the chosen theme and clears
+	 * the selected question. The questions of the theme are loaded by the
+	 * {@link QuizQuestionRightLayout}, which listens to the same combo box.
 	 *
 	 * @param selected the chosen {@link Theme}, may be {@code ALLE_THEMEN} or null
 	 */
-	private void loadQuestionsForSelection(Theme selected) {
-		if (selected == null) {
-			setQuestion(new ArrayList<>());
-			return;
-		}
-		List<Question> question;
-		if (selected == quizQuestionRightLayout.ALL_THEMES) {
-			question = new ArrayList<>();
-			for (Theme t : dm.getAllThemes()) {
-				question.addAll(dm.getQuestionsFor(t));
-			}
-		} else {
-			question = dm.getQuestionsFor(selected);
+	private void handleThemeSelection(Theme selected) {
+		// Reset left form if linked
+		questionLoader.cancel();
+		if (quizQuestionLeft != null) {
+			quizQuestionLeft.setThema(selected == quizQuestionRightLayout.ALL_THEMES ? null : selected);
+			quizQuestionLeft.setQuestion(null);
 		}
-		setQuestion(question);
+		// The layout reloads the theme's list; an active search replaces it
+		if (!searchField.getText().trim().isEmpty())
+			search();
 	}
 }
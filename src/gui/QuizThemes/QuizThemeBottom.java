@@ -115,6 +115,24 @@ public class QuizThemeBottom extends JPanel {
 		this.delegate = delegate;
 	}
 
+	/**
+	 * Returns the "Delete" button instance.
+	 *
+	 * @return the delete button
+	 */
+	public JButton getDeleteButton() {
+		return deleteButton;
+	}
+
+	/**
+	 * Returns the "Save" button instance.
+	 *
+	 * @return the save button
+	 */
+	public JButton getSaveButton() {
+		return saveButton;
+	}
+
 	/**
 	 * Retrieves the message panel used for displaying user messages.
 	 *
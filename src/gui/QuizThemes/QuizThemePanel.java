@@ -2,13 +2,18 @@ package gui.QuizThemes;
 
 import java.awt.BorderLayout;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 
+import gui.Async.AsyncLoader;
 import gui.QuizQuestion.QuizQuestionPanel;
 import persistence.DBDataManager;
+import persistence.tracing.UserActionEvent;
 import quizLogic.Theme;
+import quizLogic.ThemeSummary;
 import quizLogic.ThemeValidator;
 
 /**
@@ -30,8 +35,10 @@ import quizLogic.ThemeValidator;
  * 
  * <p>
  * This panel connects to the {@link DBDataManager} to load, save, and delete
- * quiz themes. It can also notify a connected {@link QuizQuestionPanel} to
- * refresh its theme data.
+ * quiz themes. All database calls run in the background via
+ * {@link AsyncLoader}s. It can also notify a connected
+ * {@link QuizQuestionPanel} to refresh its theme data. Saves and deletions are
+ * recorded as {@link UserActionEvent}s for Java Flight Recorder.
  * </p>
  * 
  * @author Oleg Kapirulya
@@ -61,6 +68,17 @@ public class QuizThemePanel extends JPanel implements QuizThemeDelegate {
 
 	private final DBDataManager dm;
 
+	/** Loads the theme list off the event dispatch thread. */
+	private final AsyncLoader<List<ThemeSummary>> themeListLoader = new AsyncLoader<>();
+
+	/** Saves a theme off the event dispatch thread; disables the save button meanwhile. */
+	private final AsyncLoader<SaveResult> saveLoader = new AsyncLoader<>(
+			loading -> quizThemeBottom.getSaveButton().setEnabled(!loading));
+
+	/** Deletes a theme off the event dispatch thread; disables the delete button meanwhile. */
+	private final AsyncLoader<Boolean> deleteLoader = new AsyncLoader<>(
+			loading -> quizThemeBottom.getDeleteButton().setEnabled(!loading));
+
 	/**
 	 * Constructs the quiz theme management panel.
 	 * <ul>
@@ -80,11 +98,12 @@ public class QuizThemePanel extends JPanel implements QuizThemeDelegate {
 
 	/**
 	 * Initializes the UI structure by creating and adding the left, right, and
-	 * bottom panels, and setting delegate links.
+	 * bottom panels, and setting delegate links. The themes are loaded in the
+	 * background.
 	 */
 	private void initUI() {
 		quizThemeLeft = new QuizThemeLeft();
-		quizThemeRight = new QuizThemeRight(dm.getAllThemes());
+		quizThemeRight = new QuizThemeRight(dm, new ArrayList<>());
 		quizThemeBottom = new QuizThemeBottom();
 
 		// Link the right panel with the left panel for selection updates
@@ -97,85 +116,112 @@ public class QuizThemePanel extends JPanel implements QuizThemeDelegate {
 		add(quizThemeLeft, BorderLayout.CENTER);
 		add(quizThemeRight, BorderLayout.EAST);
 		add(quizThemeBottom, BorderLayout.SOUTH);
-		
+
+		themeListLoader.load(dm::getThemeSummaries, quizThemeRight::setThemen);
 	}
 
 	/**
 	 * {@inheritDoc} Deletes the currently selected theme after user confirmation.
 	 * <p>
-	 * If deletion is successful, the themes list is reloaded and the left form is
-	 * cleared.
+	 * The theme is deleted in the background while the delete button is
+	 * disabled. If deletion is successful, the themes list is reloaded and the
+	 * left form is cleared.
 	 * </p>
 	 */
 	@Override
 	public void onDeleteTheme() {
-		Theme selected = quizThemeRight.getThemaPanel().getThemenList().getSelectedValue();
+		ThemeSummary selected = quizThemeRight.getThemaPanel().getThemenList().getSelectedValue();
 		if (selected == null)
 			return;
 
-		// Ask user to confirm deletion
+		// Ask user to confirm deletion; the event below does not include the dialogs
 		int result = JOptionPane.showConfirmDialog(this,
 				String.format(ThemeValidator.MSG_DELETE_CONFIRM_PREFIX, selected.getTitle()),
 				ThemeValidator.MSG_DELETE_CONFIRM_TITLE, JOptionPane.YES_NO_OPTION);
+		if (result != JOptionPane.YES_OPTION)
+			return;
 
-		if (result == JOptionPane.YES_OPTION) {
-			String error = dm.deleteTheme(selected.getId()) ? null : "Fehler";
+		// The event lasts until the deletion is done or discarded
+		UserActionEvent event = new UserActionEvent("QuizThemePanel.onDeleteTheme");
+		event.begin();
+		event.setThemeId(selected.getId());
+		int themeId = selected.getId();
+		deleteLoader.load(() -> dm.deleteTheme(themeId), deleted -> {
+			event.setCompleted(deleted);
+
+			// Reload the themes list and clear the input fields
+			reloadThemenUI(null);
+			quizThemeLeft.clearFields();
+			event.commit();
 
 			// Show error if deletion failed
-			if (error != null) {
-				JOptionPane.showMessageDialog(this, ThemeValidator.MSG_DELETE_ERROR_PREFIX + error, "Fehler",
+			if (!deleted) {
+				JOptionPane.showMessageDialog(this, ThemeValidator.MSG_DELETE_ERROR_PREFIX + "Fehler", "Fehler",
 						JOptionPane.ERROR_MESSAGE);
 			}
-
-			// Reload the themes list and clear the input fields
-			reloadThemenUI();
-			quizThemeLeft.clearFields();
-		}
+		}, event::commit); // cancelled or failed: not completed
 	}
 
 	/**
 	 * {@inheritDoc} Saves a new or edited theme after validation.
 	 * <p>
 	 * If a theme is selected in the list, it will be updated. Otherwise, a new
-	 * theme is created. Displays success or error messages in the bottom panel.
+	 * theme is created. Validation against the existing titles and the save run
+	 * in the background while the save button is disabled. Displays success or
+	 * error messages in the bottom panel.
 	 * </p>
 	 */
 	@Override
 	public void onSaveTheme() {
+		// The event lasts until the save is done or discarded
+		UserActionEvent event = new UserActionEvent("QuizThemePanel.onSaveTheme");
+		event.begin();
 		String titel = quizThemeLeft.getTitelField().getText().trim();
 		String info = quizThemeLeft.getInfoArea().getText();
-		Theme selected = quizThemeRight.getThemaPanel().getThemenList().getSelectedValue();
+		ThemeSummary summary = quizThemeRight.getThemaPanel().getThemenList().getSelectedValue();
+		int excludeId = summary == null ? -1 : summary.getId();
+		event.setThemeId(excludeId);
 
-		// Validate user input
-		String validationError = ThemeValidator.validate(titel, info, dm.getAllThemes(), selected);
-		if (validationError != null) {
-			quizThemeBottom.getMessagePanel().setText(validationError);
-			return;
-		}
+		saveLoader.load(() -> saveTheme(titel, info, excludeId), saved -> {
+			quizThemeBottom.getMessagePanel().setText(saved.message);
+			if (saved.theme != null) {
+				event.setThemeId(saved.theme.getId());
+				// Refresh view and show the saved theme as selected
+				reloadThemenUI(saved.theme);
+				event.setCompleted(true);
+			}
+			event.commit();
+		}, event::commit); // cancelled or failed: not completed
+	}
+
+	/**
+	 * Validates and saves a theme; runs off the event dispatch thread.
+	 *
+	 * @param titel     the entered title
+	 * @param info      the entered description
+	 * @param excludeId the ID of the edited theme, or {@code -1} for a new theme
+	 * @return the saved theme and the message to show
+	 */
+	private SaveResult saveTheme(String titel, String info, int excludeId) {
+		// Validate user input; the title is checked against the title index
+		String validationError = ThemeValidator.validate(titel, info, dm::findThemeIdByTitle, excludeId);
+		if (validationError != null)
+			return new SaveResult(null, validationError);
 
 		// Update existing theme or create a new one
-		if (selected != null) {
-			selected.setTitle(titel);
-			selected.setText(info);
-		} else {
+		Theme selected = excludeId <= 0 ? null : dm.getThemeById(excludeId);
+		if (selected == null) {
 			selected = new Theme();
-			selected.setTitle(titel);
-			selected.setText(info);
 			selected.setId(-1); // Temporary ID for new themes
 		}
+		selected.setTitle(titel);
+		selected.setText(info);
 
 		// Save to the data manager
 		String error = dm.saveTheme(selected);
-		if (error != null) {
-			quizThemeBottom.getMessagePanel().setText(ThemeValidator.MSG_SAVE_ERROR_PREFIX + error);
-			return;
-		}
-
-		// Refresh view and show the saved theme as selected
-		reloadThemenUI();
-		quizThemeRight.getThemaPanel().getThemenList().setSelectedValue(selected, true);
-		quizThemeLeft.setThema(selected);
-		quizThemeBottom.getMessagePanel().setText(ThemeValidator.MSG_SAVE_SUCCESS);
+		if (error != null)
+			return new SaveResult(null, ThemeValidator.MSG_SAVE_ERROR_PREFIX + error);
+		return new SaveResult(selected, ThemeValidator.MSG_SAVE_SUCCESS);
 	}
 
 	/**
@@ -189,16 +235,43 @@ public class QuizThemePanel extends JPanel implements QuizThemeDelegate {
 	}
 
 	/**
-	 * Reloads the theme list in the right panel and, if connected, also triggers a
-	 * reload of themes in the associated questions panel.
+	 * Reloads the theme list in the right panel in the background and, if
+	 * connected, also triggers a reload of themes in the associated questions
+	 * panel.
+	 *
+	 * @param select the theme to select and show once the list is loaded, or
+	 *               {@code null}
 	 */
-	private void reloadThemenUI() {
-		quizThemeRight.setThemen(dm.getAllThemes());
+	private void reloadThemenUI(Theme select) {
+		themeListLoader.load(dm::getThemeSummaries, themen -> {
+			quizThemeRight.setThemen(themen);
+			if (select != null) {
+				quizThemeRight.getThemaPanel().getThemenList().setSelectedValue(ThemeSummary.of(select), true);
+				quizThemeLeft.setThema(select);
+			}
+		});
 		if (quizQuestionPanel != null) {
 			quizQuestionPanel.reloadThemes();
 		}
 	}
 
+	/**
+	 * Outcome of {@link #saveTheme(String, String, int)}.
+	 */
+	private static final class SaveResult {
+
+		/** The saved theme, or {@code null} if it was not saved. */
+		private final Theme theme;
+
+		/** The message to show in the bottom panel. */
+		private final String message;
+
+		private SaveResult(Theme theme, String message) {
+			this.theme = theme;
+			this.message = message;
+		}
+	}
+
 	// ---------- Public API (Getters & Setters) ----------
 
 	/**
@@ -7,8 +7,11 @@ import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
 import javax.swing.JPanel;
 
+import gui.Async.AsyncLoader;
 import gui.Panels.ThemaPanel;
+import persistence.DBDataManager;
 import quizLogic.Theme;
+import quizLogic.ThemeSummary;
 
 /**
  * {@code QuizThemeRight} is the right-hand panel in the Quiz Theme Management
@@ -22,7 +25,8 @@ import quizLogic.Theme;
  * <p>
  * This panel uses a {@link ThemaPanel} to handle the theme list rendering and
  * uses a {@code ListSelectionListener} to notify the left panel whenever the
- * selection changes.
+ * selection changes. The list only holds theme summaries; the selected theme
+ * including its description is loaded in the background.
  * </p>
  * 
  * @author Oleg Kapirulya
@@ -38,13 +42,21 @@ public class QuizThemeRight extends JPanel {
 	/** The panel containing the list of quiz themes. */
 	private ThemaPanel themaPanel;
 
+	/** Data manager used to load the selected theme. */
+	private final DBDataManager dm;
+
+	/** Loads the selected theme off the event dispatch thread. */
+	private final AsyncLoader<Theme> themeLoader = new AsyncLoader<>();
+
 	/**
 	 * Constructs a new {@code QuizThemeRight} panel.
 	 *
-	 * @param themen the collection of quiz themes to display in the list.
+	 * @param dm     the data manager used to load the selected theme
+	 * @param themen the summaries of the quiz themes to display in the list.
 	 */
-	public QuizThemeRight(Collection<Theme> themen) {
+	public QuizThemeRight(DBDataManager dm, Collection<ThemeSummary> themen) {
 		super();
+		this.dm = dm;
 		initPanelLayout();
 		initThemaPanel(themen);
 	}
@@ -69,15 +81,19 @@ public class QuizThemeRight extends JPanel {
 	 *
 	 * @param themen the collection of quiz themes to display
 	 */
-	private void initThemaPanel(Collection<Theme> themen) {
+	private void initThemaPanel(Collection<ThemeSummary> themen) {
 		themaPanel = new ThemaPanel(themen);
 		add(themaPanel);
 
 		themaPanel.getThemenList().addListSelectionListener(e -> {
 			if (!e.getValueIsAdjusting()) {
-				Theme selected = themaPanel.getThemenList().getSelectedValue();
-				if (quizThemeLeft != null) {
-					quizThemeLeft.setThema(selected);
+				ThemeSummary selected = themaPanel.getThemenList().getSelectedValue();
+				if (selected != null) {
+					int id = selected.getId();
+					themeLoader.load(() -> dm.getThemeById(id), this::showThema);
+				} else {
+					themeLoader.cancel();
+					showThema(null);
 				}
 			}
 		});
@@ -98,12 +114,23 @@ public class QuizThemeRight extends JPanel {
 		this.quizThemeLeft = quizThemenLeft;
 	}
 
+	/**
+	 * Shows a loaded theme on the linked left panel.
+	 *
+	 * @param thema the theme, or {@code null} to clear the panel
+	 */
+	private void showThema(Theme thema) {
+		if (quizThemeLeft != null) {
+			quizThemeLeft.setThema(thema);
+		}
+	}
+
 	/**
 	 * Updates the list of themes displayed in the {@link ThemaPanel}.
 	 *
-	 * @param themen the new collection of themes to display
+	 * @param themen the summaries of the themes to display
 	 */
-	public void setThemen(Collection<Theme> themen) {
+	public void setThemen(Collection<ThemeSummary> themen) {
 		themaPanel.setThemen(themen);
 	}
 
@@ -3,6 +3,7 @@ package gui.Statistic;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Component;
+import java.awt.Cursor;
 import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.FontMetrics;
@@ -12,8 +13,7 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.TextStyle;
 import java.time.temporal.WeekFields;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
@@ -29,9 +29,12 @@ import javax.swing.JList;
 import javax.swing.JPanel;
 import javax.swing.SwingConstants;
 
+import gui.Async.AsyncLoader;
 import persistence.DBDataManager;
-import quizLogic.Question;
+import persistence.DAO.StatisticFilter;
+import quizLogic.QuestionSummary;
 import quizLogic.QuizStatistic;
+import quizLogic.StatisticAggregate;
 import quizLogic.Theme;
 
 /**
@@ -43,12 +46,15 @@ import quizLogic.Theme;
  * </p>
  * <ul>
  * <li>Selection of Theme, Question, and Calendar Week via combo boxes.</li>
- * <li>Aggregation and retrieval of quiz statistics from the
- * {@link DBDataManager}.</li>
+ * <li>Aggregation of quiz statistics in memory via the
+ * {@link persistence.StatisticsColumnStore}, a columnar copy of the recorded
+ * attempts loaded once with a streaming query.</li>
  * <li>Bar chart visualization displaying the number of correct and incorrect
  * answers per day for the selected week.</li>
  * <li>Dynamic calculation and display of accuracy percentage for the selected
  * filters and week.</li>
+ * <li>All queries run in the background via {@link AsyncLoader}s; changing a
+ * filter supersedes the loads of the previous selection.</li>
  * </ul>
  * 
  * <p>
@@ -68,7 +74,7 @@ import quizLogic.Theme;
  * Dependencies:
  * <ul>
  * <li>Persistence layer interface {@link DBDataManager} for queries.</li>
- * <li>Domain classes {@link Theme}, {@link Question}, and
+ * <li>Domain classes {@link Theme}, {@link QuestionSummary}, and
  * {@link QuizStatistic}.</li>
  * </ul>
  * 
@@ -96,8 +102,41 @@ public class StatisticPanel extends JPanel {
 	/** Panel rendering the daily bar chart for the selected week */
 	private JPanel barChartPanel;
 
-	/** Map from week label (e.g. "2025-KW34") to QuizStatistic list of that week */
-	private Map<String, List<QuizStatistic>> weekStatsMap = new LinkedHashMap<>();
+	/** Map from week label (e.g. "2025-KW34") to the first day of that week */
+	private Map<String, LocalDate> weekStartMap = new LinkedHashMap<>();
+
+	/** Aggregated attempts per week, keyed by the first day of the week */
+	private Map<LocalDate, StatisticAggregate> weekAggregates = new LinkedHashMap<>();
+
+	/** Aggregated attempts per day of the currently selected week */
+	private Map<LocalDate, StatisticAggregate> selectedWeekDays = new LinkedHashMap<>();
+
+	/** First day of the currently selected week, or null if none */
+	private LocalDate selectedWeekStart;
+
+	/** Loads the themes for the theme combo box */
+	private final AsyncLoader<List<Theme>> themeLoader = new AsyncLoader<>(
+			loading -> themeComboBox.setEnabled(!loading));
+
+	/** Loads the questions for the question combo box */
+	private final AsyncLoader<List<QuestionSummary>> questionLoader = new AsyncLoader<>(
+			loading -> questionComboBox.setEnabled(!loading));
+
+	/** Loads the weekly aggregates for the week combo box */
+	private final AsyncLoader<Map<LocalDate, StatisticAggregate>> weekLoader = new AsyncLoader<>(loading -> {
+		if (loading)
+			weekComboBox.setEnabled(false); // re-enabled once weeks are shown
+	});
+
+	/** Loads the daily aggregates of the selected week for the chart */
+	private final AsyncLoader<Map<LocalDate, StatisticAggregate>> chartLoader = new AsyncLoader<>(loading -> {
+		setCursor(loading ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : null);
+		if (loading)
+			accuracyLabel.setText("Loading …");
+	});
+
+	/** Set while combo boxes are repopulated, to suppress cascading reloads */
+	private boolean updatingCombos = false;
 
 	/**
 	 * Creates a StatisticPanel initialized with the provided database manager. Sets
@@ -143,10 +182,32 @@ public class StatisticPanel extends JPanel {
 		questionComboBox.setPreferredSize(new Dimension(200, 24));
 		weekComboBox.setPreferredSize(new Dimension(150, 24));
 
-		// Event listeners to update dependent controls and chart
-		themeComboBox.addActionListener(e -> fetchQuestions());
-		questionComboBox.addActionListener(e -> fetchWeeks());
-		weekComboBox.addActionListener(e -> updateChart());
+		// Display 'All Themes' for the null entry of the theme combo box
+		themeComboBox.setRenderer(new DefaultListCellRenderer() {
+			@Override
+			public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected,
+					boolean cellHasFocus) {
+				if (value == null) {
+					value = "All Themes";
+				}
+				return super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+			}
+		});
+
+		// Event listeners to update dependent controls and chart; programmatic
+		// repopulation triggers the dependent reload explicitly once
+		themeComboBox.addActionListener(e -> {
+			if (!updatingCombos)
+				fetchQuestions();
+		});
+		questionComboBox.addActionListener(e -> {
+			if (!updatingCombos)
+				fetchWeeks();
+		});
+		weekComboBox.addActionListener(e -> {
+			if (!updatingCombos)
+				updateChart();
+		});
 
 		fetchThemes(); // load initial themes
 	}
@@ -172,260 +233,241 @@ public class StatisticPanel extends JPanel {
 	}
 
 	/**
-	 * Collects quiz statistics filtered by the current selected theme and question.
-	 * If 'All Questions' is selected, aggregates statistics for all questions in
-	 * selected or all themes.
+	 * Calculates accuracy for each quiz theme aggregated over all questions. The
+	 * attempts are counted per theme in memory by the
+	 * {@link persistence.StatisticsColumnStore}.
 	 * 
-	 * @return a list of {@link QuizStatistic} matching the filters
+	 * @param themes list of quiz themes
+	 * @param dm     database manager to fetch the aggregates from
+	 * @return map from theme title to accuracy (0-100)
 	 */
-	public List<QuizStatistic> collectStatisticsForTrend() {
-		Object selectedQuestion = questionComboBox.getSelectedItem();
-		Theme selectedTheme = (Theme) themeComboBox.getSelectedItem();
-
-		if (selectedQuestion == null)
-			return Collections.emptyList();
-
-		if (selectedQuestion instanceof String && "All Questions".equals(selectedQuestion)) {
-			List<Question> allQuestions = new ArrayList<>();
-			if (selectedTheme == null) { // All themes selected
-				for (Theme theme : dm.getAllThemes()) {
-					allQuestions.addAll(dm.findQuestionsByTheme(theme));
-				}
-			} else {
-				allQuestions.addAll(dm.findQuestionsByTheme(selectedTheme));
-			}
-			List<QuizStatistic> allStats = new ArrayList<>();
-			for (Question question : allQuestions) {
-				allStats.addAll(dm.findStatisticsByQuestionId(question.getId()));
-			}
-			return allStats;
-		} else if (selectedQuestion instanceof Question) {
-			return dm.findStatisticsByQuestionId(((Question) selectedQuestion).getId());
+	public Map<String, Double> calculateThemeAccuracy(List<Theme> themes, DBDataManager dm) {
+		Map<Integer, StatisticAggregate> byTheme = dm.getStatisticsStore().aggregateByTheme(null);
+		Map<String, Double> themeAccuracy = new LinkedHashMap<>();
+		for (Theme theme : themes) {
+			StatisticAggregate aggregate = byTheme.get(theme.getId());
+			themeAccuracy.put(theme.getTitle(), aggregate == null ? 0.0 : aggregate.getAccuracy());
 		}
-		return Collections.emptyList();
+		return themeAccuracy;
 	}
 
 	/**
-	 * Calculates accuracy percentages grouped by calendar week in format yyyy-KWww.
+	 * Loads the accuracy per calendar day (format yyyy-MM-dd) for the given
+	 * filter from the {@link persistence.StatisticsColumnStore}. Does not touch
+	 * any Swing component, so it may be called off the event dispatch thread.
 	 * 
-	 * @param stats list of quiz statistics to aggregate
-	 * @return a map from week label (e.g. "2025-KW34") to accuracy percentage
-	 *         (0-100)
+	 * @param filter the filter, see {@link #currentFilter()}; may be null
+	 * @return a map from date string to accuracy percentage (0-100)
 	 */
-	public Map<String, Double> calculateWeeklyAccuracy(List<QuizStatistic> stats) {
-		Map<String, List<QuizStatistic>> grouped = new LinkedHashMap<>();
-		WeekFields wf = WeekFields.of(Locale.getDefault());
-		for (QuizStatistic stat : stats) {
-			LocalDate date = stat.getDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-			int year = date.getYear();
-			int week = date.get(wf.weekOfYear());
-			String label = year + "-KW" + week;
-			grouped.computeIfAbsent(label, k -> new ArrayList<>()).add(stat);
-		}
+	public Map<String, Double> loadDailyAccuracy(StatisticFilter filter) {
 		Map<String, Double> accuracy = new LinkedHashMap<>();
-		for (var entry : grouped.entrySet()) {
-			List<QuizStatistic> list = entry.getValue();
-			long correctCount = list.stream().filter(QuizStatistic::isCorrect).count();
-			accuracy.put(entry.getKey(), list.isEmpty() ? 0.0 : (100.0 * correctCount / list.size()));
+		if (filter == null)
+			return accuracy;
+		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+		for (var entry : dm.getStatisticsStore().aggregateByDay(filter).entrySet()) {
+			accuracy.put(entry.getKey().format(formatter), entry.getValue().getAccuracy());
 		}
 		return accuracy;
 	}
 
 	/**
-	 * Calculates accuracy percentages grouped by calendar day (format yyyy-MM-dd).
+	 * Loads the accuracy per calendar week (format yyyy-KWww) for the given
+	 * filter from the {@link persistence.StatisticsColumnStore}. Does not touch
+	 * any Swing component, so it may be called off the event dispatch thread.
 	 * 
-	 * @param stats list of quiz statistics to aggregate
-	 * @return a map from date string to accuracy percentage (0-100)
+	 * @param filter the filter, see {@link #currentFilter()}; may be null
+	 * @return a map from week label to accuracy percentage (0-100)
 	 */
-	public Map<String, Double> calculateDailyAccuracy(List<QuizStatistic> stats) {
-		Map<String, List<QuizStatistic>> grouped = new LinkedHashMap<>();
-		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-		for (QuizStatistic stat : stats) {
-			LocalDate date = stat.getDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-			String label = date.format(formatter);
-			grouped.computeIfAbsent(label, k -> new ArrayList<>()).add(stat);
-		}
+	public Map<String, Double> loadWeeklyAccuracy(StatisticFilter filter) {
 		Map<String, Double> accuracy = new LinkedHashMap<>();
-		for (var entry : grouped.entrySet()) {
-			List<QuizStatistic> list = entry.getValue();
-			long correctCount = list.stream().filter(QuizStatistic::isCorrect).count();
-			accuracy.put(entry.getKey(), list.isEmpty() ? 0.0 : (100.0 * correctCount / list.size()));
+		if (filter == null)
+			return accuracy;
+		WeekFields wf = WeekFields.of(Locale.getDefault());
+		for (var entry : dm.getStatisticsStore().aggregateByWeek(filter, wf).entrySet()) {
+			accuracy.put(weekLabel(entry.getKey(), wf), entry.getValue().getAccuracy());
 		}
 		return accuracy;
 	}
 
 	/**
-	 * Calculates accuracy for each quiz theme aggregated over all questions.
-	 * 
-	 * @param themes list of quiz themes
-	 * @param dm     database manager to fetch questions and statistics
-	 * @return map from theme title to accuracy (0-100)
+	 * Loads the themes in the background and populates the theme combo box,
+	 * including an 'All Themes' option represented by null. Attempts still queued
+	 * for writing are flushed first, so the statistics include them.
 	 */
-	public Map<String, Double> calculateThemeAccuracy(List<Theme> themes, DBDataManager dm) {
-		Map<String, Double> themeAccuracy = new LinkedHashMap<>();
-		for (Theme theme : themes) {
-			int total = 0;
-			int correct = 0;
-			for (Question q : dm.findQuestionsByTheme(theme)) {
-				List<QuizStatistic> stats = dm.findStatisticsByQuestionId(q.getId());
-				total += stats.size();
-				correct += stats.stream().filter(QuizStatistic::isCorrect).count();
-			}
-			double accuracyVal = (total == 0) ? 0.0 : (100.0 * correct / total);
-			themeAccuracy.put(theme.getTitle(), accuracyVal);
-		}
-		return themeAccuracy;
+	public void fetchThemes() {
+		themeLoader.load(() -> {
+			dm.flushStatistics(); // include attempts still queued for writing
+			return dm.getAllThemes();
+		}, this::showThemes);
 	}
 
 	/**
-	 * Populates and initializes the theme combo box, including an 'All Themes'
-	 * option represented by null. The combo box renderer displays 'All Themes' for
-	 * null values.
+	 * Fills the theme combo box, selects 'All Themes' and reloads the questions.
+	 * 
+	 * @param themes the loaded themes
 	 */
-	public void fetchThemes() {
-		themeComboBox.removeAllItems();
-		themeComboBox.addItem(null); // All themes option
-		for (Theme theme : dm.getAllThemes()) {
-			themeComboBox.addItem(theme);
-		}
-		themeComboBox.setRenderer(new DefaultListCellRenderer() {
-			@Override
-			public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected,
-					boolean cellHasFocus) {
-				if (value == null) {
-					value = "All Themes";
-				}
-				return super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+	private void showThemes(List<Theme> themes) {
+		updatingCombos = true;
+		try {
+			themeComboBox.removeAllItems();
+			themeComboBox.addItem(null); // All themes option
+			for (Theme theme : themes) {
+				themeComboBox.addItem(theme);
 			}
-		});
-		if (themeComboBox.getItemCount() > 0) {
 			themeComboBox.setSelectedIndex(0);
+		} finally {
+			updatingCombos = false;
 		}
+		fetchQuestions();
 	}
 
 	/**
-	 * Populates the question combo box based on the selected theme. Includes an
-	 * 'All Questions' option and updates week selections accordingly.
+	 * Loads the question summaries (ID and title) of the selected theme, or of all
+	 * themes, with one query in the background and populates the question combo
+	 * box, see {@link #showQuestions(List)}.
 	 */
 	private void fetchQuestions() {
-		questionComboBox.removeAllItems();
 		Theme selectedTheme = (Theme) themeComboBox.getSelectedItem();
-		List<Question> questions = new ArrayList<>();
+		questionLoader.load(() -> dm.getQuestionSummaries(selectedTheme), this::showQuestions);
+	}
 
-		if (selectedTheme == null) { // All themes selected
-			for (Theme theme : dm.getAllThemes()) {
-				questions.addAll(dm.findQuestionsByTheme(theme));
+	/**
+	 * Fills the question combo box including an 'All Questions' option and updates
+	 * week selections accordingly.
+	 * 
+	 * @param questions the loaded question summaries
+	 */
+	private void showQuestions(List<QuestionSummary> questions) {
+		updatingCombos = true;
+		try {
+			questionComboBox.removeAllItems();
+			questionComboBox.addItem("All Questions");
+			for (QuestionSummary question : questions) {
+				questionComboBox.addItem(question);
 			}
-		} else {
-			questions.addAll(dm.findQuestionsByTheme(selectedTheme));
-		}
-
-		questionComboBox.addItem("All Questions");
-		for (Question question : questions) {
-			questionComboBox.addItem(question);
-		}
-		if (questionComboBox.getItemCount() > 0) {
 			questionComboBox.setSelectedIndex(0);
+		} finally {
+			updatingCombos = false;
 		}
-
 		fetchWeeks();
 	}
 
 	/**
-	 * Fetches and populates the weekComboBox with calendar weeks derived from the
-	 * filtered QuizStatistic data. Enables the week selector if there are weeks
-	 * available.
+	 * Fetches the calendar weeks that contain attempts matching the current
+	 * filter in the background. The weeks and their totals are aggregated in
+	 * memory by the {@link persistence.StatisticsColumnStore}.
 	 */
 	private void fetchWeeks() {
-		weekComboBox.removeAllItems();
-		List<QuizStatistic> stats = gatherStats();
-
-		weekComboBox.setEnabled(false);
-		weekStatsMap = groupStatsByWeek(stats);
+		StatisticFilter filter = currentFilter();
+		WeekFields weekFields = WeekFields.of(Locale.getDefault());
+		weekLoader.load(() -> filter == null ? new LinkedHashMap<>()
+				: dm.getStatisticsStore().aggregateByWeek(filter, weekFields),
+				aggregates -> showWeeks(aggregates, weekFields));
+	}
 
-		for (String week : weekStatsMap.keySet()) {
-			weekComboBox.addItem(week);
+	/**
+	 * Populates the weekComboBox with the loaded weeks and enables it if there are
+	 * weeks available.
+	 * 
+	 * @param aggregates attempts per week, keyed by the first day of the week
+	 * @param weekFields week definition used for the labels
+	 */
+	private void showWeeks(Map<LocalDate, StatisticAggregate> aggregates, WeekFields weekFields) {
+		weekAggregates = aggregates;
+		weekStartMap = new LinkedHashMap<>();
+		for (LocalDate weekStart : weekAggregates.keySet()) {
+			weekStartMap.put(weekLabel(weekStart, weekFields), weekStart);
 		}
 
-		if (weekComboBox.getItemCount() > 0) {
-			weekComboBox.setSelectedIndex(0);
-			weekComboBox.setEnabled(true);
-		} else {
-			updateChart();
+		updatingCombos = true;
+		try {
+			weekComboBox.removeAllItems();
+			for (String week : weekStartMap.keySet()) {
+				weekComboBox.addItem(week);
+			}
+			if (weekComboBox.getItemCount() > 0) {
+				weekComboBox.setSelectedIndex(0);
+			}
+		} finally {
+			updatingCombos = false;
 		}
+		weekComboBox.setEnabled(weekComboBox.getItemCount() > 0);
+		updateChart();
 	}
 
 	/**
-	 * Gathers all quiz statistics based on the current filter selections of theme
-	 * and question.
+	 * Builds the statistic filter for the current theme and question selection.
 	 * 
-	 * @return List of QuizStatistic matching the current filter or empty list
+	 * @return the filter, or {@code null} if no question entry is selected
 	 */
-	private List<QuizStatistic> gatherStats() {
+	StatisticFilter currentFilter() {
 		Object selectedQuestion = questionComboBox.getSelectedItem();
 
 		if (selectedQuestion == null)
-			return Collections.emptyList();
+			return null;
 
+		StatisticFilter filter = new StatisticFilter();
 		if ("All Questions".equals(selectedQuestion)) {
 			Theme selectedTheme = (Theme) themeComboBox.getSelectedItem();
-			List<QuizStatistic> allStats = new ArrayList<>();
-
-			if (selectedTheme == null) { // All themes selected
-				for (Theme theme : dm.getAllThemes()) {
-					for (Question question : dm.findQuestionsByTheme(theme)) {
-						allStats.addAll(dm.findStatisticsByQuestionId(question.getId()));
-					}
-				}
-			} else {
-				for (Question question : dm.findQuestionsByTheme(selectedTheme)) {
-					allStats.addAll(dm.findStatisticsByQuestionId(question.getId()));
-				}
+			if (selectedTheme != null) {
+				filter.setThemeId(selectedTheme.getId());
 			}
-			return allStats;
-		} else if (selectedQuestion instanceof Question) {
-			return dm.findStatisticsByQuestionId(((Question) selectedQuestion).getId());
+		} else if (selectedQuestion instanceof QuestionSummary) {
+			filter.setQuestionId(((QuestionSummary) selectedQuestion).getId());
+		} else {
+			return null;
 		}
-
-		return Collections.emptyList();
+		return filter;
 	}
 
 	/**
-	 * Groups the provided statistics list by calendar week label in the format
-	 * yyyy-KWww.
+	 * Builds the display label (format yyyy-KWww) of a calendar week.
 	 * 
-	 * @param stats list of quiz statistics to group
-	 * @return Map keyed by week string to list of statistics in that week
+	 * @param weekStart  first day of the week
+	 * @param weekFields week definition
+	 * @return the week label
 	 */
-	private Map<String, List<QuizStatistic>> groupStatsByWeek(List<QuizStatistic> stats) {
-		Map<String, List<QuizStatistic>> grouped = new LinkedHashMap<>();
-		WeekFields weekFields = WeekFields.of(Locale.getDefault());
-
-		for (QuizStatistic stat : stats) {
-			LocalDate date = stat.getDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-			int year = date.getYear();
-			int week = date.get(weekFields.weekOfYear());
-			String key = year + "-KW" + week;
-			grouped.computeIfAbsent(key, k -> new ArrayList<>()).add(stat);
-		}
-		return grouped;
+	private static String weekLabel(LocalDate weekStart, WeekFields weekFields) {
+		return weekStart.get(weekFields.weekBasedYear()) + "-KW" + weekStart.get(weekFields.weekOfWeekBasedYear());
 	}
 
 	/**
 	 * Updates the accuracy label and repaints the bar chart for the selected week.
-	 * Calculates total questions and correct answers count.
+	 * The per-day counts of the selected week are aggregated from the in-memory
+	 * {@link persistence.StatisticsColumnStore} in the background, which is loaded
+	 * on first use.
 	 */
 	private void updateChart() {
 		String selectedWeek = (String) weekComboBox.getSelectedItem();
-		if (selectedWeek == null)
+		LocalDate weekStart = selectedWeek == null ? null : weekStartMap.get(selectedWeek);
+		StatisticFilter filter = currentFilter();
+		if (weekStart == null || filter == null) {
+			chartLoader.cancel();
+			showChart(null, new LinkedHashMap<>());
 			return;
+		}
 
-		List<QuizStatistic> stats = weekStatsMap.getOrDefault(selectedWeek, Collections.emptyList());
-		int total = stats.size();
-		int correct = (int) stats.stream().filter(QuizStatistic::isCorrect).count();
-		double accuracy = (total > 0) ? 100.0 * correct / total : 0.0;
+		ZoneId zone = ZoneId.systemDefault();
+		filter.setFrom(Date.from(weekStart.atStartOfDay(zone).toInstant()));
+		filter.setTo(Date.from(weekStart.plusDays(7).atStartOfDay(zone).toInstant()));
+		chartLoader.load(() -> dm.getStatisticsStore().aggregateByDay(filter), days -> showChart(weekStart, days));
+	}
 
-		accuracyLabel.setText(String.format("Accuracy: %.1f%% (%d/%d)", accuracy, correct, total));
+	/**
+	 * Shows the accuracy of the given week and repaints the bar chart with its
+	 * per-day counts.
+	 * 
+	 * @param weekStart first day of the week, or null if no week is selected
+	 * @param days      attempts per day of the week
+	 */
+	private void showChart(LocalDate weekStart, Map<LocalDate, StatisticAggregate> days) {
+		selectedWeekStart = weekStart;
+		selectedWeekDays = days;
+
+		StatisticAggregate week = weekStart == null ? new StatisticAggregate(0, 0)
+				: weekAggregates.getOrDefault(weekStart, new StatisticAggregate(0, 0));
+		accuracyLabel.setText(String.format("Accuracy: %.1f%% (%d/%d)", week.getAccuracy(), week.getCorrect(),
+				week.getTotal()));
 		barChartPanel.repaint();
 	}
 
@@ -435,39 +477,17 @@ public class StatisticPanel extends JPanel {
 	 * the y-axis shows number of questions.
 	 */
 	private void drawChart(Graphics g) {
-		String selectedWeek = (String) weekComboBox.getSelectedItem();
-		if (selectedWeek == null)
+		LocalDate firstDayOfWeek = selectedWeekStart;
+		if (firstDayOfWeek == null)
 			return;
 
-		int year, weekNumber;
-		try {
-			String[] parts = selectedWeek.split("-KW");
-			year = Integer.parseInt(parts[0]);
-			weekNumber = Integer.parseInt(parts[1]);
-		} catch (Exception ex) {
-			return; // Unable to parse week string, exit drawing
-		}
-
-		WeekFields weekFields = WeekFields.of(Locale.getDefault());
-		LocalDate firstDayOfWeek = LocalDate.of(year, 1, 4).with(weekFields.weekOfYear(), weekNumber)
-				.with(weekFields.dayOfWeek(), 1); // get first day (Monday) of the week
-
 		// Initialize map of days to counts: [correct, wrong]
 		Map<LocalDate, int[]> dayCounts = new LinkedHashMap<>();
 		for (int i = 0; i < 7; i++) {
-			dayCounts.put(firstDayOfWeek.plusDays(i), new int[2]);
-		}
-
-		// Tally statistics for each day
-		List<QuizStatistic> stats = weekStatsMap.getOrDefault(selectedWeek, Collections.emptyList());
-		for (QuizStatistic stat : stats) {
-			LocalDate date = stat.getDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-			int[] counts = dayCounts.getOrDefault(date, new int[2]);
-			if (stat.isCorrect())
-				counts[0]++;
-			else
-				counts[1]++;
-			dayCounts.put(date, counts);
+			LocalDate day = firstDayOfWeek.plusDays(i);
+			StatisticAggregate aggregate = selectedWeekDays.get(day);
+			dayCounts.put(day, aggregate == null ? new int[2]
+					: new int[] { aggregate.getCorrect(), aggregate.getWrong() });
 		}
 
 		int width = barChartPanel.getWidth();
@@ -2,11 +2,11 @@ package gui.Statistic;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.List;
 import java.util.Map;
+
+import gui.Async.AsyncLoader;
 import persistence.DBDataManager;
-import quizLogic.QuizStatistic;
-import quizLogic.Theme;
+import persistence.DAO.StatisticFilter;
 
 /**
  * The {@code StatisticsContainerPanel} class represents the main container
@@ -28,7 +28,8 @@ import quizLogic.Theme;
  * trend chart is visible.
  * 
  * This class manages updating of the displayed data and forwarding user
- * selections to the respective subpanels.
+ * selections to the respective subpanels. The data of all views is loaded in
+ * the background via {@link AsyncLoader}s.
  * 
  * It relies on a {@link DBDataManager} interface to fetch quiz data from the
  * database.
@@ -62,6 +63,12 @@ public class StatisticsContainerPanel extends JPanel {
 	/** Combo box to select trend chart mode: "daily" or "weekly" */
 	private JComboBox<String> trendModeSelector;
 
+	/** Loads the trend chart data */
+	private final AsyncLoader<Map<String, Double>> trendLoader = new AsyncLoader<>();
+
+	/** Loads the accuracy per theme */
+	private final AsyncLoader<Map<String, Double>> themeAccuracyLoader = new AsyncLoader<>();
+
 	/**
 	 * Constructs the {@code StatisticsContainerPanel} with all subpanels and
 	 * controls. Initializes buttons for navigation and the trend mode selector
@@ -140,23 +147,22 @@ public class StatisticsContainerPanel extends JPanel {
 
 	/**
 	 * Updates the trend chart panel according to current user selections and mode.
-	 * It collects quiz statistics from the basic statistic panel and calculates
-	 * accuracy data either daily or weekly.
+	 * It loads accuracy data for the basic statistic panel's selection, aggregated
+	 * either daily or weekly in memory.
 	 * 
 	 * The calculated accuracy data and mode string are then passed to the trend
 	 * chart panel for rendering.
 	 */
 	private void updateTrendPanel() {
-		List<QuizStatistic> stats = basicStatisticPanel.collectStatisticsForTrend();
 		// Determine mode based on selector index: 0 = daily, 1 = weekly
 		String mode = trendModeSelector.getSelectedIndex() == 1 ? "weekly" : "daily";
-		Map<String, Double> data;
-		if (mode.equals("weekly")) {
-			data = basicStatisticPanel.calculateWeeklyAccuracy(stats);
-		} else {
-			data = basicStatisticPanel.calculateDailyAccuracy(stats);
-		}
-		trendChartPanel.setTrendData(data, mode);
+		StatisticFilter filter = basicStatisticPanel.currentFilter();
+		trendLoader.load(() -> {
+			if (mode.equals("weekly")) {
+				return basicStatisticPanel.loadWeeklyAccuracy(filter);
+			}
+			return basicStatisticPanel.loadDailyAccuracy(filter);
+		}, data -> trendChartPanel.setTrendData(data, mode));
 	}
 
 	/**
@@ -164,14 +170,14 @@ public class StatisticsContainerPanel extends JPanel {
 	 * respective accuracies via the basic statistic panel.
 	 */
 	private void updateThemeAccuracyPanel() {
-		List<Theme> themes = dm.findAllThemes();
-		Map<String, Double> themeAcc = basicStatisticPanel.calculateThemeAccuracy(themes, dm);
-		themeAccuracyPanel.setThemeAccuracyData(themeAcc);
+		themeAccuracyLoader.load(() -> basicStatisticPanel.calculateThemeAccuracy(dm.findAllThemes(), dm),
+				themeAccuracyPanel::setThemeAccuracyData);
 	}
 
 	/**
 	 * Refreshes the data in the basic statistic panel, primarily to reload combo
-	 * boxes such as theme selection after data changes.
+	 * boxes such as theme selection after data changes. The reload runs in the
+	 * background and includes attempts still queued for writing.
 	 */
 	public void refresh() {
 		basicStatisticPanel.fetchThemes();
@@ -0,0 +1,607 @@
+package persistence;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import persistence.tracing.StatementTracer;
+
+/**
+ * {@code ConnectionPool} is a small, bounded JDBC connection pool used by
+ * {@link DBDataManager} and all DB*DAO classes.
+ *
+ * <p>
+ * Every DAO operation borrows a connection via {@link #getConnection()} and
+ * returns it by closing it (typically with try-with-resources). This allows
+ * several threads (e.g. the Swing EDT, background loaders and statistic
+ * writers) to run queries in parallel instead of serializing on one shared
+ * {@link Connection}.
+ * </p>
+ *
+ * <p>
+ * <b>Features:</b>
+ * </p>
+ * <ul>
+ * <li>Hard upper bound on the number of physical connections</li>
+ * <li>Validation on borrow for connections that have been idle for a
+ * while</li>
+ * <li>Background eviction of connections idle for longer than the idle
+ * timeout</li>
+ * <li>Configurable maximum wait time when the pool is exhausted</li>
+ * <li>Metrics: borrow latency, borrow/timeout counts, active and idle
+ * connections</li>
+ * <li>Thread-bound transactions via {@link #inTransaction(BooleanSupplier)}:
+ * while a transaction is open, every {@link #getConnection()} on that thread
+ * returns the transaction's connection</li>
+ * </ul>
+ *
+ * <p>
+ * Since it implements {@link DataSource}, the DAOs do not depend on this class
+ * and can equally be run against any other data source, e.g. an embedded
+ * database for tests.
+ * </p>
+ *
+ * @author Oleg Kapirulya
+ */
+public class ConnectionPool implements DataSource, AutoCloseable {
+
+	/** Default maximum number of physical connections. */
+	public static final int DEFAULT_MAX_SIZE = 8;
+
+	/** Default time a borrower waits for a free connection. */
+	public static final long DEFAULT_MAX_WAIT_MILLIS = 5_000;
+
+	/** Default time after which an idle connection is closed. */
+	public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 60_000;
+
+	/**
+	 * Connections that were used more recently than this are handed out without
+	 * a validation round trip.
+	 */
+	private static final long VALIDATION_BYPASS_MILLIS = 500;
+
+	/** Timeout in seconds for {@link Connection#isValid(int)}. */
+	private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+	/** JDBC URL of the target database. */
+	private final String url;
+
+	/** Database user. */
+	private final String user;
+
+	/** Database password. */
+	private final String password;
+
+	/** Maximum number of physical connections. */
+	private final int maxSize;
+
+	/** Maximum time in milliseconds to wait for a free connection. */
+	private final long maxWaitMillis;
+
+	/** Idle time in milliseconds after which a connection is evicted. */
+	private final long idleTimeoutMillis;
+
+	/** One permit per connection that may be handed out. */
+	private final Semaphore permits;
+
+	/** Idle physical connections, most recently used first. */
+	private final LinkedBlockingDeque<IdleConnection> idle = new LinkedBlockingDeque<>();
+
+	/** Scheduler running the idle eviction task. */
+	private final ScheduledExecutorService evictor;
+
+	/** Number of connections currently borrowed. */
+	private final AtomicInteger activeCount = new AtomicInteger();
+
+	/** Number of physical connections currently open. */
+	private final AtomicInteger totalCount = new AtomicInteger();
+
+	/** Number of successful borrows. */
+	private final LongAdder borrowCount = new LongAdder();
+
+	/** Accumulated borrow latency in nanoseconds. */
+	private final LongAdder borrowNanos = new LongAdder();
+
+	/** Largest observed borrow latency in nanoseconds. */
+	private final AtomicLong maxBorrowNanos = new AtomicLong();
+
+	/** Number of borrows that timed out. */
+	private final LongAdder timeoutCount = new LongAdder();
+
+	/** Number of physical connections discarded by validation or eviction. */
+	private final LongAdder evictedCount = new LongAdder();
+
+	/** Connection of the transaction currently open on each thread, if any. */
+	private final ThreadLocal<Connection> transaction = new ThreadLocal<>();
+
+	/** Set once {@link #close()} has been called. */
+	private volatile boolean closed;
+
+	/** Tracer wrapping borrowed connections, or {@code null}. */
+	private volatile StatementTracer tracer;
+
+	/**
+	 * Creates a pool with default size and timeouts.
+	 *
+	 * @param url      JDBC URL
+	 * @param user     database user
+	 * @param password database password
+	 */
+	public ConnectionPool(String url, String user, String password) {
+		this(url, user, password, DEFAULT_MAX_SIZE, DEFAULT_MAX_WAIT_MILLIS, DEFAULT_IDLE_TIMEOUT_MILLIS);
+	}
+
+	/**
+	 * Creates a pool.
+	 *
+	 * @param url               JDBC URL
+	 * @param user              database user
+	 * @param password          database password
+	 * @param maxSize           maximum number of physical connections
+	 * @param maxWaitMillis     maximum time to wait for a free connection
+	 * @param idleTimeoutMillis idle time after which connections are closed
+	 */
+	public ConnectionPool(String url, String user, String password, int maxSize, long maxWaitMillis,
+			long idleTimeoutMillis) {
+		if (maxSize <= 0)
+			throw new IllegalArgumentException("maxSize must be positive");
+		this.url = url;
+		this.user = user;
+		this.password = password;
+		this.maxSize = maxSize;
+		this.maxWaitMillis = maxWaitMillis;
+		this.idleTimeoutMillis = idleTimeoutMillis;
+		this.permits = new Semaphore(maxSize, true);
+
+		evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "ConnectionPool-evictor");
+			t.setDaemon(true);
+			return t;
+		});
+		long period = Math.max(1_000, idleTimeoutMillis / 2);
+		evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Borrows a connection from the pool.
+	 *
+	 * <p>
+	 * Closing the returned connection hands it back to the pool; the physical
+	 * connection stays open. Waits up to the configured maximum wait time if all
+	 * connections are in use.
+	 * </p>
+	 *
+	 * <p>
+	 * Inside {@link #inTransaction(BooleanSupplier)} the transaction's connection
+	 * is returned instead, and closing it has no effect.
+	 * </p>
+	 *
+	 * @return a pooled {@link Connection}
+	 * @throws SQLException if the pool is closed, the wait timed out or a new
+	 *                      connection could not be opened
+	 */
+	@Override
+	public Connection getConnection() throws SQLException {
+		Connection bound = transaction.get();
+		if (bound != null)
+			return withoutClose(bound);
+
+		if (closed)
+			throw new SQLException("Connection pool is closed.");
+
+		long start = System.nanoTime();
+		try {
+			if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+				timeoutCount.increment();
+				throw new SQLTransientConnectionException("Timed out after " + maxWaitMillis
+						+ " ms waiting for a database connection (active=" + activeCount.get() + ").");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLTransientConnectionException("Interrupted while waiting for a database connection.", e);
+		}
+
+		try {
+			Connection physical = takeIdleOrCreate();
+			activeCount.incrementAndGet();
+			recordBorrow(System.nanoTime() - start);
+			StatementTracer current = tracer;
+			return current == null ? wrap(physical) : current.wrap(wrap(physical));
+		} catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Runs {@code work} inside a single database transaction.
+	 *
+	 * <p>
+	 * All DAO calls made by {@code work} on the current thread share one
+	 * connection with auto-commit disabled. The transaction is committed if
+	 * {@code work} returns {@code true} and rolled back if it returns
+	 * {@code false} or throws. Nested calls join the outer transaction.
+	 * </p>
+	 *
+	 * @param work the unit of work; returns whether it succeeded
+	 * @return {@code true} if the work succeeded and was committed
+	 */
+	public boolean inTransaction(BooleanSupplier work) {
+		if (transaction.get() != null)
+			return work.getAsBoolean();
+
+		try (Connection conn = getConnection()) {
+			conn.setAutoCommit(false);
+			transaction.set(conn);
+			boolean success = false;
+			try {
+				success = work.getAsBoolean();
+			} finally {
+				transaction.remove();
+				if (success)
+					conn.commit();
+				else
+					conn.rollback();
+			}
+			return success;
+		} catch (SQLException e) {
+			e.printStackTrace();
+			return false;
+		}
+	}
+
+	/**
+	 * Takes a valid idle connection or opens a new one.
+	 *
+	 * @return an open physical connection
+	 * @throws SQLException if a new connection cannot be opened
+	 */
+	private Connection takeIdleOrCreate() throws SQLException {
+		IdleConnection candidate;
+		while ((candidate = idle.pollFirst()) != null) {
+			long idleFor = System.currentTimeMillis() - candidate.lastUsed;
+			if (idleFor < VALIDATION_BYPASS_MILLIS || isValid(candidate.connection)) {
+				return candidate.connection;
+			}
+			discard(candidate.connection);
+		}
+		Connection physical = DriverManager.getConnection(url, user, password);
+		totalCount.incrementAndGet();
+		return physical;
+	}
+
+	/**
+	 * Returns a physical connection to the pool after its proxy was closed.
+	 *
+	 * @param physical the physical connection
+	 */
+	private void release(Connection physical) {
+		activeCount.decrementAndGet();
+		try {
+			if (closed || physical.isClosed()) {
+				discard(physical);
+				return;
+			}
+			if (!physical.getAutoCommit()) {
+				physical.rollback();
+				physical.setAutoCommit(true);
+			}
+			idle.offerFirst(new IdleConnection(physical, System.currentTimeMillis()));
+		} catch (SQLException e) {
+			e.printStackTrace();
+			discard(physical);
+		} finally {
+			permits.release();
+		}
+	}
+
+	/**
+	 * Closes idle connections that exceeded the idle timeout.
+	 */
+	private void evictIdle() {
+		long now = System.currentTimeMillis();
+		Iterator<IdleConnection> it = idle.descendingIterator();
+		while (it.hasNext()) {
+			IdleConnection c = it.next();
+			if (now - c.lastUsed >= idleTimeoutMillis && idle.removeFirstOccurrence(c)) {
+				discard(c.connection);
+			}
+		}
+	}
+
+	/**
+	 * Checks a connection with {@link Connection#isValid(int)}.
+	 *
+	 * @param conn the connection to check
+	 * @return {@code true} if the connection is usable
+	 */
+	private boolean isValid(Connection conn) {
+		try {
+			return conn.isValid(VALIDATION_TIMEOUT_SECONDS);
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Closes a physical connection and removes it from the pool accounting.
+	 *
+	 * @param physical the connection to close
+	 */
+	private void discard(Connection physical) {
+		totalCount.decrementAndGet();
+		evictedCount.increment();
+		try {
+			physical.close();
+		} catch (SQLException e) {
+			// connection is dropped anyway
+		}
+	}
+
+	/**
+	 * Adds one borrow latency sample to the metrics.
+	 *
+	 * @param nanos latency in nanoseconds
+	 */
+	private void recordBorrow(long nanos) {
+		borrowCount.increment();
+		borrowNanos.add(nanos);
+		maxBorrowNanos.accumulateAndGet(nanos, Math::max);
+	}
+
+	/**
+	 * Wraps a physical connection in a proxy whose {@code close()} returns it to
+	 * the pool.
+	 *
+	 * @param physical the physical connection
+	 * @return the pooled connection handed to callers
+	 */
+	private Connection wrap(Connection physical) {
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, new PooledConnectionHandler(physical));
+	}
+
+	/**
+	 * Wraps the connection of an open transaction so that DAOs may close it as
+	 * usual without ending the transaction.
+	 *
+	 * @param bound the transaction's connection
+	 * @return a proxy ignoring {@code close()}
+	 */
+	private static Connection withoutClose(Connection bound) {
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+					switch (method.getName()) {
+					case "close":
+						return null;
+					case "isClosed":
+						return bound.isClosed();
+					case "equals":
+						return proxy == args[0];
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					default:
+						try {
+							return method.invoke(bound, args);
+						} catch (InvocationTargetException e) {
+							throw e.getCause();
+						}
+					}
+				});
+	}
+
+	/**
+	 * Closes all idle connections and stops handing out new ones. Borrowed
+	 * connections are closed when they are returned.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		evictor.shutdownNow();
+		IdleConnection c;
+		while ((c = idle.pollFirst()) != null) {
+			discard(c.connection);
+		}
+	}
+
+	/**
+	 * Traces the statements of all connections borrowed from now on, see
+	 * {@link StatementTracer}. Connections already borrowed are not affected.
+	 *
+	 * @param tracer the tracer, or {@code null} to stop tracing
+	 */
+	public void setStatementTracer(StatementTracer tracer) {
+		this.tracer = tracer;
+	}
+
+	/** @return the tracer of borrowed connections, or {@code null} */
+	public StatementTracer getStatementTracer() {
+		return tracer;
+	}
+
+	// ---------- Metrics ----------
+
+	/** @return maximum number of physical connections */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/** @return number of connections currently borrowed */
+	public int getActiveCount() {
+		return activeCount.get();
+	}
+
+	/** @return number of idle connections waiting in the pool */
+	public int getIdleCount() {
+		return idle.size();
+	}
+
+	/** @return number of open physical connections */
+	public int getTotalCount() {
+		return totalCount.get();
+	}
+
+	/** @return number of successful borrows since creation */
+	public long getBorrowCount() {
+		return borrowCount.sum();
+	}
+
+	/** @return number of borrows that timed out */
+	public long getTimeoutCount() {
+		return timeoutCount.sum();
+	}
+
+	/** @return number of physical connections closed by validation or eviction */
+	public long getEvictedCount() {
+		return evictedCount.sum();
+	}
+
+	/** @return average time in milliseconds needed to borrow a connection */
+	public double getAverageBorrowMillis() {
+		long count = borrowCount.sum();
+		return count == 0 ? 0.0 : borrowNanos.sum() / (count * 1_000_000.0);
+	}
+
+	/** @return largest time in milliseconds needed to borrow a connection */
+	public double getMaxBorrowMillis() {
+		return maxBorrowNanos.get() / 1_000_000.0;
+	}
+
+	/**
+	 * Returns a one-line summary of the pool metrics.
+	 *
+	 * @return metrics summary
+	 */
+	@Override
+	public String toString() {
+		return String.format("ConnectionPool[active=%d, idle=%d, total=%d/%d, borrows=%d, avgBorrow=%.3fms, "
+				+ "maxBorrow=%.3fms, timeouts=%d, evicted=%d]", getActiveCount(), getIdleCount(), getTotalCount(),
+				maxSize, getBorrowCount(), getAverageBorrowMillis(), getMaxBorrowMillis(), getTimeoutCount(),
+				getEvictedCount());
+	}
+
+	// ---------- DataSource boilerplate ----------
+
+	/**
+	 * Not supported: all connections use the credentials given to the pool.
+	 */
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		throw new SQLFeatureNotSupportedException("ConnectionPool uses fixed credentials.");
+	}
+
+	@Override
+	public PrintWriter getLogWriter() {
+		return DriverManager.getLogWriter();
+	}
+
+	@Override
+	public void setLogWriter(PrintWriter out) {
+		DriverManager.setLogWriter(out);
+	}
+
+	@Override
+	public void setLoginTimeout(int seconds) {
+		DriverManager.setLoginTimeout(seconds);
+	}
+
+	@Override
+	public int getLoginTimeout() {
+		return DriverManager.getLoginTimeout();
+	}
+
+	@Override
+	public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+		throw new SQLFeatureNotSupportedException();
+	}
+
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		if (iface.isInstance(this))
+			return iface.cast(this);
+		throw new SQLException("Not a wrapper for " + iface.getName());
+	}
+
+	@Override
+	public boolean isWrapperFor(Class<?> iface) {
+		return iface.isInstance(this);
+	}
+
+	// ---------- Internal types ----------
+
+	/**
+	 * An idle physical connection together with the time it was returned.
+	 */
+	private static final class IdleConnection {
+		final Connection connection;
+		final long lastUsed;
+
+		IdleConnection(Connection connection, long lastUsed) {
+			this.connection = connection;
+			this.lastUsed = lastUsed;
+		}
+	}
+
+	/**
+	 * Proxy handler that delegates to the physical connection until the borrower
+	 * closes it, at which point the physical connection is returned to the pool.
+	 */
+	private final class PooledConnectionHandler implements InvocationHandler {
+
+		private final Connection physical;
+
+		private boolean returned;
+
+		PooledConnectionHandler(Connection physical) {
+			this.physical = physical;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+			case "close":
+				if (!returned) {
+					returned = true;
+					release(physical);
+				}
+				return null;
+			case "isClosed":
+				return returned || physical.isClosed();
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return "PooledConnection[" + physical + "]";
+			default:
+				if (returned)
+					throw new SQLException("Connection has already been returned to the pool.");
+				try {
+					return method.invoke(physical, args);
+				} catch (InvocationTargetException e) {
+					throw e.getCause();
+				}
+			}
+		}
+	}
+}
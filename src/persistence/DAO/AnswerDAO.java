@@ -1,6 +1,8 @@
 package persistence.DAO;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import quizLogic.Answer;
 import quizLogic.Question;
 
@@ -13,9 +15,12 @@ import quizLogic.Question;
  * </p>
  * <ul>
  * <li>Retrieve all answers belonging to a given {@link Question}</li>
+ * <li>Retrieve the answers of many questions at once (bulk loading)</li>
  * <li>Insert new answers</li>
  * <li>Update existing answers</li>
  * <li>Delete all answers for a question (by question ID)</li>
+ * <li>Synchronize the stored answers of a question with its current
+ * answers</li>
  * </ul>
  *
  * <p>
@@ -36,6 +41,22 @@ public interface AnswerDAO {
 	 */
 	List<Answer> findByQuestion(Question question);
 
+	/**
+	 * Returns the answers of all given questions, grouped by question ID.
+	 *
+	 * <p>
+	 * Implementations should load the answers in as few round trips as possible
+	 * (e.g. with an {@code IN (...)} batch fetch) instead of issuing one query per
+	 * question. Every returned {@link Answer} is already linked to its owning
+	 * {@link Question} instance from the given collection.
+	 * </p>
+	 *
+	 * @param questions the questions whose answers to fetch
+	 * @return a map from question ID to its answers; questions without answers
+	 *         have no entry. Never {@code null}
+	 */
+	Map<Integer, List<Answer>> findByQuestions(Collection<Question> questions);
+
 	/**
 	 * Inserts a new {@link Answer} into the database.
 	 *
@@ -61,4 +82,20 @@ public interface AnswerDAO {
 	 * @return {@code true} if deletion succeeded, {@code false} otherwise
 	 */
 	boolean deleteByQuestionId(int questionId);
+
+	/**
+	 * Synchronizes the stored answers of a question with the answers currently
+	 * attached to it, matching them by answer ID.
+	 *
+	 * <p>
+	 * Stored answers whose ID is still present are updated if their text or
+	 * correctness changed, answers without a stored counterpart are inserted (and
+	 * receive their generated ID), and stored answers that are no longer present
+	 * are deleted. Existing answer IDs therefore stay stable across saves.
+	 * </p>
+	 *
+	 * @param question the question whose answers to persist (must have a valid ID)
+	 * @return {@code true} if synchronization succeeded, {@code false} otherwise
+	 */
+	boolean syncAnswers(Question question);
 }
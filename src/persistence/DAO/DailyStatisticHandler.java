@@ -0,0 +1,27 @@
+package persistence.DAO;
+
+/**
+ * {@code DailyStatisticHandler} receives the rows of the daily statistic
+ * rollup as primitive values, see
+ * {@link StatisticDAO#forEachDaily(int, DailyStatisticHandler)}.
+ *
+ * <p>
+ * A row counts the attempts on one question during one day, so a handler
+ * sees one call per question and day instead of one per attempt.
+ * </p>
+ *
+ * @author Oleg Kapirulya
+ */
+@FunctionalInterface
+public interface DailyStatisticHandler {
+
+	/**
+	 * Handles the attempts on one question during one day.
+	 *
+	 * @param questionId the ID of the answered question
+	 * @param epochDay   the day, as counted by {@link java.time.LocalDate#toEpochDay()}
+	 * @param attempts   number of attempts
+	 * @param correct    number of correct attempts
+	 */
+	void accept(int questionId, long epochDay, int attempts, int correct);
+}
@@ -1,7 +1,10 @@
 package persistence.DAO;
 
 import java.util.List;
+import java.util.Map;
+
 import quizLogic.Question;
+import quizLogic.QuestionSummary;
 import quizLogic.Theme;
 
 /**
@@ -13,7 +16,13 @@ import quizLogic.Theme;
  * </p>
  * <ul>
  * <li>Retrieve a question by its ID</li>
+ * <li>Retrieve a question with its theme and answers in one round trip</li>
  * <li>Retrieve all questions belonging to a specific {@link Theme}</li>
+ * <li>Retrieve the IDs of all questions grouped by theme</li>
+ * <li>Retrieve lightweight {@link QuestionSummary} projections for list
+ * views</li>
+ * <li>Page through the question summaries of a theme (or all themes) by
+ * keyset</li>
  * <li>Insert new questions</li>
  * <li>Update existing questions</li>
  * <li>Delete questions by ID</li>
@@ -36,6 +45,16 @@ public interface QuestionDAO {
 	 */
 	Question findById(int id);
 
+	/**
+	 * Finds a question by its ID together with its fully loaded {@link Theme} and
+	 * all of its answers, using a single query.
+	 *
+	 * @param id the ID of the question
+	 * @return the complete {@link Question} object graph, or {@code null} if not
+	 *         found
+	 */
+	Question findFullById(int id);
+
 	/**
 	 * Retrieves all questions that belong to the given theme.
 	 *
@@ -45,6 +64,58 @@ public interface QuestionDAO {
 	 */
 	List<Question> findByTheme(Theme theme);
 
+	/**
+	 * Retrieves the IDs of all questions, grouped by the ID of their theme. Only
+	 * the key columns are read, which makes this suitable for building in-memory
+	 * indexes over large question banks.
+	 *
+	 * @return a map from theme ID to the ascending IDs of its questions; themes
+	 *         without questions have no entry. Never {@code null}
+	 */
+	Map<Integer, int[]> findIdsByTheme();
+
+	/**
+	 * Counts the questions of a theme.
+	 *
+	 * @param themeId the theme ID, or {@code 0} for all themes
+	 * @return number of questions; {@code 0} on error
+	 */
+	int countByTheme(int themeId);
+
+	/**
+	 * Retrieves the summaries (ID, title, theme ID) of all questions of a theme,
+	 * ordered by ID. The question text and answers are not read.
+	 *
+	 * @param themeId the theme ID, or {@code 0} for all themes
+	 * @return the summaries, or {@code null} on error
+	 */
+	List<QuestionSummary> findSummariesByTheme(int themeId);
+
+	/**
+	 * Retrieves one page of question summaries ordered by ID, starting after a
+	 * given ID (keyset pagination). Unlike an {@code OFFSET}, the cost of a page
+	 * does not grow with its position.
+	 *
+	 * @param themeId the theme ID, or {@code 0} for all themes
+	 * @param afterId only questions with a greater ID are returned; {@code 0} for
+	 *                the first page
+	 * @param limit   maximum number of questions
+	 * @return the summaries in ascending ID order, never {@code null}
+	 */
+	List<QuestionSummary> findSummaryPage(int themeId, int afterId, int limit);
+
+	/**
+	 * Computes the keyset anchors of all pages of a theme: element {@code p} is
+	 * the {@code afterId} to pass to {@link #findSummaryPage(int, int, int)} for page
+	 * {@code p}. This allows jumping to any page without reading the pages before
+	 * it; only the ID column is scanned.
+	 *
+	 * @param themeId  the theme ID, or {@code 0} for all themes
+	 * @param pageSize number of questions per page
+	 * @return one anchor per page, starting with {@code 0}; never {@code null}
+	 */
+	int[] findPageAnchors(int themeId, int pageSize);
+
 	/**
 	 * Inserts a new question into the database.
 	 *
@@ -1,7 +1,13 @@
 package persistence.DAO;
 
+import java.time.LocalDate;
+import java.time.temporal.WeekFields;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
 import quizLogic.QuizStatistic;
+import quizLogic.StatisticAggregate;
 
 /**
  * Interface defining data access object (DAO) methods for managing quiz
@@ -12,9 +18,16 @@ import quizLogic.QuizStatistic;
  * 
  * Responsibilities:
  * <ul>
- * <li>Insert new quiz attempt statistics into persistence storage.</li>
+ * <li>Insert new quiz attempt statistics into persistence storage, one by one
+ * or in batches.</li>
  * <li>Retrieve all existing quiz statistics.</li>
+ * <li>Stream quiz statistics in constant memory, as objects or as primitive
+ * rows.</li>
  * <li>Retrieve quiz statistics associated with a specific question.</li>
+ * <li>Retrieve quiz statistics matching a {@link StatisticFilter}.</li>
+ * <li>Aggregate attempts per theme, day or week inside the database.</li>
+ * <li>Maintain a daily rollup of the attempts per question, which keeps the
+ * aggregates independent of the number of recorded attempts.</li>
  * </ul>
  * 
  * @author Oleg Kapirulya
@@ -30,6 +43,14 @@ public interface StatisticDAO {
 	 */
 	boolean insert(QuizStatistic statistic);
 
+	/**
+	 * Inserts many quiz statistic records using multi-row inserts.
+	 * 
+	 * @param statistics the attempts to save
+	 * @return true if all records were inserted, false otherwise.
+	 */
+	boolean insertBatch(List<QuizStatistic> statistics);
+
 	/**
 	 * Retrieves all quiz statistic records from the database.
 	 * 
@@ -37,6 +58,51 @@ public interface StatisticDAO {
 	 */
 	List<QuizStatistic> findAll();
 
+	/** Default number of rows fetched per round trip by the streaming queries. */
+	int DEFAULT_FETCH_SIZE = 1_000;
+
+	/**
+	 * Streams the quiz statistic records matching a filter without materializing
+	 * them. The rows are read from a forward-only, read-only result set, fetched
+	 * {@code fetchSize} rows at a time.
+	 * 
+	 * <p>
+	 * The stream holds a database connection until it is exhausted or closed, so
+	 * it must be used in a try-with-resources block.
+	 * </p>
+	 * 
+	 * @param filter    restricts which attempts are returned; {@code null} for
+	 *                  all
+	 * @param fetchSize number of rows fetched per round trip
+	 * @return a lazily populated stream; empty on error
+	 */
+	Stream<QuizStatistic> stream(StatisticFilter filter, int fetchSize);
+
+	/**
+	 * Passes every quiz statistic record matching a filter to a handler as
+	 * primitive values, reading a forward-only, read-only result set with the
+	 * given fetch size. All resources are released before this method returns.
+	 * 
+	 * @param filter    restricts which attempts are returned; {@code null} for
+	 *                  all
+	 * @param fetchSize number of rows fetched per round trip
+	 * @param handler   receives the rows
+	 * @return number of rows passed to the handler
+	 */
+	long forEach(StatisticFilter filter, int fetchSize, StatisticRowHandler handler);
+
+	/**
+	 * Passes every row of the daily rollup (attempts and correct attempts per
+	 * question and day) to a handler, ordered by day, reading a forward-only,
+	 * read-only result set with the given fetch size. All resources are released
+	 * before this method returns.
+	 * 
+	 * @param fetchSize number of rows fetched per round trip
+	 * @param handler   receives the rows
+	 * @return number of rows passed to the handler
+	 */
+	long forEachDaily(int fetchSize, DailyStatisticHandler handler);
+
 	/**
 	 * Retrieves quiz statistic records associated with a specific question ID.
 	 * 
@@ -46,4 +112,49 @@ public interface StatisticDAO {
 	 *         none found.
 	 */
 	List<QuizStatistic> findByQuestionId(int questionId);
+
+	/**
+	 * Retrieves the quiz statistic records matching a filter with a single query,
+	 * ordered by time.
+	 * 
+	 * @param filter restricts which attempts are returned; {@code null} for all
+	 * @return the matching attempts, or an empty list if none exist or on error
+	 */
+	List<QuizStatistic> find(StatisticFilter filter);
+
+	/**
+	 * Counts attempts and correct attempts per theme.
+	 * 
+	 * @param filter restricts which attempts are counted
+	 * @return map from theme ID to its aggregate; themes without matching attempts
+	 *         have no entry
+	 */
+	Map<Integer, StatisticAggregate> aggregateByTheme(StatisticFilter filter);
+
+	/**
+	 * Counts attempts and correct attempts per calendar day.
+	 * 
+	 * @param filter restricts which attempts are counted
+	 * @return map from day to its aggregate, ordered by day; days without matching
+	 *         attempts have no entry
+	 */
+	Map<LocalDate, StatisticAggregate> aggregateByDay(StatisticFilter filter);
+
+	/**
+	 * Counts attempts and correct attempts per calendar week.
+	 * 
+	 * @param filter     restricts which attempts are counted
+	 * @param weekFields week definition (first day of week) to group by
+	 * @return map from the first day of each week to its aggregate, ordered by
+	 *         week; weeks without matching attempts have no entry
+	 */
+	Map<LocalDate, StatisticAggregate> aggregateByWeek(StatisticFilter filter, WeekFields weekFields);
+
+	/**
+	 * Recomputes the daily rollup of all attempts from the raw records, e.g.
+	 * after attempts were written around this DAO.
+	 * 
+	 * @return true if the rollup was rebuilt, false otherwise.
+	 */
+	boolean rebuildDailyRollup();
 }
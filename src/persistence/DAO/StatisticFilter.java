@@ -0,0 +1,144 @@
+package persistence.DAO;
+
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * {@code StatisticFilter} describes which quiz attempts a {@link StatisticDAO}
+ * query should consider.
+ *
+ * <p>
+ * Every criterion is optional; a {@code null} value means "no restriction". A
+ * freshly created filter therefore matches all recorded attempts.
+ * </p>
+ *
+ * <ul>
+ * <li>{@code themeId} – only attempts on questions of this theme</li>
+ * <li>{@code questionId} – only attempts on this question</li>
+ * <li>{@code from} – only attempts at or after this time (inclusive)</li>
+ * <li>{@code to} – only attempts before this time (exclusive)</li>
+ * <li>{@code themeIds} – only attempts on questions of one of these themes</li>
+ * <li>{@code questionIds} – only attempts on one of these questions</li>
+ * <li>{@code correct} – only correct ({@code true}) or only wrong
+ * ({@code false}) attempts</li>
+ * </ul>
+ *
+ * <p>
+ * All criteria are combined with AND, so e.g. {@code themeId} and
+ * {@code themeIds} may be used together to intersect. An empty ID set matches
+ * no attempt at all.
+ * </p>
+ * 
+ * @author Oleg Kapirulya
+ */
+public class StatisticFilter {
+
+	/** Theme to restrict to, or {@code null} for all themes. */
+	private Integer themeId;
+
+	/** Question to restrict to, or {@code null} for all questions. */
+	private Integer questionId;
+
+	/** Inclusive lower time bound, or {@code null}. */
+	private Date from;
+
+	/** Exclusive upper time bound, or {@code null}. */
+	private Date to;
+
+	/** Themes to restrict to, or {@code null} for all themes. */
+	private Set<Integer> themeIds;
+
+	/** Questions to restrict to, or {@code null} for all questions. */
+	private Set<Integer> questionIds;
+
+	/** Correctness to restrict to, or {@code null} for both. */
+	private Boolean correct;
+
+	/**
+	 * Creates a filter matching all attempts.
+	 */
+	public StatisticFilter() {
+	}
+
+	/**
+	 * Creates a copy of another filter.
+	 *
+	 * @param other the filter to copy
+	 */
+	public StatisticFilter(StatisticFilter other) {
+		this.themeId = other.themeId;
+		this.questionId = other.questionId;
+		this.from = other.from;
+		this.to = other.to;
+		this.themeIds = other.themeIds == null ? null : new LinkedHashSet<>(other.themeIds);
+		this.questionIds = other.questionIds == null ? null : new LinkedHashSet<>(other.questionIds);
+		this.correct = other.correct;
+	}
+
+	/**
+	 * Checks whether this filter restricts attempts by theme, which requires the
+	 * question table to be joined.
+	 *
+	 * @return {@code true} if {@code themeId} or {@code themeIds} is set
+	 */
+	public boolean hasThemeCriteria() {
+		return themeId != null || themeIds != null;
+	}
+
+	public Integer getThemeId() {
+		return themeId;
+	}
+
+	public void setThemeId(Integer themeId) {
+		this.themeId = themeId;
+	}
+
+	public Integer getQuestionId() {
+		return questionId;
+	}
+
+	public void setQuestionId(Integer questionId) {
+		this.questionId = questionId;
+	}
+
+	public Date getFrom() {
+		return from;
+	}
+
+	public void setFrom(Date from) {
+		this.from = from;
+	}
+
+	public Date getTo() {
+		return to;
+	}
+
+	public void setTo(Date to) {
+		this.to = to;
+	}
+
+	public Set<Integer> getThemeIds() {
+		return themeIds;
+	}
+
+	public void setThemeIds(Set<Integer> themeIds) {
+		this.themeIds = themeIds;
+	}
+
+	public Set<Integer> getQuestionIds() {
+		return questionIds;
+	}
+
+	public void setQuestionIds(Set<Integer> questionIds) {
+		this.questionIds = questionIds;
+	}
+
+	public Boolean getCorrect() {
+		return correct;
+	}
+
+	public void setCorrect(Boolean correct) {
+		this.correct = correct;
+	}
+}
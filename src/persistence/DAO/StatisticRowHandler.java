@@ -0,0 +1,28 @@
+package persistence.DAO;
+
+/**
+ * {@code StatisticRowHandler} receives the rows of a streaming statistic query
+ * as primitive values, see
+ * {@link StatisticDAO#forEach(StatisticFilter, int, StatisticRowHandler)}.
+ *
+ * <p>
+ * Unlike the {@link quizLogic.QuizStatistic} based methods, no object is
+ * allocated per row by the caller's side, which keeps exports and aggregations
+ * over millions of attempts cheap for the garbage collector.
+ * </p>
+ *
+ * @author Oleg Kapirulya
+ */
+@FunctionalInterface
+public interface StatisticRowHandler {
+
+	/**
+	 * Handles one recorded quiz attempt.
+	 *
+	 * @param id          the ID of the attempt
+	 * @param questionId  the ID of the answered question
+	 * @param correct     whether the attempt was correct
+	 * @param epochMillis time of the attempt in milliseconds since the epoch
+	 */
+	void accept(int id, int questionId, boolean correct, long epochMillis);
+}
@@ -2,6 +2,7 @@ package persistence.DAO;
 
 import java.util.List;
 import quizLogic.Theme;
+import quizLogic.ThemeSummary;
 
 /**
  * {@code ThemeDAO} defines the data access contract for {@link Theme} entities.
@@ -40,6 +41,15 @@ public interface ThemeDAO {
 	 */
 	List<Theme> findAll();
 
+	/**
+	 * Retrieves the summaries (ID and title) of all themes, without their
+	 * description text.
+	 *
+	 * @return a list of {@link ThemeSummary} objects (may be empty if none exist),
+	 *         or {@code null} on error
+	 */
+	List<ThemeSummary> findAllSummaries();
+
 	/**
 	 * Inserts a new theme into the DB.
 	 *
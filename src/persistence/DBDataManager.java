@@ -1,36 +1,63 @@
 package persistence;
 
-import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
 import persistence.DAO.AnswerDAO;
+import persistence.DAO.DailyStatisticHandler;
 import persistence.DAO.QuestionDAO;
 import persistence.DAO.StatisticDAO;
+import persistence.DAO.StatisticFilter;
+import persistence.DAO.StatisticRowHandler;
 import persistence.DAO.ThemeDAO;
 import persistence.DataBase.DBAnswerDAO;
 import persistence.DataBase.DBQuestionDAO;
 import persistence.DataBase.DBStatisticDAO;
 import persistence.DataBase.DBThemeDAO;
+import persistence.metrics.MetricsRegistry;
+import persistence.migration.QuizMigrations;
+import persistence.migration.SchemaMigrator;
+import persistence.tracing.DaoCallEvent;
 import quizLogic.Answer;
 import quizLogic.Question;
+import quizLogic.QuestionSummary;
 import quizLogic.QuizStatistic;
 import quizLogic.Theme;
+import quizLogic.ThemeSummary;
 
 /**
  * {@code DBDataManager} is the central persistence manager managing database
  * interactions related to quiz data in the application.
  *
  * <p>
- * This class establishes and holds a JDBC connection to a MariaDB (MySQL)
- * database, sets up tables if necessary, and exposes methods to perform CRUD
+ * This class owns a {@link ConnectionPool} for a MariaDB (MySQL) database,
+ * migrates the schema if necessary, and exposes methods to perform CRUD
  * operations on main quiz entities: themes, questions, answers, and statistics.
  * </p>
  *
  * <p>
+ * The DAOs borrow a pooled connection per operation and hold no other state,
+ * so a {@code DBDataManager} may be used concurrently from the Swing EDT and
+ * background threads.
+ * </p>
+ *
+ * <p>
+ * Themes, fully loaded questions and the question lists per theme are kept in
+ * size-bounded {@link EntityCache}s. The caches are invalidated precisely by the
+ * save and delete methods of this class; writes that bypass this class (e.g.
+ * through {@link #getThemeDAO()}) must be followed by {@link #clearCaches()}.
+ * Cached entities are never handed out directly: every read returns copies, so
+ * callers may modify the returned objects freely.
+ * </p>
+ *
+ * <p>
  * Concrete database operations are delegated to individual DAO instances:
  * <ul>
  * <li>{@link ThemeDAO} for Theme objects.</li>
@@ -50,20 +77,38 @@ import quizLogic.Theme;
  * <b>Responsibilities include:</b>
  * </p>
  * <ul>
- * <li>Initialize database connection.</li>
- * <li>Ensure required tables exist.</li>
+ * <li>Initialize the database connection pool.</li>
+ * <li>Keep the database schema up to date via versioned migrations.</li>
  * <li>Load, save and delete quiz themes.</li>
  * <li>Load, save and delete quiz questions, with answers fully
  * synchronized.</li>
  * <li>Retrieve quiz answers, statistics, and support deletion cascading.</li>
+ * <li>Record quiz attempts asynchronously in batches.</li>
+ * <li>Cache themes and questions to spare repeated round trips.</li>
+ * <li>Draw random questions from an in-memory ID index.</li>
  * </ul>
  *
  * @author
  */
-public class DBDataManager {
+public class DBDataManager implements AutoCloseable {
+
+	/**
+	 * Default JDBC URL of the quiz database. {@code rewriteBatchedStatements} lets
+	 * the driver send JDBC batches as multi-row statements.
+	 */
+	public static final String DEFAULT_URL = "jdbc:mysql://localhost:3306/quizdb?rewriteBatchedStatements=true";
 
-	/** The persistent database connection used throughout the application. */
-	private final Connection conn;
+	/** Default database user. */
+	public static final String DEFAULT_USER = "root";
+
+	/** Default database password. */
+	public static final String DEFAULT_PASSWORD = "";
+
+	/** Pool of database connections shared by all DAOs. */
+	private final ConnectionPool pool;
+
+	/** Registry timing the DAO calls, or null. */
+	private final MetricsRegistry metrics;
 
 	/** DAO handling theme-related database operations. */
 	private final ThemeDAO themeDAO;
@@ -77,57 +122,185 @@ public class DBDataManager {
 	/** DAO handling statistics-related database operations. */
 	private final StatisticDAO statisticDAO;
 
+	/** Asynchronous, batching writer for quiz attempts. */
+	private final StatisticRecorder statisticRecorder;
+
+	/** Maximum number of fully loaded questions kept in the cache. */
+	private static final int QUESTION_CACHE_SIZE = 1_000;
+
+	/** Maximum number of per-theme question lists kept in the cache. */
+	private static final int THEME_QUESTIONS_CACHE_SIZE = 100;
+
+	/** Key of the single entry of {@link #themeCache}. */
+	private static final String ALL_THEMES_KEY = "all";
+
+	/** Cache of the list of all themes. */
+	private final EntityCache<String, List<Theme>> themeCache = new EntityCache<>("themes", 1);
+
+	/** Cache of fully loaded questions (with theme and answers) by question ID. */
+	private final EntityCache<Integer, Question> questionCache = new EntityCache<>("questions",
+			QUESTION_CACHE_SIZE);
+
+	/** Cache of the questions (with answers) of a theme, by theme ID. */
+	private final EntityCache<Integer, List<Question>> themeQuestionsCache = new EntityCache<>("themeQuestions",
+			THEME_QUESTIONS_CACHE_SIZE);
+
+	/** In-memory index of all question IDs, for drawing random questions. */
+	private final RandomQuestionIndex questionIndex;
+
+	/** In-memory columnar copy of the recorded attempts, for the charts. */
+	private final StatisticsColumnStore statisticsStore;
+
+	/** Normalized titles of all themes and questions, for duplicate checks. */
+	private final TitleIndex titleIndex;
+
+	/** Full-text index over questions and answers. */
+	private final SearchIndex searchIndex;
+
+	/** MinHash/LSH index for near-duplicate questions. */
+	private final NearDuplicateIndex duplicateIndex;
+
+	/** Next uniformly drawn question ID per theme ID, already being prefetched. */
+	private final Map<Integer, Integer> prefetchedRandomIds = new ConcurrentHashMap<>();
+
+	/** Background thread loading drawn questions into the cache in advance. */
+	private final ExecutorService prefetcher = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "DBDataManager-prefetch");
+		thread.setDaemon(true);
+		return thread;
+	});
+
 	/**
-	 * Constructs the data manager, sets up the database connection, initializes
-	 * DAOs, and creates necessary tables if missing.
+	 * Constructs the data manager for the default quiz database.
 	 *
 	 * @throws SQLException if database setup or connection fails.
 	 */
 	public DBDataManager() throws SQLException {
-		conn = DriverManager.getConnection("jdbc:mysql://localhost:3306/quizdb", "root", "");
+		this(new ConnectionPool(DEFAULT_URL, DEFAULT_USER, DEFAULT_PASSWORD));
+	}
 
-		createTables();
+	/**
+	 * Constructs the data manager for an arbitrary JDBC database, e.g. an
+	 * embedded database in tests or benchmarks.
+	 *
+	 * @param url      JDBC URL
+	 * @param user     database user
+	 * @param password database password
+	 * @throws SQLException if database setup or connection fails.
+	 */
+	public DBDataManager(String url, String user, String password) throws SQLException {
+		this(new ConnectionPool(url, user, password));
+	}
 
-		themeDAO = new DBThemeDAO(conn);
-		questionDAO = new DBQuestionDAO(conn);
-		answerDAO = new DBAnswerDAO(conn);
-		statisticDAO = new DBStatisticDAO(conn);
+	/**
+	 * Constructs the data manager on top of an existing connection pool,
+	 * initializes DAOs, and migrates the schema to the latest version. The pool is
+	 * closed by {@link #close()}, or right away if construction fails.
+	 *
+	 * @param pool the connection pool to use
+	 * @throws SQLException if database setup or connection fails.
+	 */
+	public DBDataManager(ConnectionPool pool) throws SQLException {
+		this(pool, null);
 	}
 
 	/**
-	 * Creates database tables (theme, question, answer) if they don’t exist
-	 * already. Uses foreign keys with cascading deletes to maintain referential
-	 * integrity.
-	 * 
-	 * @throws SQLException if table creation fails.
+	 * Constructs the data manager on top of an existing connection pool and times
+	 * every DAO call in the given registry, see
+	 * {@link MetricsRegistry#instrument(Class, Object, String)}. The metrics are
+	 * named after the DAO interface and method, e.g.
+	 * {@code QuestionDAO.findByTheme}. The pool is closed by {@link #close()},
+	 * or right away if construction fails.
+	 *
+	 * @param pool    the connection pool to use
+	 * @param metrics the registry, or null to use the DAOs without metrics
+	 * @throws SQLException if database setup or connection fails.
 	 */
-	private void createTables() throws SQLException {
-		try (Statement st = conn.createStatement()) {
-			st.executeUpdate("CREATE TABLE IF NOT EXISTS theme (" + "id INT PRIMARY KEY AUTO_INCREMENT,"
-					+ "title VARCHAR(255) NOT NULL," + "text TEXT)");
+	public DBDataManager(ConnectionPool pool, MetricsRegistry metrics) throws SQLException {
+		this.pool = pool;
+		this.metrics = metrics;
+
+		try {
+			migrateSchema();
+		} catch (SQLException | RuntimeException e) {
+			// Nobody else can close the pool once this constructor throws
+			pool.close();
+			throw e;
+		}
 
-			st.executeUpdate("CREATE TABLE IF NOT EXISTS question (" + "id INT PRIMARY KEY AUTO_INCREMENT,"
-					+ "theme_id INT," + "title VARCHAR(255) NOT NULL," + "text TEXT,"
-					+ "FOREIGN KEY (theme_id) REFERENCES theme(id) ON DELETE CASCADE)");
+		themeDAO = instrument(ThemeDAO.class, new DBThemeDAO(pool));
+		questionDAO = instrument(QuestionDAO.class, new DBQuestionDAO(pool));
+		answerDAO = instrument(AnswerDAO.class, new DBAnswerDAO(pool));
+		statisticDAO = instrument(StatisticDAO.class, new DBStatisticDAO(pool));
+		statisticRecorder = new StatisticRecorder(statisticDAO);
+		questionIndex = new RandomQuestionIndex(questionDAO::findIdsByTheme);
+		statisticsStore = new StatisticsColumnStore(questionDAO::findIdsByTheme, this::loadStatistics);
+		titleIndex = new TitleIndex(themeDAO::findAllSummaries, () -> questionDAO.findSummariesByTheme(0));
+		searchIndex = new SearchIndex(this::forEachQuestion);
+		duplicateIndex = new NearDuplicateIndex(this::forEachQuestion);
+	}
 
-			st.executeUpdate("CREATE TABLE IF NOT EXISTS answer (" + "id INT PRIMARY KEY AUTO_INCREMENT,"
-					+ "question_id INT," + "text VARCHAR(255) NOT NULL," + "is_correct BOOLEAN,"
-					+ "FOREIGN KEY (question_id) REFERENCES question(id) ON DELETE CASCADE)");
+	/**
+	 * Wraps a DAO so that its calls emit {@link DaoCallEvent}s for Java Flight
+	 * Recorder, and with timing if a metrics registry is configured.
+	 * 
+	 * @param <T>  the DAO interface type
+	 * @param type the DAO interface
+	 * @param dao  the DAO
+	 * @return the instrumented DAO
+	 */
+	private <T> T instrument(Class<T> type, T dao) {
+		T recorded = DaoCallEvent.instrument(type, dao);
+		return metrics == null ? recorded : metrics.instrument(type, recorded, type.getSimpleName());
+	}
 
-			st.executeUpdate(
-					"CREATE TABLE IF NOT EXISTS statistic (" + "id INT PRIMARY KEY AUTO_INCREMENT," + "question_id INT NOT NULL,"
-							+ "answer_id INT," + "correct BOOLEAN," + "date DATETIME DEFAULT CURRENT_TIMESTAMP,"
-							+ "FOREIGN KEY (question_id) REFERENCES question(id) ON DELETE CASCADE)");
-		}
+	/**
+	 * Brings the database schema up to date by applying all pending migrations
+	 * from {@link QuizMigrations} (tables, foreign keys with cascading deletes and
+	 * the indexes of the hot query paths).
+	 * 
+	 * @throws SQLException if a migration fails or the schema was tampered with.
+	 */
+	private void migrateSchema() throws SQLException {
+		new SchemaMigrator(pool, QuizMigrations.all()).migrate();
 	}
 
 	/**
-	 * Fetches all themes from the database.
+	 * Fetches all themes, from the cache if possible.
 	 *
 	 * @return List of all {@link Theme} objects.
 	 */
 	public List<Theme> getAllThemes() {
-		return themeDAO.findAll();
+		List<Theme> themes = themeCache.get(ALL_THEMES_KEY, key -> themeDAO.findAll());
+		List<Theme> copies = new ArrayList<>(themes.size());
+		for (Theme theme : themes) {
+			copies.add(copyOf(theme));
+		}
+		return copies;
+	}
+
+	/**
+	 * Fetches the summaries (ID and title) of all themes, for list views.
+	 * 
+	 * @return List of {@link ThemeSummary} objects.
+	 */
+	public List<ThemeSummary> getThemeSummaries() {
+		List<ThemeSummary> summaries = themeDAO.findAllSummaries();
+		return summaries == null ? new ArrayList<>() : summaries;
+	}
+
+	/**
+	 * Fetches a theme with its description, from the cache if possible.
+	 * 
+	 * @param id The theme ID.
+	 * @return the {@link Theme}, or null if not found.
+	 */
+	public Theme getThemeById(int id) {
+		for (Theme theme : themeCache.get(ALL_THEMES_KEY, key -> themeDAO.findAll())) {
+			if (theme.getId() == id)
+				return copyOf(theme);
+		}
+		return null;
 	}
 
 	/**
@@ -138,11 +311,42 @@ public class DBDataManager {
 	 * @return Null if success, or an error message string.
 	 */
 	public String saveTheme(Theme theme) {
+		String error;
 		if (theme.getId() <= 0) {
-			return themeDAO.insert(theme) ? null : "Error inserting theme.";
+			error = themeDAO.insert(theme) ? null : "Error inserting theme.";
+		} else {
+			error = themeDAO.update(theme) ? null : "Error updating theme.";
+		}
+		invalidateTheme(theme.getId());
+		if (error == null) {
+			titleIndex.putTheme(theme.getId(), theme.getTitle());
 		} else {
-			return themeDAO.update(theme) ? null : "Error updating theme.";
+			titleIndex.invalidate(); // e.g. the title was taken by another editor meanwhile
 		}
+		return error;
+	}
+
+	/**
+	 * Finds the theme with a title, compared in normalized form (see
+	 * {@link TitleIndex#normalize(String)}), without a database round trip.
+	 * 
+	 * @param title The title.
+	 * @return the theme ID, or -1 if no theme has this title.
+	 */
+	public int findThemeIdByTitle(String title) {
+		return titleIndex.findThemeId(title);
+	}
+
+	/**
+	 * Finds the question of a theme with a title, compared in normalized form
+	 * (see {@link TitleIndex#normalize(String)}), without a database round trip.
+	 * 
+	 * @param theme The theme.
+	 * @param title The title.
+	 * @return the question ID, or -1 if no question of the theme has this title.
+	 */
+	public int findQuestionIdByTitle(Theme theme, String title) {
+		return theme == null ? -1 : titleIndex.findQuestionId(theme.getId(), title);
 	}
 
 	/**
@@ -152,11 +356,25 @@ public class DBDataManager {
 	 * @return true if deletion was successful, false otherwise.
 	 */
 	public boolean deleteTheme(int themeId) {
-		return themeDAO.delete(themeId);
+		boolean deleted = themeDAO.delete(themeId);
+		invalidateTheme(themeId);
+		if (deleted) {
+			questionIndex.removeTheme(themeId);
+			titleIndex.removeTheme(themeId);
+			searchIndex.removeTheme(themeId);
+			duplicateIndex.removeTheme(themeId);
+			statisticsStore.removeTheme(themeId); // the attempts were deleted by cascade
+		}
+		return deleted;
 	}
 
 	/**
-	 * Retrieves all questions for a given theme, with answers loaded.
+	 * Retrieves all questions for a given theme, with answers loaded, from the
+	 * cache if possible.
+	 * <p>
+	 * On a cache miss the answers of all questions are bulk loaded, so this costs
+	 * two queries regardless of how many questions the theme contains.
+	 * </p>
 	 * 
 	 * @param theme The {@link Theme} whose questions to retrieve.
 	 * @return List of {@link Question} objects including their answers.
@@ -165,11 +383,28 @@ public class DBDataManager {
 		if (theme == null || theme.getId() <= 0)
 			return new ArrayList<>();
 
+		Theme themeCopy = copyOf(theme);
+		List<Question> questions = themeQuestionsCache.get(theme.getId(), id -> loadQuestionsFor(themeCopy));
+		List<Question> copies = new ArrayList<>(questions.size());
+		Theme sharedTheme = questions.isEmpty() ? null : copyOf(questions.get(0).getThema());
+		for (Question question : questions) {
+			copies.add(copyOf(question, sharedTheme));
+		}
+		return copies;
+	}
+
+	/**
+	 * Loads the questions of a theme with their answers from the database.
+	 * 
+	 * @param theme the theme
+	 * @return the questions including their answers
+	 */
+	private List<Question> loadQuestionsFor(Theme theme) {
 		List<Question> questions = questionDAO.findByTheme(theme);
+		Map<Integer, List<Answer>> answersByQuestion = answerDAO.findByQuestions(questions);
 		for (Question question : questions) {
-			List<Answer> answers = answerDAO.findByQuestion(question);
 			question.clearAnswers();
-			for (Answer answer : answers) {
+			for (Answer answer : answersByQuestion.getOrDefault(question.getId(), List.of())) {
 				question.addAnswer(answer);
 			}
 		}
@@ -177,31 +412,82 @@ public class DBDataManager {
 	}
 
 	/**
-	 * Retrieves a question by ID with its answers.
+	 * Counts the questions of a theme.
+	 * 
+	 * @param theme the theme, or null (or a theme without ID) for all themes.
+	 * @return number of questions.
+	 */
+	public int countQuestions(Theme theme) {
+		return questionDAO.countByTheme(indexThemeId(theme));
+	}
+
+	/**
+	 * Retrieves one page of question summaries of a theme ordered by ID, see
+	 * {@link QuestionDAO#findSummaryPage(int, int, int)}. Pages bypass the caches;
+	 * they are cheap index range reads and are held by the UI only while visible.
+	 * 
+	 * @param theme   the theme, or null (or a theme without ID) for all themes.
+	 * @param afterId the ID after which the page starts, 0 for the first page.
+	 * @param limit   maximum number of questions.
+	 * @return the summaries.
+	 */
+	public List<QuestionSummary> getQuestionPage(Theme theme, int afterId, int limit) {
+		return questionDAO.findSummaryPage(indexThemeId(theme), afterId, limit);
+	}
+
+	/**
+	 * Retrieves the summaries (ID and title) of all questions of a theme, for list
+	 * views. Load the full question on selection with
+	 * {@link #getFullQuestionById(int)}.
+	 * 
+	 * @param theme the theme, or null (or a theme without ID) for all themes.
+	 * @return the summaries ordered by ID.
+	 */
+	public List<QuestionSummary> getQuestionSummaries(Theme theme) {
+		List<QuestionSummary> summaries = questionDAO.findSummariesByTheme(indexThemeId(theme));
+		return summaries == null ? new ArrayList<>() : summaries;
+	}
+
+	/**
+	 * Computes the keyset anchors of all question pages of a theme, see
+	 * {@link QuestionDAO#findPageAnchors(int, int)}.
+	 * 
+	 * @param theme    the theme, or null (or a theme without ID) for all themes.
+	 * @param pageSize number of questions per page.
+	 * @return one anchor per page.
+	 */
+	public int[] getQuestionPageAnchors(Theme theme, int pageSize) {
+		return questionDAO.findPageAnchors(indexThemeId(theme), pageSize);
+	}
+
+	/**
+	 * Retrieves a question by ID with its theme and answers, from the cache if
+	 * possible. A cache miss costs a single database round trip.
 	 * 
 	 * @param id The question ID.
 	 * @return fully loaded {@link Question}, or null if not found.
 	 */
 	public Question getFullQuestionById(int id) {
-		Question question = questionDAO.findById(id);
-		if (question != null) {
-			List<Answer> answers = answerDAO.findByQuestion(question);
-			question.clearAnswers();
-			for (Answer answer : answers) {
-				question.addAnswer(answer);
-			}
-			if (question.getThema() != null && question.getThema().getId() > 0) {
-				Theme theme = themeDAO.findById(question.getThema().getId());
-				question.setThema(theme);
-			}
-		}
-		return question;
+		Question question = questionCache.get(id, this::loadFullQuestion);
+		return question == null ? null : copyOf(question, copyOf(question.getThema()));
 	}
 
 	/**
-	 * Saves a question and its answers to the database. Inserts or updates the
-	 * question based on its id. Answers are fully re-synced (old answers deleted,
-	 * new answers inserted).
+	 * Loads a question with its theme and answers from the database in a single
+	 * joined query.
+	 * 
+	 * @param id The question ID.
+	 * @return fully loaded {@link Question}, or null if not found.
+	 */
+	private Question loadFullQuestion(int id) {
+		return questionDAO.findFullById(id);
+	}
+
+	/**
+	 * Saves a question and its answers to the database inside one transaction.
+	 * Inserts or updates the question based on its id. Answers are reconciled by
+	 * ID: changed answers are updated, new ones inserted and removed ones deleted,
+	 * so existing answer IDs stay stable.
 	 * 
 	 * @param question The question to save.
 	 * @return Null if successful, or an error message.
@@ -210,16 +496,24 @@ public class DBDataManager {
 		if (question.getThema() == null || question.getThema().getId() <= 0)
 			return "Please select a valid theme before saving the question.";
 
-		boolean success;
-		if (question.getId() <= 0)
-			success = questionDAO.insert(question);
-		else
-			success = questionDAO.update(question);
-
-		if (!success)
-			return (question.getId() <= 0) ? "Error inserting question." : "Error updating question.";
-
-		saveAnswers(question);
+		boolean isNew = question.getId() <= 0;
+		boolean success = pool.inTransaction(() -> {
+			boolean saved = isNew ? questionDAO.insert(question) : questionDAO.update(question);
+			return saved && answerDAO.syncAnswers(question);
+		});
+
+		invalidateQuestion(question);
+		if (!success) {
+			if (isNew)
+				question.setId(-1); // insert was rolled back
+			titleIndex.invalidate(); // e.g. the title was taken by another editor meanwhile
+			return isNew ? "Error inserting question." : "Error updating question.";
+		}
+		questionIndex.put(question.getId(), question.getThema().getId());
+		statisticsStore.putQuestion(question.getId(), question.getThema().getId());
+		titleIndex.putQuestion(question.getId(), question.getThema().getId(), question.getTitle());
+		searchIndex.put(question);
+		duplicateIndex.put(question);
 		return null;
 	}
 
@@ -230,43 +524,318 @@ public class DBDataManager {
 	 * @return Null if successful, else error message.
 	 */
 	public String deleteQuestion(Question question) {
-		return questionDAO.delete(question.getId()) ? null : "Error deleting question.";
+		boolean deleted = questionDAO.delete(question.getId());
+		invalidateQuestion(question);
+		if (deleted) {
+			questionIndex.remove(question.getId());
+			titleIndex.removeQuestion(question.getId());
+			searchIndex.remove(question.getId());
+			duplicateIndex.remove(question.getId());
+			statisticsStore.removeQuestion(question.getId()); // the attempts were deleted by cascade
+		}
+		return deleted ? null : "Error deleting question.";
 	}
 
+	// ---------- Search ----------
+
 	/**
-	 * Persists answers for a question. Deletes all existing answers and inserts
-	 * current ones.
+	 * Searches question titles, texts and answers in the in-memory
+	 * {@link SearchIndex}, which is built on first use.
 	 * 
-	 * @param question The question whose answers to save.
+	 * @param query the query; every word must occur, the words may be prefixes.
+	 * @param limit maximum number of results.
+	 * @return the summaries of the best matching questions, best first.
 	 */
-	private void saveAnswers(Question question) {
-		// Delete old answers
-		answerDAO.deleteByQuestionId(question.getId());
+	public List<QuestionSummary> search(String query, int limit) {
+		return searchIndex.search(query, limit);
+	}
 
-		// Insert new answers
-		for (Answer answer : question.getAnswers()) {
-			answer.setQuestion(question);
-			answerDAO.insert(answer);
+	/**
+	 * Searches the questions of a theme, see {@link #search(String, int)}.
+	 * 
+	 * @param query the query.
+	 * @param theme the theme to search, or null for all themes.
+	 * @param limit maximum number of results.
+	 * @return the summaries of the best matching questions, best first.
+	 */
+	public List<QuestionSummary> search(String query, Theme theme, int limit) {
+		return searchIndex.search(query, indexThemeId(theme), limit);
+	}
+
+	/**
+	 * Finds saved questions that are near-duplicates of a question (reworded
+	 * copies), using the in-memory {@link NearDuplicateIndex}. The first call
+	 * builds the index from all questions, so call it off the event dispatch
+	 * thread.
+	 * 
+	 * @param question the question, e.g. about to be saved.
+	 * @return the similar questions, most similar first; the question itself is
+	 *         not included.
+	 */
+	public List<NearDuplicateIndex.Match> findNearDuplicates(Question question) {
+		return duplicateIndex.findSimilar(question, NearDuplicateIndex.DEFAULT_THRESHOLD);
+	}
+
+	/**
+	 * Groups the whole question bank into clusters of near-duplicates. The
+	 * candidate pairs are verified in parallel; this may take a while for large
+	 * banks, so call it off the event dispatch thread.
+	 * 
+	 * @param threshold minimum estimated similarity between 0 and 1.
+	 * @return the clusters of at least two questions, largest first.
+	 */
+	public List<List<QuestionSummary>> findDuplicateClusters(double threshold) {
+		return duplicateIndex.findClusters(threshold);
+	}
+
+	/**
+	 * Passes every question with its answers to a consumer, theme by theme, to
+	 * build the in-memory indexes. Costs two queries per theme.
+	 * 
+	 * @param consumer receives the questions.
+	 */
+	private void forEachQuestion(Consumer<Question> consumer) {
+		for (Theme theme : themeDAO.findAll()) {
+			loadQuestionsFor(theme).forEach(consumer);
+		}
+	}
+
+	// ---------- Random questions ----------
+
+	/**
+	 * Returns a random question of any theme.
+	 * 
+	 * @return a fully loaded random {@link Question}, or null if none exist.
+	 * @see persistence.serialization.QuizDataInterface#getRandomQuestion()
+	 */
+	public Question getRandomQuestion() {
+		return getRandomQuestion(null);
+	}
+
+	/**
+	 * Returns a question drawn uniformly at random from a theme. The draw is a
+	 * lookup in the in-memory {@link RandomQuestionIndex}; the following draw is
+	 * made in advance and its question prefetched into the cache, so usually no
+	 * database round trip is needed.
+	 * 
+	 * @param theme the theme to draw from, or null for all themes.
+	 * @return a fully loaded random {@link Question}, or null if none exist.
+	 */
+	public Question getRandomQuestion(Theme theme) {
+		int themeId = indexThemeId(theme);
+		Integer prefetched = prefetchedRandomIds.remove(themeId);
+		int id = prefetched != null ? prefetched : questionIndex.randomId(themeId);
+		Question question = id > 0 ? getFullQuestionById(id) : null;
+		if (question == null && prefetched != null) {
+			// The prefetched question was deleted in the meantime
+			id = questionIndex.randomId(themeId);
+			question = id > 0 ? getFullQuestionById(id) : null;
+		}
+
+		int next = questionIndex.randomId(themeId);
+		if (next > 0) {
+			prefetchedRandomIds.put(themeId, next);
+			prefetchQuestion(next);
+		}
+		return question;
+	}
+
+	/**
+	 * Starts a quiz session drawing random questions of a theme without
+	 * repetition.
+	 * 
+	 * @param theme the theme to draw from, or null for all themes.
+	 * @return a new {@link QuizSession}.
+	 */
+	public QuizSession startQuizSession(Theme theme) {
+		return new QuizSession(this, questionIndex.newSession(indexThemeId(theme)));
+	}
+
+	/**
+	 * Loads a question into the cache in the background, so a later
+	 * {@link #getFullQuestionById(int)} is served without a round trip.
+	 * 
+	 * @param id the question ID; ignored if not positive.
+	 */
+	void prefetchQuestion(int id) {
+		if (id <= 0)
+			return;
+		try {
+			prefetcher.execute(() -> questionCache.get(id, this::loadFullQuestion));
+		} catch (RejectedExecutionException e) {
+			// closed: prefetching is only an optimization
 		}
 	}
 
+	/**
+	 * Maps a theme to its ID in the {@link RandomQuestionIndex}.
+	 * 
+	 * @param theme the theme, or null (or an unsaved pseudo theme) for all themes.
+	 * @return the theme ID or {@link RandomQuestionIndex#ALL_THEMES}.
+	 */
+	private static int indexThemeId(Theme theme) {
+		return theme == null || theme.getId() <= 0 ? RandomQuestionIndex.ALL_THEMES : theme.getId();
+	}
+
 	/**
 	 * Returns all themes.
 	 * 
 	 * @return List of {@link Theme}.
 	 */
 	public List<Theme> findAllThemes() {
-		return themeDAO.findAll();
+		return getAllThemes();
 	}
 
 	/**
-	 * Finds questions for given theme.
+	 * Finds questions for given theme. Served from the same cache as
+	 * {@link #getQuestionsFor(Theme)}, so the questions include their answers.
 	 * 
 	 * @param theme The theme to query.
 	 * @return List of {@link Question}.
 	 */
 	public List<Question> findQuestionsByTheme(Theme theme) {
-		return questionDAO.findByTheme(theme);
+		return getQuestionsFor(theme);
+	}
+
+	// ---------- Cache maintenance ----------
+
+	/**
+	 * Drops every cached entry that depends on the given theme: the theme list,
+	 * the theme's question list and its fully loaded questions.
+	 * 
+	 * @param themeId ID of the saved or deleted theme
+	 */
+	private void invalidateTheme(int themeId) {
+		themeCache.invalidateAll();
+		themeQuestionsCache.invalidate(themeId);
+		questionCache.invalidateIf(q -> q.getThema() != null && q.getThema().getId() == themeId);
+	}
+
+	/**
+	 * Drops every cached entry that depends on the given question: the question
+	 * itself, the list of its current theme and any list still containing it
+	 * (e.g. its previous theme after a move).
+	 * 
+	 * @param question the saved or deleted question
+	 */
+	private void invalidateQuestion(Question question) {
+		int questionId = question.getId();
+		questionCache.invalidate(questionId);
+		if (question.getThema() != null)
+			themeQuestionsCache.invalidate(question.getThema().getId());
+		themeQuestionsCache.invalidateIf(list -> {
+			for (Question q : list) {
+				if (q.getId() == questionId)
+					return true;
+			}
+			return false;
+		});
+	}
+
+	/**
+	 * Drops all cached entities, e.g. after the database was modified through the
+	 * DAOs directly.
+	 */
+	public void clearCaches() {
+		themeCache.invalidateAll();
+		questionCache.invalidateAll();
+		themeQuestionsCache.invalidateAll();
+		questionIndex.invalidate();
+		statisticsStore.invalidate();
+		titleIndex.invalidate();
+		searchIndex.invalidate();
+		duplicateIndex.invalidate();
+		prefetchedRandomIds.clear();
+	}
+
+	/**
+	 * Returns hit/miss statistics of all entity caches, one line per cache.
+	 * 
+	 * @return human readable cache statistics
+	 */
+	public String getCacheStatistics() {
+		return themeCache + System.lineSeparator() + questionCache + System.lineSeparator() + themeQuestionsCache;
+	}
+
+	/**
+	 * Copies a theme without its question map.
+	 * 
+	 * @param theme the theme, may be null
+	 * @return the copy, or null
+	 */
+	private static Theme copyOf(Theme theme) {
+		if (theme == null)
+			return null;
+		Theme copy = new Theme();
+		copy.setId(theme.getId());
+		copy.setTitle(theme.getTitle());
+		copy.setText(theme.getText());
+		return copy;
+	}
+
+	/**
+	 * Copies a question including its answers.
+	 * 
+	 * @param question the question
+	 * @param theme    the theme to link the copy to
+	 * @return the copy
+	 */
+	private static Question copyOf(Question question, Theme theme) {
+		Question copy = new Question(theme);
+		copy.setId(question.getId());
+		copy.setTitle(question.getTitle());
+		copy.setText(question.getText());
+		for (Answer answer : question.getAnswers()) {
+			Answer answerCopy = new Answer(copy);
+			answerCopy.setId(answer.getId());
+			answerCopy.setText(answer.getText());
+			answerCopy.setCorrect(answer.isCorrect());
+			copy.addAnswer(answerCopy);
+		}
+		return copy;
+	}
+
+	/**
+	 * Records a quiz attempt asynchronously. The attempt is queued and written in
+	 * a batch by a background thread, so this never blocks on the database. A
+	 * loaded {@link StatisticsColumnStore} gets the attempt appended right away.
+	 * 
+	 * @param statistic the attempt to record.
+	 * @return true if the attempt was queued, false if the queue is full.
+	 */
+	public boolean recordAttempt(QuizStatistic statistic) {
+		// Queue and append atomically with respect to the start of a store load,
+		// see loadStatistics: the attempt is then either streamed by the load or
+		// replayed after it, not both
+		synchronized (statisticsStore) {
+			if (!statisticRecorder.record(statistic))
+				return false;
+			statisticsStore.append(statistic.getQuestionId(), statistic.isCorrect(), statistic.getDate().getTime());
+			return true;
+		}
+	}
+
+	/**
+	 * Writes all queued quiz attempts, e.g. before statistics are displayed.
+	 */
+	public void flushStatistics() {
+		statisticRecorder.flush();
+	}
+
+	/**
+	 * Rebuilds the daily statistic rollup from the recorded attempts, e.g. after
+	 * attempts were imported directly into the database. Queued attempts are
+	 * flushed first; the statistics store is reloaded from the rebuilt rollup on
+	 * next use.
+	 * 
+	 * @return true if the rollup was rebuilt, false otherwise.
+	 */
+	public boolean rebuildStatisticRollup() {
+		statisticRecorder.flush();
+		if (!statisticDAO.rebuildDailyRollup())
+			return false;
+		statisticsStore.invalidate();
+		return true;
 	}
 
 	/**
@@ -279,6 +848,79 @@ public class DBDataManager {
 		return statisticDAO.findByQuestionId(questionId);
 	}
 
+	/**
+	 * Finds the quiz statistics matching a filter with a single query.
+	 * 
+	 * @param filter restricts the attempts; {@code null} for all.
+	 * @return List of {@link QuizStatistic} ordered by time.
+	 */
+	public List<QuizStatistic> findStatistics(StatisticFilter filter) {
+		return statisticDAO.find(filter);
+	}
+
+	/**
+	 * Passes every recorded quiz attempt matching the filter to the handler, in
+	 * constant memory. Queued attempts are flushed first.
+	 * 
+	 * @param filter  restricts the attempts; {@code null} for all.
+	 * @param handler receives the attempts as primitive values.
+	 * @return number of attempts passed to the handler.
+	 */
+	public long forEachStatistic(StatisticFilter filter, StatisticRowHandler handler) {
+		statisticRecorder.flush();
+		return statisticDAO.forEach(filter, StatisticDAO.DEFAULT_FETCH_SIZE, handler);
+	}
+
+	/**
+	 * Streams the daily rollup into a load of the statistics store. The flusher
+	 * is paused while the rollup is read. The queued attempts are taken together
+	 * with the start of the load and written first, which adds them to the
+	 * rollup, so the load reads them from there; attempts recorded later stay
+	 * queued and are replayed by the store instead. The store lock is only held
+	 * for that short cut, not during the database I/O.
+	 * 
+	 * @param begin   marks the start of the load in the store.
+	 * @param handler receives the attempts per question and day.
+	 * @return number of rollup rows passed to the handler.
+	 */
+	private long loadStatistics(Runnable begin, DailyStatisticHandler handler) {
+		return statisticRecorder.whilePaused(() -> {
+			List<QuizStatistic> queued;
+			synchronized (statisticsStore) {
+				begin.run();
+				queued = statisticRecorder.drain();
+			}
+			statisticRecorder.writeAll(queued);
+			return statisticDAO.forEachDaily(StatisticDAO.DEFAULT_FETCH_SIZE, handler);
+		});
+	}
+
+	/**
+	 * Returns the in-memory columnar copy of the daily statistic rollup, which
+	 * answers the aggregate queries of the charts without a database round trip.
+	 * It is loaded on first use.
+	 * 
+	 * @return the {@link StatisticsColumnStore}.
+	 */
+	public StatisticsColumnStore getStatisticsStore() {
+		return statisticsStore;
+	}
+
+	/** @return the cache of the theme list, e.g. to inspect its hit/miss counters */
+	public EntityCache<String, List<Theme>> getThemeCache() {
+		return themeCache;
+	}
+
+	/** @return the cache of fully loaded questions */
+	public EntityCache<Integer, Question> getQuestionCache() {
+		return questionCache;
+	}
+
+	/** @return the cache of question lists per theme */
+	public EntityCache<Integer, List<Question>> getThemeQuestionsCache() {
+		return themeQuestionsCache;
+	}
+
 	/**
 	 * Accessor for ThemeDAO.
 	 * 
@@ -305,4 +947,42 @@ public class DBDataManager {
 	public StatisticDAO getStatisticDAO() {
 		return statisticDAO;
 	}
+
+	/**
+	 * Accessor for the connection pool, e.g. to inspect its metrics.
+	 * 
+	 * @return {@link ConnectionPool}.
+	 */
+	public ConnectionPool getConnectionPool() {
+		return pool;
+	}
+
+	/**
+	 * Accessor for the asynchronous attempt recorder, e.g. to inspect its metrics.
+	 * 
+	 * @return {@link StatisticRecorder}.
+	 */
+	public StatisticRecorder getStatisticRecorder() {
+		return statisticRecorder;
+	}
+
+	/**
+	 * Returns the registry timing the DAO calls.
+	 * 
+	 * @return the registry, or null if the DAOs are not instrumented.
+	 */
+	public MetricsRegistry getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Writes pending quiz attempts and releases all database resources held by
+	 * this manager.
+	 */
+	@Override
+	public void close() {
+		prefetcher.shutdownNow();
+		statisticRecorder.close();
+		pool.close();
+	}
 }
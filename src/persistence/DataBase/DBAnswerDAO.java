@@ -4,8 +4,17 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import javax.sql.DataSource;
 
 import persistence.DAO.AnswerDAO;
 import quizLogic.Answer;
@@ -19,9 +28,13 @@ import quizLogic.Question;
  * </p>
  * <ul>
  * <li>Fetch all answers belonging to a given {@link Question}</li>
+ * <li>Batch-fetch the answers of many questions with {@code IN (...)}
+ * queries</li>
  * <li>Insert a new {@link Answer} into the database</li>
  * <li>Update an existing {@link Answer}</li>
  * <li>Delete all answers belonging to a given question ID</li>
+ * <li>Reconcile the stored answers of a question by ID using JDBC
+ * batches</li>
  * </ul>
  *
  * <p>
@@ -34,16 +47,26 @@ import quizLogic.Question;
  */
 public class DBAnswerDAO implements AnswerDAO {
 
-	/** Active DB connection, provided by {@link persistence.DBDataManager}. */
-	private final Connection conn;
+	/**
+	 * Maximum number of question IDs bound into a single {@code IN (...)} list.
+	 * Larger sets are split into several queries to stay well below driver and
+	 * server limits on placeholders and packet size.
+	 */
+	private static final int IN_BATCH_SIZE = 500;
+
+	/**
+	 * Source of pooled connections, provided by {@link persistence.DBDataManager}.
+	 * Every operation borrows its own connection.
+	 */
+	private final DataSource dataSource;
 
 	/**
-	 * Constructs a new DBAnswerDAO with an active database connection.
+	 * Constructs a new DBAnswerDAO backed by a pooled data source.
 	 *
-	 * @param conn an open JDBC {@link Connection}
+	 * @param dataSource the {@link DataSource} to borrow connections from
 	 */
-	public DBAnswerDAO(Connection conn) {
-		this.conn = conn;
+	public DBAnswerDAO(DataSource dataSource) {
+		this.dataSource = dataSource;
 	}
 
 	/**
@@ -57,7 +80,7 @@ public class DBAnswerDAO implements AnswerDAO {
 		String sql = "SELECT * FROM answer WHERE question_id=?";
 		List<Answer> answers = new ArrayList<>();
 
-		try (PreparedStatement ps = conn.prepareStatement(sql)) {
+		try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
 			ps.setInt(1, question.getId());
 
 			try (ResultSet rs = ps.executeQuery()) {
@@ -75,6 +98,60 @@ public class DBAnswerDAO implements AnswerDAO {
 		return answers;
 	}
 
+	/**
+	 * Finds the answers of all given questions using batched {@code IN (...)}
+	 * queries.
+	 *
+	 * <p>
+	 * The questions are processed in chunks of {@value #IN_BATCH_SIZE}, so loading
+	 * the answers of a whole theme costs one round trip per chunk instead of one
+	 * per question.
+	 * </p>
+	 *
+	 * @param questions the parent questions whose answers to load
+	 * @return map from question ID to its answers (empty if none found)
+	 */
+	@Override
+	public Map<Integer, List<Answer>> findByQuestions(Collection<Question> questions) {
+		Map<Integer, List<Answer>> answersByQuestion = new HashMap<>();
+		if (questions == null || questions.isEmpty())
+			return answersByQuestion;
+
+		Map<Integer, Question> questionsById = new HashMap<>();
+		for (Question q : questions) {
+			questionsById.put(q.getId(), q);
+		}
+		List<Integer> ids = new ArrayList<>(questionsById.keySet());
+
+		try (Connection conn = dataSource.getConnection()) {
+			for (int from = 0; from < ids.size(); from += IN_BATCH_SIZE) {
+				List<Integer> chunk = ids.subList(from, Math.min(from + IN_BATCH_SIZE, ids.size()));
+				String sql = "SELECT * FROM answer WHERE question_id IN (" + placeholders(chunk.size())
+						+ ") ORDER BY question_id, id";
+
+				try (PreparedStatement ps = conn.prepareStatement(sql)) {
+					for (int i = 0; i < chunk.size(); i++) {
+						ps.setInt(i + 1, chunk.get(i));
+					}
+
+					try (ResultSet rs = ps.executeQuery()) {
+						while (rs.next()) {
+							int questionId = rs.getInt("question_id");
+							Answer a = new Answer(questionsById.get(questionId));
+							a.setId(rs.getInt("id"));
+							a.setText(rs.getString("text"));
+							a.setCorrect(rs.getBoolean("is_correct"));
+							answersByQuestion.computeIfAbsent(questionId, k -> new ArrayList<>()).add(a);
+						}
+					}
+				}
+			}
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+		return answersByQuestion;
+	}
+
 	/**
 	 * Inserts a new answer into the database.
 	 *
@@ -88,7 +165,7 @@ public class DBAnswerDAO implements AnswerDAO {
 	@Override
 	public boolean insert(Answer answer) {
 		String sql = "INSERT INTO answer (question_id, text, is_correct) VALUES (?, ?, ?)";
-		try (PreparedStatement ps = conn.prepareStatement(sql)) {
+		try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
 			ps.setInt(1, answer.getQuestion().getId());
 			ps.setString(2, answer.getText());
 			ps.setBoolean(3, answer.isCorrect());
@@ -110,7 +187,7 @@ public class DBAnswerDAO implements AnswerDAO {
 	@Override
 	public boolean update(Answer answer) {
 		String sql = "UPDATE answer SET text=?, is_correct=? WHERE id=?";
-		try (PreparedStatement ps = conn.prepareStatement(sql)) {
+		try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
 			ps.setString(1, answer.getText());
 			ps.setBoolean(2, answer.isCorrect());
 			ps.setInt(3, answer.getId());
@@ -136,7 +213,7 @@ public class DBAnswerDAO implements AnswerDAO {
 	@Override
 	public boolean deleteByQuestionId(int questionId) {
 		String sql = "DELETE FROM answer WHERE question_id=?";
-		try (PreparedStatement ps = conn.prepareStatement(sql)) {
+		try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
 			ps.setInt(1, questionId);
 			ps.executeUpdate();
 			return true;
@@ -145,4 +222,149 @@ public class DBAnswerDAO implements AnswerDAO {
 			return false;
 		}
 	}
+
+	/**
+	 * Synchronizes the stored answers of a question with its current answers.
+	 *
+	 * <p>
+	 * The stored answers are loaded once, then all changed answers are updated,
+	 * new answers inserted and removed answers deleted, each as one JDBC batch on
+	 * a single connection. When called inside
+	 * {@link persistence.ConnectionPool#inTransaction} the whole sync is part of
+	 * the surrounding transaction.
+	 * </p>
+	 *
+	 * <p>
+	 * Answers whose ID is not stored for this question (e.g. fresh answers with a
+	 * placeholder ID) are inserted, and their generated IDs are written back. The
+	 * question's answers are re-keyed afterwards.
+	 * </p>
+	 *
+	 * @param question the question whose answers to persist
+	 * @return {@code true} if all statements succeeded, {@code false} otherwise
+	 */
+	@Override
+	public boolean syncAnswers(Question question) {
+		List<Answer> current = question.getAnswers();
+
+		try (Connection conn = dataSource.getConnection()) {
+			Map<Integer, Answer> stored = loadStored(conn, question);
+
+			List<Answer> toUpdate = new ArrayList<>();
+			List<Answer> toInsert = new ArrayList<>();
+			Set<Integer> kept = new HashSet<>();
+			for (Answer answer : current) {
+				answer.setQuestion(question);
+				Answer old = stored.get(answer.getId());
+				if (old == null) {
+					toInsert.add(answer);
+				} else {
+					kept.add(answer.getId());
+					if (!Objects.equals(old.getText(), answer.getText()) || old.isCorrect() != answer.isCorrect())
+						toUpdate.add(answer);
+				}
+			}
+
+			List<Integer> toDelete = new ArrayList<>();
+			for (Integer id : stored.keySet()) {
+				if (!kept.contains(id))
+					toDelete.add(id);
+			}
+
+			if (!toDelete.isEmpty()) {
+				try (PreparedStatement ps = conn.prepareStatement("DELETE FROM answer WHERE id=?")) {
+					for (Integer id : toDelete) {
+						ps.setInt(1, id);
+						ps.addBatch();
+					}
+					ps.executeBatch();
+				}
+			}
+
+			if (!toUpdate.isEmpty()) {
+				try (PreparedStatement ps = conn.prepareStatement("UPDATE answer SET text=?, is_correct=? WHERE id=?")) {
+					for (Answer answer : toUpdate) {
+						ps.setString(1, answer.getText());
+						ps.setBoolean(2, answer.isCorrect());
+						ps.setInt(3, answer.getId());
+						ps.addBatch();
+					}
+					ps.executeBatch();
+				}
+			}
+
+			if (!toInsert.isEmpty()) {
+				String sql = "INSERT INTO answer (question_id, text, is_correct) VALUES (?, ?, ?)";
+				try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+					for (Answer answer : toInsert) {
+						ps.setInt(1, question.getId());
+						ps.setString(2, answer.getText());
+						ps.setBoolean(3, answer.isCorrect());
+						ps.addBatch();
+					}
+					ps.executeBatch();
+
+					// generated keys are returned in batch order
+					try (ResultSet rs = ps.getGeneratedKeys()) {
+						for (Answer answer : toInsert) {
+							if (!rs.next())
+								return false;
+							answer.setId(rs.getInt(1));
+						}
+					}
+				}
+			}
+		} catch (SQLException e) {
+			e.printStackTrace();
+			return false;
+		}
+
+		// re-key answers now that new ones carry their generated IDs
+		question.clearAnswers();
+		for (Answer answer : current) {
+			question.addAnswer(answer);
+		}
+		return true;
+	}
+
+	/**
+	 * Loads the stored answers of a question keyed by answer ID.
+	 *
+	 * @param conn     the connection to use
+	 * @param question the parent question
+	 * @return stored answers keyed by ID
+	 * @throws SQLException if the query fails
+	 */
+	private Map<Integer, Answer> loadStored(Connection conn, Question question) throws SQLException {
+		Map<Integer, Answer> stored = new HashMap<>();
+		try (PreparedStatement ps = conn.prepareStatement("SELECT id, text, is_correct FROM answer WHERE question_id=?")) {
+			ps.setInt(1, question.getId());
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					Answer a = new Answer(question);
+					a.setId(rs.getInt("id"));
+					a.setText(rs.getString("text"));
+					a.setCorrect(rs.getBoolean("is_correct"));
+					stored.put(a.getId(), a);
+				}
+			}
+		}
+		return stored;
+	}
+
+	/**
+	 * Builds a comma separated list of {@code count} JDBC placeholders.
+	 *
+	 * @param count number of placeholders
+	 * @return e.g. {@code "?, ?, ?"} for {@code count == 3}
+	 */
+	private static String placeholders(int count) {
+		StringBuilder sb = new StringBuilder(count * 3);
+		for (int i = 0; i < count; i++) {
+			if (i > 0)
+				sb.append(", ");
+			sb.append('?');
+		}
+		return sb.toString();
+	}
 }
@@ -6,10 +6,18 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import javax.sql.DataSource;
+
+import persistence.TitleIndex;
 import persistence.DAO.QuestionDAO;
+import quizLogic.Answer;
 import quizLogic.Question;
+import quizLogic.QuestionSummary;
 import quizLogic.Theme;
 
 /**
@@ -21,30 +29,36 @@ import quizLogic.Theme;
  * </p>
  * <ul>
  * <li>Find questions by ID or by theme</li>
+ * <li>Read all question IDs grouped by theme</li>
+ * <li>Find a question with its theme and answers in a single joined query</li>
  * <li>Insert new questions into the database</li>
  * <li>Update existing questions</li>
  * <li>Delete questions by ID</li>
  * </ul>
  *
  * <p>
- * This DAO does <b>not</b> automatically load answers for questions. Associated
- * answers must be loaded via {@link persistence.DataBase.DBAnswerDAO}.
+ * Apart from {@link #findFullById(int)}, this DAO does <b>not</b> load answers
+ * for questions. Associated answers must be loaded via
+ * {@link persistence.DataBase.DBAnswerDAO}.
  * </p>
  * 
  * @author Oleg Kapirulya
  */
 public class DBQuestionDAO implements QuestionDAO {
 
-	/** Active DB connection, managed by {@link persistence.DBDataManager}. */
-	private final Connection conn;
+	/**
+	 * Source of pooled connections, provided by {@link persistence.DBDataManager}.
+	 * Every operation borrows its own connection.
+	 */
+	private final DataSource dataSource;
 
 	/**
-	 * Creates a new Question DAO with an open connection.
+	 * Creates a new Question DAO backed by a pooled data source.
 	 *
-	 * @param conn active JDBC {@link Connection}
+	 * @param dataSource the {@link DataSource} to borrow connections from
 	 */
-	public DBQuestionDAO(Connection conn) {
-		this.conn = conn;
+	public DBQuestionDAO(DataSource dataSource) {
+		this.dataSource = dataSource;
 	}
 
 	/**
@@ -62,7 +76,7 @@ public class DBQuestionDAO implements QuestionDAO {
 	@Override
 	public Question findById(int id) {
 		String sql = "SELECT * FROM question WHERE id=?";
-		try (PreparedStatement ps = conn.prepareStatement(sql)) {
+		try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
 			ps.setInt(1, id);
 
 			try (ResultSet rs = ps.executeQuery()) {
@@ -84,6 +98,60 @@ public class DBQuestionDAO implements QuestionDAO {
 		return null;
 	}
 
+	/**
+	 * Finds a question with its theme and answers in one round trip.
+	 *
+	 * <p>
+	 * The question is joined with its theme and left-joined with its answers, so
+	 * the result set contains one row per answer (or a single row without answer
+	 * columns if the question has no answers). The question and theme columns are
+	 * read from the first row.
+	 * </p>
+	 *
+	 * @param id the question ID
+	 * @return the complete {@link Question}, or {@code null} if not found
+	 */
+	@Override
+	public Question findFullById(int id) {
+		String sql = "SELECT q.id, q.title, q.text, t.id AS theme_id, t.title AS theme_title, t.text AS theme_text,"
+				+ " a.id AS answer_id, a.text AS answer_text, a.is_correct"
+				+ " FROM question q JOIN theme t ON t.id = q.theme_id"
+				+ " LEFT JOIN answer a ON a.question_id = q.id WHERE q.id=? ORDER BY a.id";
+		try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+			ps.setInt(1, id);
+
+			try (ResultSet rs = ps.executeQuery()) {
+				Question q = null;
+				while (rs.next()) {
+					if (q == null) {
+						Theme theme = new Theme();
+						theme.setId(rs.getInt("theme_id"));
+						theme.setTitle(rs.getString("theme_title"));
+						theme.setText(rs.getString("theme_text"));
+
+						q = new Question(theme);
+						q.setId(rs.getInt("id"));
+						q.setTitle(rs.getString("title"));
+						q.setText(rs.getString("text"));
+					}
+
+					int answerId = rs.getInt("answer_id");
+					if (!rs.wasNull()) {
+						Answer a = new Answer(q);
+						a.setId(answerId);
+						a.setText(rs.getString("answer_text"));
+						a.setCorrect(rs.getBoolean("is_correct"));
+						q.addAnswer(a);
+					}
+				}
+				return q;
+			}
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+		return null;
+	}
+
 	/**
 	 * Finds all questions that belong to a given theme.
 	 *
@@ -95,7 +163,7 @@ public class DBQuestionDAO implements QuestionDAO {
 		String sql = "SELECT * FROM question WHERE theme_id=?";
 		List<Question> questions = new ArrayList<>();
 
-		try (PreparedStatement ps = conn.prepareStatement(sql)) {
+		try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
 			ps.setInt(1, theme.getId());
 
 			try (ResultSet rs = ps.executeQuery()) {
@@ -113,22 +181,192 @@ public class DBQuestionDAO implements QuestionDAO {
 		return questions;
 	}
 
+	/**
+	 * Reads the IDs of all questions grouped by theme. The rows are sorted by
+	 * theme, so each theme's IDs are collected into one growing primitive array
+	 * without boxing.
+	 *
+	 * @return map from theme ID to the ascending IDs of its questions
+	 */
+	@Override
+	public Map<Integer, int[]> findIdsByTheme() {
+		String sql = "SELECT theme_id, id FROM question ORDER BY theme_id, id";
+		Map<Integer, int[]> idsByTheme = new HashMap<>();
+
+		try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql);
+				ResultSet rs = ps.executeQuery()) {
+			int currentTheme = 0;
+			int[] ids = new int[16];
+			int size = 0;
+			while (rs.next()) {
+				int themeId = rs.getInt(1);
+				if (size > 0 && themeId != currentTheme) {
+					idsByTheme.put(currentTheme, Arrays.copyOf(ids, size));
+					size = 0;
+				}
+				currentTheme = themeId;
+				if (size == ids.length)
+					ids = Arrays.copyOf(ids, size * 2);
+				ids[size++] = rs.getInt(2);
+			}
+			if (size > 0)
+				idsByTheme.put(currentTheme, Arrays.copyOf(ids, size));
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+		return idsByTheme;
+	}
+
+	/**
+	 * Counts the questions of a theme using the theme index.
+	 *
+	 * @param themeId the theme ID, or {@code 0} for all themes
+	 * @return number of questions; {@code 0} on error
+	 */
+	@Override
+	public int countByTheme(int themeId) {
+		String sql = "SELECT COUNT(*) FROM question" + (themeId > 0 ? " WHERE theme_id=?" : "");
+		try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+			if (themeId > 0)
+				ps.setInt(1, themeId);
+			try (ResultSet rs = ps.executeQuery()) {
+				if (rs.next())
+					return rs.getInt(1);
+			}
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+		return 0;
+	}
+
+	/**
+	 * Reads the summaries of a theme's questions; only the {@code id},
+	 * {@code title} and {@code theme_id} columns are selected.
+	 *
+	 * @param themeId the theme ID, or {@code 0} for all themes
+	 * @return list of {@link QuestionSummary} objects, or {@code null} on error
+	 */
+	@Override
+	public List<QuestionSummary> findSummariesByTheme(int themeId) {
+		String sql = "SELECT id, title, theme_id FROM question" + (themeId > 0 ? " WHERE theme_id=?" : "")
+				+ " ORDER BY id";
+		List<QuestionSummary> summaries = new ArrayList<>();
+
+		try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+			if (themeId > 0)
+				ps.setInt(1, themeId);
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					summaries.add(mapSummary(rs));
+				}
+			}
+		} catch (SQLException e) {
+			e.printStackTrace();
+			return null;
+		}
+		return summaries;
+	}
+
+	/**
+	 * Reads one page of summaries with {@code WHERE id > ? ORDER BY id LIMIT ?},
+	 * served by the primary key or by the {@code (theme_id, id)} index. Only the
+	 * {@code id}, {@code title} and {@code theme_id} columns are selected.
+	 *
+	 * @param themeId the theme ID, or {@code 0} for all themes
+	 * @param afterId the ID after which the page starts
+	 * @param limit   maximum number of questions
+	 * @return list of {@link QuestionSummary} objects
+	 */
+	@Override
+	public List<QuestionSummary> findSummaryPage(int themeId, int afterId, int limit) {
+		String sql = "SELECT id, title, theme_id FROM question WHERE " + (themeId > 0 ? "theme_id=? AND " : "")
+				+ "id > ? ORDER BY id LIMIT ?";
+		List<QuestionSummary> summaries = new ArrayList<>(limit);
+
+		try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+			int i = 1;
+			if (themeId > 0)
+				ps.setInt(i++, themeId);
+			ps.setInt(i++, afterId);
+			ps.setInt(i, limit);
+
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					summaries.add(mapSummary(rs));
+				}
+			}
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+		return summaries;
+	}
+
+	/**
+	 * Maps the current row of a summary query.
+	 *
+	 * @param rs the result set, positioned on a row
+	 * @return the summary
+	 * @throws SQLException if reading fails
+	 */
+	private static QuestionSummary mapSummary(ResultSet rs) throws SQLException {
+		return new QuestionSummary(rs.getInt("id"), rs.getString("title"), rs.getInt("theme_id"));
+	}
+
+	/**
+	 * Scans the IDs of a theme in ascending order and keeps every
+	 * {@code pageSize}-th one as the anchor of the following page. Only the index
+	 * is read and only one {@code int} per page is kept.
+	 *
+	 * @param themeId  the theme ID, or {@code 0} for all themes
+	 * @param pageSize number of questions per page
+	 * @return one anchor per page, starting with {@code 0}
+	 */
+	@Override
+	public int[] findPageAnchors(int themeId, int pageSize) {
+		String sql = "SELECT id FROM question" + (themeId > 0 ? " WHERE theme_id=?" : "") + " ORDER BY id";
+		int[] anchors = new int[16];
+		int pages = 0;
+
+		try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+			if (themeId > 0)
+				ps.setInt(1, themeId);
+			try (ResultSet rs = ps.executeQuery()) {
+				int previousId = 0;
+				int row = 0;
+				while (rs.next()) {
+					if (row++ % pageSize == 0) {
+						if (pages == anchors.length)
+							anchors = Arrays.copyOf(anchors, pages * 2);
+						anchors[pages++] = previousId;
+					}
+					previousId = rs.getInt(1);
+				}
+			}
+		} catch (SQLException e) {
+			e.printStackTrace();
+			return new int[] { 0 };
+		}
+		return pages == 0 ? new int[] { 0 } : Arrays.copyOf(anchors, pages);
+	}
+
 	/**
 	 * Inserts a new question into the database.
 	 *
 	 * - Theme reference must point to a valid theme (with ID). - Retrieves and sets
-	 * the generated question ID on success.
+	 * the generated question ID on success. - Stores the normalized title, whose
+	 * unique index rejects a duplicate title within the theme.
 	 *
 	 * @param question the {@link Question} to insert
 	 * @return {@code true} if insertion succeeded, else {@code false}
 	 */
 	@Override
 	public boolean insert(Question question) {
-		String sql = "INSERT INTO question (title, text, theme_id) VALUES (?, ?, ?)";
-		try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+		String sql = "INSERT INTO question (title, text, theme_id, title_norm) VALUES (?, ?, ?, ?)";
+		try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 			ps.setString(1, question.getTitle());
 			ps.setString(2, question.getText());
 			ps.setInt(3, question.getThema().getId());
+			ps.setString(4, TitleIndex.normalize(question.getTitle()));
 
 			int rowsAffected = ps.executeUpdate();
 			if (rowsAffected > 0) {
@@ -153,12 +391,13 @@ public class DBQuestionDAO implements QuestionDAO {
 	 * @return {@code true} if update succeeded, else {@code false}
 	 */
 	public boolean update(Question question) {
-		String sql = "UPDATE question SET title=?, text=?, theme_id=? WHERE id=?";
-		try (PreparedStatement ps = conn.prepareStatement(sql)) {
+		String sql = "UPDATE question SET title=?, text=?, theme_id=?, title_norm=? WHERE id=?";
+		try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
 			ps.setString(1, question.getTitle());
 			ps.setString(2, question.getText());
 			ps.setInt(3, question.getThema().getId());
-			ps.setInt(4, question.getId());
+			ps.setString(4, TitleIndex.normalize(question.getTitle()));
+			ps.setInt(5, question.getId());
 
 			int rowsAffected = ps.executeUpdate();
 			return rowsAffected > 0;
@@ -182,7 +421,7 @@ public class DBQuestionDAO implements QuestionDAO {
 	@Override
 	public boolean delete(int id) {
 		String sql = "DELETE FROM question WHERE id=?";
-		try (PreparedStatement ps = conn.prepareStatement(sql)) {
+		try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
 			ps.setInt(1, id);
 			int rowsAffected = ps.executeUpdate();
 			return rowsAffected > 0;
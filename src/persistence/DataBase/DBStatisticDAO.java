@@ -5,12 +5,33 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.WeekFields;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import javax.sql.DataSource;
+
+import persistence.DAO.DailyStatisticHandler;
 import persistence.DAO.StatisticDAO;
+import persistence.DAO.StatisticFilter;
+import persistence.DAO.StatisticRowHandler;
 import quizLogic.QuizStatistic;
+import quizLogic.StatisticAggregate;
 
 /**
  * DBStatisticDAO provides an implementation of the {@link StatisticDAO}
@@ -21,23 +42,49 @@ import quizLogic.QuizStatistic;
  * table, which records quiz attempts including answer correctness and
  * timestamps.
  * </p>
+ * <p>
+ * The streaming queries ({@link #stream(StatisticFilter, int)},
+ * {@link #forEach(StatisticFilter, int, StatisticRowHandler)} and
+ * {@link #forEachDaily(int, DailyStatisticHandler)}) read a
+ * forward-only, read-only result set with a fetch size, so arbitrarily many
+ * rows are processed in constant memory. MySQL Connector/J ignores a positive
+ * fetch size unless {@code useCursorFetch} is set for the whole connection, so
+ * these statements alone are switched to its row-by-row streaming instead, see
+ * {@link #streamingFetchSize}; other drivers use the fetch size as is.
+ * </p>
+ * <p>
+ * The aggregate queries count attempts with {@code COUNT}/{@code SUM} and
+ * {@code GROUP BY} inside the database, so only one row per group is
+ * transferred regardless of how many attempts were recorded.
+ * </p>
+ * <p>
+ * Every insert also updates the {@code statistic_daily} rollup (attempts and
+ * correct attempts per question and day) in the same transaction. Aggregates
+ * over whole days read the rollup instead of the raw rows, so their cost grows
+ * with the number of days rather than the number of attempts.
+ * </p>
  * 
  * @author Oleg Kapirulya
  */
 public class DBStatisticDAO implements StatisticDAO {
-	private final Connection conn;
+	/**
+	 * Source of pooled connections, provided by {@link persistence.DBDataManager}.
+	 * Every operation borrows its own connection.
+	 */
+	private final DataSource dataSource;
 
 	/**
-	 * Constructs the DAO with an active JDBC {@link Connection}.
+	 * Constructs the DAO backed by a pooled {@link DataSource}.
 	 * 
-	 * @param conn active database connection for executing queries
+	 * @param dataSource source of connections for executing queries
 	 */
-	public DBStatisticDAO(Connection conn) {
-		this.conn = conn;
+	public DBStatisticDAO(DataSource dataSource) {
+		this.dataSource = dataSource;
 	}
 
 	/**
-	 * Inserts a new QuizStatistic record in the database.
+	 * Inserts a new QuizStatistic record in the database and adds it to the daily
+	 * rollup in the same transaction.
 	 * 
 	 * @param statistic the {@link QuizStatistic} to insert; must have valid
 	 *                  question ID and timestamp
@@ -46,17 +93,210 @@ public class DBStatisticDAO implements StatisticDAO {
 	@Override
 	public boolean insert(QuizStatistic statistic) {
 		String sql = "INSERT INTO statistic (question_id, correct, date) VALUES (?, ?, ?)";
-		try (PreparedStatement ps = conn.prepareStatement(sql)) {
-			ps.setInt(1, statistic.getQuestionId());
-			ps.setBoolean(2, statistic.isCorrect());
-			ps.setTimestamp(3, new Timestamp(statistic.getDate().getTime()));
-			return ps.executeUpdate() > 0;
+		return inTransaction(conn -> {
+			try (PreparedStatement ps = conn.prepareStatement(sql)) {
+				ps.setInt(1, statistic.getQuestionId());
+				ps.setBoolean(2, statistic.isCorrect());
+				ps.setTimestamp(3, new Timestamp(statistic.getDate().getTime()));
+				if (ps.executeUpdate() != 1)
+					throw new SQLException("Statistic row was not inserted.");
+			}
+			updateDailyRollup(conn, List.of(statistic));
+		});
+	}
+
+	/** Maximum number of rows written by one multi-row INSERT statement. */
+	private static final int INSERT_CHUNK_SIZE = 500;
+
+	/**
+	 * Inserts many statistic records with multi-row
+	 * {@code INSERT ... VALUES (...), (...)} statements of up to
+	 * {@value #INSERT_CHUNK_SIZE} rows each and adds them to the daily rollup, all
+	 * in one transaction.
+	 * 
+	 * @param statistics the records to insert
+	 * @return true if all rows were inserted; false otherwise (nothing is
+	 *         inserted then)
+	 */
+	@Override
+	public boolean insertBatch(List<QuizStatistic> statistics) {
+		if (statistics == null || statistics.isEmpty())
+			return true;
+
+		return inTransaction(conn -> {
+			for (int from = 0; from < statistics.size(); from += INSERT_CHUNK_SIZE) {
+				List<QuizStatistic> chunk = statistics.subList(from,
+						Math.min(from + INSERT_CHUNK_SIZE, statistics.size()));
+				StringBuilder sql = new StringBuilder("INSERT INTO statistic (question_id, correct, date) VALUES ");
+				for (int i = 0; i < chunk.size(); i++) {
+					sql.append(i == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+				}
+
+				try (PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+					int index = 1;
+					for (QuizStatistic statistic : chunk) {
+						ps.setInt(index++, statistic.getQuestionId());
+						ps.setBoolean(index++, statistic.isCorrect());
+						ps.setTimestamp(index++, new Timestamp(statistic.getDate().getTime()));
+					}
+					if (ps.executeUpdate() != chunk.size())
+						throw new SQLException("Not all statistic rows were inserted.");
+				}
+			}
+			updateDailyRollup(conn, statistics);
+		});
+	}
+
+	/**
+	 * Adds attempts to the daily rollup. The attempts are first counted per
+	 * question and day in memory, then merged into {@code statistic_daily} with
+	 * one multi-row upsert per chunk.
+	 * 
+	 * @param conn       the connection of the surrounding transaction
+	 * @param statistics the inserted attempts
+	 * @throws SQLException if the upsert fails
+	 */
+	private static void updateDailyRollup(Connection conn, List<QuizStatistic> statistics) throws SQLException {
+		Map<RollupKey, int[]> counts = new LinkedHashMap<>();
+		ZoneId zone = ZoneId.systemDefault();
+		for (QuizStatistic statistic : statistics) {
+			LocalDate day = statistic.getDate().toInstant().atZone(zone).toLocalDate();
+			int[] count = counts.computeIfAbsent(new RollupKey(statistic.getQuestionId(), day), k -> new int[2]);
+			count[0]++;
+			if (statistic.isCorrect())
+				count[1]++;
+		}
+
+		List<Map.Entry<RollupKey, int[]>> rows = new ArrayList<>(counts.entrySet());
+		for (int from = 0; from < rows.size(); from += INSERT_CHUNK_SIZE) {
+			List<Map.Entry<RollupKey, int[]>> chunk = rows.subList(from,
+					Math.min(from + INSERT_CHUNK_SIZE, rows.size()));
+			StringBuilder sql = new StringBuilder(
+					"INSERT INTO statistic_daily (question_id, stat_day, attempts, correct) VALUES ");
+			for (int i = 0; i < chunk.size(); i++) {
+				sql.append(i == 0 ? "(?, ?, ?, ?)" : ", (?, ?, ?, ?)");
+			}
+			sql.append(" ON DUPLICATE KEY UPDATE attempts = attempts + VALUES(attempts),"
+					+ " correct = correct + VALUES(correct)");
+
+			try (PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+				int index = 1;
+				for (Map.Entry<RollupKey, int[]> row : chunk) {
+					ps.setInt(index++, row.getKey().questionId);
+					ps.setDate(index++, java.sql.Date.valueOf(row.getKey().day));
+					ps.setInt(index++, row.getValue()[0]);
+					ps.setInt(index++, row.getValue()[1]);
+				}
+				ps.executeUpdate();
+			}
+		}
+	}
+
+	/**
+	 * Rebuilds {@code statistic_daily} from the raw attempts with one
+	 * {@code INSERT ... SELECT} inside a transaction, so readers never see a
+	 * half-built rollup.
+	 * 
+	 * @return true if the rollup was rebuilt; false otherwise
+	 */
+	@Override
+	public boolean rebuildDailyRollup() {
+		return inTransaction(conn -> {
+			try (PreparedStatement delete = conn.prepareStatement("DELETE FROM statistic_daily");
+					PreparedStatement insert = conn.prepareStatement(
+							"INSERT INTO statistic_daily (question_id, stat_day, attempts, correct)"
+									+ " SELECT s.question_id, CAST(s.date AS DATE), COUNT(*), " + SUM_CORRECT
+									+ " FROM statistic s GROUP BY s.question_id, CAST(s.date AS DATE)")) {
+				delete.executeUpdate();
+				insert.executeUpdate();
+			}
+		});
+	}
+
+	/**
+	 * Unit of work executed on the connection of a transaction.
+	 */
+	@FunctionalInterface
+	private interface TransactionWork {
+
+		/**
+		 * Executes the work.
+		 * 
+		 * @param conn the connection of the transaction
+		 * @throws SQLException to roll the transaction back
+		 */
+		void execute(Connection conn) throws SQLException;
+	}
+
+	/**
+	 * Runs work in a transaction on one connection. If the connection already
+	 * takes part in a transaction (e.g. one opened by
+	 * {@link persistence.ConnectionPool#inTransaction}), the work simply joins it.
+	 * 
+	 * @param work the work
+	 * @return true if the work completed and was committed; false if it failed
+	 *         and was rolled back
+	 */
+	private boolean inTransaction(TransactionWork work) {
+		try (Connection conn = dataSource.getConnection()) {
+			boolean own = conn.getAutoCommit();
+			if (own)
+				conn.setAutoCommit(false);
+			try {
+				work.execute(conn);
+				if (own)
+					conn.commit();
+				return true;
+			} catch (SQLException | RuntimeException e) {
+				if (own)
+					conn.rollback();
+				throw e;
+			} finally {
+				if (own)
+					conn.setAutoCommit(true);
+			}
 		} catch (SQLException e) {
 			e.printStackTrace();
 			return false;
 		}
 	}
 
+	/**
+	 * Key of a {@code statistic_daily} row.
+	 */
+	private static final class RollupKey {
+
+		/** The question ID. */
+		private final int questionId;
+
+		/** The day. */
+		private final LocalDate day;
+
+		/**
+		 * Creates a key.
+		 * 
+		 * @param questionId the question ID
+		 * @param day        the day
+		 */
+		private RollupKey(int questionId, LocalDate day) {
+			this.questionId = questionId;
+			this.day = day;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof RollupKey))
+				return false;
+			RollupKey other = (RollupKey) obj;
+			return questionId == other.questionId && day.equals(other.day);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * questionId + day.hashCode();
+		}
+	}
+
 	/**
 	 * Retrieves all quiz statistics from the database.
 	 * 
@@ -65,16 +305,29 @@ public class DBStatisticDAO implements StatisticDAO {
 	 */
 	@Override
 	public List<QuizStatistic> findAll() {
+		return find(null);
+	}
+
+	/**
+	 * Retrieves the statistics matching a filter with one query. The filter is
+	 * translated into a WHERE clause served by the indexes on
+	 * {@code (question_id, date)} and {@code date}; theme criteria join the
+	 * question table.
+	 * 
+	 * @param filter the filter, may be {@code null}
+	 * @return matching statistics ordered by time; empty list if none or on error
+	 */
+	@Override
+	public List<QuizStatistic> find(StatisticFilter filter) {
 		List<QuizStatistic> list = new ArrayList<>();
-		String sql = "SELECT * FROM statistic";
-		try (PreparedStatement ps = conn.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
-			while (rs.next()) {
-				QuizStatistic stat = new QuizStatistic();
-				stat.setId(rs.getInt("id"));
-				stat.setQuestionId(rs.getInt("question_id"));
-				stat.setCorrect(rs.getBoolean("correct"));
-				stat.setDate(new Date(rs.getTimestamp("date").getTime()));
-				list.add(stat);
+		List<Object> params = new ArrayList<>();
+		String sql = SELECT_COLUMNS + joinFor(filter) + where(filter, params) + " ORDER BY s.date, s.id";
+		try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+			bind(ps, params);
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					list.add(map(rs));
+				}
 			}
 		} catch (SQLException e) {
 			e.printStackTrace();
@@ -82,6 +335,229 @@ public class DBStatisticDAO implements StatisticDAO {
 		return list;
 	}
 
+	/**
+	 * Streams the statistics matching a filter. The connection, statement and
+	 * result set are closed when the last row was read, when reading fails, or
+	 * when the stream is closed, whichever comes first.
+	 * 
+	 * @param filter    the filter, may be {@code null}
+	 * @param fetchSize rows per round trip
+	 * @return lazily populated stream; empty on error
+	 */
+	@Override
+	public Stream<QuizStatistic> stream(StatisticFilter filter, int fetchSize) {
+		Connection conn = null;
+		PreparedStatement ps = null;
+		ResultSet rs = null;
+		try {
+			conn = dataSource.getConnection();
+			ps = prepareStreaming(conn, filter, fetchSize);
+			rs = ps.executeQuery();
+		} catch (SQLException e) {
+			e.printStackTrace();
+			closeQuietly(rs, ps, conn);
+			return Stream.empty();
+		}
+
+		RowCursor cursor = new RowCursor(conn, ps, rs);
+		return StreamSupport.stream(cursor, false).onClose(cursor::close);
+	}
+
+	/**
+	 * Reads the statistics matching a filter row by row and passes them to the
+	 * handler as primitive values.
+	 * 
+	 * @param filter    the filter, may be {@code null}
+	 * @param fetchSize rows per round trip
+	 * @param handler   receives the rows
+	 * @return number of rows read; rows read before an error are counted
+	 */
+	@Override
+	public long forEach(StatisticFilter filter, int fetchSize, StatisticRowHandler handler) {
+		long count = 0;
+		try (Connection conn = dataSource.getConnection();
+				PreparedStatement ps = prepareStreaming(conn, filter, fetchSize);
+				ResultSet rs = ps.executeQuery()) {
+			while (rs.next()) {
+				handler.accept(rs.getInt(1), rs.getInt(2), rs.getBoolean(3), rs.getTimestamp(4).getTime());
+				count++;
+			}
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+		return count;
+	}
+
+	/**
+	 * Reads the daily rollup row by row, ordered by day, and passes the rows to
+	 * the handler as primitive values.
+	 * 
+	 * @param fetchSize rows per round trip
+	 * @param handler   receives the rows
+	 * @return number of rows read; rows read before an error are counted
+	 */
+	@Override
+	public long forEachDaily(int fetchSize, DailyStatisticHandler handler) {
+		String sql = "SELECT question_id, stat_day, attempts, correct FROM statistic_daily ORDER BY stat_day";
+		long count = 0;
+		try (Connection conn = dataSource.getConnection();
+				PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+						ResultSet.CONCUR_READ_ONLY)) {
+			ps.setFetchSize(streamingFetchSize(conn, fetchSize));
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					handler.accept(rs.getInt(1), rs.getDate(2).toLocalDate().toEpochDay(), rs.getInt(3), rs.getInt(4));
+					count++;
+				}
+			}
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+		return count;
+	}
+
+	/**
+	 * Selects the statistic columns in the order expected by {@link #map}:
+	 * id, question_id, correct, date.
+	 */
+	private static final String SELECT_COLUMNS = "SELECT s.id, s.question_id, s.correct, s.date FROM statistic s";
+
+	/**
+	 * Maps the current row of a {@link #SELECT_COLUMNS} query.
+	 * 
+	 * @param rs the result set, positioned on a row
+	 * @return the statistic
+	 * @throws SQLException if reading fails
+	 */
+	private static QuizStatistic map(ResultSet rs) throws SQLException {
+		QuizStatistic stat = new QuizStatistic();
+		stat.setId(rs.getInt(1));
+		stat.setQuestionId(rs.getInt(2));
+		stat.setCorrect(rs.getBoolean(3));
+		stat.setDate(new Date(rs.getTimestamp(4).getTime()));
+		return stat;
+	}
+
+	/**
+	 * Prepares the forward-only, read-only query used by the streaming methods.
+	 * 
+	 * @param conn      the connection
+	 * @param filter    the filter, may be {@code null}
+	 * @param fetchSize rows per round trip
+	 * @return the prepared and bound statement
+	 * @throws SQLException if preparing fails
+	 */
+	private static PreparedStatement prepareStreaming(Connection conn, StatisticFilter filter, int fetchSize)
+			throws SQLException {
+		List<Object> params = new ArrayList<>();
+		String sql = SELECT_COLUMNS + joinFor(filter) + where(filter, params);
+		PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+		try {
+			ps.setFetchSize(streamingFetchSize(conn, fetchSize));
+			bind(ps, params);
+		} catch (SQLException e) {
+			ps.close();
+			throw e;
+		}
+		return ps;
+	}
+
+	/**
+	 * Returns the fetch size that makes the driver stream a result set. MySQL
+	 * Connector/J buffers the whole result for any other fetch size, unless
+	 * {@code useCursorFetch} is set for every statement of the connection;
+	 * {@link Integer#MIN_VALUE} streams the rows of this statement only. The
+	 * connection then cannot run other statements until the result set is
+	 * closed, so the streaming methods must not be called within
+	 * {@link persistence.ConnectionPool#inTransaction}, where they would share the
+	 * connection of the transaction.
+	 * 
+	 * @param conn      the connection
+	 * @param fetchSize rows per round trip for drivers honouring it
+	 * @return the fetch size to set
+	 * @throws SQLException if the driver cannot be determined
+	 */
+	private static int streamingFetchSize(Connection conn, int fetchSize) throws SQLException {
+		return conn.getMetaData().getDriverName().startsWith("MySQL") ? Integer.MIN_VALUE : fetchSize;
+	}
+
+	/**
+	 * Closes JDBC resources, ignoring {@code null}s and failures.
+	 * 
+	 * @param resources the resources, innermost first
+	 */
+	private static void closeQuietly(AutoCloseable... resources) {
+		for (AutoCloseable resource : resources) {
+			if (resource == null)
+				continue;
+			try {
+				resource.close();
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Spliterator over an open result set, mapping each row to a
+	 * {@link QuizStatistic}. Owns the connection, statement and result set.
+	 */
+	private static final class RowCursor extends Spliterators.AbstractSpliterator<QuizStatistic>
+			implements AutoCloseable {
+
+		/** The borrowed connection. */
+		private final Connection conn;
+
+		/** The executed statement. */
+		private final PreparedStatement ps;
+
+		/** The open result set. */
+		private final ResultSet rs;
+
+		/** Whether the resources were released. */
+		private boolean closed;
+
+		/**
+		 * Creates a cursor taking ownership of the given resources.
+		 * 
+		 * @param conn the connection
+		 * @param ps   the statement
+		 * @param rs   the result set
+		 */
+		private RowCursor(Connection conn, PreparedStatement ps, ResultSet rs) {
+			super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+			this.conn = conn;
+			this.ps = ps;
+			this.rs = rs;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super QuizStatistic> action) {
+			if (closed)
+				return false;
+			try {
+				if (!rs.next()) {
+					close(); // release the connection as soon as the end is reached
+					return false;
+				}
+				action.accept(map(rs));
+				return true;
+			} catch (SQLException e) {
+				e.printStackTrace();
+				close();
+				return false;
+			}
+		}
+
+		@Override
+		public void close() {
+			if (closed)
+				return;
+			closed = true;
+			closeQuietly(rs, ps, conn);
+		}
+	}
+
 	/**
 	 * Retrieves all quiz statistics associated with a specific question ID.
 	 * 
@@ -91,23 +567,244 @@ public class DBStatisticDAO implements StatisticDAO {
 	 */
 	@Override
 	public List<QuizStatistic> findByQuestionId(int questionId) {
-		List<QuizStatistic> list = new ArrayList<>();
-		String sql = "SELECT * FROM statistic WHERE question_id=?";
-		try (PreparedStatement ps = conn.prepareStatement(sql)) {
-			ps.setInt(1, questionId);
+		StatisticFilter filter = new StatisticFilter();
+		filter.setQuestionId(questionId);
+		return find(filter);
+	}
+
+	/** SQL expression counting correct attempts of the current group. */
+	private static final String SUM_CORRECT = "SUM(CASE WHEN s.correct THEN 1 ELSE 0 END)";
+
+	/**
+	 * Aggregates attempts per theme by joining the question table. Reads the
+	 * daily rollup if the filter allows it, see {@link #usesRollup}.
+	 * 
+	 * @param filter restricts which attempts are counted
+	 * @return map from theme ID to aggregate; empty on error
+	 */
+	@Override
+	public Map<Integer, StatisticAggregate> aggregateByTheme(StatisticFilter filter) {
+		Map<Integer, StatisticAggregate> result = new HashMap<>();
+		List<Object> params = new ArrayList<>();
+		String sql;
+		if (usesRollup(filter)) {
+			sql = "SELECT q.theme_id AS theme_id, SUM(s.attempts) AS total, SUM(s.correct) AS correct"
+					+ " FROM statistic_daily s JOIN question q ON q.id = s.question_id" + where(filter, params, true)
+					+ " GROUP BY q.theme_id";
+		} else {
+			sql = "SELECT q.theme_id AS theme_id, COUNT(*) AS total, " + SUM_CORRECT + " AS correct"
+					+ " FROM statistic s JOIN question q ON q.id = s.question_id" + where(filter, params)
+					+ " GROUP BY q.theme_id";
+		}
+		try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+			bind(ps, params);
 			try (ResultSet rs = ps.executeQuery()) {
 				while (rs.next()) {
-					QuizStatistic stat = new QuizStatistic();
-					stat.setId(rs.getInt("id"));
-					stat.setQuestionId(rs.getInt("question_id"));
-					stat.setCorrect(rs.getBoolean("correct"));
-					stat.setDate(new Date(rs.getTimestamp("date").getTime()));
-					list.add(stat);
+					result.put(rs.getInt("theme_id"), new StatisticAggregate(rs.getInt("total"), rs.getInt("correct")));
 				}
 			}
 		} catch (SQLException e) {
 			e.printStackTrace();
 		}
-		return list;
+		return result;
+	}
+
+	/**
+	 * Aggregates attempts per calendar day. Reads the daily rollup if the filter
+	 * allows it, see {@link #usesRollup}.
+	 * 
+	 * @param filter restricts which attempts are counted
+	 * @return map from day to aggregate in ascending order; empty on error
+	 */
+	@Override
+	public Map<LocalDate, StatisticAggregate> aggregateByDay(StatisticFilter filter) {
+		Map<LocalDate, StatisticAggregate> result = new LinkedHashMap<>();
+		List<Object> params = new ArrayList<>();
+		String sql;
+		if (usesRollup(filter)) {
+			sql = "SELECT s.stat_day AS day, SUM(s.attempts) AS total, SUM(s.correct) AS correct"
+					+ " FROM statistic_daily s" + joinFor(filter) + where(filter, params, true)
+					+ " GROUP BY s.stat_day ORDER BY s.stat_day";
+		} else {
+			sql = "SELECT CAST(s.date AS DATE) AS day, COUNT(*) AS total, " + SUM_CORRECT + " AS correct"
+					+ " FROM statistic s" + joinFor(filter) + where(filter, params)
+					+ " GROUP BY CAST(s.date AS DATE) ORDER BY day";
+		}
+		try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+			bind(ps, params);
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) {
+					result.put(rs.getDate("day").toLocalDate(),
+							new StatisticAggregate(rs.getInt("total"), rs.getInt("correct")));
+				}
+			}
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+		return result;
+	}
+
+	/**
+	 * Aggregates attempts per calendar week.
+	 * 
+	 * <p>
+	 * The database groups by day; the (at most a few hundred) daily rows are then
+	 * folded into weeks according to {@code weekFields}, which keeps the week
+	 * definition consistent with the user's locale independent of the SQL
+	 * dialect.
+	 * </p>
+	 * 
+	 * @param filter     restricts which attempts are counted
+	 * @param weekFields week definition to group by
+	 * @return map from first day of week to aggregate in ascending order
+	 */
+	@Override
+	public Map<LocalDate, StatisticAggregate> aggregateByWeek(StatisticFilter filter, WeekFields weekFields) {
+		Map<LocalDate, StatisticAggregate> result = new LinkedHashMap<>();
+		for (Map.Entry<LocalDate, StatisticAggregate> day : aggregateByDay(filter).entrySet()) {
+			LocalDate weekStart = day.getKey().with(weekFields.dayOfWeek(), 1);
+			result.merge(weekStart, day.getValue(), StatisticAggregate::plus);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the join needed to filter by theme, if any.
+	 * 
+	 * @param filter the filter
+	 * @return join clause or empty string
+	 */
+	private static String joinFor(StatisticFilter filter) {
+		return filter != null && filter.hasThemeCriteria() ? " JOIN question q ON q.id = s.question_id" : "";
+	}
+
+	/**
+	 * Checks whether an aggregate for a filter can be computed from the daily
+	 * rollup: the filter must not restrict correctness and its time bounds, if
+	 * any, must fall on the start of a day.
+	 * 
+	 * @param filter the filter, may be {@code null}
+	 * @return true if {@code statistic_daily} yields the same result
+	 */
+	private static boolean usesRollup(StatisticFilter filter) {
+		return filter == null || (filter.getCorrect() == null && isStartOfDay(filter.getFrom())
+				&& isStartOfDay(filter.getTo()));
+	}
+
+	/**
+	 * Checks whether a time bound is unset or midnight in the default time zone.
+	 * 
+	 * @param date the bound, may be {@code null}
+	 * @return true if the bound selects whole days
+	 */
+	private static boolean isStartOfDay(Date date) {
+		return date == null
+				|| date.toInstant().atZone(ZoneId.systemDefault()).toLocalTime().equals(LocalTime.MIDNIGHT);
+	}
+
+	/**
+	 * Builds the WHERE clause for a filter on the {@code statistic} table and
+	 * collects its bind parameters.
+	 * 
+	 * @param filter the filter, may be {@code null}
+	 * @param params receives the bind parameters in order
+	 * @return WHERE clause (with leading space) or empty string
+	 */
+	private static String where(StatisticFilter filter, List<Object> params) {
+		return where(filter, params, false);
+	}
+
+	/**
+	 * Builds the WHERE clause for a filter and collects its bind parameters.
+	 * Theme conditions expect the question table to be joined as {@code q}; the
+	 * filtered table is expected as {@code s}.
+	 * 
+	 * @param filter the filter, may be {@code null}
+	 * @param params receives the bind parameters in order
+	 * @param daily  whether {@code s} is the {@code statistic_daily} rollup, whose
+	 *               time bounds are whole days (see {@link #usesRollup})
+	 * @return WHERE clause (with leading space) or empty string
+	 */
+	private static String where(StatisticFilter filter, List<Object> params, boolean daily) {
+		if (filter == null)
+			return "";
+		List<String> conditions = new ArrayList<>();
+		if (filter.getQuestionId() != null) {
+			conditions.add("s.question_id = ?");
+			params.add(filter.getQuestionId());
+		}
+		if (filter.getQuestionIds() != null) {
+			conditions.add(in("s.question_id", filter.getQuestionIds(), params));
+		}
+		if (filter.getThemeId() != null) {
+			conditions.add("q.theme_id = ?");
+			params.add(filter.getThemeId());
+		}
+		if (filter.getThemeIds() != null) {
+			conditions.add(in("q.theme_id", filter.getThemeIds(), params));
+		}
+		if (filter.getFrom() != null) {
+			conditions.add(daily ? "s.stat_day >= ?" : "s.date >= ?");
+			params.add(daily ? toSqlDate(filter.getFrom()) : new Timestamp(filter.getFrom().getTime()));
+		}
+		if (filter.getTo() != null) {
+			conditions.add(daily ? "s.stat_day < ?" : "s.date < ?");
+			params.add(daily ? toSqlDate(filter.getTo()) : new Timestamp(filter.getTo().getTime()));
+		}
+		if (filter.getCorrect() != null) {
+			conditions.add("s.correct = ?");
+			params.add(filter.getCorrect());
+		}
+		return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+	}
+
+	/**
+	 * Converts a point in time to the day it falls on in the default time zone.
+	 * 
+	 * @param date the point in time
+	 * @return the day
+	 */
+	private static java.sql.Date toSqlDate(Date date) {
+		return java.sql.Date.valueOf(date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate());
+	}
+
+	/** Maximum number of IDs bound as parameters of one IN condition. */
+	private static final int IN_PARAMETER_LIMIT = 500;
+
+	/**
+	 * Builds an IN condition. Up to {@value #IN_PARAMETER_LIMIT} values are bound
+	 * with one placeholder each; larger sets are written into the SQL text as
+	 * integer literals, so a statement never exceeds the driver's placeholder
+	 * limit. An empty set yields a condition that is never true.
+	 * 
+	 * @param column the column
+	 * @param values the values
+	 * @param params receives the bind parameters in order
+	 * @return the condition
+	 */
+	private static String in(String column, Set<Integer> values, List<Object> params) {
+		if (values.isEmpty())
+			return "1 = 0";
+		if (values.size() > IN_PARAMETER_LIMIT) {
+			StringJoiner literals = new StringJoiner(", ", column + " IN (", ")");
+			for (int value : values)
+				literals.add(Integer.toString(value));
+			return literals.toString();
+		}
+		params.addAll(values);
+		return column + " IN (" + String.join(", ", Collections.nCopies(values.size(), "?")) + ")";
+	}
+
+	/**
+	 * Binds collected parameters to a statement.
+	 * 
+	 * @param ps     the statement
+	 * @param params parameters in order
+	 * @throws SQLException if binding fails
+	 */
+	private static void bind(PreparedStatement ps, List<Object> params) throws SQLException {
+		for (int i = 0; i < params.size(); i++) {
+			ps.setObject(i + 1, params.get(i));
+		}
 	}
 }
@@ -4,11 +4,16 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.sql.DataSource;
+
+import persistence.TitleIndex;
 import persistence.DAO.ThemeDAO;
 import quizLogic.Theme;
+import quizLogic.ThemeSummary;
 
 /**
  * {@code MariaDBThemeDAO} is the DB/MySQL implementation of {@link ThemeDAO}.
@@ -33,16 +38,19 @@ import quizLogic.Theme;
  */
 public class DBThemeDAO implements ThemeDAO {
 
-	/** Active DB connection provided by {@link persistence.DBDataManager}. */
-	private final Connection conn;
+	/**
+	 * Source of pooled connections, provided by {@link persistence.DBDataManager}.
+	 * Every operation borrows its own connection.
+	 */
+	private final DataSource dataSource;
 
 	/**
-	 * Constructs a new Theme DAO with an active DB connection.
+	 * Constructs a new Theme DAO backed by a pooled data source.
 	 *
-	 * @param conn an open JDBC {@link Connection}
+	 * @param dataSource the {@link DataSource} to borrow connections from
 	 */
-	public DBThemeDAO(Connection conn) {
-		this.conn = conn;
+	public DBThemeDAO(DataSource dataSource) {
+		this.dataSource = dataSource;
 	}
 
 	/**
@@ -54,7 +62,7 @@ public class DBThemeDAO implements ThemeDAO {
 	@Override
 	public Theme findById(int id) {
 		String sql = "SELECT * FROM theme WHERE id=?";
-		try (PreparedStatement ps = conn.prepareStatement(sql)) {
+		try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
 			ps.setInt(1, id);
 			try (ResultSet rs = ps.executeQuery()) {
 				if (rs.next()) {
@@ -81,7 +89,7 @@ public class DBThemeDAO implements ThemeDAO {
 		List<Theme> list = new ArrayList<>();
 		String sql = "SELECT * FROM theme";
 
-		try (PreparedStatement ps = conn.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+		try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
 			while (rs.next()) {
 				Theme t = new Theme();
 				t.setId(rs.getInt("id"));
@@ -96,18 +104,51 @@ public class DBThemeDAO implements ThemeDAO {
 	}
 
 	/**
-	 * Inserts a new theme into the database.
+	 * Retrieves the ID and title of all themes; the description text is not read.
+	 *
+	 * @return a list of all {@link ThemeSummary}s (empty if none exist), or
+	 *         {@code null} on error
+	 */
+	@Override
+	public List<ThemeSummary> findAllSummaries() {
+		List<ThemeSummary> list = new ArrayList<>();
+		String sql = "SELECT id, title FROM theme";
+
+		try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql);
+				ResultSet rs = ps.executeQuery()) {
+			while (rs.next()) {
+				list.add(new ThemeSummary(rs.getInt("id"), rs.getString("title")));
+			}
+		} catch (SQLException e) {
+			e.printStackTrace();
+			return null;
+		}
+		return list;
+	}
+
+	/**
+	 * Inserts a new theme into the database and sets its generated ID. The
+	 * normalized title is stored alongside; its unique index rejects a duplicate
+	 * title.
 	 *
 	 * @param theme the {@link Theme} to insert
 	 * @return {@code true} if insertion succeeded, else {@code false}
 	 */
 	@Override
 	public boolean insert(Theme theme) {
-		String sql = "INSERT INTO theme (title, text) VALUES (?, ?)";
-		try (PreparedStatement ps = conn.prepareStatement(sql)) {
+		String sql = "INSERT INTO theme (title, text, title_norm) VALUES (?, ?, ?)";
+		try (Connection conn = dataSource.getConnection();
+				PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 			ps.setString(1, theme.getTitle());
 			ps.setString(2, theme.getText());
-			return ps.executeUpdate() > 0;
+			ps.setString(3, TitleIndex.normalize(theme.getTitle()));
+			if (ps.executeUpdate() > 0) {
+				try (ResultSet rs = ps.getGeneratedKeys()) {
+					if (rs.next())
+						theme.setId(rs.getInt(1));
+				}
+				return true;
+			}
 		} catch (SQLException e) {
 			e.printStackTrace();
 		}
@@ -115,18 +156,19 @@ public class DBThemeDAO implements ThemeDAO {
 	}
 
 	/**
-	 * Updates an existing theme.
+	 * Updates an existing theme, including its normalized title.
 	 *
 	 * @param theme the {@link Theme} with updated fields (must have valid id)
 	 * @return {@code true} if update succeeded, else {@code false}
 	 */
 	@Override
 	public boolean update(Theme theme) {
-		String sql = "UPDATE theme SET title=?, text=? WHERE id=?";
-		try (PreparedStatement ps = conn.prepareStatement(sql)) {
+		String sql = "UPDATE theme SET title=?, text=?, title_norm=? WHERE id=?";
+		try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
 			ps.setString(1, theme.getTitle());
 			ps.setString(2, theme.getText());
-			ps.setInt(3, theme.getId());
+			ps.setString(3, TitleIndex.normalize(theme.getTitle()));
+			ps.setInt(4, theme.getId());
 			return ps.executeUpdate() > 0;
 		} catch (SQLException e) {
 			e.printStackTrace();
@@ -148,7 +190,7 @@ public class DBThemeDAO implements ThemeDAO {
 	@Override
 	public boolean delete(int id) {
 		String sql = "DELETE FROM theme WHERE id=?";
-		try (PreparedStatement ps = conn.prepareStatement(sql)) {
+		try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
 			ps.setInt(1, id);
 			return ps.executeUpdate() > 0;
 		} catch (SQLException e) {
@@ -0,0 +1,173 @@
+package persistence;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * {@code EntityCache} is a size-bounded, thread-safe read-through cache with
+ * least-recently-used (LRU) eviction, used by {@link DBDataManager} to avoid
+ * repeated database round trips while the user navigates the UI.
+ *
+ * <p>
+ * Values are loaded on a miss by the loader passed to
+ * {@link #get(Object, Function)} and kept until they are evicted or explicitly
+ * invalidated. The loader runs outside the cache lock, so a slow query does not
+ * block other readers. A value loaded while an invalidation happened is
+ * returned to its caller but not cached, so an invalidation is never undone by
+ * a load that started before it.
+ * </p>
+ *
+ * <p>
+ * Hit, miss and eviction counters allow to verify the effectiveness of the
+ * cache, see {@link #toString()}.
+ * </p>
+ *
+ * @param <K> key type
+ * @param <V> value type
+ * @author Oleg Kapirulya
+ */
+public class EntityCache<K, V> {
+
+	/** Name used in {@link #toString()}. */
+	private final String name;
+
+	/** Maximum number of entries. */
+	private final int maxSize;
+
+	/** Entries in access order; the eldest entry is the least recently used. */
+	private final LinkedHashMap<K, V> entries;
+
+	/** Incremented by every invalidation, to detect loads that raced with one. */
+	private long invalidations;
+
+	/** Number of lookups served from the cache. */
+	private long hitCount;
+
+	/** Number of lookups that had to load the value. */
+	private long missCount;
+
+	/** Number of entries evicted because the cache was full. */
+	private long evictionCount;
+
+	/**
+	 * Creates an empty cache.
+	 *
+	 * @param name    name of the cache, for diagnostics
+	 * @param maxSize maximum number of entries, at least 1
+	 */
+	public EntityCache(String name, int maxSize) {
+		if (maxSize < 1)
+			throw new IllegalArgumentException("maxSize must be at least 1");
+		this.name = name;
+		this.maxSize = maxSize;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				if (size() > EntityCache.this.maxSize) {
+					evictionCount++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cached value for the key, loading and caching it on a miss.
+	 * {@code null} results of the loader are not cached.
+	 *
+	 * @param key    the key
+	 * @param loader loads the value on a miss; may return {@code null}
+	 * @return the cached or loaded value, or {@code null}
+	 */
+	public V get(K key, Function<? super K, ? extends V> loader) {
+		long invalidationsBefore;
+		synchronized (this) {
+			V value = entries.get(key);
+			if (value != null) {
+				hitCount++;
+				return value;
+			}
+			missCount++;
+			invalidationsBefore = invalidations;
+		}
+
+		V loaded = loader.apply(key);
+
+		synchronized (this) {
+			if (loaded != null && invalidations == invalidationsBefore)
+				entries.put(key, loaded);
+		}
+		return loaded;
+	}
+
+	/**
+	 * Removes the entry for the key, if present.
+	 *
+	 * @param key the key
+	 */
+	public synchronized void invalidate(K key) {
+		invalidations++;
+		entries.remove(key);
+	}
+
+	/**
+	 * Removes all entries whose value matches the predicate.
+	 *
+	 * @param predicate selects the values to remove
+	 */
+	public synchronized void invalidateIf(Predicate<? super V> predicate) {
+		invalidations++;
+		for (Iterator<V> it = entries.values().iterator(); it.hasNext();) {
+			if (predicate.test(it.next()))
+				it.remove();
+		}
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public synchronized void invalidateAll() {
+		invalidations++;
+		entries.clear();
+	}
+
+	/** @return current number of entries */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/** @return number of lookups served from the cache */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/** @return number of lookups that had to load the value */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	/** @return number of entries evicted because the cache was full */
+	public synchronized long getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * @return hit ratio between 0 and 1, or 0 if there were no lookups yet
+	 */
+	public synchronized double getHitRatio() {
+		long lookups = hitCount + missCount;
+		return lookups == 0 ? 0.0 : (double) hitCount / lookups;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("%s[size=%d/%d, hits=%d, misses=%d, evictions=%d, hitRatio=%.2f]", name, entries.size(),
+				maxSize, hitCount, missCount, evictionCount, getHitRatio());
+	}
+}
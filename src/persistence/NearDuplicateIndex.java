@@ -0,0 +1,489 @@
+package persistence;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import quizLogic.Answer;
+import quizLogic.Question;
+import quizLogic.QuestionSummary;
+
+/**
+ * {@code NearDuplicateIndex} finds questions that are slightly reworded copies
+ * of each other, which the exact title check of
+ * {@link quizLogic.QuestionValidator} misses.
+ *
+ * <p>
+ * <b>Approach:</b>
+ * </p>
+ * <ul>
+ * <li>Each question is reduced to a set of shingles: the words and word pairs
+ * of its title, text and answers, normalized like the {@link SearchIndex}.</li>
+ * <li>A MinHash signature of {@link #SIGNATURE_LENGTH} values estimates the
+ * Jaccard similarity of two shingle sets: it is the fraction of equal
+ * signature values.</li>
+ * <li>Locality-sensitive hashing: the signature is split into {@link #BANDS}
+ * bands of {@link #ROWS_PER_BAND} values, and each band is hashed into a bucket.
+ * Questions sharing at least one bucket are candidates: with b bands of r rows,
+ * a pair of similarity s with probability 1 - (1 - s^r)^b. With 32 bands of 4
+ * rows, pairs at the {@link #DEFAULT_THRESHOLD} of 0.7 become candidates with
+ * 99.98 % probability, pairs of 0.3 with 23 % and pairs of 0.2 with 5 %, so a
+ * lookup only compares a small share of the questions instead of the whole
+ * bank.</li>
+ * </ul>
+ *
+ * <p>
+ * {@link #findSimilar(Question, double)} checks a single question, e.g. at save
+ * time. {@link #findClusters(double)} groups the whole bank into clusters of
+ * near-duplicates: the candidate pairs are verified in parallel and merged by a
+ * lock-free union-find.
+ * </p>
+ *
+ * <p>
+ * The index is built lazily on first use and kept up to date by
+ * {@link DBDataManager} via {@link #put(Question)}, {@link #remove(int)} and
+ * {@link #removeTheme(int)}. All methods are thread-safe.
+ * </p>
+ *
+ * @author Oleg Kapirulya
+ */
+public class NearDuplicateIndex {
+
+	/** Number of MinHash values per signature. */
+	public static final int SIGNATURE_LENGTH = 128;
+
+	/** Number of LSH bands. */
+	public static final int BANDS = 32;
+
+	/** Number of signature values per band. */
+	public static final int ROWS_PER_BAND = SIGNATURE_LENGTH / BANDS;
+
+	/** Default minimum estimated similarity of near-duplicates. */
+	public static final double DEFAULT_THRESHOLD = 0.7;
+
+	/** Seeds of the MinHash functions; fixed, so signatures are reproducible. */
+	private static final long[] SEEDS = new SplittableRandom(0x5EEDL).longs(SIGNATURE_LENGTH).toArray();
+
+	/** Passes every question, with its answers, to the given consumer. */
+	private final Consumer<Consumer<Question>> loader;
+
+	/** Indexed question per question ID. */
+	private final Map<Integer, Entry> entries = new HashMap<>();
+
+	/** Question IDs per bucket, per band. */
+	private final List<Map<Long, Set<Integer>>> buckets = new ArrayList<>();
+
+	/** Whether the index has been built. */
+	private boolean loaded;
+
+	/**
+	 * Creates an index that is built on first use.
+	 *
+	 * @param loader passes every question, with its theme and answers, to the
+	 *               given consumer
+	 */
+	public NearDuplicateIndex(Consumer<Consumer<Question>> loader) {
+		this.loader = loader;
+		for (int band = 0; band < BANDS; band++) {
+			buckets.add(new HashMap<>());
+		}
+	}
+
+	/**
+	 * A question similar to the one looked up.
+	 */
+	public static final class Match {
+
+		/** The similar question. */
+		private final QuestionSummary question;
+
+		/** Estimated Jaccard similarity between 0 and 1. */
+		private final double similarity;
+
+		/**
+		 * Creates a match.
+		 *
+		 * @param question   the similar question
+		 * @param similarity estimated similarity
+		 */
+		private Match(QuestionSummary question, double similarity) {
+			this.question = question;
+			this.similarity = similarity;
+		}
+
+		/** @return the similar question */
+		public QuestionSummary getQuestion() {
+			return question;
+		}
+
+		/** @return estimated Jaccard similarity between 0 and 1 */
+		public double getSimilarity() {
+			return similarity;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s (%.0f %%)", question.getTitle(), similarity * 100);
+		}
+	}
+
+	/**
+	 * Finds the indexed questions similar to a question. The question itself (same
+	 * ID) is not reported.
+	 *
+	 * @param question  the question, e.g. about to be saved
+	 * @param threshold minimum estimated similarity between 0 and 1
+	 * @return the matches, most similar first
+	 */
+	public synchronized List<Match> findSimilar(Question question, double threshold) {
+		ensureLoaded();
+		int[] signature = signature(question);
+		if (isEmpty(signature))
+			return new ArrayList<>(); // no words, nothing to compare
+		Set<Integer> candidates = new HashSet<>();
+		for (int band = 0; band < BANDS; band++) {
+			Set<Integer> bucket = buckets.get(band).get(bandKey(signature, band));
+			if (bucket != null)
+				candidates.addAll(bucket);
+		}
+		candidates.remove(question.getId());
+
+		List<Match> matches = new ArrayList<>();
+		for (Integer id : candidates) {
+			Entry entry = entries.get(id);
+			double similarity = similarity(signature, entry.signature);
+			if (similarity >= threshold)
+				matches.add(new Match(entry.summary, similarity));
+		}
+		matches.sort(Comparator.comparingDouble(Match::getSimilarity).reversed());
+		return matches;
+	}
+
+	/**
+	 * Groups all indexed questions into clusters of near-duplicates. Two
+	 * questions are in the same cluster if they are connected by a chain of
+	 * candidate pairs with at least the given similarity. The candidate pairs are
+	 * verified in parallel.
+	 *
+	 * @param threshold minimum estimated similarity between 0 and 1
+	 * @return the clusters of at least two questions, largest first
+	 */
+	public List<List<QuestionSummary>> findClusters(double threshold) {
+		// Snapshot under the lock, then verify the pairs without holding it
+		Entry[] snapshot;
+		List<int[]> bucketMembers = new ArrayList<>();
+		synchronized (this) {
+			ensureLoaded();
+			snapshot = entries.values().toArray(new Entry[0]);
+			Map<Integer, Integer> positions = new HashMap<>();
+			for (int i = 0; i < snapshot.length; i++) {
+				positions.put(snapshot[i].summary.getId(), i);
+			}
+			for (Map<Long, Set<Integer>> band : buckets) {
+				for (Set<Integer> bucket : band.values()) {
+					if (bucket.size() < 2)
+						continue;
+					int[] members = new int[bucket.size()];
+					int n = 0;
+					for (Integer id : bucket) {
+						members[n++] = positions.get(id);
+					}
+					bucketMembers.add(members);
+				}
+			}
+		}
+
+		AtomicIntegerArray parent = new AtomicIntegerArray(snapshot.length);
+		for (int i = 0; i < snapshot.length; i++) {
+			parent.set(i, i);
+		}
+		bucketMembers.parallelStream().forEach(members -> {
+			for (int a = 0; a < members.length; a++) {
+				for (int b = a + 1; b < members.length; b++) {
+					int i = members[a];
+					int j = members[b];
+					if (find(parent, i) != find(parent, j)
+							&& similarity(snapshot[i].signature, snapshot[j].signature) >= threshold)
+						union(parent, i, j);
+				}
+			}
+		});
+
+		Map<Integer, List<QuestionSummary>> byRoot = new HashMap<>();
+		IntStream.range(0, snapshot.length).forEach(
+				i -> byRoot.computeIfAbsent(find(parent, i), root -> new ArrayList<>()).add(snapshot[i].summary));
+		List<List<QuestionSummary>> clusters = new ArrayList<>();
+		for (List<QuestionSummary> cluster : byRoot.values()) {
+			if (cluster.size() > 1)
+				clusters.add(cluster);
+		}
+		clusters.sort(Comparator.comparingInt((List<QuestionSummary> c) -> c.size()).reversed());
+		return clusters;
+	}
+
+	/**
+	 * Adds a question or re-indexes it after a change.
+	 *
+	 * @param question the saved question with its theme and answers
+	 */
+	public synchronized void put(Question question) {
+		if (!loaded || question == null || question.getId() <= 0)
+			return; // the initial build will pick it up
+		remove(question.getId());
+		index(question);
+	}
+
+	/**
+	 * Removes a question.
+	 *
+	 * @param questionId the question ID
+	 */
+	public synchronized void remove(int questionId) {
+		if (!loaded)
+			return;
+		Entry entry = entries.remove(questionId);
+		if (entry == null)
+			return;
+		for (int band = 0; band < BANDS; band++) {
+			Map<Long, Set<Integer>> bandBuckets = buckets.get(band);
+			long key = bandKey(entry.signature, band);
+			Set<Integer> bucket = bandBuckets.get(key);
+			if (bucket == null)
+				return; // not bucketed, see index()
+			bucket.remove(questionId);
+			if (bucket.isEmpty())
+				bandBuckets.remove(key);
+		}
+	}
+
+	/**
+	 * Removes all questions of a theme.
+	 *
+	 * @param themeId the theme ID
+	 */
+	public synchronized void removeTheme(int themeId) {
+		if (!loaded)
+			return;
+		List<Integer> ids = new ArrayList<>();
+		for (Entry entry : entries.values()) {
+			if (entry.summary.getThemeId() == themeId)
+				ids.add(entry.summary.getId());
+		}
+		ids.forEach(this::remove);
+	}
+
+	/**
+	 * Drops the index; it is rebuilt on next use.
+	 */
+	public synchronized void invalidate() {
+		loaded = false;
+		entries.clear();
+		buckets.forEach(Map::clear);
+	}
+
+	/**
+	 * Computes the MinHash signature of a question.
+	 *
+	 * @param question the question
+	 * @return the signature of {@link #SIGNATURE_LENGTH} values
+	 */
+	static int[] signature(Question question) {
+		int[] signature = new int[SIGNATURE_LENGTH];
+		Arrays.fill(signature, Integer.MAX_VALUE);
+		for (int shingle : shingles(question)) {
+			for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+				int h = (int) mix(shingle ^ SEEDS[i]);
+				if (h < signature[i])
+					signature[i] = h;
+			}
+		}
+		return signature;
+	}
+
+	/**
+	 * Collects the hashed shingles of a question: every word and every pair of
+	 * adjacent words of its title, text and answers.
+	 *
+	 * @param question the question
+	 * @return the distinct shingle hashes
+	 */
+	private static Set<Integer> shingles(Question question) {
+		Set<Integer> shingles = new HashSet<>();
+		addShingles(shingles, question.getTitle());
+		addShingles(shingles, question.getText());
+		for (Answer answer : question.getAnswers()) {
+			addShingles(shingles, answer.getText());
+		}
+		return shingles;
+	}
+
+	/**
+	 * Adds the word and word-pair shingles of a text.
+	 *
+	 * @param shingles the shingle hashes
+	 * @param text     the text, may be {@code null}
+	 */
+	private static void addShingles(Set<Integer> shingles, String text) {
+		String previous = null;
+		for (String token : SearchIndex.tokenize(text)) {
+			shingles.add(token.hashCode());
+			if (previous != null)
+				shingles.add((previous + ' ' + token).hashCode());
+			previous = token;
+		}
+	}
+
+	/**
+	 * Estimates the Jaccard similarity of two signatures.
+	 *
+	 * @param a a signature
+	 * @param b another signature
+	 * @return the fraction of equal values
+	 */
+	private static double similarity(int[] a, int[] b) {
+		int equal = 0;
+		for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+			if (a[i] == b[i])
+				equal++;
+		}
+		return (double) equal / SIGNATURE_LENGTH;
+	}
+
+	/**
+	 * Checks whether a signature belongs to a question without any words.
+	 *
+	 * @param signature the signature
+	 * @return true if no shingle contributed
+	 */
+	private static boolean isEmpty(int[] signature) {
+		for (int value : signature) {
+			if (value != Integer.MAX_VALUE)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Hashes one band of a signature into a bucket key.
+	 *
+	 * @param signature the signature
+	 * @param band      the band
+	 * @return the bucket key
+	 */
+	private static long bandKey(int[] signature, int band) {
+		long key = band;
+		for (int i = band * ROWS_PER_BAND; i < (band + 1) * ROWS_PER_BAND; i++) {
+			key = mix(key * 31 + signature[i]);
+		}
+		return key;
+	}
+
+	/**
+	 * Scrambles the bits of a value (the finalizer of SplitMix64).
+	 *
+	 * @param x the value
+	 * @return the hash
+	 */
+	private static long mix(long x) {
+		x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+		x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+		return x ^ (x >>> 31);
+	}
+
+	/**
+	 * Finds the root of an element, halving the path on the way.
+	 *
+	 * @param parent the union-find forest
+	 * @param i      the element
+	 * @return the root
+	 */
+	private static int find(AtomicIntegerArray parent, int i) {
+		while (true) {
+			int p = parent.get(i);
+			if (p == i)
+				return i;
+			int grandparent = parent.get(p);
+			parent.compareAndSet(i, p, grandparent);
+			i = grandparent;
+		}
+	}
+
+	/**
+	 * Merges the sets of two elements. The root with the higher index is linked
+	 * below the other one; a lost race is retried.
+	 *
+	 * @param parent the union-find forest
+	 * @param i      an element
+	 * @param j      another element
+	 */
+	private static void union(AtomicIntegerArray parent, int i, int j) {
+		while (true) {
+			int ri = find(parent, i);
+			int rj = find(parent, j);
+			if (ri == rj)
+				return;
+			int high = Math.max(ri, rj);
+			int low = Math.min(ri, rj);
+			if (parent.compareAndSet(high, high, low))
+				return;
+		}
+	}
+
+	/**
+	 * Builds the index if not done yet.
+	 */
+	private void ensureLoaded() {
+		if (loaded)
+			return;
+		loaded = true;
+		loader.accept(this::index);
+	}
+
+	/**
+	 * Indexes a question that is not indexed yet.
+	 *
+	 * @param question the question with its theme and answers
+	 */
+	private void index(Question question) {
+		int[] signature = signature(question);
+		entries.put(question.getId(), new Entry(QuestionSummary.of(question), signature));
+		if (isEmpty(signature))
+			return; // questions without words would all collide
+		for (int band = 0; band < BANDS; band++) {
+			buckets.get(band).computeIfAbsent(bandKey(signature, band), key -> new HashSet<>())
+					.add(question.getId());
+		}
+	}
+
+	/**
+	 * An indexed question: its summary and MinHash signature.
+	 */
+	private static final class Entry {
+
+		/** ID, title and theme of the question. */
+		private final QuestionSummary summary;
+
+		/** The MinHash signature. */
+		private final int[] signature;
+
+		/**
+		 * Creates an entry.
+		 *
+		 * @param summary   the summary
+		 * @param signature the signature
+		 */
+		private Entry(QuestionSummary summary, int[] signature) {
+			this.summary = summary;
+			this.signature = signature;
+		}
+	}
+}
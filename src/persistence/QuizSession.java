@@ -0,0 +1,85 @@
+package persistence;
+
+import quizLogic.Question;
+
+/**
+ * {@code QuizSession} draws random questions of one theme (or of all themes)
+ * without repetition, as long as there are unseen questions left.
+ *
+ * <p>
+ * Drawing is backed by the in-memory {@link RandomQuestionIndex}, so selecting
+ * the next question costs one array lookup plus one fetch from the question
+ * cache of {@link DBDataManager}. The question following the returned one is
+ * drawn in advance and loaded into the cache in the background, so the next
+ * call usually does not wait for the database at all.
+ * </p>
+ *
+ * <p>
+ * When every question has been drawn, a new round over the then current
+ * questions begins. Sessions are created by
+ * {@link DBDataManager#startQuizSession(quizLogic.Theme)}; they are
+ * thread-safe.
+ * </p>
+ *
+ * @author Oleg Kapirulya
+ */
+public class QuizSession {
+
+	/** Maximum number of drawn IDs skipped because their question vanished. */
+	private static final int MAX_SKIPS = 16;
+
+	/** Data manager used to fetch and prefetch the questions. */
+	private final DBDataManager dm;
+
+	/** Random ID sequence without repetition. */
+	private final RandomQuestionIndex.Session ids;
+
+	/** ID drawn in advance and being prefetched, or -1. */
+	private int prefetchedId = -1;
+
+	/**
+	 * Creates a session.
+	 *
+	 * @param dm  the data manager
+	 * @param ids the ID sequence to draw from
+	 */
+	QuizSession(DBDataManager dm, RandomQuestionIndex.Session ids) {
+		this.dm = dm;
+		this.ids = ids;
+	}
+
+	/**
+	 * Returns the next random question and prefetches the one after it.
+	 *
+	 * @return fully loaded {@link Question}, or {@code null} if there are no
+	 *         questions
+	 */
+	public synchronized Question next() {
+		int id = prefetchedId != -1 ? prefetchedId : ids.nextId();
+		Question question = id == -1 ? null : dm.getFullQuestionById(id);
+		// Skip questions deleted after they were indexed
+		for (int skips = 0; question == null && id != -1 && skips < MAX_SKIPS; skips++) {
+			id = ids.nextId();
+			question = id == -1 ? null : dm.getFullQuestionById(id);
+		}
+
+		prefetchedId = ids.nextId();
+		dm.prefetchQuestion(prefetchedId);
+		return question;
+	}
+
+	/**
+	 * @return the ID of the theme this session draws from, or
+	 *         {@link RandomQuestionIndex#ALL_THEMES}
+	 */
+	public int getThemeId() {
+		return ids.getThemeId();
+	}
+
+	/**
+	 * @return number of started rounds, starting with 1
+	 */
+	public int getRound() {
+		return ids.getRound();
+	}
+}
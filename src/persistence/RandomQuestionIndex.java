@@ -0,0 +1,367 @@
+package persistence;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * {@code RandomQuestionIndex} is a compact in-memory index of all question IDs,
+ * per theme and across all themes, used to draw random questions without
+ * touching the database.
+ *
+ * <p>
+ * The IDs are kept in primitive {@code int} arrays, so drawing a question is a
+ * single array lookup at a random position:
+ * </p>
+ * <ul>
+ * <li>{@link #randomId(int)} samples uniformly with repetition.</li>
+ * <li>{@link #newSession(int)} returns a {@link Session} that samples without
+ * repetition, using a lazily evaluated Fisher–Yates shuffle over a snapshot of
+ * the IDs (one swap per draw).</li>
+ * </ul>
+ *
+ * <p>
+ * The index is loaded lazily on first use and kept up to date by
+ * {@link DBDataManager} via {@link #put(int, int)}, {@link #remove(int)} and
+ * {@link #removeTheme(int)}. Updates are idempotent, so an update racing with
+ * the initial load is harmless. Removal is a linear scan followed by a swap with
+ * the last element; it is rare compared to sampling and still touches only a
+ * primitive array.
+ * </p>
+ *
+ * <p>
+ * All methods are thread-safe.
+ * </p>
+ *
+ * @author Oleg Kapirulya
+ */
+public class RandomQuestionIndex {
+
+	/** Theme ID selecting the questions of all themes. */
+	public static final int ALL_THEMES = 0;
+
+	/** Loads question IDs grouped by theme ID, see {@code QuestionDAO}. */
+	private final Supplier<Map<Integer, int[]>> loader;
+
+	/** IDs of all questions. */
+	private final IdList all = new IdList();
+
+	/** IDs of the questions per theme ID. */
+	private final Map<Integer, IdList> byTheme = new HashMap<>();
+
+	/** Theme ID per question ID; 0 where no question is indexed. */
+	private int[] themeOf = new int[0];
+
+	/** Whether the IDs have been loaded. */
+	private boolean loaded;
+
+	/**
+	 * Creates an index that is loaded on first use.
+	 *
+	 * @param loader supplies all question IDs grouped by theme ID
+	 */
+	public RandomQuestionIndex(Supplier<Map<Integer, int[]>> loader) {
+		this.loader = loader;
+	}
+
+	/**
+	 * Draws a question ID uniformly at random.
+	 *
+	 * @param themeId the theme to draw from, or {@link #ALL_THEMES}
+	 * @return a question ID, or {@code -1} if there are no questions
+	 */
+	public synchronized int randomId(int themeId) {
+		ensureLoaded();
+		IdList ids = idsOf(themeId);
+		if (ids == null || ids.size == 0)
+			return -1;
+		return ids.ids[ThreadLocalRandom.current().nextInt(ids.size)];
+	}
+
+	/**
+	 * Returns the number of indexed questions.
+	 *
+	 * @param themeId the theme to count, or {@link #ALL_THEMES}
+	 * @return number of questions
+	 */
+	public synchronized int size(int themeId) {
+		ensureLoaded();
+		IdList ids = idsOf(themeId);
+		return ids == null ? 0 : ids.size;
+	}
+
+	/**
+	 * Starts a session drawing the questions of a theme without repetition.
+	 *
+	 * @param themeId the theme to draw from, or {@link #ALL_THEMES}
+	 * @return a new session over the current questions
+	 */
+	public synchronized Session newSession(int themeId) {
+		ensureLoaded();
+		return new Session(themeId);
+	}
+
+	/**
+	 * Adds a question or moves it to another theme.
+	 *
+	 * @param questionId the question ID
+	 * @param themeId    the ID of the question's theme
+	 */
+	public synchronized void put(int questionId, int themeId) {
+		if (!loaded || questionId <= 0 || themeId <= 0)
+			return; // the initial load will pick it up
+		int current = questionId < themeOf.length ? themeOf[questionId] : 0;
+		if (current == themeId)
+			return;
+		if (current != 0) {
+			byTheme.get(current).remove(questionId);
+		} else {
+			all.add(questionId);
+		}
+		byTheme.computeIfAbsent(themeId, id -> new IdList()).add(questionId);
+		if (questionId >= themeOf.length)
+			themeOf = Arrays.copyOf(themeOf, Math.max(questionId + 1, themeOf.length * 2));
+		themeOf[questionId] = themeId;
+	}
+
+	/**
+	 * Removes a question.
+	 *
+	 * @param questionId the question ID
+	 */
+	public synchronized void remove(int questionId) {
+		if (!loaded || questionId <= 0 || questionId >= themeOf.length || themeOf[questionId] == 0)
+			return;
+		byTheme.get(themeOf[questionId]).remove(questionId);
+		all.remove(questionId);
+		themeOf[questionId] = 0;
+	}
+
+	/**
+	 * Removes all questions of a theme.
+	 *
+	 * @param themeId the theme ID
+	 */
+	public synchronized void removeTheme(int themeId) {
+		if (!loaded)
+			return;
+		IdList ids = byTheme.remove(themeId);
+		if (ids == null)
+			return;
+		for (int i = 0; i < ids.size; i++) {
+			themeOf[ids.ids[i]] = 0;
+		}
+		all.removeIf(themeOf);
+	}
+
+	/**
+	 * Drops the index; it is reloaded on next use.
+	 */
+	public synchronized void invalidate() {
+		loaded = false;
+		all.clear();
+		byTheme.clear();
+		themeOf = new int[0];
+	}
+
+	/**
+	 * Checks whether a question is indexed.
+	 *
+	 * @param questionId the question ID
+	 * @return {@code true} if present
+	 */
+	private boolean contains(int questionId) {
+		return questionId > 0 && questionId < themeOf.length && themeOf[questionId] != 0;
+	}
+
+	/**
+	 * Returns the ID list for a theme, or the global list.
+	 *
+	 * @param themeId the theme ID or {@link #ALL_THEMES}
+	 * @return the list, or {@code null} if the theme has no questions
+	 */
+	private IdList idsOf(int themeId) {
+		return themeId == ALL_THEMES ? all : byTheme.get(themeId);
+	}
+
+	/**
+	 * Loads all IDs if not done yet.
+	 */
+	private void ensureLoaded() {
+		if (loaded)
+			return;
+		Map<Integer, int[]> idsByTheme = loader.get();
+		int maxId = 0;
+		for (Map.Entry<Integer, int[]> entry : idsByTheme.entrySet()) {
+			IdList ids = new IdList(entry.getValue());
+			byTheme.put(entry.getKey(), ids);
+			for (int id : entry.getValue()) {
+				all.add(id);
+				maxId = Math.max(maxId, id);
+			}
+		}
+		themeOf = new int[maxId + 1];
+		for (Map.Entry<Integer, int[]> entry : idsByTheme.entrySet()) {
+			for (int id : entry.getValue()) {
+				themeOf[id] = entry.getKey();
+			}
+		}
+		loaded = true;
+	}
+
+	/**
+	 * A sequence of question IDs of one theme drawn without repetition. When all
+	 * questions were drawn, a new round over the then current questions starts.
+	 *
+	 * <p>
+	 * A session keeps a snapshot of the IDs; questions deleted or moved to another
+	 * theme in the meantime are skipped. Sessions synchronize on their index.
+	 * </p>
+	 */
+	public final class Session {
+
+		/** Theme ID of this session, or {@link RandomQuestionIndex#ALL_THEMES}. */
+		private final int themeId;
+
+		/** Random source of this session. */
+		private final Random random = new Random();
+
+		/** Snapshot of the IDs; the tail beyond {@link #remaining} was drawn. */
+		private int[] pool;
+
+		/** Number of IDs not drawn in the current round. */
+		private int remaining;
+
+		/** Number of started rounds. */
+		private int round;
+
+		/**
+		 * Creates a session; called with the index lock held.
+		 *
+		 * @param themeId the theme ID
+		 */
+		private Session(int themeId) {
+			this.themeId = themeId;
+			startRound();
+		}
+
+		/**
+		 * Draws the next question ID of the current round, starting a new round if
+		 * all questions were drawn.
+		 *
+		 * @return a question ID, or {@code -1} if the theme has no questions
+		 */
+		public int nextId() {
+			synchronized (RandomQuestionIndex.this) {
+				for (int attempts = 0; attempts < 2; attempts++) {
+					while (remaining > 0) {
+						// Lazy Fisher–Yates: swap a random undrawn ID to the end
+						int j = random.nextInt(remaining);
+						int id = pool[j];
+						pool[j] = pool[--remaining];
+						pool[remaining] = id;
+						if (contains(id) && (themeId == ALL_THEMES || themeOf[id] == themeId))
+							return id;
+					}
+					startRound();
+				}
+				return -1;
+			}
+		}
+
+		/** @return the theme ID of this session */
+		public int getThemeId() {
+			return themeId;
+		}
+
+		/** @return number of started rounds, starting with 1 */
+		public int getRound() {
+			return round;
+		}
+
+		/**
+		 * Takes a fresh snapshot of the IDs; called with the index lock held.
+		 */
+		private void startRound() {
+			ensureLoaded();
+			IdList ids = idsOf(themeId);
+			pool = ids == null ? new int[0] : Arrays.copyOf(ids.ids, ids.size);
+			remaining = pool.length;
+			round++;
+		}
+	}
+
+	/**
+	 * Growable list of primitive IDs with O(1) append and swap-remove.
+	 */
+	private static final class IdList {
+
+		/** The IDs; only the first {@link #size} entries are valid. */
+		private int[] ids;
+
+		/** Number of valid entries. */
+		private int size;
+
+		/** Creates an empty list. */
+		private IdList() {
+			this.ids = new int[16];
+		}
+
+		/**
+		 * Creates a list backed by the given array.
+		 *
+		 * @param ids the IDs, taken over without copying
+		 */
+		private IdList(int[] ids) {
+			this.ids = ids;
+			this.size = ids.length;
+		}
+
+		/**
+		 * Appends an ID.
+		 *
+		 * @param id the ID
+		 */
+		private void add(int id) {
+			if (size == ids.length)
+				ids = Arrays.copyOf(ids, Math.max(16, size * 2));
+			ids[size++] = id;
+		}
+
+		/**
+		 * Removes an ID by swapping the last element into its place.
+		 *
+		 * @param id the ID
+		 */
+		private void remove(int id) {
+			for (int i = 0; i < size; i++) {
+				if (ids[i] == id) {
+					ids[i] = ids[--size];
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Removes all IDs whose theme is no longer set.
+		 *
+		 * @param themeOf theme ID per question ID
+		 */
+		private void removeIf(int[] themeOf) {
+			int kept = 0;
+			for (int i = 0; i < size; i++) {
+				if (themeOf[ids[i]] != 0)
+					ids[kept++] = ids[i];
+			}
+			size = kept;
+		}
+
+		/** Removes all IDs. */
+		private void clear() {
+			size = 0;
+		}
+	}
+}
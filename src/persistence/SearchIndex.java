@@ -0,0 +1,460 @@
+package persistence;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import quizLogic.Answer;
+import quizLogic.Question;
+import quizLogic.QuestionSummary;
+
+/**
+ * {@code SearchIndex} is an in-process inverted full-text index over the
+ * question bank: question title, question text and answer texts.
+ *
+ * <p>
+ * <b>Text processing:</b>
+ * </p>
+ * <ul>
+ * <li>Texts are lower-cased and normalized for German: ä, ö, ü and ß are
+ * replaced by ae, oe, ue and ss, other diacritics are removed. Thus
+ * "Straße", "strasse" and "STRASSE" are the same term.</li>
+ * <li>Tokens are maximal runs of letters and digits.</li>
+ * </ul>
+ *
+ * <p>
+ * <b>Queries</b> (see {@link #search(String, int, int)}):
+ * </p>
+ * <ul>
+ * <li>A question matches if it contains every query token, either as a whole
+ * term or, for tokens of at least {@link #MIN_PREFIX_LENGTH} characters, as the
+ * prefix of a term. The terms are kept in a sorted map, so a prefix is expanded
+ * by a range lookup.</li>
+ * <li>Matches are ranked by TF-IDF: the weighted term frequency (title
+ * occurrences count {@link #TITLE_WEIGHT} times) times the inverse document
+ * frequency of the term, normalized by the length of the question. Prefix
+ * matches count {@link #PREFIX_MATCH_WEIGHT} of a whole-term match.</li>
+ * </ul>
+ * A query only touches the posting lists of its terms; the score accumulators
+ * are reused between queries.
+ *
+ * <p>
+ * The index is built lazily on first use and kept up to date incrementally by
+ * {@link DBDataManager} via {@link #put(Question)}, {@link #remove(int)} and
+ * {@link #removeTheme(int)}. Removing a question scans the posting lists of its
+ * terms only.
+ * </p>
+ *
+ * <p>
+ * All methods are thread-safe.
+ * </p>
+ *
+ * @author Oleg Kapirulya
+ */
+public class SearchIndex {
+
+	/** Minimum length of a query token to be matched as a prefix. */
+	public static final int MIN_PREFIX_LENGTH = 2;
+
+	/** Weight of a term occurrence in the title. */
+	public static final float TITLE_WEIGHT = 3f;
+
+	/** Weight of a term occurrence in the question text or an answer. */
+	public static final float TEXT_WEIGHT = 1f;
+
+	/** Score factor of a prefix match relative to a whole-term match. */
+	public static final float PREFIX_MATCH_WEIGHT = 0.5f;
+
+	/** Passes every question, with its answers, to the given consumer. */
+	private final Consumer<Consumer<Question>> loader;
+
+	/** Posting list per term, sorted by term for prefix lookups. */
+	private final TreeMap<String, Postings> terms = new TreeMap<>();
+
+	/** Document slot per question ID. */
+	private final Map<Integer, Integer> slots = new HashMap<>();
+
+	/** Indexed question per slot; {@code null} for free slots. */
+	private Doc[] docs = new Doc[16];
+
+	/** Number of slots in use or freed. */
+	private int slotCount;
+
+	/** Freed slots, reused before new ones. */
+	private int[] freeSlots = new int[16];
+
+	/** Number of freed slots. */
+	private int freeCount;
+
+	/** Score accumulator per slot, reused between queries. */
+	private float[] scores = new float[16];
+
+	/** Number of query tokens matched so far per slot, reused between queries. */
+	private int[] matched = new int[16];
+
+	/** Slots touched by the current query, to reset the accumulators. */
+	private int[] touched = new int[16];
+
+	/** Whether the index has been built. */
+	private boolean loaded;
+
+	/**
+	 * Creates an index that is built on first use.
+	 *
+	 * @param loader passes every question, with its theme and answers, to the
+	 *               given consumer
+	 */
+	public SearchIndex(Consumer<Consumer<Question>> loader) {
+		this.loader = loader;
+	}
+
+	/**
+	 * Searches the questions of all themes.
+	 *
+	 * @param query the query text
+	 * @param limit maximum number of results
+	 * @return the best matches, best first
+	 */
+	public List<QuestionSummary> search(String query, int limit) {
+		return search(query, 0, limit);
+	}
+
+	/**
+	 * Searches the questions.
+	 *
+	 * @param query   the query text
+	 * @param themeId restricts the results to a theme; 0 or less for all themes
+	 * @param limit   maximum number of results
+	 * @return the best matches, best first; empty if the query has no tokens
+	 */
+	public synchronized List<QuestionSummary> search(String query, int themeId, int limit) {
+		ensureLoaded();
+		List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+		if (tokens.isEmpty() || limit <= 0)
+			return new ArrayList<>();
+
+		int touchedCount = 0;
+		int docCount = slots.size();
+		for (int t = 0; t < tokens.size(); t++) {
+			String token = tokens.get(t);
+			NavigableMap<String, Postings> expansions = token.length() >= MIN_PREFIX_LENGTH
+					? terms.subMap(token, true, token + Character.MAX_VALUE, false)
+					: terms.subMap(token, true, token, true);
+			for (Map.Entry<String, Postings> entry : expansions.entrySet()) {
+				Postings postings = entry.getValue();
+				float idf = (float) Math.log(1.0 + (double) docCount / postings.size);
+				float factor = entry.getKey().length() == token.length() ? idf : idf * PREFIX_MATCH_WEIGHT;
+				for (int i = 0; i < postings.size; i++) {
+					int slot = postings.slots[i];
+					if (matched[slot] < t)
+						continue; // missed an earlier token
+					if (matched[slot] == t) {
+						matched[slot] = t + 1;
+						if (t == 0)
+							touched[touchedCount++] = slot;
+					}
+					scores[slot] += postings.weights[i] * factor;
+				}
+			}
+		}
+
+		// Keep the best matches in a small array sorted by descending score
+		int[] bestSlots = new int[Math.min(limit, Math.max(touchedCount, 1))];
+		float[] bestScores = new float[bestSlots.length];
+		int bestCount = 0;
+		for (int i = 0; i < touchedCount; i++) {
+			int slot = touched[i];
+			Doc doc = docs[slot];
+			if (matched[slot] == tokens.size() && (themeId <= 0 || doc.themeId == themeId)) {
+				float score = scores[slot] * doc.norm;
+				if (bestCount < bestSlots.length || score > bestScores[bestCount - 1]) {
+					int pos = Math.min(bestCount, bestSlots.length - 1);
+					while (pos > 0 && bestScores[pos - 1] < score) {
+						bestSlots[pos] = bestSlots[pos - 1];
+						bestScores[pos] = bestScores[pos - 1];
+						pos--;
+					}
+					bestSlots[pos] = slot;
+					bestScores[pos] = score;
+					bestCount = Math.min(bestCount + 1, bestSlots.length);
+				}
+			}
+			scores[slot] = 0f;
+			matched[slot] = 0;
+		}
+
+		List<QuestionSummary> results = new ArrayList<>(bestCount);
+		for (int i = 0; i < bestCount; i++) {
+			Doc doc = docs[bestSlots[i]];
+			results.add(new QuestionSummary(doc.questionId, doc.title, doc.themeId));
+		}
+		return results;
+	}
+
+	/**
+	 * Adds a question or re-indexes it after a change.
+	 *
+	 * @param question the saved question with its theme and answers
+	 */
+	public synchronized void put(Question question) {
+		if (!loaded || question == null || question.getId() <= 0)
+			return; // the initial build will pick it up
+		remove(question.getId());
+		index(question);
+	}
+
+	/**
+	 * Removes a question.
+	 *
+	 * @param questionId the question ID
+	 */
+	public synchronized void remove(int questionId) {
+		if (!loaded)
+			return;
+		Integer slot = slots.remove(questionId);
+		if (slot == null)
+			return;
+		for (String term : docs[slot].terms) {
+			Postings postings = terms.get(term);
+			postings.remove(slot);
+			if (postings.size == 0)
+				terms.remove(term);
+		}
+		docs[slot] = null;
+		if (freeCount == freeSlots.length)
+			freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+		freeSlots[freeCount++] = slot;
+	}
+
+	/**
+	 * Removes all questions of a theme.
+	 *
+	 * @param themeId the theme ID
+	 */
+	public synchronized void removeTheme(int themeId) {
+		if (!loaded)
+			return;
+		for (int slot = 0; slot < slotCount; slot++) {
+			if (docs[slot] != null && docs[slot].themeId == themeId)
+				remove(docs[slot].questionId);
+		}
+	}
+
+	/**
+	 * Drops the index; it is rebuilt on next use.
+	 */
+	public synchronized void invalidate() {
+		loaded = false;
+		terms.clear();
+		slots.clear();
+		Arrays.fill(docs, null);
+		slotCount = 0;
+		freeCount = 0;
+	}
+
+	/** @return number of indexed questions */
+	public synchronized int size() {
+		ensureLoaded();
+		return slots.size();
+	}
+
+	/**
+	 * Splits a text into normalized tokens, see the class comment.
+	 *
+	 * @param text the text, may be {@code null}
+	 * @return the tokens in text order, with repetitions
+	 */
+	public static List<String> tokenize(String text) {
+		List<String> tokens = new ArrayList<>();
+		if (text == null)
+			return tokens;
+		String normalized = normalize(text);
+		int start = -1;
+		for (int i = 0; i <= normalized.length(); i++) {
+			boolean tokenChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+			if (tokenChar && start < 0) {
+				start = i;
+			} else if (!tokenChar && start >= 0) {
+				tokens.add(normalized.substring(start, i));
+				start = -1;
+			}
+		}
+		return tokens;
+	}
+
+	/**
+	 * Lower-cases a text and folds German umlauts, ß and other diacritics.
+	 *
+	 * @param text the text
+	 * @return the normalized text
+	 */
+	static String normalize(String text) {
+		String lower = text.toLowerCase(Locale.GERMAN).replace("ä", "ae").replace("ö", "oe").replace("ü", "ue")
+				.replace("ß", "ss");
+		for (int i = 0; i < lower.length(); i++) {
+			if (lower.charAt(i) > 0x7F)
+				return Normalizer.normalize(lower, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+		}
+		return lower; // plain ASCII, nothing to fold
+
+	}
+
+	/**
+	 * Builds the index if not done yet.
+	 */
+	private void ensureLoaded() {
+		if (loaded)
+			return;
+		loaded = true;
+		loader.accept(this::index);
+	}
+
+	/**
+	 * Indexes a question that is not indexed yet.
+	 *
+	 * @param question the question with its theme and answers
+	 */
+	private void index(Question question) {
+		Map<String, Float> weights = new HashMap<>();
+		addField(weights, question.getTitle(), TITLE_WEIGHT);
+		addField(weights, question.getText(), TEXT_WEIGHT);
+		for (Answer answer : question.getAnswers()) {
+			addField(weights, answer.getText(), TEXT_WEIGHT);
+		}
+
+		int slot = freeCount > 0 ? freeSlots[--freeCount] : slotCount++;
+		ensureSlotCapacity(slotCount);
+		float length = 0f;
+		for (Map.Entry<String, Float> entry : weights.entrySet()) {
+			terms.computeIfAbsent(entry.getKey(), term -> new Postings()).add(slot, entry.getValue());
+			length += entry.getValue();
+		}
+		int themeId = question.getThema() == null ? 0 : question.getThema().getId();
+		docs[slot] = new Doc(question.getId(), themeId, question.getTitle(), weights.keySet(),
+				length == 0f ? 0f : (float) (1.0 / Math.sqrt(length)));
+		slots.put(question.getId(), slot);
+	}
+
+	/**
+	 * Adds the weighted tokens of a field to the term weights of a question.
+	 *
+	 * @param weights the term weights
+	 * @param text    the field text, may be {@code null}
+	 * @param weight  weight per occurrence
+	 */
+	private static void addField(Map<String, Float> weights, String text, float weight) {
+		for (String token : tokenize(text)) {
+			weights.merge(token, weight, Float::sum);
+		}
+	}
+
+	/**
+	 * Grows the per-slot arrays to hold at least the given number of slots.
+	 *
+	 * @param capacity the required number of slots
+	 */
+	private void ensureSlotCapacity(int capacity) {
+		if (capacity <= docs.length)
+			return;
+		int newCapacity = Math.max(capacity, docs.length * 2);
+		docs = Arrays.copyOf(docs, newCapacity);
+		scores = Arrays.copyOf(scores, newCapacity);
+		matched = Arrays.copyOf(matched, newCapacity);
+		touched = Arrays.copyOf(touched, newCapacity);
+	}
+
+	/**
+	 * An indexed question.
+	 */
+	private static final class Doc {
+
+		/** The question ID. */
+		private final int questionId;
+
+		/** The theme ID. */
+		private final int themeId;
+
+		/** The title, for the results. */
+		private final String title;
+
+		/** The distinct terms, to remove the question from their posting lists. */
+		private final String[] terms;
+
+		/** Length normalization factor: 1 / sqrt(sum of term weights). */
+		private final float norm;
+
+		/**
+		 * Creates an indexed question.
+		 *
+		 * @param questionId the question ID
+		 * @param themeId    the theme ID
+		 * @param title      the title
+		 * @param terms      the distinct terms
+		 * @param norm       the length normalization factor
+		 */
+		private Doc(int questionId, int themeId, String title, Set<String> terms, float norm) {
+			this.questionId = questionId;
+			this.themeId = themeId;
+			this.title = title;
+			this.terms = terms.toArray(new String[0]);
+			this.norm = norm;
+		}
+	}
+
+	/**
+	 * The slots of the questions containing a term, with the weighted term
+	 * frequency per question, in primitive arrays.
+	 */
+	private static final class Postings {
+
+		/** Slots; only the first {@link #size} are valid. */
+		private int[] slots = new int[4];
+
+		/** Weighted term frequency per slot. */
+		private float[] weights = new float[4];
+
+		/** Number of valid entries. */
+		private int size;
+
+		/**
+		 * Appends a slot.
+		 *
+		 * @param slot   the slot
+		 * @param weight the weighted term frequency
+		 */
+		private void add(int slot, float weight) {
+			if (size == slots.length) {
+				slots = Arrays.copyOf(slots, size * 2);
+				weights = Arrays.copyOf(weights, size * 2);
+			}
+			slots[size] = slot;
+			weights[size] = weight;
+			size++;
+		}
+
+		/**
+		 * Removes a slot by swapping the last entry into its place.
+		 *
+		 * @param slot the slot
+		 */
+		private void remove(int slot) {
+			for (int i = 0; i < size; i++) {
+				if (slots[i] == slot) {
+					size--;
+					slots[i] = slots[size];
+					weights[i] = weights[size];
+					return;
+				}
+			}
+		}
+	}
+}
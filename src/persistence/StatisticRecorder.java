@@ -0,0 +1,414 @@
+package persistence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import persistence.DAO.StatisticDAO;
+import quizLogic.QuizStatistic;
+
+/**
+ * {@code StatisticRecorder} records quiz attempts asynchronously (write-behind)
+ * so that the UI never waits for the database when an answer is saved.
+ *
+ * <p>
+ * Attempts are put into a bounded in-memory queue. A background flusher thread
+ * collects them into batches and writes each batch with a single
+ * {@link StatisticDAO#insertBatch(List)} call. A batch is written as soon as it
+ * reaches the configured batch size or the oldest queued attempt has waited
+ * for the flush interval, whichever comes first.
+ * </p>
+ *
+ * <p>
+ * <b>Back-pressure:</b> when the queue is full,
+ * {@link #record(QuizStatistic)} returns {@code false} immediately, while
+ * {@link #record(QuizStatistic, long, TimeUnit)} blocks the producer until
+ * space becomes available or the timeout expires.
+ * </p>
+ *
+ * <p>
+ * <b>Failures:</b> a failed batch is retried with an increasing delay. If it
+ * keeps failing, typically because of a single bad row such as an attempt at a
+ * question deleted in the meantime, it is written in halves, recursively, so
+ * that only the offending attempts are dropped and logged.
+ * </p>
+ *
+ * <p>
+ * {@link #flush()} synchronously persists everything recorded so far, and
+ * {@link #close()} flushes the remaining attempts and stops the flusher.
+ * Attempts are only taken from the queue while the write lock is held, so a
+ * flush never misses an attempt the flusher has taken but not yet written.
+ * </p>
+ *
+ * @author Oleg Kapirulya
+ */
+public class StatisticRecorder implements AutoCloseable {
+
+	/** Default maximum number of queued attempts. */
+	public static final int DEFAULT_CAPACITY = 10_000;
+
+	/** Default maximum number of attempts written per batch. */
+	public static final int DEFAULT_BATCH_SIZE = 500;
+
+	/** Default maximum time an attempt waits in the queue. */
+	public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1_000;
+
+	/** Number of attempts to write a failed batch before splitting it. */
+	private static final int MAX_ATTEMPTS = 3;
+
+	/** Delay before the first retry of a failed batch; doubled per retry. */
+	private static final long RETRY_DELAY_MILLIS = 200;
+
+	/**
+	 * Maximum number of writes spent splitting one failed batch. Isolating a bad
+	 * row of a full batch takes about 2·log2(batch size) writes; the limit stops
+	 * the splitting when the database itself is unavailable.
+	 */
+	private static final int MAX_SPLIT_WRITES = 64;
+
+	/** Log of dropped attempts. */
+	private static final Logger LOG = Logger.getLogger("quiz.statistics");
+
+	/** Maximum time {@link #close()} waits for the flusher to finish. */
+	private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+	/** DAO used to write the batches. */
+	private final StatisticDAO statisticDAO;
+
+	/** Queue of attempts waiting to be written. */
+	private final BlockingQueue<QuizStatistic> queue;
+
+	/** Maximum batch size. */
+	private final int batchSize;
+
+	/** Maximum time in milliseconds an attempt waits before being flushed. */
+	private final long flushIntervalMillis;
+
+	/**
+	 * Held while attempts are taken from the queue and written, so
+	 * {@link #flush()} sees no gap.
+	 */
+	private final ReentrantLock writeLock = new ReentrantLock();
+
+	/**
+	 * One permit per queued attempt, at least; wakes the flusher without taking
+	 * an attempt from the queue outside the write lock.
+	 */
+	private final Semaphore available = new Semaphore(0);
+
+	/** Background thread writing the batches. */
+	private final Thread flusher;
+
+	/** Number of attempts written to the database. */
+	private final LongAdder writtenCount = new LongAdder();
+
+	/** Number of attempts rejected because the queue was full. */
+	private final LongAdder rejectedCount = new LongAdder();
+
+	/** Number of attempts lost because their batch could not be written. */
+	private final LongAdder failedCount = new LongAdder();
+
+	/** Cleared by {@link #close()}. */
+	private volatile boolean running = true;
+
+	/**
+	 * Creates a recorder with default capacity, batch size and flush interval.
+	 *
+	 * @param statisticDAO the DAO to write to
+	 */
+	public StatisticRecorder(StatisticDAO statisticDAO) {
+		this(statisticDAO, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL_MILLIS);
+	}
+
+	/**
+	 * Creates a recorder and starts its flusher thread.
+	 *
+	 * @param statisticDAO        the DAO to write to
+	 * @param capacity            maximum number of queued attempts
+	 * @param batchSize           maximum number of attempts per batch
+	 * @param flushIntervalMillis maximum time an attempt waits in the queue
+	 */
+	public StatisticRecorder(StatisticDAO statisticDAO, int capacity, int batchSize, long flushIntervalMillis) {
+		this.statisticDAO = statisticDAO;
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.batchSize = batchSize;
+		this.flushIntervalMillis = flushIntervalMillis;
+
+		flusher = new Thread(this::runFlusher, "StatisticRecorder-flusher");
+		flusher.setDaemon(true);
+		flusher.start();
+	}
+
+	/**
+	 * Queues an attempt without blocking.
+	 *
+	 * @param statistic the attempt to record
+	 * @return {@code true} if queued, {@code false} if the queue is full or the
+	 *         recorder is closed
+	 */
+	public boolean record(QuizStatistic statistic) {
+		if (running && queue.offer(statistic)) {
+			available.release();
+			return true;
+		}
+		rejectedCount.increment();
+		return false;
+	}
+
+	/**
+	 * Queues an attempt, waiting for free space if the queue is full.
+	 *
+	 * @param statistic the attempt to record
+	 * @param timeout   maximum time to wait
+	 * @param unit      unit of {@code timeout}
+	 * @return {@code true} if queued, {@code false} if the timeout expired or the
+	 *         recorder is closed
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public boolean record(QuizStatistic statistic, long timeout, TimeUnit unit) throws InterruptedException {
+		if (running && queue.offer(statistic, timeout, unit)) {
+			available.release();
+			return true;
+		}
+		rejectedCount.increment();
+		return false;
+	}
+
+	/**
+	 * Writes all queued attempts on the calling thread. When this method returns,
+	 * every attempt recorded before the call has been persisted (or counted as
+	 * failed).
+	 */
+	public void flush() {
+		whilePaused(() -> {
+			writeAll(drain());
+			return null;
+		});
+	}
+
+	/**
+	 * Runs a task while the flusher is paused: no queued attempt is written by
+	 * another thread until the task returns. Together with {@link #drain()} and
+	 * {@link #writeAll(List)} this lets a caller read the {@code statistic} table
+	 * consistently with the attempts it recorded, see
+	 * {@link StatisticsColumnStore}.
+	 *
+	 * @param <T>  the result type
+	 * @param task the task
+	 * @return the result of the task
+	 */
+	public <T> T whilePaused(Supplier<T> task) {
+		writeLock.lock();
+		try {
+			return task.get();
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Takes all queued attempts from the queue. The caller is responsible for
+	 * writing them with {@link #writeAll(List)}.
+	 *
+	 * @return the attempts, oldest first
+	 */
+	public List<QuizStatistic> drain() {
+		writeLock.lock();
+		try {
+			List<QuizStatistic> attempts = new ArrayList<>(queue.size());
+			queue.drainTo(attempts);
+			return attempts;
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Writes attempts on the calling thread in batches, with the same retries as
+	 * the flusher.
+	 *
+	 * @param attempts the attempts, e.g. from {@link #drain()}
+	 */
+	public void writeAll(List<QuizStatistic> attempts) {
+		writeLock.lock();
+		try {
+			for (int from = 0; from < attempts.size(); from += batchSize) {
+				write(attempts.subList(from, Math.min(from + batchSize, attempts.size())));
+			}
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Stops accepting attempts, writes the remaining ones and stops the flusher.
+	 */
+	@Override
+	public void close() {
+		running = false;
+		flusher.interrupt();
+		try {
+			flusher.join(SHUTDOWN_TIMEOUT_MILLIS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		flush();
+	}
+
+	/**
+	 * Main loop of the flusher thread.
+	 */
+	private void runFlusher() {
+		List<QuizStatistic> batch = new ArrayList<>(batchSize);
+		while (running) {
+			try {
+				available.acquire();
+			} catch (InterruptedException e) {
+				continue; // close() interrupts to stop; the loop re-checks running
+			}
+
+			writeLock.lock();
+			try {
+				// The attempt may have been taken by a flush meanwhile
+				QuizStatistic first = queue.poll();
+				if (first == null)
+					continue;
+				batch.add(first);
+				try {
+					collectBatch(batch);
+				} catch (InterruptedException e) {
+					// closing: write what was collected, close() flushes the rest
+				}
+				write(batch);
+				// Permits of attempts taken along with the first one are obsolete
+				available.drainPermits();
+				if (!queue.isEmpty())
+					available.release();
+			} finally {
+				batch.clear();
+				writeLock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Fills the batch until it is full or the flush interval has passed since the
+	 * first attempt was taken.
+	 *
+	 * @param batch the batch, already containing the first attempt
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	private void collectBatch(List<QuizStatistic> batch) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+		while (batch.size() < batchSize) {
+			if (queue.drainTo(batch, batchSize - batch.size()) > 0)
+				continue;
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0)
+				return;
+			QuizStatistic next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+			if (next == null)
+				return;
+			batch.add(next);
+		}
+	}
+
+	/**
+	 * Writes one batch, retrying with an increasing delay before splitting it.
+	 * Called with the write lock held.
+	 *
+	 * @param batch the attempts to write
+	 */
+	private void write(List<QuizStatistic> batch) {
+		if (batch.isEmpty())
+			return;
+		for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+			if (statisticDAO.insertBatch(batch)) {
+				writtenCount.add(batch.size());
+				return;
+			}
+			if (attempt < MAX_ATTEMPTS && !sleep(RETRY_DELAY_MILLIS << (attempt - 1)))
+				break; // closing
+		}
+		int[] budget = { MAX_SPLIT_WRITES };
+		writeSplit(batch, budget);
+	}
+
+	/**
+	 * Writes a persistently failing batch in halves, recursively, so that only
+	 * the rows that fail on their own are dropped.
+	 *
+	 * @param batch  the failed attempts
+	 * @param budget remaining number of writes; once used up, the remaining
+	 *               attempts are dropped
+	 */
+	private void writeSplit(List<QuizStatistic> batch, int[] budget) {
+		if (batch.size() == 1 || budget[0] <= 0) {
+			failedCount.add(batch.size());
+			if (batch.size() == 1) {
+				QuizStatistic statistic = batch.get(0);
+				LOG.log(Level.WARNING, "Dropped the attempt at question {0} of {1} after failed writes.",
+						new Object[] { statistic.getQuestionId(), statistic.getDate() });
+			} else {
+				LOG.log(Level.WARNING, "Dropped {0} attempts after " + MAX_SPLIT_WRITES
+						+ " failed writes; is the database available?", batch.size());
+			}
+			return;
+		}
+		int middle = batch.size() / 2;
+		for (List<QuizStatistic> half : List.of(batch.subList(0, middle), batch.subList(middle, batch.size()))) {
+			budget[0]--;
+			if (budget[0] >= 0 && statisticDAO.insertBatch(half)) {
+				writtenCount.add(half.size());
+			} else {
+				writeSplit(half, budget);
+			}
+		}
+	}
+
+	/**
+	 * Waits before a retry.
+	 *
+	 * @param millis the delay
+	 * @return {@code false} if interrupted, i.e. the recorder is closing
+	 */
+	private static boolean sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	// ---------- Metrics ----------
+
+	/** @return number of attempts currently waiting in the queue */
+	public int getQueuedCount() {
+		return queue.size();
+	}
+
+	/** @return number of attempts written to the database */
+	public long getWrittenCount() {
+		return writtenCount.sum();
+	}
+
+	/** @return number of attempts rejected because the queue was full */
+	public long getRejectedCount() {
+		return rejectedCount.sum();
+	}
+
+	/** @return number of attempts lost because their batch failed */
+	public long getFailedCount() {
+		return failedCount.sum();
+	}
+}
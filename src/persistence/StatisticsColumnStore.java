@@ -0,0 +1,766 @@
+package persistence;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.WeekFields;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+import persistence.DAO.DailyStatisticHandler;
+import persistence.DAO.StatisticFilter;
+import persistence.DAO.StatisticRowHandler;
+import quizLogic.StatisticAggregate;
+
+/**
+ * {@code StatisticsColumnStore} is a columnar in-memory copy of the
+ * {@code statistic_daily} rollup, used to answer the accuracy charts without a
+ * database round trip.
+ *
+ * <p>
+ * Every question and day with attempts occupies one row of four {@code int[]}
+ * columns: the question ID, the day (epoch day), the number of attempts and the
+ * number of correct attempts, i.e. 16 bytes per question and day regardless of
+ * how often the question was answered that day. The rows are sorted by day, so
+ * a time range is located by binary search and the group-bys by day and week
+ * walk the rows in order:
+ * </p>
+ * <ul>
+ * <li>{@link #aggregate(StatisticFilter)} counts all matching attempts.</li>
+ * <li>{@link #aggregateByDay(StatisticFilter)},
+ * {@link #aggregateByWeek(StatisticFilter, WeekFields)} and
+ * {@link #aggregateByTheme(StatisticFilter)} return the same results as the
+ * aggregate queries of {@link persistence.DAO.StatisticDAO}.</li>
+ * </ul>
+ * Time bounds of a filter select whole days, like the rollup queries of the
+ * DAO: the day containing {@code from} is the first day counted, the day
+ * containing {@code to} the first day not counted. Bounds at midnight, as used
+ * by the charts, are therefore exact.
+ * The scans allocate nothing per row: the filter is translated once into
+ * primitive criteria (bit sets of the selected question and theme IDs), period
+ * boundaries are computed only when a row crosses into the next period and
+ * the per-theme counters are reused between queries.
+ *
+ * <p>
+ * The store is loaded lazily on first use with a single streaming query over
+ * the rollup and kept up to date by {@link DBDataManager}: recorded attempts
+ * are counted via {@link #append(int, boolean, long)}, saved questions are registered via
+ * {@link #putQuestion(int, int)}, and deletions, which cascade to the recorded
+ * attempts, remove the rows of the deleted questions via
+ * {@link #removeQuestion(int)} and {@link #removeTheme(int)}.
+ * </p>
+ *
+ * <p>
+ * All methods are thread-safe. The load runs without the store lock: the
+ * columns are built aside and swapped in under a short lock, so updates never
+ * wait for the database. Updates arriving during a load are replayed on the
+ * new columns. Which attempts the load itself must stream is fixed by the
+ * {@link RowLoader}, see {@link RowLoader#load(Runnable, StatisticRowHandler)}.
+ * </p>
+ *
+ * @author Oleg Kapirulya
+ */
+public class StatisticsColumnStore {
+
+	/**
+	 * Streams the daily counts of the recorded attempts into a load of the store.
+	 */
+	@FunctionalInterface
+	public interface RowLoader {
+
+		/**
+		 * Passes the attempts per question and day to the handler. {@code begin}
+		 * must be run once, before the first row is read: the load counts exactly
+		 * the attempts recorded before it, while updates of the store from then on
+		 * are replayed after the load. The loader therefore has to run
+		 * {@code begin} atomically with respect to the calls of
+		 * {@link #append(int, boolean, long)} for attempts it has not yet
+		 * persisted.
+		 *
+		 * @param begin   marks the start of the load
+		 * @param handler receives the counts
+		 * @return number of rows passed to the handler
+		 */
+		long load(Runnable begin, DailyStatisticHandler handler);
+	}
+
+	/** Initial capacity of the columns. */
+	private static final int INITIAL_CAPACITY = 1_024;
+
+	/** Loads question IDs grouped by theme ID, see {@code QuestionDAO}. */
+	private final Supplier<Map<Integer, int[]>> questionLoader;
+
+	/** Streams the daily counts of the attempts, see {@code StatisticDAO}. */
+	private final RowLoader rowLoader;
+
+	/** Time zone the days and weeks are computed in. */
+	private final ZoneId zone;
+
+	/** Held during a load, so that concurrent queries load only once. */
+	private final Object loadLock = new Object();
+
+	/** The attempts per question and day, sorted by day. */
+	private Columns rows = new Columns();
+
+	/** Theme ID per question ID; 0 where the question is unknown. */
+	private int[] themeOf = new int[0];
+
+	/** Reused per-theme attempt counters of {@link #aggregateByTheme}. */
+	private int[] themeTotals = new int[0];
+
+	/** Reused per-theme correct counters of {@link #aggregateByTheme}. */
+	private int[] themeCorrect = new int[0];
+
+	/** Whether the store has been loaded. */
+	private boolean loaded;
+
+	/** Whether a load has begun; updates are then collected in {@link #pending}. */
+	private boolean loading;
+
+	/** Updates received during the running load, in order. */
+	private final List<Runnable> pending = new ArrayList<>();
+
+	/** Incremented by {@link #invalidate()}; a load begun before is discarded. */
+	private long generation;
+
+	/**
+	 * Creates a store that is loaded on first use from individual attempts
+	 * instead of the daily rollup, each attempt counted on the day it was
+	 * recorded.
+	 *
+	 * @param questionLoader supplies all question IDs grouped by theme ID
+	 * @param rowLoader      passes every recorded attempt to the given handler;
+	 *                       only suitable if no attempts are appended while it
+	 *                       runs, e.g. for a static data set
+	 */
+	public StatisticsColumnStore(Supplier<Map<Integer, int[]>> questionLoader,
+			ToLongFunction<StatisticRowHandler> rowLoader) {
+		this.questionLoader = questionLoader;
+		this.zone = ZoneId.systemDefault();
+		this.rowLoader = (begin, handler) -> {
+			begin.run();
+			return rowLoader.applyAsLong((id, questionId, isCorrect, millis) -> handler.accept(questionId,
+					dayOf(millis), 1, isCorrect ? 1 : 0));
+		};
+	}
+
+	/**
+	 * Creates a store that is loaded on first use.
+	 *
+	 * @param questionLoader supplies all question IDs grouped by theme ID
+	 * @param rowLoader      streams the daily counts of the attempts of a load
+	 */
+	public StatisticsColumnStore(Supplier<Map<Integer, int[]>> questionLoader, RowLoader rowLoader) {
+		this.questionLoader = questionLoader;
+		this.rowLoader = rowLoader;
+		this.zone = ZoneId.systemDefault();
+	}
+
+	/**
+	 * Counts a recorded attempt on its day. Attempts are normally recorded in
+	 * time order and only touch the rows of the last day; an older attempt is
+	 * counted on its day as well.
+	 *
+	 * @param questionId  the question ID
+	 * @param isCorrect   whether the answer was correct
+	 * @param epochMillis time of the attempt
+	 */
+	public synchronized void append(int questionId, boolean isCorrect, long epochMillis) {
+		int day = dayOf(epochMillis);
+		update(() -> rows.count(questionId, day, isCorrect));
+	}
+
+	/**
+	 * Registers the theme of a new or moved question.
+	 *
+	 * @param questionId the question ID
+	 * @param themeId    the ID of the question's theme
+	 */
+	public synchronized void putQuestion(int questionId, int themeId) {
+		if (questionId <= 0)
+			return;
+		update(() -> {
+			if (questionId >= themeOf.length)
+				themeOf = Arrays.copyOf(themeOf, Math.max(questionId + 1, themeOf.length * 2));
+			themeOf[questionId] = themeId;
+		});
+	}
+
+	/**
+	 * Removes a deleted question and its attempts.
+	 *
+	 * @param questionId the question ID
+	 */
+	public synchronized void removeQuestion(int questionId) {
+		update(() -> {
+			rows.removeIf(id -> id == questionId);
+			if (questionId > 0 && questionId < themeOf.length)
+				themeOf[questionId] = 0;
+		});
+	}
+
+	/**
+	 * Removes the questions of a deleted theme and their attempts.
+	 *
+	 * @param themeId the theme ID
+	 */
+	public synchronized void removeTheme(int themeId) {
+		if (themeId <= 0)
+			return;
+		update(() -> {
+			rows.removeIf(id -> themeOf(id) == themeId);
+			for (int id = 0; id < themeOf.length; id++) {
+				if (themeOf[id] == themeId)
+					themeOf[id] = 0;
+			}
+		});
+	}
+
+	/**
+	 * Drops the store; it is reloaded on next use. A load in progress is
+	 * discarded.
+	 */
+	public synchronized void invalidate() {
+		generation++;
+		loaded = false;
+		loading = false;
+		pending.clear();
+		rows = new Columns();
+		themeOf = new int[0];
+	}
+
+	/** @return number of counted attempts */
+	public long size() {
+		ensureLoaded();
+		synchronized (this) {
+			long attempts = 0;
+			for (int row = 0; row < rows.size; row++) {
+				attempts += rows.attempts[row];
+			}
+			return attempts;
+		}
+	}
+
+	/**
+	 * Counts the attempts matching a filter.
+	 *
+	 * @param filter restricts which attempts are counted; {@code null} for all
+	 * @return the aggregate
+	 */
+	public StatisticAggregate aggregate(StatisticFilter filter) {
+		ensureLoaded();
+		synchronized (this) {
+			Criteria criteria = new Criteria(filter);
+			int total = 0;
+			int correctCount = 0;
+			for (int row = criteria.firstRow; row < criteria.endRow; row++) {
+				if (criteria.matches(row)) {
+					total += criteria.attempts(row);
+					correctCount += criteria.correct(row);
+				}
+			}
+			return new StatisticAggregate(total, correctCount);
+		}
+	}
+
+	/**
+	 * Counts attempts and correct attempts per theme.
+	 *
+	 * @param filter restricts which attempts are counted; {@code null} for all
+	 * @return map from theme ID to its aggregate, ordered by theme ID; themes
+	 *         without matching attempts have no entry
+	 */
+	public Map<Integer, StatisticAggregate> aggregateByTheme(StatisticFilter filter) {
+		ensureLoaded();
+		synchronized (this) {
+			Criteria criteria = new Criteria(filter);
+			int maxThemeId = 0;
+			for (int themeId : themeOf) {
+				maxThemeId = Math.max(maxThemeId, themeId);
+			}
+			if (themeTotals.length <= maxThemeId) {
+				themeTotals = new int[maxThemeId + 1];
+				themeCorrect = new int[maxThemeId + 1];
+			} else {
+				Arrays.fill(themeTotals, 0);
+				Arrays.fill(themeCorrect, 0);
+			}
+
+			int[] questionIds = rows.questionIds;
+			for (int row = criteria.firstRow; row < criteria.endRow; row++) {
+				int themeId = themeOf(questionIds[row]);
+				if (themeId != 0 && criteria.matches(row)) {
+					themeTotals[themeId] += criteria.attempts(row);
+					themeCorrect[themeId] += criteria.correct(row);
+				}
+			}
+
+			Map<Integer, StatisticAggregate> result = new LinkedHashMap<>();
+			for (int themeId = 1; themeId <= maxThemeId; themeId++) {
+				if (themeTotals[themeId] > 0)
+					result.put(themeId, new StatisticAggregate(themeTotals[themeId], themeCorrect[themeId]));
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Counts attempts and correct attempts per calendar day.
+	 *
+	 * @param filter restricts which attempts are counted; {@code null} for all
+	 * @return map from day to its aggregate, ordered by day; days without matching
+	 *         attempts have no entry
+	 */
+	public Map<LocalDate, StatisticAggregate> aggregateByDay(StatisticFilter filter) {
+		return aggregateByPeriod(filter, day -> day, start -> start.plusDays(1));
+	}
+
+	/**
+	 * Counts attempts and correct attempts per calendar week.
+	 *
+	 * @param filter     restricts which attempts are counted; {@code null} for all
+	 * @param weekFields week definition (first day of week) to group by
+	 * @return map from the first day of each week to its aggregate, ordered by
+	 *         week; weeks without matching attempts have no entry
+	 */
+	public Map<LocalDate, StatisticAggregate> aggregateByWeek(StatisticFilter filter, WeekFields weekFields) {
+		return aggregateByPeriod(filter, day -> day.with(weekFields.dayOfWeek(), 1), start -> start.plusWeeks(1));
+	}
+
+	/**
+	 * Groups the matching attempts into consecutive periods. As the rows are
+	 * sorted by day, each period is a contiguous run of rows; its end is computed
+	 * only when the first row beyond the current period is reached.
+	 *
+	 * @param filter      restricts which attempts are counted
+	 * @param periodStart maps a day to the first day of its period
+	 * @param nextPeriod  maps the first day of a period to that of the next one
+	 * @return map from the first day of each period to its aggregate
+	 */
+	private Map<LocalDate, StatisticAggregate> aggregateByPeriod(StatisticFilter filter,
+			UnaryOperator<LocalDate> periodStart, UnaryOperator<LocalDate> nextPeriod) {
+		ensureLoaded();
+		synchronized (this) {
+			Criteria criteria = new Criteria(filter);
+			int[] days = rows.days;
+			Map<LocalDate, StatisticAggregate> result = new LinkedHashMap<>();
+			LocalDate period = null;
+			long periodEnd = Long.MIN_VALUE;
+			int total = 0;
+			int correctCount = 0;
+			for (int row = criteria.firstRow; row < criteria.endRow; row++) {
+				if (!criteria.matches(row))
+					continue;
+				if (days[row] >= periodEnd) {
+					if (total > 0)
+						result.put(period, new StatisticAggregate(total, correctCount));
+					period = periodStart.apply(LocalDate.ofEpochDay(days[row]));
+					periodEnd = nextPeriod.apply(period).toEpochDay();
+					total = 0;
+					correctCount = 0;
+				}
+				total += criteria.attempts(row);
+				correctCount += criteria.correct(row);
+			}
+			if (total > 0)
+				result.put(period, new StatisticAggregate(total, correctCount));
+			return result;
+		}
+	}
+
+	/**
+	 * Applies an update to the loaded store, or keeps it for the running load.
+	 * Without either, the update is covered by the next load. Called with the
+	 * store lock held.
+	 *
+	 * @param update the update
+	 */
+	private void update(Runnable update) {
+		if (loading)
+			pending.add(update);
+		else if (loaded)
+			update.run();
+	}
+
+	/**
+	 * Returns the day a point in time falls on.
+	 *
+	 * @param epochMillis the point in time in epoch milliseconds
+	 * @return the epoch day in the store's time zone
+	 */
+	private int dayOf(long epochMillis) {
+		return (int) Instant.ofEpochMilli(epochMillis).atZone(zone).toLocalDate().toEpochDay();
+	}
+
+	/**
+	 * Returns the theme of a question.
+	 *
+	 * @param questionId the question ID
+	 * @return the theme ID, or 0 if unknown
+	 */
+	private int themeOf(int questionId) {
+		return questionId > 0 && questionId < themeOf.length ? themeOf[questionId] : 0;
+	}
+
+	/**
+	 * Loads the questions and the daily counts if not done yet. The columns are built
+	 * without the store lock and swapped in together with the updates received
+	 * in the meantime; a load overtaken by {@link #invalidate()} is repeated.
+	 */
+	private void ensureLoaded() {
+		synchronized (this) {
+			if (loaded)
+				return;
+		}
+		synchronized (loadLock) {
+			while (true) {
+				long loadGeneration;
+				synchronized (this) {
+					if (loaded)
+						return;
+					loadGeneration = generation;
+				}
+
+				Columns loadedRows = new Columns();
+				rowLoader.load(() -> beginLoad(loadGeneration), (questionId, day, attempts,
+						correct) -> loadedRows.add(questionId, (int) day, attempts, correct));
+				loadedRows.sortByDay();
+				// Loaded after the attempts began: questions saved meanwhile are replayed
+				int[] loadedThemes = loadThemes();
+
+				synchronized (this) {
+					if (loadGeneration == generation) {
+						rows = loadedRows;
+						themeOf = loadedThemes;
+						loaded = true;
+						loading = false;
+						for (Runnable update : pending) {
+							update.run();
+						}
+						pending.clear();
+						return;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Marks the start of a load: updates from now on are replayed after it.
+	 *
+	 * @param loadGeneration the generation the load belongs to
+	 */
+	private synchronized void beginLoad(long loadGeneration) {
+		if (loadGeneration != generation)
+			return;
+		loading = true;
+		pending.clear();
+	}
+
+	/**
+	 * Loads the theme of every question.
+	 *
+	 * @return theme ID per question ID
+	 */
+	private int[] loadThemes() {
+		int maxId = 0;
+		Map<Integer, int[]> idsByTheme = questionLoader.get();
+		for (int[] ids : idsByTheme.values()) {
+			for (int id : ids) {
+				maxId = Math.max(maxId, id);
+			}
+		}
+		int[] themes = new int[maxId + 1];
+		for (Map.Entry<Integer, int[]> entry : idsByTheme.entrySet()) {
+			for (int id : entry.getValue()) {
+				themes[id] = entry.getKey();
+			}
+		}
+		return themes;
+	}
+
+	/**
+	 * The four columns of the attempts per question and day. Built by a load
+	 * without the store lock, accessed under the store lock once swapped in.
+	 */
+	private static final class Columns {
+
+		/** Question ID per row. */
+		private int[] questionIds = new int[0];
+
+		/** Day per row, as epoch day. */
+		private int[] days = new int[0];
+
+		/** Number of attempts per row. */
+		private int[] attempts = new int[0];
+
+		/** Number of correct attempts per row. */
+		private int[] correct = new int[0];
+
+		/** Number of valid rows. */
+		private int size;
+
+		/** Whether the rows are sorted by day. */
+		private boolean sorted = true;
+
+		/**
+		 * Adds a row at the end, e.g. while loading in arbitrary order.
+		 *
+		 * @param questionId the question ID
+		 * @param day        the epoch day
+		 * @param attempts   number of attempts
+		 * @param correct    number of correct attempts
+		 */
+		private void add(int questionId, int day, int attempts, int correct) {
+			ensureCapacity(size + 1);
+			if (size > 0 && day < days[size - 1])
+				sorted = false;
+			questionIds[size] = questionId;
+			days[size] = day;
+			this.attempts[size] = attempts;
+			this.correct[size] = correct;
+			size++;
+		}
+
+		/**
+		 * Counts an attempt in the row of its question and day, which is inserted
+		 * at the end of the day's rows if missing.
+		 *
+		 * @param questionId the question ID
+		 * @param day        the epoch day
+		 * @param isCorrect  whether the answer was correct
+		 */
+		private void count(int questionId, int day, boolean isCorrect) {
+			int end = size > 0 && day < days[size - 1] ? firstRowAtOrAfter(day + 1) : size;
+			int row = end - 1;
+			while (row >= 0 && days[row] == day && questionIds[row] != questionId) {
+				row--;
+			}
+			if (row < 0 || days[row] != day) {
+				row = end;
+				ensureCapacity(size + 1);
+				if (row < size) {
+					System.arraycopy(questionIds, row, questionIds, row + 1, size - row);
+					System.arraycopy(days, row, days, row + 1, size - row);
+					System.arraycopy(attempts, row, attempts, row + 1, size - row);
+					System.arraycopy(correct, row, correct, row + 1, size - row);
+				}
+				questionIds[row] = questionId;
+				days[row] = day;
+				attempts[row] = 0;
+				correct[row] = 0;
+				size++;
+			}
+			attempts[row]++;
+			if (isCorrect)
+				correct[row]++;
+		}
+
+		/**
+		 * Removes the rows of some questions, keeping the order of the others.
+		 *
+		 * @param question selects the question IDs whose rows are removed
+		 */
+		private void removeIf(IntPredicate question) {
+			int kept = 0;
+			for (int row = 0; row < size; row++) {
+				if (question.test(questionIds[row]))
+					continue;
+				if (kept != row) {
+					questionIds[kept] = questionIds[row];
+					days[kept] = days[row];
+					attempts[kept] = attempts[row];
+					correct[kept] = correct[row];
+				}
+				kept++;
+			}
+			size = kept;
+		}
+
+		/**
+		 * Finds the first row on or after a day, by binary search.
+		 *
+		 * @param day the epoch day
+		 * @return the row, or {@link #size} if all rows are earlier
+		 */
+		private int firstRowAtOrAfter(long day) {
+			int low = 0;
+			int high = size;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (days[mid] < day) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+		/**
+		 * Grows the columns to hold at least the given number of rows.
+		 *
+		 * @param capacity the required number of rows
+		 */
+		private void ensureCapacity(int capacity) {
+			if (capacity <= questionIds.length)
+				return;
+			int newCapacity = Math.max(capacity, Math.max(INITIAL_CAPACITY, questionIds.length * 2));
+			questionIds = Arrays.copyOf(questionIds, newCapacity);
+			days = Arrays.copyOf(days, newCapacity);
+			attempts = Arrays.copyOf(attempts, newCapacity);
+			correct = Arrays.copyOf(correct, newCapacity);
+		}
+
+		/**
+		 * Sorts the rows by day, if needed, with a stable bottom-up merge sort over
+		 * all four columns.
+		 */
+		private void sortByDay() {
+			if (sorted)
+				return;
+			int[][] columns = { days, questionIds, attempts, correct };
+			int[][] tmp = new int[columns.length][size];
+			for (int width = 1; width < size; width *= 2) {
+				int[] keys = columns[0];
+				for (int low = 0; low < size; low += 2 * width) {
+					int mid = Math.min(low + width, size);
+					int high = Math.min(low + 2 * width, size);
+					int left = low;
+					int right = mid;
+					for (int out = low; out < high; out++) {
+						int from = left < mid && (right >= high || keys[left] <= keys[right]) ? left++ : right++;
+						for (int c = 0; c < columns.length; c++) {
+							tmp[c][out] = columns[c][from];
+						}
+					}
+				}
+				int[][] swap = columns;
+				columns = tmp;
+				tmp = swap;
+			}
+			days = columns[0];
+			questionIds = columns[1];
+			attempts = columns[2];
+			correct = columns[3];
+			sorted = true;
+		}
+	}
+
+	/**
+	 * A {@link StatisticFilter} translated into primitive criteria over the rows:
+	 * the row range of the days within the time bounds and bit sets of the
+	 * selected questions and themes. Created with the store lock held.
+	 */
+	private final class Criteria {
+
+		/** First row on the first day within the time bounds. */
+		private final int firstRow;
+
+		/** Row after the last row on the days within the time bounds. */
+		private final int endRow;
+
+		/** Required question ID, or 0 for any. */
+		private final int questionId;
+
+		/** Allowed question IDs, or {@code null} for any. */
+		private final BitSet questions;
+
+		/** Required theme ID, or 0 for any. */
+		private final int themeId;
+
+		/** Allowed theme IDs, or {@code null} for any. */
+		private final BitSet themes;
+
+		/** Required correct flag: 1 correct, 0 wrong, -1 any. */
+		private final int correctFlag;
+
+		/**
+		 * Translates a filter.
+		 *
+		 * @param filter the filter, may be {@code null}
+		 */
+		private Criteria(StatisticFilter filter) {
+			if (filter == null)
+				filter = new StatisticFilter();
+			firstRow = filter.getFrom() == null ? 0 : rows.firstRowAtOrAfter(dayOf(filter.getFrom().getTime()));
+			endRow = filter.getTo() == null ? rows.size : rows.firstRowAtOrAfter(dayOf(filter.getTo().getTime()));
+			questionId = filter.getQuestionId() == null ? 0 : filter.getQuestionId();
+			questions = toBitSet(filter.getQuestionIds());
+			themeId = filter.getThemeId() == null ? 0 : filter.getThemeId();
+			themes = toBitSet(filter.getThemeIds());
+			correctFlag = filter.getCorrect() == null ? -1 : filter.getCorrect() ? 1 : 0;
+		}
+
+		/**
+		 * Checks the question and theme criteria for a row within the time bounds.
+		 *
+		 * @param row the row
+		 * @return true if the row matches
+		 */
+		private boolean matches(int row) {
+			int id = rows.questionIds[row];
+			if (questionId != 0 && id != questionId)
+				return false;
+			if (questions != null && (id < 0 || !questions.get(id)))
+				return false;
+			if (themeId != 0 || themes != null) {
+				int theme = themeOf(id);
+				if (themeId != 0 && theme != themeId)
+					return false;
+				if (themes != null && !themes.get(theme))
+					return false;
+			}
+			return true;
+		}
+
+		/**
+		 * Returns the attempts of a matching row that meet the correct criterion.
+		 *
+		 * @param row the row
+		 * @return number of attempts
+		 */
+		private int attempts(int row) {
+			if (correctFlag < 0)
+				return rows.attempts[row];
+			return correctFlag == 1 ? rows.correct[row] : rows.attempts[row] - rows.correct[row];
+		}
+
+		/**
+		 * Returns the correct attempts of a matching row that meet the correct
+		 * criterion.
+		 *
+		 * @param row the row
+		 * @return number of correct attempts
+		 */
+		private int correct(int row) {
+			return correctFlag == 0 ? 0 : rows.correct[row];
+		}
+
+		/**
+		 * Converts a set of positive IDs into a bit set.
+		 *
+		 * @param ids the IDs, may be {@code null}
+		 * @return the bit set, or {@code null} if {@code ids} is null
+		 */
+		private BitSet toBitSet(Set<Integer> ids) {
+			if (ids == null)
+				return null;
+			BitSet bits = new BitSet();
+			for (Integer id : ids) {
+				if (id != null && id > 0)
+					bits.set(id);
+			}
+			return bits;
+		}
+	}
+}
@@ -0,0 +1,225 @@
+package persistence;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import quizLogic.QuestionSummary;
+import quizLogic.ThemeSummary;
+
+/**
+ * {@code TitleIndex} is an in-memory index of the normalized titles of all
+ * themes, and of all questions per theme, used for constant-time duplicate
+ * title checks before saving.
+ *
+ * <p>
+ * Titles are compared in their normalized form, see {@link #normalize(String)}.
+ * The same form is stored by the DAOs in the {@code title_norm} columns, whose
+ * unique indexes are the authority: the index only spares the round trip and
+ * gives a friendly message, while a duplicate saved concurrently by another
+ * editor is still rejected by the database. The columns have a binary
+ * collation, so the database compares exactly the values computed here rather
+ * than applying its own case and accent rules.
+ * </p>
+ *
+ * <p>
+ * The index is loaded lazily on first use and kept up to date by
+ * {@link DBDataManager} after every successful save or delete. Updates before
+ * the initial load are ignored, as the load picks them up. If a loader fails,
+ * signalled by {@code null}, the index stays unloaded and the next check loads
+ * it again.
+ * </p>
+ *
+ * <p>
+ * All methods are thread-safe.
+ * </p>
+ *
+ * @author Oleg Kapirulya
+ */
+public class TitleIndex {
+
+	/** Loads the ID and title of all themes. */
+	private final Supplier<List<ThemeSummary>> themeLoader;
+
+	/** Loads the ID, title and theme of all questions. */
+	private final Supplier<List<QuestionSummary>> questionLoader;
+
+	/** Theme ID per normalized theme title. */
+	private final Map<String, Integer> themeIds = new HashMap<>();
+
+	/** Normalized title per theme ID. */
+	private final Map<Integer, String> themeTitles = new HashMap<>();
+
+	/** Question ID per normalized question title, per theme ID. */
+	private final Map<Integer, Map<String, Integer>> questionIds = new HashMap<>();
+
+	/** Normalized title and theme per question ID. */
+	private final Map<Integer, QuestionSummary> questions = new HashMap<>();
+
+	/** Whether the titles have been loaded. */
+	private boolean loaded;
+
+	/**
+	 * Creates an index that is loaded on first use.
+	 *
+	 * @param themeLoader    supplies the summaries of all themes, or
+	 *                       {@code null} on error
+	 * @param questionLoader supplies the summaries of all questions, or
+	 *                       {@code null} on error
+	 */
+	public TitleIndex(Supplier<List<ThemeSummary>> themeLoader, Supplier<List<QuestionSummary>> questionLoader) {
+		this.themeLoader = themeLoader;
+		this.questionLoader = questionLoader;
+	}
+
+	/**
+	 * Normalizes a title for uniqueness checks: surrounding spaces are removed
+	 * and every character is lower-cased on its own. This is what
+	 * {@code LOWER(TRIM(title))} computes in the database, which backfilled the
+	 * {@code title_norm} columns: {@code TRIM} removes spaces only, and
+	 * {@code LOWER} maps each character to one character, unlike
+	 * {@link String#toLowerCase()}.
+	 *
+	 * @param title the title, may be {@code null}
+	 * @return the normalized title, or {@code null}
+	 */
+	public static String normalize(String title) {
+		if (title == null)
+			return null;
+		int begin = 0;
+		int end = title.length();
+		while (begin < end && title.charAt(begin) == ' ')
+			begin++;
+		while (end > begin && title.charAt(end - 1) == ' ')
+			end--;
+		StringBuilder sb = new StringBuilder(end - begin);
+		for (int i = begin; i < end;) {
+			int codePoint = title.codePointAt(i);
+			sb.appendCodePoint(Character.toLowerCase(codePoint));
+			i += Character.charCount(codePoint);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Finds the theme with a title.
+	 *
+	 * @param title the title, compared in normalized form
+	 * @return the theme ID, or {@code -1} if no theme has this title
+	 */
+	public synchronized int findThemeId(String title) {
+		ensureLoaded();
+		Integer id = themeIds.get(normalize(title));
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Finds the question of a theme with a title.
+	 *
+	 * @param themeId the theme ID
+	 * @param title   the title, compared in normalized form
+	 * @return the question ID, or {@code -1} if no question of the theme has this
+	 *         title
+	 */
+	public synchronized int findQuestionId(int themeId, String title) {
+		ensureLoaded();
+		Map<String, Integer> titles = questionIds.get(themeId);
+		Integer id = titles == null ? null : titles.get(normalize(title));
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Adds a theme or updates its title.
+	 *
+	 * @param themeId the theme ID
+	 * @param title   the saved title
+	 */
+	public synchronized void putTheme(int themeId, String title) {
+		if (!loaded || themeId <= 0)
+			return;
+		String old = themeTitles.put(themeId, normalize(title));
+		if (old != null)
+			themeIds.remove(old, themeId);
+		themeIds.put(normalize(title), themeId);
+	}
+
+	/**
+	 * Removes a theme and its questions.
+	 *
+	 * @param themeId the theme ID
+	 */
+	public synchronized void removeTheme(int themeId) {
+		if (!loaded)
+			return;
+		String old = themeTitles.remove(themeId);
+		if (old != null)
+			themeIds.remove(old, themeId);
+		Map<String, Integer> titles = questionIds.remove(themeId);
+		if (titles != null)
+			questions.keySet().removeAll(titles.values());
+	}
+
+	/**
+	 * Adds a question, updates its title or moves it to another theme.
+	 *
+	 * @param questionId the question ID
+	 * @param themeId    the ID of the question's theme
+	 * @param title      the saved title
+	 */
+	public synchronized void putQuestion(int questionId, int themeId, String title) {
+		if (!loaded || questionId <= 0)
+			return;
+		removeQuestion(questionId);
+		String normalized = normalize(title);
+		questions.put(questionId, new QuestionSummary(questionId, normalized, themeId));
+		questionIds.computeIfAbsent(themeId, id -> new HashMap<>()).put(normalized, questionId);
+	}
+
+	/**
+	 * Removes a question.
+	 *
+	 * @param questionId the question ID
+	 */
+	public synchronized void removeQuestion(int questionId) {
+		if (!loaded)
+			return;
+		QuestionSummary old = questions.remove(questionId);
+		if (old == null)
+			return;
+		Map<String, Integer> titles = questionIds.get(old.getThemeId());
+		if (titles != null)
+			titles.remove(old.getTitle(), questionId);
+	}
+
+	/**
+	 * Drops the index; it is reloaded on next use, e.g. after a save was rejected
+	 * because another editor saved the same title meanwhile.
+	 */
+	public synchronized void invalidate() {
+		loaded = false;
+		themeIds.clear();
+		themeTitles.clear();
+		questionIds.clear();
+		questions.clear();
+	}
+
+	/**
+	 * Loads all titles if not done yet.
+	 */
+	private void ensureLoaded() {
+		if (loaded)
+			return;
+		List<ThemeSummary> themeSummaries = themeLoader.get();
+		List<QuestionSummary> questionSummaries = questionLoader.get();
+		if (themeSummaries == null || questionSummaries == null)
+			return; // the load failed, the next check retries
+		loaded = true;
+		for (ThemeSummary theme : themeSummaries) {
+			putTheme(theme.getId(), theme.getTitle());
+		}
+		for (QuestionSummary question : questionSummaries) {
+			putQuestion(question.getId(), question.getThemeId(), question.getTitle());
+		}
+	}
+}
@@ -0,0 +1,267 @@
+package persistence.metrics;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Supplier;
+
+import persistence.ConnectionPool;
+import persistence.DBDataManager;
+import persistence.NearDuplicateIndex;
+import persistence.QuizSession;
+import persistence.StatisticRecorder;
+import persistence.DAO.StatisticFilter;
+import persistence.DAO.StatisticRowHandler;
+import quizLogic.Question;
+import quizLogic.QuestionSummary;
+import quizLogic.QuizStatistic;
+import quizLogic.Theme;
+import quizLogic.ThemeSummary;
+
+/**
+ * {@code InstrumentedDataManager} is a {@link DBDataManager} that reports to a
+ * {@link MetricsRegistry}:
+ * <ul>
+ * <li>every DAO call, see
+ * {@link DBDataManager#DBDataManager(ConnectionPool, MetricsRegistry)};</li>
+ * <li>every public operation of the data manager, timed in a histogram named
+ * {@code DBDataManager.method};</li>
+ * <li>gauges of the connection pool, the entity caches and the statistic
+ * recorder.</li>
+ * </ul>
+ * Plain accessors (e.g. {@link #getQuestionDAO()}) and {@link #close()} are
+ * not timed. Calls nest, e.g. a cache miss in {@link #getQuestionsFor(Theme)}
+ * is also recorded under {@code QuestionDAO.findByTheme}.
+ *
+ * <p>
+ * Overloaded methods share their histogram. New public operations of
+ * {@link DBDataManager} must be overridden here to be timed.
+ * </p>
+ *
+ * @author Oleg Kapirulya
+ */
+public class InstrumentedDataManager extends DBDataManager {
+
+	/**
+	 * Constructs the data manager for the default quiz database.
+	 *
+	 * @param metrics the registry to report to
+	 * @throws SQLException if database setup or connection fails.
+	 */
+	public InstrumentedDataManager(MetricsRegistry metrics) throws SQLException {
+		this(new ConnectionPool(DEFAULT_URL, DEFAULT_USER, DEFAULT_PASSWORD), metrics);
+	}
+
+	/**
+	 * Constructs the data manager on top of an existing connection pool.
+	 *
+	 * @param pool    the connection pool to use
+	 * @param metrics the registry to report to
+	 * @throws SQLException if database setup or connection fails.
+	 */
+	public InstrumentedDataManager(ConnectionPool pool, MetricsRegistry metrics) throws SQLException {
+		super(pool, metrics);
+
+		metrics.gauge("ConnectionPool.active", pool::getActiveCount);
+		metrics.gauge("ConnectionPool.idle", pool::getIdleCount);
+		metrics.gauge("ConnectionPool.total", pool::getTotalCount);
+		metrics.gauge("ConnectionPool.timeouts", pool::getTimeoutCount);
+		metrics.gauge("ConnectionPool.averageBorrowMillis", pool::getAverageBorrowMillis);
+		metrics.gauge("ConnectionPool.maxBorrowMillis", pool::getMaxBorrowMillis);
+
+		metrics.gauge("EntityCache.themes.hitRatio", getThemeCache()::getHitRatio);
+		metrics.gauge("EntityCache.questions.size", getQuestionCache()::size);
+		metrics.gauge("EntityCache.questions.hitRatio", getQuestionCache()::getHitRatio);
+		metrics.gauge("EntityCache.themeQuestions.size", getThemeQuestionsCache()::size);
+		metrics.gauge("EntityCache.themeQuestions.hitRatio", getThemeQuestionsCache()::getHitRatio);
+
+		StatisticRecorder recorder = getStatisticRecorder();
+		metrics.gauge("StatisticRecorder.queued", recorder::getQueuedCount);
+		metrics.gauge("StatisticRecorder.written", recorder::getWrittenCount);
+		metrics.gauge("StatisticRecorder.rejected", recorder::getRejectedCount);
+		metrics.gauge("StatisticRecorder.failed", recorder::getFailedCount);
+	}
+
+	@Override
+	public List<Theme> getAllThemes() {
+		return timed("DBDataManager.getAllThemes", super::getAllThemes);
+	}
+
+	@Override
+	public List<ThemeSummary> getThemeSummaries() {
+		return timed("DBDataManager.getThemeSummaries", super::getThemeSummaries);
+	}
+
+	@Override
+	public Theme getThemeById(int id) {
+		return timed("DBDataManager.getThemeById", () -> super.getThemeById(id));
+	}
+
+	@Override
+	public String saveTheme(Theme theme) {
+		return timed("DBDataManager.saveTheme", () -> super.saveTheme(theme));
+	}
+
+	@Override
+	public int findThemeIdByTitle(String title) {
+		return timed("DBDataManager.findThemeIdByTitle", () -> super.findThemeIdByTitle(title));
+	}
+
+	@Override
+	public int findQuestionIdByTitle(Theme theme, String title) {
+		return timed("DBDataManager.findQuestionIdByTitle", () -> super.findQuestionIdByTitle(theme, title));
+	}
+
+	@Override
+	public boolean deleteTheme(int themeId) {
+		return timed("DBDataManager.deleteTheme", () -> super.deleteTheme(themeId));
+	}
+
+	@Override
+	public List<Question> getQuestionsFor(Theme theme) {
+		return timed("DBDataManager.getQuestionsFor", () -> super.getQuestionsFor(theme));
+	}
+
+	@Override
+	public int countQuestions(Theme theme) {
+		return timed("DBDataManager.countQuestions", () -> super.countQuestions(theme));
+	}
+
+	@Override
+	public List<QuestionSummary> getQuestionPage(Theme theme, int afterId, int limit) {
+		return timed("DBDataManager.getQuestionPage", () -> super.getQuestionPage(theme, afterId, limit));
+	}
+
+	@Override
+	public List<QuestionSummary> getQuestionSummaries(Theme theme) {
+		return timed("DBDataManager.getQuestionSummaries", () -> super.getQuestionSummaries(theme));
+	}
+
+	@Override
+	public int[] getQuestionPageAnchors(Theme theme, int pageSize) {
+		return timed("DBDataManager.getQuestionPageAnchors", () -> super.getQuestionPageAnchors(theme, pageSize));
+	}
+
+	@Override
+	public Question getFullQuestionById(int id) {
+		return timed("DBDataManager.getFullQuestionById", () -> super.getFullQuestionById(id));
+	}
+
+	@Override
+	public String saveQuestion(Question question) {
+		return timed("DBDataManager.saveQuestion", () -> super.saveQuestion(question));
+	}
+
+	@Override
+	public String deleteQuestion(Question question) {
+		return timed("DBDataManager.deleteQuestion", () -> super.deleteQuestion(question));
+	}
+
+	@Override
+	public List<QuestionSummary> search(String query, int limit) {
+		return timed("DBDataManager.search", () -> super.search(query, limit));
+	}
+
+	@Override
+	public List<QuestionSummary> search(String query, Theme theme, int limit) {
+		return timed("DBDataManager.search", () -> super.search(query, theme, limit));
+	}
+
+	@Override
+	public List<NearDuplicateIndex.Match> findNearDuplicates(Question question) {
+		return timed("DBDataManager.findNearDuplicates", () -> super.findNearDuplicates(question));
+	}
+
+	@Override
+	public List<List<QuestionSummary>> findDuplicateClusters(double threshold) {
+		return timed("DBDataManager.findDuplicateClusters", () -> super.findDuplicateClusters(threshold));
+	}
+
+	@Override
+	public Question getRandomQuestion() {
+		return timed("DBDataManager.getRandomQuestion", () -> super.getRandomQuestion());
+	}
+
+	@Override
+	public Question getRandomQuestion(Theme theme) {
+		return timed("DBDataManager.getRandomQuestion", () -> super.getRandomQuestion(theme));
+	}
+
+	@Override
+	public QuizSession startQuizSession(Theme theme) {
+		return timed("DBDataManager.startQuizSession", () -> super.startQuizSession(theme));
+	}
+
+	@Override
+	public List<Theme> findAllThemes() {
+		return timed("DBDataManager.findAllThemes", super::findAllThemes);
+	}
+
+	@Override
+	public List<Question> findQuestionsByTheme(Theme theme) {
+		return timed("DBDataManager.findQuestionsByTheme", () -> super.findQuestionsByTheme(theme));
+	}
+
+	@Override
+	public void clearCaches() {
+		timed("DBDataManager.clearCaches", () -> {
+			super.clearCaches();
+			return null;
+		});
+	}
+
+	@Override
+	public String getCacheStatistics() {
+		return timed("DBDataManager.getCacheStatistics", super::getCacheStatistics);
+	}
+
+	@Override
+	public boolean recordAttempt(QuizStatistic statistic) {
+		return timed("DBDataManager.recordAttempt", () -> super.recordAttempt(statistic));
+	}
+
+	@Override
+	public void flushStatistics() {
+		timed("DBDataManager.flushStatistics", () -> {
+			super.flushStatistics();
+			return null;
+		});
+	}
+
+	@Override
+	public boolean rebuildStatisticRollup() {
+		return timed("DBDataManager.rebuildStatisticRollup", super::rebuildStatisticRollup);
+	}
+
+	@Override
+	public List<QuizStatistic> findStatisticsByQuestionId(int questionId) {
+		return timed("DBDataManager.findStatisticsByQuestionId", () -> super.findStatisticsByQuestionId(questionId));
+	}
+
+	@Override
+	public List<QuizStatistic> findStatistics(StatisticFilter filter) {
+		return timed("DBDataManager.findStatistics", () -> super.findStatistics(filter));
+	}
+
+	@Override
+	public long forEachStatistic(StatisticFilter filter, StatisticRowHandler handler) {
+		return timed("DBDataManager.forEachStatistic", () -> super.forEachStatistic(filter, handler));
+	}
+
+	/**
+	 * Times a call in the histogram with the given name.
+	 *
+	 * @param <T>  the result type
+	 * @param name the histogram name
+	 * @param call the call
+	 * @return the result of the call
+	 */
+	private <T> T timed(String name, Supplier<T> call) {
+		LatencyHistogram histogram = getMetrics().histogram(name);
+		long start = System.nanoTime();
+		try {
+			return call.get();
+		} finally {
+			histogram.recordSince(start);
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package persistence.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code LatencyHistogram} records durations in nanoseconds into log-linear
+ * buckets and answers percentile queries, without locks.
+ *
+ * <p>
+ * Bucket layout:
+ * </p>
+ * <ul>
+ * <li>Values below {@value #SUB_BUCKETS} ns get one bucket each.</li>
+ * <li>Every further power of two is split into {@value #SUB_BUCKETS} equal
+ * buckets, so a recorded value is off by at most 1/{@value #SUB_BUCKETS}
+ * (6.25%) of itself.</li>
+ * <li>Values from 2<sup>{@value #MAX_EXPONENT}</sup> ns (about 18 minutes) on
+ * share the last bucket.</li>
+ * </ul>
+ *
+ * <p>
+ * Recording costs one atomic increment of the bucket plus two
+ * {@link LongAdder} additions; the maximum is only written when it grows.
+ * Reads are not atomic snapshots: a percentile computed while values are
+ * recorded may lag behind by the values recorded meanwhile.
+ * </p>
+ *
+ * @author Oleg Kapirulya
+ */
+public class LatencyHistogram {
+
+	/** Number of bits of a value kept below its leading bit. */
+	private static final int SUB_BUCKET_BITS = 4;
+
+	/** Number of buckets per power of two. */
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/** Exponent of the first value that falls into the overflow bucket. */
+	private static final int MAX_EXPONENT = 40;
+
+	/** Total number of buckets, including the overflow bucket. */
+	private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + 1;
+
+	/** Number of values per bucket. */
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	/** Number of recorded values. */
+	private final LongAdder count = new LongAdder();
+
+	/** Sum of the recorded values. */
+	private final LongAdder sum = new LongAdder();
+
+	/** Largest recorded value. */
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records a duration.
+	 *
+	 * @param nanos the duration in nanoseconds; negative values count as 0
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		counts.incrementAndGet(bucketOf(value));
+		count.increment();
+		sum.add(value);
+		long current = max.get();
+		if (value > current)
+			max.accumulateAndGet(value, Math::max);
+	}
+
+	/**
+	 * Records the time elapsed since a start time.
+	 *
+	 * @param startNanos the start time, from {@link System#nanoTime()}
+	 */
+	public void recordSince(long startNanos) {
+		record(System.nanoTime() - startNanos);
+	}
+
+	/** @return number of recorded values */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/** @return mean of the recorded values in nanoseconds, 0 if there are none */
+	public double getMean() {
+		long n = count.sum();
+		return n == 0 ? 0.0 : (double) sum.sum() / n;
+	}
+
+	/** @return largest recorded value in nanoseconds */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Computes a percentile of the recorded values.
+	 *
+	 * @param quantile the quantile, between 0 and 1 (e.g. 0.99 for p99)
+	 * @return the upper bound of the bucket containing the percentile in
+	 *         nanoseconds, at most the largest recorded value; 0 if there are no
+	 *         values
+	 */
+	public long getPercentile(double quantile) {
+		long[] snapshot = new long[BUCKETS];
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			snapshot[i] = counts.get(i);
+			total += snapshot[i];
+		}
+		if (total == 0)
+			return 0;
+		long rank = Math.max(1, (long) Math.ceil(quantile * total));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += snapshot[i];
+			if (seen >= rank)
+				return Math.min(upperBoundOf(i), max.get());
+		}
+		return max.get();
+	}
+
+	/**
+	 * Discards all recorded values. Values recorded concurrently may survive.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts.set(i, 0);
+		}
+		count.reset();
+		sum.reset();
+		max.set(0);
+	}
+
+	/**
+	 * Finds the bucket of a value.
+	 *
+	 * @param value the value, not negative
+	 * @return the bucket index
+	 */
+	static int bucketOf(long value) {
+		if (value < SUB_BUCKETS)
+			return (int) value;
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		if (exponent >= MAX_EXPONENT)
+			return BUCKETS - 1;
+		int shift = exponent - SUB_BUCKET_BITS;
+		return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+	}
+
+	/**
+	 * Computes the largest value of a bucket.
+	 *
+	 * @param bucket the bucket index
+	 * @return the largest value falling into the bucket
+	 */
+	static long upperBoundOf(int bucket) {
+		if (bucket < SUB_BUCKETS)
+			return bucket;
+		if (bucket == BUCKETS - 1)
+			return Long.MAX_VALUE;
+		int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+		long lower = (long) (SUB_BUCKETS + (bucket & (SUB_BUCKETS - 1))) << shift;
+		return lower + (1L << shift) - 1;
+	}
+}
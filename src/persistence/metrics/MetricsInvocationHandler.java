@@ -0,0 +1,78 @@
+package persistence.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Proxy handler behind {@link MetricsRegistry#instrument(Class, Object, String)}:
+ * times every interface method call and counts the failed ones.
+ *
+ * <p>
+ * The metrics of all methods are looked up once when the proxy is created, so
+ * a call costs a map lookup, two {@link System#nanoTime()} calls and the
+ * recording, well below a microsecond on top of the reflective call.
+ * </p>
+ *
+ * @author Oleg Kapirulya
+ */
+final class MetricsInvocationHandler implements InvocationHandler {
+
+	/** The instrumented implementation. */
+	private final Object target;
+
+	/** Duration histogram per interface method. */
+	private final Map<Method, LatencyHistogram> histograms = new HashMap<>();
+
+	/** Failure counter per interface method. */
+	private final Map<Method, LongAdder> failures = new HashMap<>();
+
+	/**
+	 * Creates the handler and the metrics of all methods of the interface.
+	 *
+	 * @param registry the registry holding the metrics
+	 * @param type     the interface
+	 * @param target   the implementation
+	 * @param prefix   the metric name prefix
+	 */
+	MetricsInvocationHandler(MetricsRegistry registry, Class<?> type, Object target, String prefix) {
+		this.target = target;
+		for (Method method : type.getMethods()) {
+			String name = prefix + "." + method.getName();
+			histograms.put(method, registry.histogram(name));
+			failures.put(method, registry.counter(name + ".failures"));
+		}
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		LatencyHistogram histogram = histograms.get(method);
+		if (histogram == null) { // equals, hashCode, toString
+			switch (method.getName()) {
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			default:
+				return method.invoke(target, args);
+			}
+		}
+
+		long start = System.nanoTime();
+		boolean failed = true;
+		try {
+			Object result = method.invoke(target, args);
+			failed = Boolean.FALSE.equals(result);
+			return result;
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		} finally {
+			histogram.recordSince(start);
+			if (failed)
+				failures.get(method).increment();
+		}
+	}
+}
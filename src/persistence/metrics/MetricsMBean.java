@@ -0,0 +1,146 @@
+package persistence.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanException;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ReflectionException;
+
+/**
+ * Dynamic MBean exposing a {@link MetricsRegistry} over JMX.
+ *
+ * <p>
+ * Every counter and gauge is one read-only attribute named like the metric.
+ * Every histogram contributes the attributes {@code name.count},
+ * {@code name.meanMicros}, {@code name.p50Micros}, {@code name.p95Micros},
+ * {@code name.p99Micros} and {@code name.maxMicros}. Metrics created later
+ * appear when a JMX client reloads the MBean info.
+ * </p>
+ *
+ * <p>
+ * The operations {@code snapshot} and {@code reset} call the methods of the
+ * same name of the registry.
+ * </p>
+ *
+ * @author Oleg Kapirulya
+ */
+final class MetricsMBean implements DynamicMBean {
+
+	/** Attribute suffixes of a histogram. */
+	private static final String[] HISTOGRAM_SUFFIXES = { ".count", ".meanMicros", ".p50Micros", ".p95Micros",
+			".p99Micros", ".maxMicros" };
+
+	/** The exposed registry. */
+	private final MetricsRegistry registry;
+
+	/**
+	 * Creates the MBean.
+	 *
+	 * @param registry the registry to expose
+	 */
+	MetricsMBean(MetricsRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	public Object getAttribute(String attribute) throws AttributeNotFoundException {
+		Long counter = registry.getCounterValues().get(attribute);
+		if (counter != null)
+			return counter;
+		Double gauge = registry.getGaugeValues().get(attribute);
+		if (gauge != null)
+			return gauge;
+
+		int dot = attribute.lastIndexOf('.');
+		LatencyHistogram h = dot < 0 ? null : registry.getHistograms().get(attribute.substring(0, dot));
+		if (h != null) {
+			switch (attribute.substring(dot)) {
+			case ".count":
+				return h.getCount();
+			case ".meanMicros":
+				return h.getMean() / 1_000.0;
+			case ".p50Micros":
+				return h.getPercentile(0.50) / 1_000.0;
+			case ".p95Micros":
+				return h.getPercentile(0.95) / 1_000.0;
+			case ".p99Micros":
+				return h.getPercentile(0.99) / 1_000.0;
+			case ".maxMicros":
+				return h.getMax() / 1_000.0;
+			default:
+				break;
+			}
+		}
+		throw new AttributeNotFoundException(attribute);
+	}
+
+	@Override
+	public AttributeList getAttributes(String[] attributes) {
+		AttributeList list = new AttributeList();
+		for (String attribute : attributes) {
+			try {
+				list.add(new Attribute(attribute, getAttribute(attribute)));
+			} catch (AttributeNotFoundException e) {
+				// left out, as specified by DynamicMBean
+			}
+		}
+		return list;
+	}
+
+	@Override
+	public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+		throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+	}
+
+	@Override
+	public AttributeList setAttributes(AttributeList attributes) {
+		return new AttributeList();
+	}
+
+	@Override
+	public Object invoke(String actionName, Object[] params, String[] signature)
+			throws MBeanException, ReflectionException {
+		switch (actionName) {
+		case "snapshot":
+			return registry.snapshot();
+		case "reset":
+			registry.reset();
+			return null;
+		default:
+			throw new ReflectionException(new NoSuchMethodException(actionName));
+		}
+	}
+
+	@Override
+	public MBeanInfo getMBeanInfo() {
+		List<MBeanAttributeInfo> attributes = new ArrayList<>();
+		for (String name : registry.getCounterValues().keySet()) {
+			attributes.add(new MBeanAttributeInfo(name, "java.lang.Long", "Counter", true, false, false));
+		}
+		for (String name : registry.getGaugeValues().keySet()) {
+			attributes.add(new MBeanAttributeInfo(name, "java.lang.Double", "Gauge", true, false, false));
+		}
+		for (Map.Entry<String, LatencyHistogram> entry : registry.getHistograms().entrySet()) {
+			for (String suffix : HISTOGRAM_SUFFIXES) {
+				String type = ".count".equals(suffix) ? "java.lang.Long" : "java.lang.Double";
+				attributes.add(new MBeanAttributeInfo(entry.getKey() + suffix, type, "Latency histogram", true, false,
+						false));
+			}
+		}
+		MBeanOperationInfo[] operations = {
+				new MBeanOperationInfo("snapshot", "All metrics as text", null, "java.lang.String",
+						MBeanOperationInfo.INFO),
+				new MBeanOperationInfo("reset", "Discard all counter and histogram values", null, "void",
+						MBeanOperationInfo.ACTION) };
+		return new MBeanInfo(MetricsRegistry.class.getName(), "Quiz application metrics",
+				attributes.toArray(new MBeanAttributeInfo[0]), null, operations, null);
+	}
+}
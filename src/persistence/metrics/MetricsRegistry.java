@@ -0,0 +1,273 @@
+package persistence.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * {@code MetricsRegistry} holds the named metrics of the application:
+ * <ul>
+ * <li><b>Counters</b> ({@link LongAdder}) count events, e.g. failed calls.</li>
+ * <li><b>Gauges</b> ({@link DoubleSupplier}) read a current value on demand,
+ * e.g. the number of borrowed connections.</li>
+ * <li><b>Histograms</b> ({@link LatencyHistogram}) record call durations and
+ * answer p50/p95/p99.</li>
+ * </ul>
+ *
+ * <p>
+ * Metrics are created on first request and live as long as the registry.
+ * Callers on hot paths should keep the returned metric instead of looking it up
+ * per call; {@link #instrument(Class, Object, String)} does so for every method
+ * of an interface.
+ * </p>
+ *
+ * <p>
+ * The metrics can be read as a text snapshot ({@link #snapshot()}), over JMX
+ * ({@link #registerMBean(String)}), and logged periodically
+ * ({@link #startLogging(long)}). Names are sorted in all three, so related
+ * metrics (e.g. all methods of one DAO) appear together.
+ * </p>
+ *
+ * <p>
+ * All methods are thread-safe.
+ * </p>
+ *
+ * @author Oleg Kapirulya
+ */
+public class MetricsRegistry implements AutoCloseable {
+
+	/** Default JMX object name of the registry. */
+	public static final String DEFAULT_OBJECT_NAME = "quiz:type=Metrics";
+
+	/** Logger of the periodic snapshots. */
+	private static final Logger LOG = Logger.getLogger("quiz.metrics");
+
+	/** Counters by name. */
+	private final Map<String, LongAdder> counters = new ConcurrentSkipListMap<>();
+
+	/** Gauges by name. */
+	private final Map<String, DoubleSupplier> gauges = new ConcurrentSkipListMap<>();
+
+	/** Histograms by name. */
+	private final Map<String, LatencyHistogram> histograms = new ConcurrentSkipListMap<>();
+
+	/** Cache of the histograms for lookups on hot paths. */
+	private final Map<String, LatencyHistogram> histogramCache = new ConcurrentHashMap<>();
+
+	/** Scheduler of the periodic log snapshots, if started. */
+	private ScheduledExecutorService logger;
+
+	/** Name under which the registry is registered with JMX, if it is. */
+	private ObjectName objectName;
+
+	/**
+	 * Returns the counter with a name, creating it if needed.
+	 *
+	 * @param name the metric name
+	 * @return the counter
+	 */
+	public LongAdder counter(String name) {
+		return counters.computeIfAbsent(name, n -> new LongAdder());
+	}
+
+	/**
+	 * Registers a gauge, replacing any gauge with the same name.
+	 *
+	 * @param name  the metric name
+	 * @param gauge reads the current value; called on every snapshot, so it must
+	 *              be cheap and thread-safe
+	 */
+	public void gauge(String name, DoubleSupplier gauge) {
+		gauges.put(name, gauge);
+	}
+
+	/**
+	 * Returns the histogram with a name, creating it if needed.
+	 *
+	 * @param name the metric name
+	 * @return the histogram
+	 */
+	public LatencyHistogram histogram(String name) {
+		LatencyHistogram histogram = histogramCache.get(name);
+		if (histogram == null) {
+			histogram = histograms.computeIfAbsent(name, n -> new LatencyHistogram());
+			histogramCache.put(name, histogram);
+		}
+		return histogram;
+	}
+
+	/**
+	 * Wraps an implementation of an interface so that every call of an interface
+	 * method is timed in the histogram {@code prefix.method} and counted in
+	 * {@code prefix.method.failures} if it throws or returns {@code false}.
+	 * Overloaded methods share their metrics.
+	 *
+	 * @param <T>    the interface type
+	 * @param type   the interface
+	 * @param target the implementation
+	 * @param prefix the metric name prefix, e.g. {@code "QuestionDAO"}
+	 * @return the instrumented implementation
+	 */
+	public <T> T instrument(Class<T> type, T target, String prefix) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+				new MetricsInvocationHandler(this, type, target, prefix)));
+	}
+
+	/** @return sorted counter values by name */
+	public Map<String, Long> getCounterValues() {
+		Map<String, Long> values = new LinkedHashMap<>();
+		counters.forEach((name, counter) -> values.put(name, counter.sum()));
+		return values;
+	}
+
+	/** @return sorted current gauge values by name */
+	public Map<String, Double> getGaugeValues() {
+		Map<String, Double> values = new LinkedHashMap<>();
+		gauges.forEach((name, gauge) -> values.put(name, readGauge(gauge)));
+		return values;
+	}
+
+	/** @return the histograms, sorted by name */
+	public Map<String, LatencyHistogram> getHistograms() {
+		return Collections.unmodifiableMap(histograms);
+	}
+
+	/**
+	 * Discards the values of all counters and histograms.
+	 */
+	public void reset() {
+		counters.values().forEach(LongAdder::reset);
+		histograms.values().forEach(LatencyHistogram::reset);
+	}
+
+	/**
+	 * Formats all metrics, one per line. Histograms without calls are left out.
+	 * Durations are in microseconds.
+	 *
+	 * @return the snapshot
+	 */
+	public String snapshot() {
+		StringBuilder sb = new StringBuilder();
+		histograms.forEach((name, h) -> {
+			long count = h.getCount();
+			if (count == 0)
+				return;
+			sb.append(String.format(Locale.ROOT,
+					"%s: count=%d mean=%.1fus p50=%.1fus p95=%.1fus p99=%.1fus max=%.1fus%n", name, count,
+					h.getMean() / 1_000.0, h.getPercentile(0.50) / 1_000.0, h.getPercentile(0.95) / 1_000.0,
+					h.getPercentile(0.99) / 1_000.0, h.getMax() / 1_000.0));
+		});
+		getCounterValues().forEach((name, value) -> sb.append(name).append(": ").append(value)
+				.append(System.lineSeparator()));
+		getGaugeValues().forEach((name, value) -> sb.append(String.format(Locale.ROOT, "%s: %.2f%n", name, value)));
+		return sb.toString();
+	}
+
+	/**
+	 * Registers the registry as a dynamic MBean with the platform MBean server,
+	 * e.g. for JConsole or VisualVM. A registration under the same name (e.g. by a
+	 * previous registry in the same JVM) is replaced.
+	 *
+	 * @param name the object name, e.g. {@link #DEFAULT_OBJECT_NAME}
+	 * @return true if registered, false otherwise
+	 */
+	public synchronized boolean registerMBean(String name) {
+		unregisterMBean();
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName objectName = new ObjectName(name);
+			if (server.isRegistered(objectName))
+				server.unregisterMBean(objectName);
+			server.registerMBean(new MetricsMBean(this), objectName);
+			this.objectName = objectName;
+			return true;
+		} catch (JMException e) {
+			e.printStackTrace();
+			return false;
+		}
+	}
+
+	/**
+	 * Logs a {@link #snapshot()} periodically to the {@code quiz.metrics} logger
+	 * at level INFO, from a daemon thread. Calling it again changes the period.
+	 *
+	 * @param periodMillis the period in milliseconds
+	 */
+	public synchronized void startLogging(long periodMillis) {
+		if (logger != null)
+			logger.shutdownNow();
+		logger = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "MetricsRegistry-logger");
+			t.setDaemon(true);
+			return t;
+		});
+		logger.scheduleAtFixedRate(this::logSnapshot, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops the periodic logging and removes the JMX registration.
+	 */
+	@Override
+	public synchronized void close() {
+		if (logger != null) {
+			logger.shutdownNow();
+			logger = null;
+		}
+		unregisterMBean();
+	}
+
+	/**
+	 * Logs one snapshot, unless there is nothing to report yet.
+	 */
+	private void logSnapshot() {
+		String snapshot = snapshot();
+		if (!snapshot.isEmpty())
+			LOG.info("Metrics snapshot" + System.lineSeparator() + snapshot);
+	}
+
+	/**
+	 * Removes the current JMX registration, if any.
+	 */
+	private void unregisterMBean() {
+		if (objectName == null)
+			return;
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			if (server.isRegistered(objectName))
+				server.unregisterMBean(objectName);
+		} catch (JMException e) {
+			e.printStackTrace();
+		}
+		objectName = null;
+	}
+
+	/**
+	 * Reads a gauge; a failing gauge reads as NaN instead of breaking the
+	 * snapshot.
+	 *
+	 * @param gauge the gauge
+	 * @return the value
+	 */
+	static double readGauge(DoubleSupplier gauge) {
+		try {
+			return gauge.getAsDouble();
+		} catch (RuntimeException e) {
+			return Double.NaN;
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package persistence.migration;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * {@code Migration} is a single, versioned step of the database schema
+ * evolution.
+ *
+ * <p>
+ * A migration consists of an ordered list of SQL statements. Its checksum is
+ * computed from these statements and recorded in the {@code schema_version}
+ * table when the migration is applied, so that later edits of an already
+ * applied migration are detected by {@link SchemaMigrator}.
+ * </p>
+ *
+ * <p>
+ * Migrations are immutable: once released, a migration must never be changed.
+ * Schema changes are made by appending a new migration with a higher version.
+ * </p>
+ * 
+ * @author Oleg Kapirulya
+ */
+public class Migration {
+
+	/** Version number; migrations are applied in ascending order. */
+	private final int version;
+
+	/** Short human-readable description. */
+	private final String description;
+
+	/** SQL statements executed in order. */
+	private final List<String> statements;
+
+	/**
+	 * Creates a migration.
+	 *
+	 * @param version     positive version number
+	 * @param description short description
+	 * @param statements  SQL statements to execute in order
+	 */
+	public Migration(int version, String description, String... statements) {
+		if (version <= 0)
+			throw new IllegalArgumentException("Migration version must be positive: " + version);
+		this.version = version;
+		this.description = description;
+		this.statements = List.of(statements);
+	}
+
+	public int getVersion() {
+		return version;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public List<String> getStatements() {
+		return statements;
+	}
+
+	/**
+	 * Computes the CRC32 checksum of all statements.
+	 *
+	 * @return checksum of this migration
+	 */
+	public long getChecksum() {
+		CRC32 crc = new CRC32();
+		for (String statement : statements) {
+			crc.update(statement.getBytes(StandardCharsets.UTF_8));
+			crc.update('\n');
+		}
+		return crc.getValue();
+	}
+
+	@Override
+	public String toString() {
+		return "V" + version + " " + description;
+	}
+}
@@ -0,0 +1,85 @@
+package persistence.migration;
+
+import java.util.List;
+
+/**
+ * {@code QuizMigrations} lists all schema migrations of the quiz database in
+ * version order.
+ *
+ * <p>
+ * <b>Never edit a released migration.</b> Applied migrations are verified by
+ * checksum; append a new migration instead.
+ * </p>
+ * 
+ * @author Oleg Kapirulya
+ */
+public final class QuizMigrations {
+
+	private QuizMigrations() {
+	}
+
+	/**
+	 * Returns all migrations.
+	 *
+	 * @return migrations in ascending version order
+	 */
+	public static List<Migration> all() {
+		return List.of(
+				new Migration(1, "Base tables",
+						"CREATE TABLE IF NOT EXISTS theme (" + "id INT PRIMARY KEY AUTO_INCREMENT,"
+								+ "title VARCHAR(255) NOT NULL," + "text TEXT)",
+						"CREATE TABLE IF NOT EXISTS question (" + "id INT PRIMARY KEY AUTO_INCREMENT,"
+								+ "theme_id INT," + "title VARCHAR(255) NOT NULL," + "text TEXT,"
+								+ "FOREIGN KEY (theme_id) REFERENCES theme(id) ON DELETE CASCADE)",
+						"CREATE TABLE IF NOT EXISTS answer (" + "id INT PRIMARY KEY AUTO_INCREMENT,"
+								+ "question_id INT," + "text VARCHAR(255) NOT NULL," + "is_correct BOOLEAN,"
+								+ "FOREIGN KEY (question_id) REFERENCES question(id) ON DELETE CASCADE)",
+						"CREATE TABLE IF NOT EXISTS statistic (" + "id INT PRIMARY KEY AUTO_INCREMENT,"
+								+ "question_id INT NOT NULL," + "answer_id INT," + "correct BOOLEAN,"
+								+ "date DATETIME DEFAULT CURRENT_TIMESTAMP,"
+								+ "FOREIGN KEY (question_id) REFERENCES question(id) ON DELETE CASCADE)"),
+				new Migration(2, "Index statistic by question and date",
+						"CREATE INDEX idx_statistic_question_date ON statistic (question_id, date)"),
+				new Migration(3, "Index statistic by date",
+						"CREATE INDEX idx_statistic_date ON statistic (date)"),
+				new Migration(4, "Index question by theme and title",
+						"CREATE INDEX idx_question_theme_title ON question (theme_id, title)"),
+				new Migration(5, "Index answer by question",
+						"CREATE INDEX idx_answer_question ON answer (question_id)"),
+				new Migration(6, "Index question by theme and id for keyset paging",
+						"CREATE INDEX idx_question_theme_id ON question (theme_id, id)"),
+				new Migration(7, "Daily statistic rollup",
+						"CREATE TABLE IF NOT EXISTS statistic_daily (" + "question_id INT NOT NULL,"
+								+ "stat_day DATE NOT NULL," + "attempts INT NOT NULL," + "correct INT NOT NULL,"
+								+ "PRIMARY KEY (question_id, stat_day),"
+								+ "FOREIGN KEY (question_id) REFERENCES question(id) ON DELETE CASCADE)",
+						"CREATE INDEX idx_statistic_daily_day ON statistic_daily (stat_day)",
+						"INSERT INTO statistic_daily (question_id, stat_day, attempts, correct)"
+								+ " SELECT question_id, CAST(date AS DATE), COUNT(*),"
+								+ " SUM(CASE WHEN correct THEN 1 ELSE 0 END)"
+								+ " FROM statistic GROUP BY question_id, CAST(date AS DATE)"),
+				new Migration(8, "Normalized theme title column",
+						"ALTER TABLE theme ADD COLUMN title_norm VARCHAR(255)"
+								+ " CHARACTER SET utf8mb4 COLLATE utf8mb4_bin"),
+				new Migration(9, "Rename duplicate theme titles and backfill normalized titles",
+						// Keep the oldest title, append the ID to the others
+						"UPDATE theme SET title = CONCAT(LEFT(TRIM(title), 240), ' (', id, ')') WHERE id IN ("
+								+ "SELECT id FROM (SELECT DISTINCT t.id FROM theme t JOIN theme o"
+								+ " ON BINARY LOWER(TRIM(o.title)) = BINARY LOWER(TRIM(t.title)) AND o.id < t.id) dup)",
+						"UPDATE theme SET title_norm = LOWER(TRIM(title))"),
+				new Migration(10, "Unique normalized theme titles",
+						"CREATE UNIQUE INDEX ux_theme_title_norm ON theme (title_norm)"),
+				new Migration(11, "Normalized question title column",
+						"ALTER TABLE question ADD COLUMN title_norm VARCHAR(255)"
+								+ " CHARACTER SET utf8mb4 COLLATE utf8mb4_bin"),
+				new Migration(12, "Rename duplicate question titles and backfill normalized titles",
+						// Per theme, keep the oldest title, append the ID to the others
+						"UPDATE question SET title = CONCAT(LEFT(TRIM(title), 240), ' (', id, ')') WHERE id IN ("
+								+ "SELECT id FROM (SELECT DISTINCT q.id FROM question q JOIN question o"
+								+ " ON o.theme_id = q.theme_id"
+								+ " AND BINARY LOWER(TRIM(o.title)) = BINARY LOWER(TRIM(q.title)) AND o.id < q.id) dup)",
+						"UPDATE question SET title_norm = LOWER(TRIM(title))"),
+				new Migration(13, "Unique normalized question titles",
+						"CREATE UNIQUE INDEX ux_question_theme_title_norm ON question (theme_id, title_norm)"));
+	}
+}
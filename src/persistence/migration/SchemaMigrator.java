@@ -0,0 +1,224 @@
+package persistence.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+/**
+ * {@code SchemaMigrator} brings the database schema up to date by applying
+ * pending {@link Migration}s.
+ *
+ * <p>
+ * Applied migrations are recorded in the {@code schema_version} table together
+ * with their checksum. On every start-up the migrator
+ * </p>
+ * <ol>
+ * <li>takes the named lock {@value #LOCK_NAME} on MySQL/MariaDB, so that of
+ * several instances started at the same time only one migrates while the
+ * others wait and then find the migrations applied,</li>
+ * <li>creates {@code schema_version} if it does not exist,</li>
+ * <li>verifies that every recorded migration is still known and unchanged
+ * (same checksum),</li>
+ * <li>applies all migrations with a higher version in ascending order, each in
+ * its own transaction, and records them.</li>
+ * </ol>
+ *
+ * <p>
+ * Note that MariaDB/MySQL commit DDL statements implicitly, so a migration
+ * consisting of several DDL statements is not atomic there. Migrations should
+ * therefore contain one DDL statement each where possible.
+ * </p>
+ * 
+ * @author Oleg Kapirulya
+ */
+public class SchemaMigrator {
+
+	/** Name of the lock serializing migrations across instances. */
+	private static final String LOCK_NAME = "quiz_schema";
+
+	/** Maximum time to wait for another instance to finish migrating. */
+	private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+	/** Source of database connections. */
+	private final DataSource dataSource;
+
+	/** Known migrations, sorted by version. */
+	private final List<Migration> migrations;
+
+	/**
+	 * Creates a migrator.
+	 *
+	 * @param dataSource the database to migrate
+	 * @param migrations all known migrations (any order, unique versions)
+	 */
+	public SchemaMigrator(DataSource dataSource, List<Migration> migrations) {
+		this.dataSource = dataSource;
+		this.migrations = new ArrayList<>(migrations);
+		this.migrations.sort(Comparator.comparingInt(Migration::getVersion));
+		for (int i = 1; i < this.migrations.size(); i++) {
+			if (this.migrations.get(i).getVersion() == this.migrations.get(i - 1).getVersion())
+				throw new IllegalArgumentException("Duplicate migration version: " + this.migrations.get(i));
+		}
+	}
+
+	/**
+	 * Validates applied migrations and applies all pending ones.
+	 *
+	 * @return number of migrations applied by this call
+	 * @throws SQLException if validation fails or a migration cannot be applied
+	 */
+	public int migrate() throws SQLException {
+		try (Connection conn = dataSource.getConnection()) {
+			boolean locked = lock(conn);
+			try {
+				createVersionTable(conn);
+				Map<Integer, Long> applied = loadApplied(conn);
+				validate(applied);
+
+				int count = 0;
+				for (Migration migration : migrations) {
+					if (!applied.containsKey(migration.getVersion())) {
+						apply(conn, migration);
+						count++;
+					}
+				}
+				return count;
+			} finally {
+				if (locked)
+					unlock(conn);
+			}
+		}
+	}
+
+	/**
+	 * Returns the highest applied schema version.
+	 *
+	 * @return current schema version, or 0 if none was applied
+	 * @throws SQLException if the version table cannot be read
+	 */
+	public int currentVersion() throws SQLException {
+		try (Connection conn = dataSource.getConnection()) {
+			createVersionTable(conn);
+			return loadApplied(conn).keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+		}
+	}
+
+	/**
+	 * Takes the named migration lock on MySQL/MariaDB. The lock belongs to the
+	 * session, so it survives the implicit commits of DDL statements, unlike a
+	 * row lock on {@code schema_version}. Other databases are not locked.
+	 *
+	 * @return true if the lock was taken and must be released
+	 * @throws SQLException if the lock cannot be taken in time
+	 */
+	private boolean lock(Connection conn) throws SQLException {
+		String product = conn.getMetaData().getDatabaseProductName();
+		if (!"MySQL".equalsIgnoreCase(product) && !"MariaDB".equalsIgnoreCase(product))
+			return false;
+		try (PreparedStatement ps = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+			ps.setString(1, LOCK_NAME);
+			ps.setInt(2, LOCK_TIMEOUT_SECONDS);
+			try (ResultSet rs = ps.executeQuery()) {
+				if (!rs.next() || rs.getInt(1) != 1)
+					throw new SQLException("Could not take the schema migration lock '" + LOCK_NAME + "' within "
+							+ LOCK_TIMEOUT_SECONDS + " s; another instance may still be migrating.");
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Releases the named migration lock. The connection may be pooled, so the
+	 * lock is released explicitly rather than with the session. A failure is only
+	 * reported, so that it does not hide the outcome of the migration.
+	 */
+	private void unlock(Connection conn) {
+		try (PreparedStatement ps = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+			ps.setString(1, LOCK_NAME);
+			ps.executeQuery().close();
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Creates the {@code schema_version} table if missing.
+	 */
+	private void createVersionTable(Connection conn) throws SQLException {
+		try (Statement st = conn.createStatement()) {
+			st.executeUpdate("CREATE TABLE IF NOT EXISTS schema_version (" + "version INT PRIMARY KEY,"
+					+ "description VARCHAR(255) NOT NULL," + "checksum BIGINT NOT NULL,"
+					+ "installed_on DATETIME DEFAULT CURRENT_TIMESTAMP)");
+		}
+	}
+
+	/**
+	 * Loads applied versions and their checksums.
+	 */
+	private Map<Integer, Long> loadApplied(Connection conn) throws SQLException {
+		Map<Integer, Long> applied = new HashMap<>();
+		try (Statement st = conn.createStatement();
+				ResultSet rs = st.executeQuery("SELECT version, checksum FROM schema_version")) {
+			while (rs.next()) {
+				applied.put(rs.getInt("version"), rs.getLong("checksum"));
+			}
+		}
+		return applied;
+	}
+
+	/**
+	 * Ensures every applied migration is known and unchanged.
+	 */
+	private void validate(Map<Integer, Long> applied) throws SQLException {
+		Map<Integer, Migration> known = new HashMap<>();
+		for (Migration migration : migrations) {
+			known.put(migration.getVersion(), migration);
+		}
+		for (Map.Entry<Integer, Long> entry : applied.entrySet()) {
+			Migration migration = known.get(entry.getKey());
+			if (migration == null)
+				throw new SQLException("Database schema version " + entry.getKey()
+						+ " is unknown to this application version.");
+			if (migration.getChecksum() != entry.getValue())
+				throw new SQLException("Checksum mismatch for applied migration " + migration
+						+ ": it was modified after being applied.");
+		}
+	}
+
+	/**
+	 * Applies one migration and records it, inside one transaction.
+	 */
+	private void apply(Connection conn, Migration migration) throws SQLException {
+		boolean autoCommit = conn.getAutoCommit();
+		conn.setAutoCommit(false);
+		try {
+			try (Statement st = conn.createStatement()) {
+				for (String sql : migration.getStatements()) {
+					st.executeUpdate(sql);
+				}
+			}
+			try (PreparedStatement ps = conn
+					.prepareStatement("INSERT INTO schema_version (version, description, checksum) VALUES (?, ?, ?)")) {
+				ps.setInt(1, migration.getVersion());
+				ps.setString(2, migration.getDescription());
+				ps.setLong(3, migration.getChecksum());
+				ps.executeUpdate();
+			}
+			conn.commit();
+		} catch (SQLException e) {
+			conn.rollback();
+			throw new SQLException("Failed to apply migration " + migration + ": " + e.getMessage(), e);
+		} finally {
+			conn.setAutoCommit(autoCommit);
+		}
+	}
+}
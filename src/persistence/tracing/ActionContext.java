@@ -0,0 +1,78 @@
+package persistence.tracing;
+
+import java.util.function.Supplier;
+
+/**
+ * {@code ActionContext} tells the persistence layer which user action the
+ * current thread is working for, e.g. {@code "QuizQuestionBottom/Save"}.
+ * The {@link StatementTracer} attaches it to every traced statement, so a slow
+ * or repeated query can be traced back to the click that caused it.
+ *
+ * <p>
+ * The action is bound to a thread. The UI sets it while an input event is
+ * dispatched, and code that hands work to another thread passes it along,
+ * typically with {@link #call(String, Supplier)} around the background task.
+ * </p>
+ *
+ * @author Oleg Kapirulya
+ */
+public final class ActionContext {
+
+	/** Action of the current thread. */
+	private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+	private ActionContext() {
+	}
+
+	/**
+	 * Returns the action of the current thread.
+	 *
+	 * @return the action, or {@code null} outside of any action
+	 */
+	public static String current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Runs a task within an action, restoring the previous action afterwards.
+	 *
+	 * @param <T>    the result type
+	 * @param action the action, or {@code null} to run outside of any action
+	 * @param task   the task
+	 * @return the result of the task
+	 */
+	public static <T> T call(String action, Supplier<T> task) {
+		String previous = CURRENT.get();
+		set(action);
+		try {
+			return task.get();
+		} finally {
+			set(previous);
+		}
+	}
+
+	/**
+	 * Runs a task within an action, restoring the previous action afterwards.
+	 *
+	 * @param action the action, or {@code null} to run outside of any action
+	 * @param task   the task
+	 */
+	public static void run(String action, Runnable task) {
+		call(action, () -> {
+			task.run();
+			return null;
+		});
+	}
+
+	/**
+	 * Binds an action to the current thread, or unbinds it.
+	 *
+	 * @param action the action, or {@code null}
+	 */
+	private static void set(String action) {
+		if (action == null)
+			CURRENT.remove();
+		else
+			CURRENT.set(action);
+	}
+}
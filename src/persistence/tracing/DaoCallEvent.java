@@ -0,0 +1,69 @@
+package persistence.tracing;
+
+import java.lang.reflect.Proxy;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * {@code DaoCallEvent} is the Java Flight Recorder event of one DAO call, see
+ * {@link #instrument(Class, Object)}. Together with the {@link UserActionEvent}
+ * of the same thread, or the {@link ActionContext user action} it carries, a
+ * recording shows which click caused which database work and how long it took.
+ *
+ * <p>
+ * Record with e.g. {@code jcmd <pid> JFR.start name=quiz duration=60s
+ * filename=quiz.jfr} and look for the {@code quiz.DaoCall} events. While no
+ * recording is running, or the event is disabled, a call costs one enabled
+ * check on top of the proxy.
+ * </p>
+ *
+ * @author Oleg Kapirulya
+ */
+@Name("quiz.DaoCall")
+@Label("DAO Call")
+@Category({ "Quiz", "Persistence" })
+@Description("A call of a data access object")
+@StackTrace(false)
+public class DaoCallEvent extends Event {
+
+	@Label("DAO")
+	String dao;
+
+	@Label("Method")
+	String method;
+
+	@Label("Entity ID")
+	@Description("The ID argument, or the ID of the theme, question or answer argument; "
+			+ "the question ID for attempts; -1 if none")
+	long entityId;
+
+	@Label("Rows")
+	@Description("Entities read or written, or -1 if unknown")
+	long rows;
+
+	@Label("Success")
+	@Description("False if the call threw or returned false")
+	boolean success;
+
+	@Label("User Action")
+	String action;
+
+	/**
+	 * Wraps a DAO so that every call of its interface methods emits a
+	 * {@code DaoCallEvent}.
+	 *
+	 * @param <T>  the DAO interface
+	 * @param type the DAO interface
+	 * @param dao  the DAO
+	 * @return the DAO emitting events
+	 */
+	public static <T> T instrument(Class<T> type, T dao) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+				new DaoEventHandler(type.getSimpleName(), dao)));
+	}
+}
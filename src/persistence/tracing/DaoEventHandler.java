@@ -0,0 +1,116 @@
+package persistence.tracing;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+
+import persistence.serialization.DataAccessObject;
+import quizLogic.QuizStatistic;
+
+/**
+ * Proxy handler behind {@link DaoCallEvent#instrument(Class, Object)}: emits a
+ * {@link DaoCallEvent} per interface method call. The entity ID and row count
+ * are only derived if the event is actually recorded.
+ *
+ * @author Oleg Kapirulya
+ */
+final class DaoEventHandler implements InvocationHandler {
+
+	/** Name of the DAO interface. */
+	private final String dao;
+
+	/** The DAO. */
+	private final Object target;
+
+	DaoEventHandler(String dao, Object target) {
+		this.dao = dao;
+		this.target = target;
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		if (method.getDeclaringClass() == Object.class) {
+			switch (method.getName()) {
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			default:
+				return method.invoke(target, args);
+			}
+		}
+
+		DaoCallEvent event = new DaoCallEvent();
+		event.begin();
+		Object result = null;
+		boolean failed = true;
+		try {
+			result = method.invoke(target, args);
+			failed = Boolean.FALSE.equals(result);
+			return result;
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		} finally {
+			event.end();
+			if (event.shouldCommit()) {
+				event.dao = dao;
+				event.method = method.getName();
+				event.entityId = entityIdOf(args);
+				event.rows = failed ? 0 : rowsOf(result, args);
+				event.success = !failed;
+				event.action = ActionContext.current();
+				event.commit();
+			}
+		}
+	}
+
+	/**
+	 * Returns the ID of the entity a call is about, read after the call so that
+	 * inserted entities report their generated ID.
+	 *
+	 * @param args the call arguments
+	 * @return the ID, or -1 if the call is not about a single entity
+	 */
+	private static long entityIdOf(Object[] args) {
+		if (args == null || args.length == 0)
+			return -1;
+		Object first = args[0];
+		if (first instanceof Integer)
+			return (Integer) first;
+		if (first instanceof DataAccessObject)
+			return ((DataAccessObject) first).getId();
+		if (first instanceof QuizStatistic)
+			return ((QuizStatistic) first).getQuestionId();
+		return -1;
+	}
+
+	/**
+	 * Returns the number of entities a call read or wrote.
+	 *
+	 * @param result the call result
+	 * @param args   the call arguments
+	 * @return the number, or -1 if unknown
+	 */
+	private static long rowsOf(Object result, Object[] args) {
+		if (result == null) // entity not found
+			return 0;
+		if (result instanceof Collection)
+			return ((Collection<?>) result).size();
+		if (result instanceof Map)
+			return ((Map<?, ?>) result).size();
+		if (result instanceof int[])
+			return ((int[]) result).length;
+		if (result instanceof Long) // rows passed to a row handler
+			return (Long) result;
+		if (result instanceof Boolean) { // writes; a batch writes all its entities
+			if (args != null && args.length > 0 && args[0] instanceof Collection)
+				return ((Collection<?>) args[0]).size();
+			return 1;
+		}
+		if (result instanceof DataAccessObject)
+			return 1;
+		return -1;
+	}
+}
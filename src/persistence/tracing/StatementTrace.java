@@ -0,0 +1,115 @@
+package persistence.tracing;
+
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * {@code StatementTrace} describes one traced statement execution, as reported
+ * by the {@link StatementTracer} once the execution and, for queries, the
+ * reading of the result set are finished.
+ *
+ * @author Oleg Kapirulya
+ */
+public class StatementTrace {
+
+	/** The SQL text. */
+	private final String sql;
+
+	/** The shapes of the bound parameters, e.g. {@code "(Int, String x3)"}. */
+	private final String parameterShapes;
+
+	/** Number of rows read or affected, or -1 if unknown. */
+	private final long rows;
+
+	/** Number of parameter sets of a batch, 0 for a single execution. */
+	private final int batchSize;
+
+	/** Duration in nanoseconds, including reading the result set. */
+	private final long nanos;
+
+	/** The user action that issued the statement, or {@code null}. */
+	private final String action;
+
+	/** The error raised by the execution, or {@code null}. */
+	private final SQLException error;
+
+	/**
+	 * Creates a trace.
+	 *
+	 * @param sql             the SQL text
+	 * @param parameterShapes the shapes of the bound parameters
+	 * @param rows            rows read or affected, or -1 if unknown
+	 * @param batchSize       parameter sets of a batch, 0 for a single execution
+	 * @param nanos           duration in nanoseconds
+	 * @param action          the user action, or {@code null}
+	 * @param error           the error, or {@code null}
+	 */
+	public StatementTrace(String sql, String parameterShapes, long rows, int batchSize, long nanos, String action,
+			SQLException error) {
+		this.sql = sql;
+		this.parameterShapes = parameterShapes;
+		this.rows = rows;
+		this.batchSize = batchSize;
+		this.nanos = nanos;
+		this.action = action;
+		this.error = error;
+	}
+
+	/** @return the SQL text */
+	public String getSql() {
+		return sql;
+	}
+
+	/** @return the shapes of the bound parameters, e.g. {@code "(Int, String x3)"} */
+	public String getParameterShapes() {
+		return parameterShapes;
+	}
+
+	/** @return number of rows read or affected, or -1 if unknown */
+	public long getRows() {
+		return rows;
+	}
+
+	/** @return number of parameter sets of a batch, 0 for a single execution */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/** @return duration in nanoseconds, including reading the result set */
+	public long getNanos() {
+		return nanos;
+	}
+
+	/** @return the user action that issued the statement, or {@code null} */
+	public String getAction() {
+		return action;
+	}
+
+	/** @return the error raised by the execution, or {@code null} */
+	public SQLException getError() {
+		return error;
+	}
+
+	/**
+	 * Formats the trace for the log, e.g.
+	 * {@code [QuizQuestionBottom/Save] 153.2 ms, 1200 rows: SELECT ... (Int, String)}.
+	 *
+	 * @return the formatted trace
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(action == null ? "no action" : action).append("] ");
+		sb.append(String.format(Locale.ROOT, "%.1f ms", nanos / 1_000_000.0));
+		if (rows >= 0)
+			sb.append(", ").append(rows).append(rows == 1 ? " row" : " rows");
+		if (batchSize > 0)
+			sb.append(", batch of ").append(batchSize);
+		sb.append(": ").append(sql);
+		if (!parameterShapes.isEmpty())
+			sb.append(' ').append(parameterShapes);
+		if (error != null)
+			sb.append(" failed: ").append(error.getMessage());
+		return sb.toString();
+	}
+}
@@ -0,0 +1,246 @@
+package persistence.tracing;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@code StatementTracer} times every JDBC statement executed through a
+ * connection wrapped by {@link #wrap(Connection)}, typically every connection
+ * handed out by {@link persistence.ConnectionPool} once a tracer is set there.
+ *
+ * <p>
+ * Per execution it records the SQL text, the shapes of the bound parameters
+ * (their JDBC types, not their values), the number of rows read or affected,
+ * the duration including reading the result set, and the current
+ * {@link ActionContext user action}. Then it
+ * </p>
+ * <ul>
+ * <li>writes executions slower than the threshold, and failed ones, to the
+ * slow-query log: the {@code quiz.sql.slow} logger at level WARNING;</li>
+ * <li>counts executions and time per user action and SQL text, see
+ * {@link #summary(int)}. A statement executed far more often than its action
+ * suggests is the signature of an N+1 pattern;</li>
+ * <li>passes the {@link StatementTrace} to the registered listeners.</li>
+ * </ul>
+ *
+ * <p>
+ * Tracing adds a reflective call to every JDBC method of the wrapped objects,
+ * including {@code ResultSet.next()}; connections of a pool without tracer are
+ * not affected at all. All methods are thread-safe.
+ * </p>
+ *
+ * @author Oleg Kapirulya
+ */
+public class StatementTracer {
+
+	/** Default threshold above which a statement is logged as slow. */
+	public static final long DEFAULT_THRESHOLD_MILLIS = 100;
+
+	/** The slow-query log. */
+	private static final Logger SLOW_LOG = Logger.getLogger("quiz.sql.slow");
+
+	/** Maximum number of distinct action/SQL pairs counted by the summary. */
+	private static final int MAX_SUMMARY_ENTRIES = 1_000;
+
+	/** Threshold in nanoseconds above which a statement is logged as slow. */
+	private volatile long thresholdNanos;
+
+	/** Listeners receiving every trace. */
+	private final List<Consumer<StatementTrace>> listeners = new CopyOnWriteArrayList<>();
+
+	/** Executions and time per action and SQL text. */
+	private final Map<SummaryKey, Summary> summaries = new ConcurrentHashMap<>();
+
+	/** Number of traced executions. */
+	private final LongAdder statementCount = new LongAdder();
+
+	/** Number of executions above the threshold. */
+	private final LongAdder slowCount = new LongAdder();
+
+	/** Number of failed executions. */
+	private final LongAdder failedCount = new LongAdder();
+
+	/**
+	 * Creates a tracer with the default threshold of
+	 * {@value #DEFAULT_THRESHOLD_MILLIS} ms.
+	 */
+	public StatementTracer() {
+		this(DEFAULT_THRESHOLD_MILLIS);
+	}
+
+	/**
+	 * Creates a tracer.
+	 *
+	 * @param thresholdMillis threshold in milliseconds above which a statement is
+	 *                        logged as slow
+	 */
+	public StatementTracer(long thresholdMillis) {
+		setThresholdMillis(thresholdMillis);
+	}
+
+	/**
+	 * Wraps a connection so that all statements created by it are traced.
+	 *
+	 * @param connection the connection
+	 * @return the tracing connection; closing it closes the wrapped connection
+	 */
+	public Connection wrap(Connection connection) {
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, new TracingConnectionHandler(connection, this));
+	}
+
+	/**
+	 * Changes the threshold of the slow-query log.
+	 *
+	 * @param thresholdMillis threshold in milliseconds; 0 logs every statement
+	 */
+	public void setThresholdMillis(long thresholdMillis) {
+		this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, thresholdMillis));
+	}
+
+	/** @return threshold in milliseconds above which a statement is logged */
+	public long getThresholdMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+	}
+
+	/**
+	 * Registers a listener receiving every trace, on the thread that executed
+	 * the statement. It must be fast and must not throw.
+	 *
+	 * @param listener the listener
+	 */
+	public void addListener(Consumer<StatementTrace> listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Removes a listener.
+	 *
+	 * @param listener the listener
+	 */
+	public void removeListener(Consumer<StatementTrace> listener) {
+		listeners.remove(listener);
+	}
+
+	/** @return number of traced executions */
+	public long getStatementCount() {
+		return statementCount.sum();
+	}
+
+	/** @return number of executions logged as slow */
+	public long getSlowCount() {
+		return slowCount.sum();
+	}
+
+	/** @return number of failed executions */
+	public long getFailedCount() {
+		return failedCount.sum();
+	}
+
+	/**
+	 * Lists the most frequently executed statements per user action, one per
+	 * line, e.g.
+	 * {@code 480x 35.0 ms 480 rows [QuizQuestionBottom/Save] SELECT ... FROM answer WHERE question_id=?}.
+	 *
+	 * @param limit maximum number of lines
+	 * @return the summary
+	 */
+	public String summary(int limit) {
+		List<Map.Entry<SummaryKey, Summary>> entries = new ArrayList<>(summaries.entrySet());
+		entries.sort(Comparator.comparingLong((Map.Entry<SummaryKey, Summary> e) -> e.getValue().count.sum())
+				.reversed());
+		StringBuilder sb = new StringBuilder();
+		for (Map.Entry<SummaryKey, Summary> entry : entries.subList(0, Math.min(limit, entries.size()))) {
+			Summary s = entry.getValue();
+			String action = entry.getKey().action;
+			sb.append(String.format(Locale.ROOT, "%dx %.1f ms %d rows [%s] %s%n", s.count.sum(),
+					s.nanos.sum() / 1_000_000.0, s.rows.sum(), action == null ? "no action" : action,
+					entry.getKey().sql));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Discards the counts of {@link #summary(int)}.
+	 */
+	public void resetSummary() {
+		summaries.clear();
+	}
+
+	/**
+	 * Handles a finished execution.
+	 *
+	 * @param trace the trace
+	 */
+	void report(StatementTrace trace) {
+		statementCount.increment();
+		if (trace.getError() != null) {
+			failedCount.increment();
+			SLOW_LOG.log(Level.WARNING, trace.toString());
+		} else if (trace.getNanos() >= thresholdNanos) {
+			slowCount.increment();
+			SLOW_LOG.log(Level.WARNING, trace.toString());
+		}
+
+		SummaryKey key = new SummaryKey(trace.getAction(), trace.getSql());
+		Summary summary = summaries.get(key);
+		if (summary == null && summaries.size() < MAX_SUMMARY_ENTRIES)
+			summary = summaries.computeIfAbsent(key, k -> new Summary());
+		if (summary != null) {
+			summary.count.increment();
+			summary.nanos.add(trace.getNanos());
+			summary.rows.add(Math.max(0, trace.getRows()));
+		}
+
+		for (Consumer<StatementTrace> listener : listeners) {
+			listener.accept(trace);
+		}
+	}
+
+	/**
+	 * Key of the summary: user action and SQL text.
+	 */
+	private static final class SummaryKey {
+		final String action;
+		final String sql;
+
+		SummaryKey(String action, String sql) {
+			this.action = action;
+			this.sql = sql;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof SummaryKey))
+				return false;
+			SummaryKey other = (SummaryKey) obj;
+			return java.util.Objects.equals(action, other.action) && java.util.Objects.equals(sql, other.sql);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * java.util.Objects.hashCode(action) + java.util.Objects.hashCode(sql);
+		}
+	}
+
+	/**
+	 * Executions, time and rows of one action/SQL pair.
+	 */
+	private static final class Summary {
+		final LongAdder count = new LongAdder();
+		final LongAdder nanos = new LongAdder();
+		final LongAdder rows = new LongAdder();
+	}
+}
@@ -0,0 +1,76 @@
+package persistence.tracing;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Handler of the connections wrapped by {@link StatementTracer#wrap(Connection)}:
+ * wraps every statement it creates in a {@link TracingStatementHandler} and
+ * delegates everything else.
+ *
+ * @author Oleg Kapirulya
+ */
+final class TracingConnectionHandler implements InvocationHandler {
+
+	private final Connection target;
+
+	private final StatementTracer tracer;
+
+	TracingConnectionHandler(Connection target, StatementTracer tracer) {
+		this.target = target;
+		this.tracer = tracer;
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		switch (method.getName()) {
+		case "prepareStatement":
+			return wrap(PreparedStatement.class, (Statement) delegate(method, args), (String) args[0]);
+		case "createStatement":
+			return wrap(Statement.class, (Statement) delegate(method, args), null);
+		case "equals":
+			return proxy == args[0];
+		case "hashCode":
+			return System.identityHashCode(proxy);
+		case "toString":
+			return "TracingConnection[" + target + "]";
+		default:
+			return delegate(method, args);
+		}
+	}
+
+	/**
+	 * Calls a method on the wrapped connection.
+	 *
+	 * @param method the method
+	 * @param args   the arguments
+	 * @return the result
+	 * @throws Throwable what the method threw
+	 */
+	private Object delegate(Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Wraps a statement in a tracing proxy.
+	 *
+	 * @param type      the interface to expose
+	 * @param statement the statement
+	 * @param sql       the SQL text of a prepared statement, {@code null} for a
+	 *                  plain statement
+	 * @return the tracing statement
+	 */
+	private Statement wrap(Class<? extends Statement> type, Statement statement, String sql) {
+		return (Statement) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { type },
+				new TracingStatementHandler(statement, sql, tracer));
+	}
+}
@@ -0,0 +1,306 @@
+package persistence.tracing;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Handler of the statements created by a traced connection.
+ *
+ * <p>
+ * It remembers the type of every bound parameter and counts the entries of a
+ * batch. Updates and batches are reported as soon as they return. A query is
+ * reported once its result set, or failing that the statement, is closed, so
+ * that its duration and row count include reading the rows.
+ * </p>
+ *
+ * @author Oleg Kapirulya
+ */
+final class TracingStatementHandler implements InvocationHandler {
+
+	private final Statement target;
+
+	/** SQL text of a prepared statement, {@code null} for a plain statement. */
+	private final String sql;
+
+	private final StatementTracer tracer;
+
+	/** Type of the bound parameters by index. */
+	private final Map<Integer, String> shapes = new TreeMap<>();
+
+	/** Entries added to the current batch. */
+	private int batchSize;
+
+	/** SQL text of the last batch entry of a plain statement. */
+	private String batchSql;
+
+	/** Result set of the last query that has not been reported yet. */
+	private ResultSetHandler openResult;
+
+	TracingStatementHandler(Statement target, String sql, StatementTracer tracer) {
+		this.target = target;
+		this.sql = sql;
+		this.tracer = tracer;
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		String name = method.getName();
+		if (name.startsWith("set") && method.getDeclaringClass() == PreparedStatement.class) {
+			shapes.put((Integer) args[0], shapeOf(name, args));
+			return delegate(method, args);
+		}
+
+		switch (name) {
+		case "clearParameters":
+			shapes.clear();
+			return delegate(method, args);
+		case "addBatch":
+			batchSize++;
+			if (args != null)
+				batchSql = (String) args[0];
+			return delegate(method, args);
+		case "clearBatch":
+			batchSize = 0;
+			return delegate(method, args);
+		case "executeQuery":
+			return executeQuery(method, args);
+		case "executeUpdate":
+		case "executeLargeUpdate":
+		case "execute":
+			return execute(method, args);
+		case "executeBatch":
+		case "executeLargeBatch":
+			return executeBatch(method, args);
+		case "close":
+			finishResult();
+			return delegate(method, args);
+		case "equals":
+			return proxy == args[0];
+		case "hashCode":
+			return System.identityHashCode(proxy);
+		case "toString":
+			return "TracingStatement[" + target + "]";
+		default:
+			return delegate(method, args);
+		}
+	}
+
+	/**
+	 * Runs a query and wraps its result set, which reports the query once it is
+	 * closed.
+	 */
+	private Object executeQuery(Method method, Object[] args) throws Throwable {
+		finishResult();
+		String text = args == null ? sql : (String) args[0];
+		String action = ActionContext.current();
+		long start = System.nanoTime();
+		ResultSet rs = (ResultSet) run(method, args, text, 0, start, action);
+		openResult = new ResultSetHandler(rs, text, shapes(), start, action);
+		return Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+				openResult);
+	}
+
+	/**
+	 * Runs an update or a generic execution and reports it.
+	 */
+	private Object execute(Method method, Object[] args) throws Throwable {
+		finishResult();
+		String text = args == null ? sql : (String) args[0];
+		String action = ActionContext.current();
+		long start = System.nanoTime();
+		Object result = run(method, args, text, 0, start, action);
+		long rows = result instanceof Number ? ((Number) result).longValue() : -1;
+		tracer.report(new StatementTrace(text, shapes(), rows, 0, System.nanoTime() - start, action, null));
+		return result;
+	}
+
+	/**
+	 * Runs a batch and reports it with the sum of the affected rows.
+	 */
+	private Object executeBatch(Method method, Object[] args) throws Throwable {
+		finishResult();
+		String text = sql != null ? sql : batchSql;
+		int size = batchSize;
+		batchSize = 0;
+		String action = ActionContext.current();
+		long start = System.nanoTime();
+		Object result = run(method, args, text, size, start, action);
+		long rows = 0;
+		if (result instanceof int[]) {
+			for (int count : (int[]) result)
+				rows += Math.max(0, count);
+		} else if (result instanceof long[]) {
+			for (long count : (long[]) result)
+				rows += Math.max(0, count);
+		}
+		tracer.report(new StatementTrace(text, shapes(), rows, size, System.nanoTime() - start, action, null));
+		return result;
+	}
+
+	/**
+	 * Calls an execute method on the wrapped statement and reports it if it
+	 * fails.
+	 */
+	private Object run(Method method, Object[] args, String text, int size, long start, String action)
+			throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof SQLException) {
+				tracer.report(new StatementTrace(text, shapes(), -1, size, System.nanoTime() - start, action,
+						(SQLException) cause));
+			}
+			throw cause;
+		}
+	}
+
+	/**
+	 * Calls a method on the wrapped statement.
+	 */
+	private Object delegate(Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Reports the last query if its result set has not been closed.
+	 */
+	private void finishResult() {
+		if (openResult != null) {
+			openResult.finish();
+			openResult = null;
+		}
+	}
+
+	/**
+	 * Returns the type of a bound parameter: the setter name without
+	 * {@code set}, e.g. {@code Int}, or the class of a {@code setObject}
+	 * argument.
+	 *
+	 * @param setter the setter name
+	 * @param args   the setter arguments
+	 * @return the type
+	 */
+	private static String shapeOf(String setter, Object[] args) {
+		if ("setObject".equals(setter) && args.length > 1)
+			return args[1] == null ? "Null" : args[1].getClass().getSimpleName();
+		return setter.substring(3);
+	}
+
+	/**
+	 * Formats the bound parameter types, merging runs of the same type, e.g.
+	 * {@code (Int, String x3)}. The long IN lists of the DAOs stay readable this
+	 * way.
+	 *
+	 * @return the formatted types, or an empty string without parameters
+	 */
+	private String shapes() {
+		if (shapes.isEmpty())
+			return "";
+		StringBuilder sb = new StringBuilder("(");
+		String previous = null;
+		int run = 0;
+		for (String shape : shapes.values()) {
+			if (shape.equals(previous)) {
+				run++;
+				continue;
+			}
+			appendRun(sb, previous, run);
+			previous = shape;
+			run = 1;
+		}
+		appendRun(sb, previous, run);
+		return sb.append(')').toString();
+	}
+
+	private static void appendRun(StringBuilder sb, String shape, int run) {
+		if (shape == null)
+			return;
+		if (sb.length() > 1)
+			sb.append(", ");
+		sb.append(shape);
+		if (run > 1)
+			sb.append(" x").append(run);
+	}
+
+	/**
+	 * Handler of the result set of a traced query: counts the rows read and
+	 * reports the query when the result set is closed.
+	 */
+	private final class ResultSetHandler implements InvocationHandler {
+
+		private final ResultSet target;
+
+		private final String sql;
+
+		private final String shapes;
+
+		private final long start;
+
+		private final String action;
+
+		private long rows;
+
+		private boolean finished;
+
+		ResultSetHandler(ResultSet target, String sql, String shapes, long start, String action) {
+			this.target = target;
+			this.sql = sql;
+			this.shapes = shapes;
+			this.start = start;
+			this.action = action;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+			case "next":
+				Object hasRow = delegate(method, args);
+				if ((Boolean) hasRow)
+					rows++;
+				return hasRow;
+			case "close":
+				finish();
+				return delegate(method, args);
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			default:
+				return delegate(method, args);
+			}
+		}
+
+		private Object delegate(Method method, Object[] args) throws Throwable {
+			try {
+				return method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+
+		/**
+		 * Reports the query once.
+		 */
+		void finish() {
+			if (finished)
+				return;
+			finished = true;
+			if (openResult == this)
+				openResult = null;
+			tracer.report(new StatementTrace(sql, shapes, rows, 0, System.nanoTime() - start, action, null));
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package persistence.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * {@code UserActionEvent} is the Java Flight Recorder event of a quiz action
+ * handled by one of the UI delegates, e.g. saving an answer or deleting a
+ * theme. The {@link DaoCallEvent}s of the same thread within its duration, and
+ * those carrying the same {@link ActionContext user action} on background
+ * threads, are the database work the action caused.
+ *
+ * <p>
+ * Usage in a delegate method:
+ * </p>
+ *
+ * <pre>
+ * UserActionEvent event = new UserActionEvent("QuizPanel.onSaveAnswer");
+ * event.begin();
+ * try {
+ * 	...
+ * 	event.setQuestionId(q.getId());
+ * 	...
+ * 	event.setCompleted(true);
+ * } finally {
+ * 	event.commit();
+ * }
+ * </pre>
+ *
+ * @author Oleg Kapirulya
+ */
+@Name("quiz.UserAction")
+@Label("User Action")
+@Category({ "Quiz", "User Interface" })
+@Description("A quiz action triggered by the user")
+@StackTrace(false)
+public class UserActionEvent extends Event {
+
+	@Label("Action")
+	@Description("The delegate method handling the action")
+	String action;
+
+	@Label("Trigger")
+	@Description("The click or key press that triggered the action")
+	String trigger;
+
+	@Label("Theme ID")
+	long themeId = -1;
+
+	@Label("Question ID")
+	long questionId = -1;
+
+	@Label("Completed")
+	@Description("False if the action was rejected by validation or failed")
+	boolean completed;
+
+	/**
+	 * Creates the event of an action within the current {@link ActionContext}.
+	 *
+	 * @param action the delegate method, e.g. {@code "QuizPanel.onSaveAnswer"}
+	 */
+	public UserActionEvent(String action) {
+		this.action = action;
+		this.trigger = ActionContext.current();
+	}
+
+	/**
+	 * @param themeId the ID of the theme the action is about
+	 */
+	public void setThemeId(long themeId) {
+		this.themeId = themeId;
+	}
+
+	/**
+	 * @param questionId the ID of the question the action is about
+	 */
+	public void setQuestionId(long questionId) {
+		this.questionId = questionId;
+	}
+
+	/**
+	 * @param completed whether the action was carried out
+	 */
+	public void setCompleted(boolean completed) {
+		this.completed = completed;
+	}
+}
@@ -0,0 +1,307 @@
+package quizLogic;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * {@code IntObjectMap} is a compact map from primitive {@code int} keys to
+ * objects that preserves insertion order. It backs the child collections of the
+ * domain model ({@link Theme} questions, {@link Question} answers), where a
+ * {@code HashMap<Integer, ...>} would box every key and allocate one entry
+ * object per mapping.
+ *
+ * <p>
+ * Layout:
+ * </p>
+ * <ul>
+ * <li>The mappings are stored densely in insertion order in an {@code int[]} of
+ * keys and an {@code Object[]} of values.</li>
+ * <li>An open-addressing hash table with linear probing maps a key to the
+ * position of its mapping; a slot holds that position plus one, 0 marks an
+ * empty slot.</li>
+ * <li>Removing a mapping only clears its value. The holes are dropped and the
+ * table is rebuilt when the dense arrays are full.</li>
+ * </ul>
+ * Lookups, insertions and iteration allocate nothing.
+ *
+ * <p>
+ * Values must not be {@code null}. The class is not thread-safe, like the
+ * collections it replaces.
+ * </p>
+ *
+ * @param <V> value type
+ * @author Oleg Kapirulya
+ */
+final class IntObjectMap<V> implements Serializable {
+
+	/** Serialization compatibility ID. */
+	private static final long serialVersionUID = 1L;
+
+	/** Initial capacity of the dense arrays; the table has twice as many slots. */
+	private static final int INITIAL_CAPACITY = 4;
+
+	/** Keys in insertion order; only the first {@link #count} are used. */
+	private int[] keys = new int[INITIAL_CAPACITY];
+
+	/** Values in insertion order; {@code null} for removed mappings. */
+	private Object[] values = new Object[INITIAL_CAPACITY];
+
+	/** Number of used positions in the dense arrays, including removed ones. */
+	private int count;
+
+	/** Number of mappings. */
+	private int size;
+
+	/** Hash table of dense positions plus one; its length is a power of two. */
+	private transient int[] table = new int[2 * INITIAL_CAPACITY];
+
+	/** Cached read-only view of the values, see {@link #values()}. */
+	private transient Collection<V> valuesView;
+
+	/**
+	 * Returns the value mapped to a key.
+	 *
+	 * @param key the key
+	 * @return the value, or {@code null} if the key is not mapped
+	 */
+	@SuppressWarnings("unchecked")
+	V get(int key) {
+		int pos = find(key);
+		return pos < 0 ? null : (V) values[pos];
+	}
+
+	/**
+	 * Maps a key to a value. Replacing the value of a key keeps its position in
+	 * the iteration order.
+	 *
+	 * @param key   the key
+	 * @param value the value, not {@code null}
+	 * @return the previous value, or {@code null}
+	 */
+	@SuppressWarnings("unchecked")
+	V put(int key, V value) {
+		if (value == null)
+			throw new IllegalArgumentException("value must not be null");
+		int pos = find(key);
+		if (pos >= 0) {
+			V old = (V) values[pos];
+			values[pos] = value;
+			return old;
+		}
+		if (count == keys.length)
+			rebuild(size + 1);
+		keys[count] = key;
+		values[count] = value;
+		count++;
+		size++;
+		insertSlot(key, count);
+		return null;
+	}
+
+	/**
+	 * Removes the mapping of a key.
+	 *
+	 * @param key the key
+	 * @return the removed value, or {@code null} if the key was not mapped
+	 */
+	@SuppressWarnings("unchecked")
+	V remove(int key) {
+		int pos = find(key);
+		if (pos < 0)
+			return null;
+		V old = (V) values[pos];
+		values[pos] = null; // the slot stays until the next rebuild
+		size--;
+		return old;
+	}
+
+	/**
+	 * Removes all mappings, keeping the allocated capacity.
+	 */
+	void clear() {
+		Arrays.fill(values, 0, count, null);
+		Arrays.fill(table, 0);
+		count = 0;
+		size = 0;
+	}
+
+	/** @return number of mappings */
+	int size() {
+		return size;
+	}
+
+	/** @return {@code true} if there are no mappings */
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns a read-only view of the values in insertion order. The view is
+	 * created once and reflects later changes of the map.
+	 *
+	 * @return the values
+	 */
+	Collection<V> values() {
+		if (valuesView == null)
+			valuesView = new ValuesView();
+		return valuesView;
+	}
+
+	/**
+	 * Copies the values in insertion order into an unmodifiable list.
+	 *
+	 * @return the values
+	 */
+	@SuppressWarnings("unchecked")
+	List<V> toList() {
+		Object[] copy = new Object[size];
+		int i = 0;
+		for (int pos = 0; pos < count; pos++) {
+			if (values[pos] != null)
+				copy[i++] = values[pos];
+		}
+		return (List<V>) Collections.unmodifiableList(Arrays.asList(copy));
+	}
+
+	/**
+	 * Finds the dense position of a key.
+	 *
+	 * @param key the key
+	 * @return the position, or {@code -1} if the key is not mapped
+	 */
+	private int find(int key) {
+		int mask = table.length - 1;
+		for (int slot = mix(key) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+			int pos = table[slot] - 1;
+			if (keys[pos] == key && values[pos] != null)
+				return pos;
+		}
+		return -1;
+	}
+
+	/**
+	 * Stores a dense position in the first empty slot of a key's probe sequence.
+	 *
+	 * @param key   the key
+	 * @param entry the dense position plus one
+	 */
+	private void insertSlot(int key, int entry) {
+		int mask = table.length - 1;
+		int slot = mix(key) & mask;
+		while (table[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+		table[slot] = entry;
+	}
+
+	/**
+	 * Drops the removed mappings, grows the dense arrays if needed and rebuilds
+	 * the hash table.
+	 *
+	 * @param required number of mappings that must fit
+	 */
+	private void rebuild(int required) {
+		int kept = 0;
+		for (int pos = 0; pos < count; pos++) {
+			if (values[pos] != null) {
+				keys[kept] = keys[pos];
+				values[kept] = values[pos];
+				kept++;
+			}
+		}
+		Arrays.fill(values, kept, count, null);
+		count = kept;
+
+		if (required > keys.length) {
+			int capacity = Math.max(required, keys.length * 2);
+			keys = Arrays.copyOf(keys, capacity);
+			values = Arrays.copyOf(values, capacity);
+		}
+		if (table == null || table.length < 2 * keys.length) {
+			table = new int[2 * keys.length];
+		} else {
+			Arrays.fill(table, 0);
+		}
+		for (int pos = 0; pos < count; pos++) {
+			insertSlot(keys[pos], pos + 1);
+		}
+	}
+
+	/**
+	 * Spreads the bits of a key, so that consecutive IDs do not cluster.
+	 *
+	 * @param key the key
+	 * @return the hash
+	 */
+	private static int mix(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Restores the transient hash table after deserialization.
+	 *
+	 * @param in the stream
+	 * @throws IOException            if reading fails
+	 * @throws ClassNotFoundException if a value class is missing
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		rebuild(size);
+	}
+
+	/**
+	 * Read-only live view of the values.
+	 */
+	private final class ValuesView extends AbstractCollection<V> {
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public Iterator<V> iterator() {
+			return new Iterator<>() {
+				/** Next dense position to inspect. */
+				private int pos = skipRemoved(0);
+
+				@Override
+				public boolean hasNext() {
+					return pos < count;
+				}
+
+				@Override
+				@SuppressWarnings("unchecked")
+				public V next() {
+					if (pos >= count)
+						throw new NoSuchElementException();
+					V value = (V) values[pos];
+					pos = skipRemoved(pos + 1);
+					return value;
+				}
+			};
+		}
+
+		/**
+		 * Advances to the next position holding a mapping.
+		 *
+		 * @param from the first position to inspect
+		 * @return the position, or {@link #count}
+		 */
+		private int skipRemoved(int from) {
+			while (from < count && values[from] == null) {
+				from++;
+			}
+			return from;
+		}
+	}
+}
@@ -1,9 +1,6 @@
 package quizLogic;
 
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
 import persistence.serialization.DataAccessObject;
 
@@ -42,9 +39,12 @@ public class Question extends DataAccessObject {
 
 	/**
 	 * Internal map of answers keyed by answer IDs, ensuring stable order
-	 * (LinkedHashMap preserves insertion order).
+	 * ({@link IntObjectMap} preserves insertion order).
 	 */
-	private Map<Integer, Answer> answerMap = new LinkedHashMap<>();
+	private IntObjectMap<Answer> answerMap = new IntObjectMap<>();
+
+	/** Cached read-only list of the answers; dropped whenever they change. */
+	private transient List<Answer> answers;
 
 	/**
 	 * Constructs a new question associated with a given theme.
@@ -122,16 +122,24 @@ public class Question extends DataAccessObject {
 	public void addAnswer(Answer a) {
 		if (a != null) {
 			answerMap.put(a.getId(), a);
+			answers = null;
 		}
 	}
 
 	/**
 	 * Returns all answers of this question.
+	 * <p>
+	 * The list is built once after the answers changed and then returned by every
+	 * call, so repeated calls (e.g. while grading or validating) do not allocate.
+	 * It is a snapshot: later changes of the answers are not reflected.
+	 * </p>
 	 *
-	 * @return a new {@link List} containing all {@link Answer}s
+	 * @return an unmodifiable {@link List} containing all {@link Answer}s
 	 */
 	public List<Answer> getAnswers() {
-		return new ArrayList<>(answerMap.values());
+		if (answers == null)
+			answers = answerMap.toList();
+		return answers;
 	}
 
 	/**
@@ -139,6 +147,7 @@ public class Question extends DataAccessObject {
 	 */
 	public void clearAnswers() {
 		answerMap.clear();
+		answers = null;
 	}
 
 	/**
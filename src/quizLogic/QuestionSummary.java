@@ -0,0 +1,105 @@
+package quizLogic;
+
+/**
+ * {@code QuestionSummary} is a compact, read-only projection of a
+ * {@link Question}: only its ID, title and theme ID.
+ *
+ * <p>
+ * List views use summaries instead of full questions, so the potentially large
+ * question text and the answers are neither transferred nor kept on the heap.
+ * The full {@link Question} is loaded when a row is selected, e.g. via
+ * {@link persistence.DBDataManager#getFullQuestionById(int)}.
+ * </p>
+ *
+ * <p>
+ * Like {@link Question}, summaries are equal if their IDs are equal.
+ * </p>
+ * 
+ * @author Oleg Kapirulya
+ */
+public class QuestionSummary {
+
+	/** ID of the question. */
+	private final int id;
+
+	/** Title of the question. */
+	private final String title;
+
+	/** ID of the question's theme. */
+	private final int themeId;
+
+	/**
+	 * Creates a summary.
+	 *
+	 * @param id      the question ID
+	 * @param title   the question title
+	 * @param themeId the ID of the question's theme
+	 */
+	public QuestionSummary(int id, String title, int themeId) {
+		this.id = id;
+		this.title = title;
+		this.themeId = themeId;
+	}
+
+	/**
+	 * Creates the summary of a question.
+	 *
+	 * @param question the question
+	 * @return its summary
+	 */
+	public static QuestionSummary of(Question question) {
+		return new QuestionSummary(question.getId(), question.getTitle(),
+				question.getThema() == null ? 0 : question.getThema().getId());
+	}
+
+	/**
+	 * Creates a stub {@link Question} carrying only the summarized fields, for
+	 * operations that only need the IDs (e.g. deleting).
+	 *
+	 * @return a question without text and answers whose theme only has an ID
+	 */
+	public Question toQuestion() {
+		Theme theme = new Theme();
+		theme.setId(themeId);
+		Question question = new Question(theme);
+		question.setId(id);
+		question.setTitle(title);
+		return question;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public int getThemeId() {
+		return themeId;
+	}
+
+	/**
+	 * Returns the title, as displayed in lists and combo boxes.
+	 *
+	 * @return the title
+	 */
+	@Override
+	public String toString() {
+		return title;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof QuestionSummary))
+			return false;
+		return id == ((QuestionSummary) obj).id;
+	}
+
+	@Override
+	public int hashCode() {
+		return Integer.hashCode(id);
+	}
+}
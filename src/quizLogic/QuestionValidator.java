@@ -1,5 +1,8 @@
 package quizLogic;
 
+import java.util.List;
+import java.util.function.ToIntFunction;
+
 /**
  * {@code QuestionValidator} provides static validation logic for
  * {@link Question} objects.
@@ -46,6 +49,18 @@ public class QuestionValidator {
 	/** Error message: duplicate title in same theme. */
 	public static final String MSG_DUPLICATE_TITLE = "Es existiert bereits eine andere Frage mit diesem Titel im gewählten Thema.";
 
+	/** Confirmation prompt listing near-duplicate questions (one per line). */
+	public static final String MSG_NEAR_DUPLICATE_CONFIRM = "Es gibt bereits sehr ähnliche Fragen:\n%s\nTrotzdem speichern?";
+
+	/** Title of the near-duplicate confirmation dialog. */
+	public static final String MSG_NEAR_DUPLICATE_TITLE = "Ähnliche Fragen";
+
+	/** Lists the groups of near-duplicate questions (one group per line). */
+	public static final String MSG_DUPLICATE_CLUSTERS = "Gruppen sehr ähnlicher Fragen:\n%s";
+
+	/** Message: the question bank has no near-duplicates. */
+	public static final String MSG_NO_DUPLICATE_CLUSTERS = "Keine sehr ähnlichen Fragen gefunden.";
+
 	// ------------------- Action / Result Messages -------------------
 
 	/** Prefix for save error messages. */
@@ -86,6 +101,56 @@ public class QuestionValidator {
 	 *         error message constants
 	 */
 	public static String validate(Question question, Theme thema, Question excludeQuestion) {
+		String error = validateContent(question, thema);
+		if (error != null)
+			return error;
+
+		// Prevent duplicate titles in the same theme
+		String normalized = question.getTitle().trim().toLowerCase();
+		if (thema.getAllQuestions() != null) {
+			for (Question existing : thema.getAllQuestions()) {
+				if (existing != excludeQuestion && existing.getTitle() != null
+						&& normalized.equals(existing.getTitle().trim().toLowerCase())) {
+					return MSG_DUPLICATE_TITLE;
+				}
+			}
+		}
+		return null; // success
+	}
+
+	/**
+	 * Validates a question before persistence, checking the title against an
+	 * index of the titles of the theme's questions instead of
+	 * {@link Theme#getAllQuestions()}, which is not populated from the database.
+	 * The question itself (same ID) is not a duplicate.
+	 *
+	 * @param question   the {@link Question} to validate
+	 * @param thema      the {@link Theme} the question belongs to
+	 * @param titleOwner returns the ID of the question of {@code thema} with a
+	 *                   given title, or {@code -1} if there is none (e.g.
+	 *                   {@code persistence.DBDataManager#findQuestionIdByTitle})
+	 * @return {@code null} if validation succeeded, otherwise one of the static
+	 *         error message constants
+	 */
+	public static String validate(Question question, Theme thema, ToIntFunction<String> titleOwner) {
+		String error = validateContent(question, thema);
+		if (error != null)
+			return error;
+
+		int owner = titleOwner.applyAsInt(question.getTitle());
+		if (owner > 0 && owner != question.getId())
+			return MSG_DUPLICATE_TITLE;
+		return null; // success
+	}
+
+	/**
+	 * Performs all checks except the duplicate-title check.
+	 *
+	 * @param question the {@link Question} to validate
+	 * @param thema    the {@link Theme} the question belongs to
+	 * @return {@code null} if the checks succeeded, otherwise an error message
+	 */
+	private static String validateContent(Question question, Theme thema) {
 		if (thema == null)
 			return MSG_NO_THEME;
 		if (question == null || question.getThema() == null)
@@ -94,25 +159,18 @@ public class QuestionValidator {
 			return MSG_NO_TITLE;
 		if (isEmpty(question.getText()))
 			return MSG_NO_TEXT;
-		if (question.getAnswers() == null || question.getAnswers().isEmpty())
+		List<Answer> answers = question.getAnswers();
+		if (answers == null || answers.isEmpty())
 			return MSG_NO_ANSWER;
 
 		// Must have at least one correct answer
-		boolean hasCorrect = question.getAnswers().stream().anyMatch(Answer::isCorrect);
+		boolean hasCorrect = false;
+		for (int i = 0; i < answers.size() && !hasCorrect; i++) {
+			hasCorrect = answers.get(i).isCorrect();
+		}
 		if (!hasCorrect)
 			return MSG_NO_CORRECT;
-
-		// Prevent duplicate titles in the same theme
-		String normalized = question.getTitle().trim().toLowerCase();
-		if (thema.getAllQuestions() != null) {
-			for (Question existing : thema.getAllQuestions()) {
-				if (existing != excludeQuestion && existing.getTitle() != null
-						&& normalized.equals(existing.getTitle().trim().toLowerCase())) {
-					return MSG_DUPLICATE_TITLE;
-				}
-			}
-		}
-		return null; // success
+		return null;
 	}
 
 	/**
@@ -62,4 +62,10 @@ public class QuizValidator {
 	 * answer has been revealed.
 	 */
 	public static final String MSG_CANNOT_SAVE_AFTER_SHOW = "Nach dem Anzeigen der Antwort kann keine Antwort mehr gespeichert werden.";
+
+	/**
+	 * Error shown when the answer could not be recorded, e.g. because too many
+	 * attempts are still waiting to be written to the database.
+	 */
+	public static final String MSG_SAVE_FAILED = "Antwort konnte nicht gespeichert werden. Bitte versuche es erneut.";
 }
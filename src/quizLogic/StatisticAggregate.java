@@ -0,0 +1,64 @@
+package quizLogic;
+
+/**
+ * {@code StatisticAggregate} holds the aggregated result of a group of quiz
+ * attempts: how many attempts there were and how many of them were correct.
+ *
+ * <p>
+ * Instances are produced by the aggregate queries of
+ * {@link persistence.DAO.StatisticDAO}, which count attempts inside the
+ * database instead of loading every {@link QuizStatistic} row.
+ * </p>
+ * 
+ * @author Oleg Kapirulya
+ */
+public class StatisticAggregate {
+
+	/** Number of attempts in this group. */
+	private final int total;
+
+	/** Number of correct attempts in this group. */
+	private final int correct;
+
+	/**
+	 * Creates an aggregate.
+	 *
+	 * @param total   number of attempts
+	 * @param correct number of correct attempts
+	 */
+	public StatisticAggregate(int total, int correct) {
+		this.total = total;
+		this.correct = correct;
+	}
+
+	/**
+	 * Combines this aggregate with another one.
+	 *
+	 * @param other the aggregate to add
+	 * @return a new aggregate holding the sums of both
+	 */
+	public StatisticAggregate plus(StatisticAggregate other) {
+		return new StatisticAggregate(total + other.total, correct + other.correct);
+	}
+
+	public int getTotal() {
+		return total;
+	}
+
+	public int getCorrect() {
+		return correct;
+	}
+
+	public int getWrong() {
+		return total - correct;
+	}
+
+	/**
+	 * Returns the share of correct attempts.
+	 *
+	 * @return accuracy in percent (0-100), or 0 if there were no attempts
+	 */
+	public double getAccuracy() {
+		return total == 0 ? 0.0 : 100.0 * correct / total;
+	}
+}
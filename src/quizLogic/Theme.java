@@ -1,8 +1,6 @@
 package quizLogic;
 
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
 
 import persistence.serialization.DataAccessObject;
 
@@ -36,9 +34,9 @@ public class Theme extends DataAccessObject {
 
 	/**
 	 * Internal storage of questions belonging to this theme, indexed by their
-	 * unique question IDs.
+	 * unique question IDs without boxing them.
 	 */
-	private Map<Integer, Question> questionMap = new HashMap<>();
+	private IntObjectMap<Question> questionMap = new IntObjectMap<>();
 
 	/**
 	 * Creates a new theme with no title and text.
@@ -111,10 +109,22 @@ public class Theme extends DataAccessObject {
 		return questionMap.remove(id) != null;
 	}
 
+	/**
+	 * Returns the question with the given ID.
+	 *
+	 * @param id the question ID
+	 * @return the {@link Question}, or {@code null} if it does not belong to this
+	 *         theme
+	 */
+	public Question getQuestionById(int id) {
+		return questionMap.get(id);
+	}
+
 	/**
 	 * Returns all questions that belong to this theme.
 	 *
-	 * @return a collection of {@link Question} objects
+	 * @return a read-only live view of the {@link Question} objects, in insertion
+	 *         order
 	 */
 	public Collection<Question> getAllQuestions() {
 		return questionMap.values();
@@ -0,0 +1,79 @@
+package quizLogic;
+
+/**
+ * {@code ThemeSummary} is a compact, read-only projection of a {@link Theme}:
+ * only its ID and title.
+ *
+ * <p>
+ * The theme list shows summaries; the full {@link Theme} including its
+ * description text is loaded when a row is selected, e.g. via
+ * {@link persistence.DBDataManager#getThemeById(int)}.
+ * </p>
+ *
+ * <p>
+ * Like {@link Theme}, summaries are equal if their IDs are equal.
+ * </p>
+ * 
+ * @author Oleg Kapirulya
+ */
+public class ThemeSummary {
+
+	/** ID of the theme. */
+	private final int id;
+
+	/** Title of the theme. */
+	private final String title;
+
+	/**
+	 * Creates a summary.
+	 *
+	 * @param id    the theme ID
+	 * @param title the theme title
+	 */
+	public ThemeSummary(int id, String title) {
+		this.id = id;
+		this.title = title;
+	}
+
+	/**
+	 * Creates the summary of a theme.
+	 *
+	 * @param theme the theme
+	 * @return its summary
+	 */
+	public static ThemeSummary of(Theme theme) {
+		return new ThemeSummary(theme.getId(), theme.getTitle());
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	/**
+	 * Returns the title, as displayed in lists.
+	 *
+	 * @return the title
+	 */
+	@Override
+	public String toString() {
+		return title;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof ThemeSummary))
+			return false;
+		return id == ((ThemeSummary) obj).id;
+	}
+
+	@Override
+	public int hashCode() {
+		return Integer.hashCode(id);
+	}
+}
@@ -1,6 +1,7 @@
 package quizLogic;
 
 import java.util.List;
+import java.util.function.ToIntFunction;
 
 /**
  * {@code ThemeValidator} provides static validation logic for {@link Theme}
@@ -93,4 +94,33 @@ public class ThemeValidator {
 		}
 		return null; // OK
 	}
+
+	/**
+	 * Validates a theme's input data before saving, checking the title against an
+	 * index of the existing titles instead of scanning all themes.
+	 *
+	 * @param titel       the title to validate
+	 * @param description the description to validate
+	 * @param titleOwner  returns the ID of the theme with a given title, or
+	 *                    {@code -1} if there is none (e.g.
+	 *                    {@code persistence.DBDataManager#findThemeIdByTitle})
+	 * @param excludeId   ID of the theme being updated, or {@code -1} for a new
+	 *                    theme
+	 * @return {@code null} if validation succeeded, otherwise one of
+	 *         {@link #MSG_NO_TITLE}, {@link #MSG_NO_DESCRIPTION}, or
+	 *         {@link #MSG_DUPLICATE_TITLE}
+	 */
+	public static String validate(String titel, String description, ToIntFunction<String> titleOwner,
+			int excludeId) {
+		if (titel == null || titel.trim().isEmpty())
+			return MSG_NO_TITLE;
+
+		if (description == null || description.trim().isEmpty())
+			return MSG_NO_DESCRIPTION;
+
+		int owner = titleOwner.applyAsInt(titel);
+		if (owner > 0 && owner != excludeId)
+			return MSG_DUPLICATE_TITLE;
+		return null; // OK
+	}
 }